@@ -0,0 +1,89 @@
+package application;
+
+import application.game.Game;
+import application.menu.SettingsView;
+import com.sun.management.ThreadMXBean;
+import javafx.stage.Stage;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class is used to check how much memory is allocated by a game loop in a steady state of a battle,
+ * so garbage collector pauses don't show up in battles. Standard battles are simulated on game views
+ * which are never displayed and bytes allocated in every tick are measured by ThreadMXBean.
+ * If any battle allocates more bytes per tick than a budget, application exits with an error status.
+ */
+public final class AllocationCheck {
+
+    private static final int WARM_UP_TICKS = 3000;
+    private static final int SETTLE_TICKS = 300;
+    private static final int MEASURED_TICKS = 600;
+    private static final int[] ENEMY_SHIPS_AMOUNTS = {1, SettingsView.MAX_SHIPS_AMOUNT};
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private AllocationCheck() {
+    }
+
+    /**
+     * Method used to run allocation check for all standard battles one after another.
+     * Application exits when check is finished, with status 1 if any battle was over budget.
+     *
+     * @param stage  JavaFX Stage class object
+     * @param width  width of game views
+     * @param height height of game views
+     * @param budget maximum allowed amount of bytes allocated in one tick
+     */
+    public static void run(Stage stage, double width, double height, long budget) {
+        boolean failed = false;
+        for (int enemyShipsAmount : ENEMY_SHIPS_AMOUNTS)
+            failed |= !check(stage, width, height, enemyShipsAmount, budget);
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * This method measures bytes allocated per tick in a battle with given amount of enemy ships.
+     * Game loop is warmed up by battles which aren't measured first, so code compiled by JIT is measured.
+     * First ticks of a measured battle aren't measured either, until enough cannon balls
+     * and explosions are created to be reused.
+     *
+     * @param stage            JavaFX Stage class object
+     * @param width            width of game views
+     * @param height           height of game views
+     * @param enemyShipsAmount amount of enemy ships in a battle
+     * @param budget           maximum allowed amount of bytes allocated in one tick
+     * @return true if battle allocated no more bytes per tick than a budget
+     */
+    private static boolean check(Stage stage, double width, double height, int enemyShipsAmount, long budget) {
+        long warmUpTicks = 0;
+        while (warmUpTicks < WARM_UP_TICKS) {
+            Game warmUpGame = HeadlessGame.create(stage, width, height, enemyShipsAmount);
+            warmUpGame.simulate(WARM_UP_TICKS);
+            warmUpTicks += Math.max(1, warmUpGame.getTickCount());
+            warmUpGame.dispose();
+        }
+
+        Game game = HeadlessGame.create(stage, width, height, enemyShipsAmount);
+        game.simulate(SETTLE_TICKS);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long ticksBefore = game.getTickCount();
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        game.simulate(MEASURED_TICKS);
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        long measuredTicks = game.getTickCount() - ticksBefore;
+        game.dispose();
+
+        if (measuredTicks == 0) {
+            System.err.println("Allocation check, " + enemyShipsAmount + " enemy ships: battle ended before "
+                    + SETTLE_TICKS + " ticks");
+            return false;
+        }
+        long bytesPerTick = allocatedBytes / measuredTicks;
+        boolean withinBudget = bytesPerTick <= budget;
+        (withinBudget ? System.out : System.err).println("Allocation check, " + enemyShipsAmount
+                + " enemy ships: " + bytesPerTick + " bytes per tick in " + measuredTicks
+                + " ticks, budget " + budget + (withinBudget ? "" : " - FAILED"));
+        return withinBudget;
+    }
+}
@@ -0,0 +1,180 @@
+package application;
+
+import application.game.GameModels;
+import application.menu.MenuModels;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.text.Font;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is used to load images and fonts of the application only once and share them.
+ * Assets can be decoded in parallel on background threads while the menu is displayed,
+ * so they don't have to be loaded on JavaFX application thread when they are first used.
+ * If a texture atlas packed by AtlasPacker is available, images are taken from it instead of
+ * decoding their files, and sprites are drawn from one atlas image.
+ */
+public final class Assets {
+
+    public static final String ATLAS_PROPERTY = "ships.atlas";
+    private static final String ATLAS_URL = "/application/resources/sprites.atlas";
+    private static final double[] FONT_SIZES = {10, 25, 30, 50};
+
+    private static volatile TextureAtlas atlas;
+    private static volatile boolean atlasLoaded = false;
+
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+    private static final Map<Double, Font> fonts = new ConcurrentHashMap<>();
+    private static final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private Assets() {
+    }
+
+    /**
+     * Method used to start decoding all game and menu assets on a background executor.
+     * Images packed in a texture atlas don't have to be decoded, so only the atlas is loaded for them.
+     * Progress of loading is published on JavaFX application thread.
+     */
+    public static void preload() {
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(Assets::getAtlas);
+        for (GameModels model : GameModels.values()) tasks.add(() -> preloadImage(model.getUrl()));
+        for (MenuModels model : MenuModels.values())
+            if (model != MenuModels.FONT) tasks.add(() -> preloadImage(model.getUrl()));
+        for (double size : FONT_SIZES) tasks.add(() -> getFont(size));
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors())), runnable -> {
+                    Thread thread = new Thread(runnable, "asset-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger loaded = new AtomicInteger();
+        for (Runnable task : tasks) {
+            executor.execute(() -> {
+                task.run();
+                double done = (double) loaded.incrementAndGet() / tasks.size();
+                Platform.runLater(() -> progress.set(Math.max(progress.get(), done)));
+            });
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Getter for a decoded image. If image hasn't been preloaded yet it's loaded synchronously.
+     *
+     * @param url url of an image in project's "resources" package
+     * @return shared image object
+     */
+    public static Image getImage(String url) {
+        return images.computeIfAbsent(url, key -> {
+            TextureAtlas textureAtlas = getAtlas();
+            return textureAtlas != null && textureAtlas.contains(key) ? textureAtlas.crop(key) : new Image(key);
+        });
+    }
+
+    /**
+     * This method decodes an image in background, unless it's packed in a texture atlas
+     * and will be copied from it only if it's needed.
+     *
+     * @param url url of an image in project's "resources" package
+     */
+    private static void preloadImage(String url) {
+        TextureAtlas textureAtlas = getAtlas();
+        if (textureAtlas == null || !textureAtlas.contains(url)) getImage(url);
+    }
+
+    /**
+     * Method used to display an image in an image view. If an image is packed in a texture atlas,
+     * view shows a rectangle of an atlas image, so all sprites are drawn from the same image.
+     * Otherwise view shows a separately decoded image.
+     *
+     * @param view image view which displays an image
+     * @param url  url of an image in project's "resources" package
+     */
+    public static void setSprite(ImageView view, String url) {
+        TextureAtlas textureAtlas = getAtlas();
+        if (textureAtlas != null && textureAtlas.contains(url)) {
+            view.setImage(textureAtlas.getImage());
+            view.setViewport(textureAtlas.getViewport(url));
+        } else {
+            view.setImage(getImage(url));
+            view.setViewport(null);
+        }
+    }
+
+    /**
+     * Getter for a texture atlas, which is loaded when it's needed for the first time. Atlas file is given in
+     * "ships.atlas" system property, by default "sprites.atlas" in project's "resources" package is used
+     * if it has been packed. Atlas file is mapped into memory, unless it's packed in a jar.
+     *
+     * @return loaded atlas or null if there is no atlas or it can't be loaded
+     */
+    public static TextureAtlas getAtlas() {
+        if (!atlasLoaded) loadAtlas();
+        return atlas;
+    }
+
+    /**
+     * This method loads a texture atlas once, even if many threads need it at the same time.
+     */
+    private static synchronized void loadAtlas() {
+        if (atlasLoaded) return;
+        String property = System.getProperty(ATLAS_PROPERTY);
+        URL url = Assets.class.getResource(ATLAS_URL);
+        try {
+            if (property != null) {
+                atlas = TextureAtlas.load(Paths.get(property));
+            } else if (url != null && url.getProtocol().equals("file")) {
+                atlas = TextureAtlas.load(Path.of(url.toURI()));
+            } else if (url != null) {
+                try (InputStream in = url.openStream()) {
+                    atlas = TextureAtlas.load(in, ATLAS_URL);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Texture atlas couldn't be loaded, images are decoded separately: " + e.getMessage());
+        }
+        atlasLoaded = true;
+    }
+
+    /**
+     * Getter for the main font of the application in a given size.
+     * If font hasn't been preloaded yet it's loaded synchronously.
+     *
+     * @param size size of a font
+     * @return shared font object
+     */
+    public static Font getFont(double size) {
+        return fonts.computeIfAbsent(size, s ->
+                Font.loadFont(Assets.class.getResourceAsStream(MenuModels.FONT.getUrl()), s));
+    }
+
+    /**
+     * Getter for progress of preloading assets.
+     *
+     * @return property with value from 0 to 1, which is 1 when all assets are loaded
+     */
+    public static ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+}
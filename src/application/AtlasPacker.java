@@ -0,0 +1,287 @@
+package application;
+
+import application.game.GameModels;
+import application.menu.MenuModels;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class is used as a build step which packs images of all game and menu models into one texture atlas file,
+ * which is loaded by TextureAtlas instead of decoding every image separately. Sprites are placed on shelves
+ * sorted by height, with a border of copied edge pixels around each of them, so a scaled sprite doesn't take
+ * color of it's neighbours. Atlas width is chosen from powers of two, so the whole atlas has the smallest area.
+ * Pixels are stored already decoded as premultiplied BGRA bytes, which JavaFX can display directly from
+ * a mapped file, or optionally compressed as one PNG image, which takes less space but has to be decoded.
+ * <p>
+ * Header: magic number, version, encoding, width and height of an atlas, amount of sprites, offset and length
+ * of pixels. Then every sprite: it's url and it's rectangle in an atlas. Then pixels, aligned to 64 bytes.
+ */
+public final class AtlasPacker {
+
+    public static final String OUTPUT_PROPERTY = "ships.packAtlas";
+    private static final String COMPRESSED_PROPERTY = "ships.packAtlasCompressed";
+
+    public static final int MAGIC = 0x5341544C;
+    public static final int VERSION = 1;
+    public static final int RAW_ENCODING = 0;
+    public static final int PNG_ENCODING = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int DATA_ALIGNMENT = 64;
+
+    private static final int PADDING = 1;
+    private static final int MAX_WIDTH = 4096;
+
+    /**
+     * Class storing an image of a sprite and it's position in an atlas.
+     */
+    private static class Sprite {
+        private String url;
+        private BufferedImage image;
+        private int x;
+        private int y;
+
+        /**
+         * Constructor creating a sprite which isn't placed yet.
+         *
+         * @param url   url of an image in project's "resources" package
+         * @param image decoded image with premultiplied colors
+         */
+        private Sprite(String url, BufferedImage image) {
+            this.url = url;
+            this.image = image;
+        }
+    }
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private AtlasPacker() {
+    }
+
+    /**
+     * Method used to pack an atlas into a file given in "ships.packAtlas" system property.
+     * If "ships.packAtlasCompressed" property is true, pixels are stored as a PNG image.
+     *
+     * @return true if an atlas was saved
+     */
+    public static boolean run() {
+        System.setProperty("java.awt.headless", "true");
+        Path output = Paths.get(System.getProperty(OUTPUT_PROPERTY));
+        boolean compressed = Boolean.getBoolean(COMPRESSED_PROPERTY);
+        try {
+            List<Sprite> sprites = new ArrayList<>();
+            for (GameModels model : GameModels.values()) addSprite(sprites, model.getUrl());
+            for (MenuModels model : MenuModels.values())
+                if (model != MenuModels.FONT) addSprite(sprites, model.getUrl());
+            int width = place(sprites);
+            BufferedImage atlas = draw(sprites, width);
+            write(output, sprites, atlas, compressed);
+            System.out.println("Packed " + sprites.size() + " sprites into " + atlas.getWidth() + "x"
+                    + atlas.getHeight() + " atlas " + output + " (" + Files.size(output) / 1024 + " KB)");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Atlas " + output + " couldn't be packed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method decodes an image and adds it to packed sprites, unless it's already added,
+     * because game and menu can use the same image.
+     *
+     * @param sprites packed sprites
+     * @param url     url of an image in project's "resources" package
+     * @throws IOException if an image can't be read
+     */
+    private static void addSprite(List<Sprite> sprites, String url) throws IOException {
+        for (Sprite sprite : sprites)
+            if (sprite.url.equals(url)) return;
+        BufferedImage decoded;
+        try (InputStream in = AtlasPacker.class.getResourceAsStream(url)) {
+            if (in == null) throw new IOException("image " + url + " couldn't be found");
+            decoded = ImageIO.read(in);
+        }
+        BufferedImage image = new BufferedImage(decoded.getWidth(), decoded.getHeight(),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(decoded, 0, 0, null);
+        graphics.dispose();
+        sprites.add(new Sprite(url, image));
+    }
+
+    /**
+     * This method places sprites on shelves for every power of two width which fits the widest sprite,
+     * and keeps positions for the width with the smallest atlas area.
+     *
+     * @param sprites packed sprites
+     * @return width of an atlas
+     */
+    private static int place(List<Sprite> sprites) {
+        sprites.sort(Comparator.comparingInt((Sprite sprite) -> sprite.image.getHeight()).reversed());
+        int widest = 0;
+        for (Sprite sprite : sprites) widest = Math.max(widest, sprite.image.getWidth() + 2 * PADDING);
+        int bestWidth = 0;
+        long bestArea = Long.MAX_VALUE;
+        for (int width = Integer.highestOneBit(widest - 1) * 2; width <= MAX_WIDTH; width *= 2) {
+            long area = (long) width * placeOnShelves(sprites, width);
+            if (area < bestArea) {
+                bestArea = area;
+                bestWidth = width;
+            }
+        }
+        placeOnShelves(sprites, bestWidth);
+        return bestWidth;
+    }
+
+    /**
+     * This method places sprites sorted by height in rows from left to right, starting a new row
+     * when a sprite doesn't fit in a current one.
+     *
+     * @param sprites packed sprites sorted from the highest
+     * @param width   width of an atlas
+     * @return height of an atlas
+     */
+    private static int placeOnShelves(List<Sprite> sprites, int width) {
+        int x = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (Sprite sprite : sprites) {
+            int spriteWidth = sprite.image.getWidth() + 2 * PADDING;
+            if (x + spriteWidth > width) {
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+                x = 0;
+            }
+            sprite.x = x + PADDING;
+            sprite.y = shelfY + PADDING;
+            x += spriteWidth;
+            shelfHeight = Math.max(shelfHeight, sprite.image.getHeight() + 2 * PADDING);
+        }
+        return shelfY + shelfHeight;
+    }
+
+    /**
+     * This method draws placed sprites into an atlas image and copies their edge pixels into their borders.
+     *
+     * @param sprites placed sprites
+     * @param width   width of an atlas
+     * @return atlas image with premultiplied colors
+     */
+    private static BufferedImage draw(List<Sprite> sprites, int width) {
+        int height = 0;
+        for (Sprite sprite : sprites) height = Math.max(height, sprite.y + sprite.image.getHeight() + PADDING);
+        BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        for (Sprite sprite : sprites) {
+            int spriteWidth = sprite.image.getWidth();
+            int spriteHeight = sprite.image.getHeight();
+            for (int y = -PADDING; y < spriteHeight + PADDING; y++) {
+                for (int x = -PADDING; x < spriteWidth + PADDING; x++) {
+                    int sourceX = Math.min(Math.max(x, 0), spriteWidth - 1);
+                    int sourceY = Math.min(Math.max(y, 0), spriteHeight - 1);
+                    atlas.getRaster().setDataElements(sprite.x + x, sprite.y + y,
+                            sprite.image.getRaster().getDataElements(sourceX, sourceY, null));
+                }
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * This method writes an atlas file with an index of sprites and pixels of an atlas.
+     *
+     * @param output     path of an atlas file
+     * @param sprites    placed sprites
+     * @param atlas      atlas image with premultiplied colors
+     * @param compressed true if pixels are stored as a PNG image
+     * @throws IOException if a file can't be written
+     */
+    private static void write(Path output, List<Sprite> sprites, BufferedImage atlas, boolean compressed)
+            throws IOException {
+        int indexSize = 0;
+        for (Sprite sprite : sprites) indexSize += Short.BYTES + urlBytes(sprite).length + 4 * Short.BYTES;
+        int dataOffset = (HEADER_SIZE + indexSize + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+        byte[] data = compressed ? encodePng(atlas) : encodeRaw(atlas);
+
+        ByteBuffer index = ByteBuffer.allocate(dataOffset);
+        index.putInt(MAGIC).putInt(VERSION).putInt(compressed ? PNG_ENCODING : RAW_ENCODING)
+                .putInt(atlas.getWidth()).putInt(atlas.getHeight()).putInt(sprites.size())
+                .putInt(dataOffset).putInt(data.length);
+        for (Sprite sprite : sprites) {
+            byte[] url = urlBytes(sprite);
+            index.putShort((short) url.length).put(url);
+            index.putShort((short) sprite.x).putShort((short) sprite.y)
+                    .putShort((short) sprite.image.getWidth()).putShort((short) sprite.image.getHeight());
+        }
+        index.clear();
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) channel.write(index);
+            ByteBuffer pixels = ByteBuffer.wrap(data);
+            while (pixels.hasRemaining()) channel.write(pixels);
+        }
+    }
+
+    /**
+     * This method converts pixels of an atlas into premultiplied BGRA bytes, row after row.
+     *
+     * @param atlas atlas image with premultiplied colors
+     * @return bytes of pixels
+     */
+    private static byte[] encodeRaw(BufferedImage atlas) {
+        int[] argb = new int[atlas.getWidth() * atlas.getHeight()];
+        atlas.getRaster().getDataElements(0, 0, atlas.getWidth(), atlas.getHeight(), argb);
+        byte[] bgra = new byte[4 * argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            bgra[4 * i] = (byte) argb[i];
+            bgra[4 * i + 1] = (byte) (argb[i] >> 8);
+            bgra[4 * i + 2] = (byte) (argb[i] >> 16);
+            bgra[4 * i + 3] = (byte) (argb[i] >>> 24);
+        }
+        return bgra;
+    }
+
+    /**
+     * This method compresses an atlas into a PNG image.
+     *
+     * @param atlas atlas image with premultiplied colors
+     * @return bytes of a PNG image
+     * @throws IOException if an image can't be encoded
+     */
+    private static byte[] encodePng(BufferedImage atlas) throws IOException {
+        BufferedImage image = new BufferedImage(atlas.getWidth(), atlas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(atlas, 0, 0, null);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * This method encodes url of a sprite as it's stored in an atlas index.
+     *
+     * @param sprite placed sprite
+     * @return UTF-8 bytes of an url
+     */
+    private static byte[] urlBytes(Sprite sprite) {
+        return sprite.url.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package application;
+
+import application.game.Game;
+import application.game.GameView;
+import javafx.stage.Stage;
+
+/**
+ * This class is used to create games on game views which are never displayed, so a game loop can be simulated
+ * as fast as possible by checks, benchmarks and a warm-up of a game loop.
+ */
+final class HeadlessGame {
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private HeadlessGame() {
+    }
+
+    /**
+     * Method used to create a standard battle with given amount of enemy ships on a game view
+     * which is never displayed. Game has to be disposed after it's simulated.
+     *
+     * @param stage            JavaFX Stage class object
+     * @param width            width of a game view
+     * @param height           height of a game view
+     * @param enemyShipsAmount amount of enemy ships in a game
+     * @return game which has been set up
+     */
+    static Game create(Stage stage, double width, double height, int enemyShipsAmount) {
+        return create(stage, width, height, enemyShipsAmount, false);
+    }
+
+    /**
+     * Method used to create a battle or a survival match with given amount of enemy ships on a game view
+     * which is never displayed. Game has to be disposed after it's simulated.
+     *
+     * @param stage            JavaFX Stage class object
+     * @param width            width of a game view
+     * @param height           height of a game view
+     * @param enemyShipsAmount amount of enemy ships in a game
+     * @param survival         true if a survival match should be created
+     * @return game which has been set up
+     */
+    static Game create(Stage stage, double width, double height, int enemyShipsAmount, boolean survival) {
+        Game game = new Game(new GameView(stage, width, height), enemyShipsAmount);
+        game.setSurvival(survival);
+        game.setup();
+        return game;
+    }
+
+    /**
+     * Method used to simulate a game for given amount of ticks, bringing a player ship back
+     * whenever it's destroyed, so a battle doesn't end before it.
+     *
+     * @param game  simulated game
+     * @param ticks amount of ticks
+     * @return how many times a player ship was destroyed
+     */
+    static int simulate(Game game, long ticks) {
+        long end = game.getTickCount() + ticks;
+        int deaths = 0;
+        while (game.getTickCount() < end) {
+            game.simulate((int) Math.min(Integer.MAX_VALUE, end - game.getTickCount()));
+            if (game.respawnPlayer()) deaths++;
+            else if (game.getTickCount() < end) break;
+        }
+        return deaths;
+    }
+}
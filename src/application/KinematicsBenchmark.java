@@ -0,0 +1,121 @@
+package application;
+
+import application.game.ProjectileKinematics;
+
+import java.util.Random;
+
+/**
+ * This class is used to compare the scalar loop integrating cannon balls with the one vectorized by Java Vector API
+ * for growing amounts of cannon balls. Both loops are warmed up first, so only code compiled by JIT is measured,
+ * and then they are measured in turns in a few rounds, keeping the fastest round of each loop.
+ * Both loops start from the same cannon balls, so their final positions have to be the same.
+ */
+public final class KinematicsBenchmark {
+
+    public static final String TICKS_PROPERTY = "ships.kinematicsBenchmark";
+
+    private static final int[] CANNON_BALLS_AMOUNTS = {1_000, 10_000, 100_000};
+    private static final int WARM_UP_CANNON_BALLS = 1_000;
+    private static final int WARM_UP_TICKS = 50_000;
+    private static final int ROUNDS = 5;
+    private static final double AREA_WIDTH = 1600;
+    private static final double AREA_HEIGHT = 900;
+    private static final long SEED = 42;
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private KinematicsBenchmark() {
+    }
+
+    /**
+     * Method used to run a benchmark for all amounts of cannon balls one after another.
+     *
+     * @param ticks amount of measured ticks in every round
+     * @return true if both loops computed the same positions for every amount of cannon balls
+     */
+    public static boolean run(int ticks) {
+        boolean vectorized = ProjectileKinematics.isVectorized();
+        if (!vectorized) System.out.println("Kinematics benchmark: Vector API isn't available, "
+                + "run with --add-modules jdk.incubator.vector to compare both loops");
+        ProjectileKinematics scalar = createKinematics(WARM_UP_CANNON_BALLS);
+        ProjectileKinematics vector = createKinematics(WARM_UP_CANNON_BALLS);
+        integrate(scalar, WARM_UP_TICKS, false);
+        integrate(vector, WARM_UP_TICKS, vectorized);
+
+        boolean same = true;
+        for (int cannonBallsAmount : CANNON_BALLS_AMOUNTS) {
+            scalar = createKinematics(cannonBallsAmount);
+            vector = createKinematics(cannonBallsAmount);
+            long scalarNanos = Long.MAX_VALUE;
+            long vectorNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                scalarNanos = Math.min(scalarNanos, integrate(scalar, ticks, false));
+                vectorNanos = Math.min(vectorNanos, integrate(vector, ticks, vectorized));
+            }
+            double scalarChecksum = checksum(scalar);
+            double vectorChecksum = checksum(vector);
+            same &= scalarChecksum == vectorChecksum;
+
+            double updates = (double) cannonBallsAmount * ticks;
+            if (!vectorized) {
+                System.out.printf("Kinematics benchmark, %d cannon balls: scalar %.3f ns per cannon ball,"
+                                + " tick %.1f us, checksum %.1f%n", cannonBallsAmount, scalarNanos / updates,
+                        scalarNanos / 1e3 / ticks, scalarChecksum);
+                continue;
+            }
+            System.out.printf("Kinematics benchmark, %d cannon balls: scalar %.3f ns, vector %.3f ns"
+                            + " per cannon ball, %.2fx faster, tick %.1f us and %.1f us, checksum %.1f%s%n",
+                    cannonBallsAmount, scalarNanos / updates, vectorNanos / updates,
+                    (double) scalarNanos / vectorNanos, scalarNanos / 1e3 / ticks, vectorNanos / 1e3 / ticks,
+                    scalarChecksum, scalarChecksum == vectorChecksum ? "" : " - loops differ " + vectorChecksum);
+        }
+        return same;
+    }
+
+    /**
+     * This method creates kinematics with given amount of cannon balls in random places of a game scene,
+     * flying in random directions. Kinematics created with the same amount hold the same cannon balls.
+     *
+     * @param cannonBallsAmount amount of cannon balls
+     * @return kinematics sized for all cannon balls
+     */
+    private static ProjectileKinematics createKinematics(int cannonBallsAmount) {
+        Random random = new Random(SEED);
+        ProjectileKinematics kinematics = new ProjectileKinematics(cannonBallsAmount);
+        for (int i = 0; i < cannonBallsAmount; i++) {
+            double angle = 2 * Math.PI * random.nextDouble();
+            kinematics.add(null, AREA_WIDTH * random.nextDouble(), AREA_HEIGHT * random.nextDouble(),
+                    10 * Math.cos(angle), 10 * Math.sin(angle));
+        }
+        return kinematics;
+    }
+
+    /**
+     * This method integrates all cannon balls for given amount of ticks.
+     *
+     * @param kinematics integrated cannon balls
+     * @param ticks      amount of ticks
+     * @param vectorized true if SIMD instructions should be used
+     * @return time of all ticks in nanoseconds
+     */
+    private static long integrate(ProjectileKinematics kinematics, int ticks, boolean vectorized) {
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) kinematics.integrate(AREA_WIDTH, AREA_HEIGHT, vectorized);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * This method sums positions of all cannon balls and counts ones outside of a game scene,
+     * so results of both loops can be compared and their work is used.
+     *
+     * @param kinematics integrated cannon balls
+     * @return sum of positions and amount of cannon balls outside of a game scene
+     */
+    private static double checksum(ProjectileKinematics kinematics) {
+        double sum = 0;
+        for (int i = 0; i < kinematics.size(); i++)
+            sum += kinematics.getPosX(i) + kinematics.getPosY(i) + (kinematics.isOutside(i) ? 1 : 0);
+        return sum;
+    }
+}
@@ -2,11 +2,18 @@ package application;
 
 import application.game.Game;
 import application.game.GameView;
+import application.game.MatchHistory;
 import application.menu.MenuView;
+import application.menu.SettingsView;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Rectangle2D;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 /**
  * Main is the main class of JavaFX used to launch graphic java application.
@@ -15,15 +22,26 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
+    private static final int WARM_UP_TICKS = 3000;
+    private static final long WARM_UP_FRAME_NANOS = 4_000_000;
+    private static final int WARM_UP_FRAME_RATE = 60;
+
     private double WIDTH;
     private double HEIGHT;
     public static Game game;
     public static MenuView menuView;
     public static GameView gameView;
+    public static MatchHistory matchHistory;
+    private Timeline warmUpTimeline;
 
     /**
      * JavaFX start method required to launch JavaFX application.
-     * Sets stage for application and shows it's menu.
+     * Sets stage for application, starts loading assets in background and shows it's menu.
+     * If "ships.warmup" system property is set, game loop is warmed up after menu is displayed.
+     * If "ships.allocationBudget" system property is set, only allocation check of a game loop is run.
+     * If "ships.soak" system property is set, only a survival match of given amount of minutes is simulated.
+     * If "ships.steeringBenchmark" system property is set, only fleet steering of growing fleets is measured.
+     * Otherwise match history is opened, so results of finished matches are saved.
      *
      * @param stage JavaFX Stage class object
      * @throws Exception Standard JavaFX start method exception
@@ -31,8 +49,64 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         setStage(stage);
+        Long allocationBudget = Long.getLong("ships.allocationBudget");
+        if (allocationBudget != null) {
+            AllocationCheck.run(stage, WIDTH, HEIGHT, allocationBudget);
+            return;
+        }
+        Integer soakMinutes = Integer.getInteger(SurvivalSoak.MINUTES_PROPERTY);
+        if (soakMinutes != null) {
+            SurvivalSoak.run(stage, WIDTH, HEIGHT, soakMinutes);
+            return;
+        }
+        Integer steeringTicks = Integer.getInteger(SteeringBenchmark.TICKS_PROPERTY);
+        if (steeringTicks != null) {
+            SteeringBenchmark.run(stage, WIDTH, HEIGHT, steeringTicks);
+            return;
+        }
+        matchHistory = MatchHistory.openDefault();
+        Assets.preload();
         menuView = new MenuView(stage, WIDTH, HEIGHT);
         menuView.show();
+        if (Boolean.getBoolean("ships.warmup")) Platform.runLater(() -> warmUp(stage));
+    }
+
+    /**
+     * JavaFX stop method called when application is closed.
+     * Match history is closed, so all saved results are written to disk.
+     */
+    @Override
+    public void stop() {
+        if (matchHistory != null) matchHistory.close();
+    }
+
+    /**
+     * Runs a game with maximum amount of enemy ships on a game view which is never displayed,
+     * so game loop code gets compiled by JIT before the first real battle frame.
+     * Game is set up in one frame and then simulated in the next ones, only for a few milliseconds
+     * in every frame, so menu stays responsive while game loop is warmed up. Before JIT compiles a game loop
+     * it's slow, so first frames simulate only one tick each. Warm-up stops early when a battle is started
+     * or a warm-up battle ends.
+     *
+     * @param stage JavaFX Stage class object
+     */
+    private void warmUp(Stage stage) {
+        Game warmUpGame = HeadlessGame.create(stage, WIDTH, HEIGHT, SettingsView.MAX_SHIPS_AMOUNT);
+        KeyFrame oneFrame = new KeyFrame(Duration.millis(1000.0 / WARM_UP_FRAME_RATE), e -> {
+            long frameStart = System.nanoTime();
+            long ticks = warmUpGame.getTickCount();
+            if (ticks < WARM_UP_TICKS && (game == null || !game.isRunning())) {
+                do warmUpGame.simulate(1);
+                while (warmUpGame.getTickCount() < WARM_UP_TICKS
+                        && System.nanoTime() - frameStart < WARM_UP_FRAME_NANOS);
+                if (warmUpGame.getTickCount() > ticks) return;
+            }
+            warmUpTimeline.stop();
+            warmUpGame.dispose();
+        });
+        warmUpTimeline = new Timeline(WARM_UP_FRAME_RATE, oneFrame);
+        warmUpTimeline.setCycleCount(Animation.INDEFINITE);
+        warmUpTimeline.play();
     }
 
     /**
@@ -49,11 +123,25 @@ public class Main extends Application {
     }
 
     /**
-     * Method required to launch JavaFX application
+     * Method required to launch JavaFX application.
+     * If "ships.renderReplay" system property is set, only a recorded match is rendered to images
+     * and JavaFX application isn't launched. If "ships.packAtlas" system property is set,
+     * only a texture atlas of all images is packed. If "ships.kinematicsBenchmark" system property is set,
+     * only scalar and vectorized integration of cannon balls are compared.
      *
      * @param args Arguments used to launch JavaFX applications
      */
     public static void main(String[] args) {
+        if (System.getProperty(ReplayRenderer.REPLAY_PROPERTY) != null) {
+            System.exit(ReplayRenderer.run() ? 0 : 1);
+        }
+        if (System.getProperty(AtlasPacker.OUTPUT_PROPERTY) != null) {
+            System.exit(AtlasPacker.run() ? 0 : 1);
+        }
+        Integer kinematicsTicks = Integer.getInteger(KinematicsBenchmark.TICKS_PROPERTY);
+        if (kinematicsTicks != null) {
+            System.exit(KinematicsBenchmark.run(kinematicsTicks) ? 0 : 1);
+        }
         launch(args);
     }
 }
@@ -0,0 +1,291 @@
+package application;
+
+import application.game.GameModels;
+import application.game.Replay;
+import application.game.ReplayFrame;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.TexturePaint;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is used to render a recorded match to a sequence of PNG images without displaying any window.
+ * Frames are drawn with Java 2D into off-screen images in any resolution, so JavaFX isn't started at all.
+ * Every worker of a pool takes next frames of a replay, draws them into it's own image on top of
+ * a background with water and islands drawn once, and encodes them to PNG files, so both drawing and
+ * encoding are spread over all processor cores. Images of models are decoded once and shared by workers.
+ */
+public final class ReplayRenderer {
+
+    public static final String REPLAY_PROPERTY = "ships.renderReplay";
+    private static final String OUTPUT_PROPERTY = "ships.renderOutput";
+    private static final String WIDTH_PROPERTY = "ships.renderWidth";
+    private static final String HEIGHT_PROPERTY = "ships.renderHeight";
+    private static final String THREADS_PROPERTY = "ships.renderThreads";
+
+    private static final float PNG_COMPRESSION_QUALITY = 0.85f;
+    private static final Color ISLAND_COLOR = new Color(222, 196, 140);
+    private static final Color ISLAND_SHORE_COLOR = new Color(90, 140, 70);
+    private static final Color REEF_COLOR = new Color(120, 170, 160, 153);
+    private static final GameModels[] EXPLOSION_FRAMES = {GameModels.EXPLOSION1, GameModels.EXPLOSION2,
+            GameModels.EXPLOSION3};
+
+    private Replay replay;
+    private Path outputDirectory;
+    private int width;
+    private int height;
+    private BufferedImage[] models = new BufferedImage[GameModels.values().length];
+    private BufferedImage background;
+    private AtomicInteger nextFrame = new AtomicInteger();
+
+    /**
+     * Constructor preparing rendering of a replay in given resolution.
+     *
+     * @param replay          replay to render
+     * @param outputDirectory directory in which images of frames are saved
+     * @param width           width of rendered images
+     * @param height          height of rendered images
+     * @throws IOException if images of models can't be read
+     */
+    private ReplayRenderer(Replay replay, Path outputDirectory, int width, int height) throws IOException {
+        this.replay = replay;
+        this.outputDirectory = outputDirectory;
+        this.width = width;
+        this.height = height;
+        for (GameModels model : GameModels.values()) models[model.ordinal()] = loadImage(model.getUrl());
+        background = createBackground();
+    }
+
+    /**
+     * Method used to render a replay given in "ships.renderReplay" system property.
+     * Images are saved in a directory given in "ships.renderOutput" property, by default next to a replay.
+     * Resolution is given in "ships.renderWidth" and "ships.renderHeight" properties, by default
+     * a resolution of a recorded game scene is used, and if only width is given height keeps proportions.
+     * Amount of workers is given in "ships.renderThreads" property, by default all processors are used.
+     * Speed of rendering is reported when all frames are saved.
+     *
+     * @return true if all frames were rendered
+     */
+    public static boolean run() {
+        System.setProperty("java.awt.headless", "true");
+        Path replayFile = Paths.get(System.getProperty(REPLAY_PROPERTY));
+        String fileName = replayFile.getFileName().toString().replaceFirst("\\.replay$", "");
+        Path outputDirectory = Paths.get(System.getProperty(OUTPUT_PROPERTY,
+                replayFile.resolveSibling(fileName + "-frames").toString()));
+        int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        try {
+            Replay replay = Replay.load(replayFile);
+            int width = Integer.getInteger(WIDTH_PROPERTY, (int) replay.getWidth());
+            int height = Integer.getInteger(HEIGHT_PROPERTY,
+                    (int) Math.round(width * replay.getHeight() / replay.getWidth()));
+            Files.createDirectories(outputDirectory);
+            new ReplayRenderer(replay, outputDirectory, width, height).render(Math.max(1, threads));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Replay " + replayFile + " couldn't be rendered: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method renders all frames of a replay on a pool of workers and reports how fast they were rendered.
+     *
+     * @param threads amount of workers
+     * @throws IOException if any frame couldn't be saved
+     */
+    private void render(int threads) throws IOException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "replay-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) workers.add(executor.submit(this::renderFrames));
+        executor.shutdown();
+        try {
+            for (Future<Void> worker : workers) worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("rendering was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double framesPerSecond = replay.getFramesCount() / seconds;
+        System.out.printf("Rendered %d frames in %dx%d to %s in %.1f s: %.1f frames per second, %.2fx real time%n",
+                replay.getFramesCount(), width, height, outputDirectory, seconds, framesPerSecond,
+                framesPerSecond / replay.getFrameRate());
+    }
+
+    /**
+     * Work of a single worker, which renders and saves next frames of a replay until all of them are taken.
+     *
+     * @return nothing, declared so a worker can throw exceptions
+     * @throws IOException if a frame couldn't be saved
+     */
+    private Void renderFrames() throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        AffineTransform sceneTransform = AffineTransform.getScaleInstance(width / replay.getWidth(),
+                height / replay.getHeight());
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam parameters = writer.getDefaultWriteParam();
+        parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        parameters.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+        ReplayFrame frame = new ReplayFrame();
+        try {
+            for (int i = nextFrame.getAndIncrement(); i < replay.getFramesCount(); i = nextFrame.getAndIncrement()) {
+                replay.readFrame(i, frame);
+                graphics.setTransform(new AffineTransform());
+                graphics.drawImage(background, 0, 0, null);
+                graphics.setTransform(sceneTransform);
+                drawFrame(graphics, frame);
+                Path file = outputDirectory.resolve(String.format("frame-%06d.png", i));
+                Files.deleteIfExists(file);
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), parameters);
+                }
+            }
+        } finally {
+            writer.dispose();
+            graphics.dispose();
+        }
+        return null;
+    }
+
+    /**
+     * This method draws ships, cannon balls and explosions of a frame in coordinates of a game scene.
+     *
+     * @param graphics graphics of an image scaled from a game scene
+     * @param frame    frame of a replay
+     */
+    private void drawFrame(Graphics2D graphics, ReplayFrame frame) {
+        AffineTransform scene = graphics.getTransform();
+        for (int i = 0; i < frame.getShipsCount(); i++) {
+            double shipWidth = frame.getShipWidth(i);
+            double shipHeight = frame.getShipHeight(i);
+            graphics.translate(frame.getShipX(i), frame.getShipY(i));
+            graphics.rotate(Math.toRadians(frame.getShipAngle(i)));
+            graphics.translate(-shipWidth / 2, -shipHeight / 2);
+            graphics.scale(shipWidth / models[frame.getShipModel(i).ordinal()].getWidth(),
+                    shipHeight / models[frame.getShipModel(i).ordinal()].getHeight());
+            graphics.drawImage(models[frame.getShipModel(i).ordinal()], 0, 0, null);
+            graphics.setTransform(scene);
+        }
+        BufferedImage cannonBall = models[GameModels.CANNON_BALL.ordinal()];
+        for (int i = 0; i < frame.getCannonBallsCount(); i++) {
+            double radius = frame.getCannonBallRadius(i);
+            drawImage(graphics, cannonBall, frame.getCannonBallX(i) - radius, frame.getCannonBallY(i) - radius,
+                    2 * radius, 2 * radius);
+        }
+        for (int i = 0; i < frame.getExplosionsCount(); i++) {
+            double size = frame.getExplosionSize(i);
+            drawImage(graphics, models[EXPLOSION_FRAMES[frame.getExplosionFrame(i)].ordinal()],
+                    frame.getExplosionX(i) - size / 2, frame.getExplosionY(i) - size / 2, size, size);
+        }
+        graphics.setTransform(scene);
+    }
+
+    /**
+     * This method draws an image scaled to a given rectangle on a game scene.
+     *
+     * @param graphics graphics of an image scaled from a game scene
+     * @param image    drawn image
+     * @param x        X coordinate of a rectangle
+     * @param y        Y coordinate of a rectangle
+     * @param width    width of a rectangle
+     * @param height   height of a rectangle
+     */
+    private static void drawImage(Graphics2D graphics, BufferedImage image, double x, double y,
+                                  double width, double height) {
+        AffineTransform scene = graphics.getTransform();
+        graphics.translate(x, y);
+        graphics.scale(width / image.getWidth(), height / image.getHeight());
+        graphics.drawImage(image, 0, 0, null);
+        graphics.setTransform(scene);
+    }
+
+    /**
+     * This method draws water and islands of a replay once, so they are copied to every frame.
+     *
+     * @return image of a background in a rendered resolution
+     */
+    private BufferedImage createBackground() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.scale(width / replay.getWidth(), height / replay.getHeight());
+
+        BufferedImage water = models[GameModels.WATER_TILE.ordinal()];
+        graphics.setPaint(new TexturePaint(water, new Rectangle2D.Double(0, 0, water.getWidth(), water.getHeight())));
+        graphics.fill(new Rectangle2D.Double(0, 0, replay.getWidth(), replay.getHeight()));
+
+        graphics.setStroke(new BasicStroke(4, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        for (int i = 0; i < replay.getIslandsCount(); i++) {
+            double[] xs = replay.getIslandXs(i);
+            double[] ys = replay.getIslandYs(i);
+            Path2D polygon = new Path2D.Double();
+            polygon.moveTo(xs[0], ys[0]);
+            for (int v = 1; v < xs.length; v++) polygon.lineTo(xs[v], ys[v]);
+            polygon.closePath();
+            graphics.setColor(replay.isReef(i) ? REEF_COLOR : ISLAND_COLOR);
+            graphics.fill(polygon);
+            if (replay.isReef(i)) continue;
+            graphics.setColor(ISLAND_SHORE_COLOR);
+            graphics.draw(polygon);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * This method decodes an image from project's "resources" package into a format which is drawn fast.
+     *
+     * @param url url of an image
+     * @return decoded image
+     * @throws IOException if image can't be read
+     */
+    private static BufferedImage loadImage(String url) throws IOException {
+        BufferedImage decoded;
+        try (InputStream in = ReplayRenderer.class.getResourceAsStream(url)) {
+            if (in == null) throw new IOException("image " + url + " couldn't be found");
+            decoded = ImageIO.read(in);
+        }
+        BufferedImage image = new BufferedImage(decoded.getWidth(), decoded.getHeight(),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(decoded, 0, 0, null);
+        graphics.dispose();
+        return image;
+    }
+}
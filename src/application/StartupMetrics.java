@@ -0,0 +1,48 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class is used to measure and report how long it takes to start the application:
+ * time from JVM start to the first display of the menu and time from pressing "PLAY"
+ * to the first frame of a battle.
+ */
+public final class StartupMetrics {
+
+    private static boolean menuReported = false;
+    private static long battleRequestedNanos = -1;
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private StartupMetrics() {
+    }
+
+    /**
+     * Method called when menu has been displayed. Time to menu is reported only once.
+     */
+    public static void menuShown() {
+        if (menuReported) return;
+        menuReported = true;
+        long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Time to menu: " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * Method called when player has requested a new battle.
+     */
+    public static void battleRequested() {
+        battleRequestedNanos = System.nanoTime();
+    }
+
+    /**
+     * Method called on every frame of a battle. Time to first frame is reported
+     * only for the first frame after a battle has been requested.
+     */
+    public static void battleFrame() {
+        if (battleRequestedNanos < 0) return;
+        System.out.println("Time to first battle frame: "
+                + (System.nanoTime() - battleRequestedNanos) / 1_000_000 + " ms");
+        battleRequestedNanos = -1;
+    }
+}
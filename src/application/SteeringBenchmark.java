@@ -0,0 +1,96 @@
+package application;
+
+import application.game.EnemyShip;
+import application.game.FleetSteering;
+import application.game.Game;
+import application.game.PlayerShip;
+import application.game.Ship;
+import javafx.stage.Stage;
+
+import java.util.List;
+
+/**
+ * This class is used to measure how much fleet steering costs per ship as fleets grow, so it can be checked
+ * that steering of one ship stays the same however many ships there are. Battles with growing fleets are
+ * simulated on game views which are never displayed, and which grow with a fleet, so there is room
+ * for rows of ships. After every simulated tick headings of all enemy ships are computed once more
+ * and timed, and time of whole ticks is measured as well. A player ship is brought back whenever it's destroyed.
+ * Sum of all computed headings is printed, so JIT can't leave out computing them.
+ */
+public final class SteeringBenchmark {
+
+    public static final String TICKS_PROPERTY = "ships.steeringBenchmark";
+
+    private static final int[] FLEET_SIZES = {10, 50, 100, 300};
+    private static final int STANDARD_FLEET_SIZE = 10;
+    private static final int WARM_UP_TICKS = 1200;
+    private static final double CANNON_RANGE = 400;
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private SteeringBenchmark() {
+    }
+
+    /**
+     * Method used to run a benchmark for all fleet sizes one after another. Application exits when it's finished.
+     *
+     * @param stage  JavaFX Stage class object
+     * @param width  width of a game view of a standard battle
+     * @param height height of a game view of a standard battle
+     * @param ticks  amount of measured ticks for every fleet size
+     */
+    public static void run(Stage stage, double width, double height, int ticks) {
+        for (int fleetSize : FLEET_SIZES) measure(stage, width, height, fleetSize, ticks);
+        System.exit(0);
+    }
+
+    /**
+     * This method measures steering and ticks of a battle with given amount of enemy ships.
+     * Game loop is warmed up by a battle which isn't measured first, so code compiled by JIT is measured,
+     * and then a new battle is measured from it's start, before many ships of a fleet are destroyed.
+     *
+     * @param stage     JavaFX Stage class object
+     * @param width     width of a game view of a standard battle
+     * @param height    height of a game view of a standard battle
+     * @param fleetSize amount of enemy ships in a battle
+     * @param ticks     amount of measured ticks
+     */
+    private static void measure(Stage stage, double width, double height, int fleetSize, int ticks) {
+        double scale = Math.sqrt(Math.max(1.0, (double) fleetSize / STANDARD_FLEET_SIZE));
+        Game warmUpGame = HeadlessGame.create(stage, width * scale, height * scale, fleetSize);
+        HeadlessGame.simulate(warmUpGame, WARM_UP_TICKS);
+        warmUpGame.dispose();
+
+        Game game = HeadlessGame.create(stage, width * scale, height * scale, fleetSize);
+
+        FleetSteering fleetSteering = game.getFleetSteering();
+        List<Ship> ships = game.getShips();
+        double headingsSum = 0;
+        long tickNanos = 0;
+        long steeringNanos = 0;
+        long steeredShips = 0;
+        long shipTicks = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            long start = System.nanoTime();
+            HeadlessGame.simulate(game, 1);
+            tickNanos += System.nanoTime() - start;
+            shipTicks += ships.size();
+            PlayerShip playerShip = game.getPlayerShip();
+            start = System.nanoTime();
+            for (int i = 0; i < ships.size(); i++) {
+                Ship ship = ships.get(i);
+                if (!(ship instanceof EnemyShip) || !ship.isAlive()) continue;
+                headingsSum += fleetSteering.heading(ship, playerShip, CANNON_RANGE);
+                steeredShips++;
+            }
+            steeringNanos += System.nanoTime() - start;
+        }
+        game.dispose();
+
+        System.out.printf("Steering benchmark, %d enemy ships (%d alive on average): steering %.0f ns per ship,"
+                        + " tick %.1f us, %.0f ns per ship, headings sum %.1f%n", fleetSize, steeredShips / ticks,
+                (double) steeringNanos / Math.max(steeredShips, 1), tickNanos / 1e3 / ticks,
+                (double) tickNanos / Math.max(shipTicks, 1), headingsSum);
+    }
+}
@@ -0,0 +1,55 @@
+package application;
+
+import application.game.Game;
+import application.game.LoadTracker;
+import application.menu.SettingsView;
+import javafx.stage.Stage;
+
+/**
+ * This class is used to run a long survival match as a sustained load of a game loop, so slow drift
+ * of tick times, memory leaks and growing garbage collection can be found before players find them.
+ * A match is simulated on a game view which is never displayed, as fast as possible. A player ship isn't
+ * controlled, so whenever it's destroyed it's brought back, and the match lasts as long as it's asked to.
+ * Every minute of a game a sample of the load tracker is printed, and at the end reports of a match,
+ * of simulation tiers and of AI scheduler are printed.
+ */
+public final class SurvivalSoak {
+
+    public static final String MINUTES_PROPERTY = "ships.soak";
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private SurvivalSoak() {
+    }
+
+    /**
+     * Method used to simulate a survival match with the biggest amount of enemy ships for given amount
+     * of minutes of a game. Application exits when a match is finished.
+     *
+     * @param stage   JavaFX Stage class object
+     * @param width   width of a game view
+     * @param height  height of a game view
+     * @param minutes length of a match in minutes of a game
+     */
+    public static void run(Stage stage, double width, double height, int minutes) {
+        Game game = HeadlessGame.create(stage, width, height, SettingsView.MAX_SHIPS_AMOUNT, true);
+        LoadTracker loadTracker = game.getLoadTracker();
+        long ticks = (long) minutes * LoadTracker.SAMPLE_TICKS;
+        int printedSamples = 0;
+        int deaths = 0;
+        long started = System.nanoTime();
+        while (game.getTickCount() < ticks) {
+            deaths += HeadlessGame.simulate(game, Math.min(LoadTracker.SAMPLE_TICKS, ticks - game.getTickCount()));
+            for (; printedSamples < loadTracker.getSamplesCount(); printedSamples++)
+                System.out.println(loadTracker.describeSample(printedSamples));
+        }
+        System.out.println(game.survivalReport());
+        System.out.println(game.getSimulationLod().report());
+        System.out.println(game.getAiScheduler().report());
+        System.out.println("Survival soak: " + minutes + " minutes of a game simulated in "
+                + (System.nanoTime() - started) / 1_000_000_000 + " s, player ship destroyed " + deaths + " times");
+        game.dispose();
+        System.exit(0);
+    }
+}
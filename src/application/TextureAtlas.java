@@ -0,0 +1,142 @@
+package application;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is used to load a texture atlas packed by AtlasPacker, so all sprites are drawn from one image.
+ * An atlas with decoded pixels is mapped into memory and wrapped by a JavaFX image without copying or
+ * decoding anything, so loading it costs only reading it's index. An atlas compressed as a PNG image
+ * is decoded once. Sprites are drawn by setting a rectangle of a sprite as a viewport of an image view.
+ */
+public final class TextureAtlas {
+
+    private Image image;
+    private Map<String, Rectangle2D> viewports = new HashMap<>();
+
+    /**
+     * Constructor reading an index of an atlas and creating an image of it's pixels.
+     *
+     * @param data contents of an atlas file
+     * @param name name of an atlas used in error messages
+     * @throws IOException if contents aren't a valid atlas
+     */
+    private TextureAtlas(ByteBuffer data, String name) throws IOException {
+        if (data.limit() < AtlasPacker.HEADER_SIZE || data.getInt(0) != AtlasPacker.MAGIC
+                || data.getInt(4) != AtlasPacker.VERSION) {
+            throw new IOException(name + " isn't a texture atlas");
+        }
+        int encoding = data.getInt(8);
+        int width = data.getInt(12);
+        int height = data.getInt(16);
+        int sprites = data.getInt(20);
+        int dataOffset = data.getInt(24);
+        int dataLength = data.getInt(28);
+        if ((long) dataOffset + dataLength > data.limit()) throw new IOException(name + " is truncated");
+
+        data.position(AtlasPacker.HEADER_SIZE);
+        for (int i = 0; i < sprites; i++) {
+            byte[] url = new byte[data.getShort()];
+            data.get(url);
+            viewports.put(new String(url, StandardCharsets.UTF_8),
+                    new Rectangle2D(data.getShort(), data.getShort(), data.getShort(), data.getShort()));
+        }
+        ByteBuffer pixels = data.position(dataOffset).slice().limit(dataLength);
+        if (encoding == AtlasPacker.RAW_ENCODING) {
+            if (dataLength != 4 * width * height) throw new IOException(name + " has wrong size of pixels");
+            image = new WritableImage(new PixelBuffer<>(width, height, pixels, PixelFormat.getByteBgraPreInstance()));
+        } else if (encoding == AtlasPacker.PNG_ENCODING) {
+            byte[] png = new byte[dataLength];
+            pixels.get(png);
+            image = new Image(new ByteArrayInputStream(png));
+            if (image.isError()) throw new IOException(name + " couldn't be decoded");
+        } else {
+            throw new IOException(name + " has unknown encoding " + encoding);
+        }
+    }
+
+    /**
+     * Method used to load an atlas from a file, which is mapped into memory.
+     *
+     * @param file path of an atlas file
+     * @return loaded atlas
+     * @throws IOException if a file can't be read or isn't a valid atlas
+     */
+    public static TextureAtlas load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TextureAtlas(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    /**
+     * Method used to load an atlas from a stream, for example of a resource packed in a jar,
+     * which can't be mapped. Contents are read into a direct buffer.
+     *
+     * @param in   stream with contents of an atlas
+     * @param name name of an atlas used in error messages
+     * @return loaded atlas
+     * @throws IOException if a stream can't be read or isn't a valid atlas
+     */
+    public static TextureAtlas load(InputStream in, String name) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes).clear();
+        return new TextureAtlas(data, name);
+    }
+
+    /**
+     * Getter to check whether an image is packed in an atlas.
+     *
+     * @param url url of an image in project's "resources" package
+     * @return true if an atlas contains an image
+     */
+    public boolean contains(String url) {
+        return viewports.containsKey(url);
+    }
+
+    /**
+     * Getter for an image of a whole atlas.
+     *
+     * @return image of an atlas
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Getter for a rectangle of a sprite in an atlas, which can be used as a viewport of an image view.
+     *
+     * @param url url of an image in project's "resources" package
+     * @return rectangle of a sprite or null if it isn't in an atlas
+     */
+    public Rectangle2D getViewport(String url) {
+        return viewports.get(url);
+    }
+
+    /**
+     * Method used to copy pixels of a sprite into a separate image, for images which are used where
+     * a viewport can't be set, for example as a background.
+     *
+     * @param url url of an image in project's "resources" package
+     * @return image of a sprite
+     */
+    public Image crop(String url) {
+        Rectangle2D viewport = viewports.get(url);
+        return new WritableImage(image.getPixelReader(), (int) viewport.getMinX(), (int) viewport.getMinY(),
+                (int) viewport.getWidth(), (int) viewport.getHeight());
+    }
+}
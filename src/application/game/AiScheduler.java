@@ -0,0 +1,348 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to spread decisions of enemy ships' AI across ticks of a game loop, so time spent
+ * on AI in one tick doesn't grow with amount of enemy ships. Every ship thinks on it's own cadence given
+ * by it's simulation tier, and between decisions it keeps following the last one.
+ * <p>
+ * After a ship thinks it's put into a bucket of a timing wheel for the tick in which it's due again,
+ * and in every tick the bucket of that tick is joined at the end of a queue of due ships, so ships wait
+ * in order of their due ticks. Ships are kept in intrusive linked lists, so joining a bucket and moving
+ * a ship between lists cost the same for any amount of ships. At most a fixed amount of ships think
+ * in one tick, which makes the budget of a tick, and ships which didn't fit wait at the front of the queue.
+ * <p>
+ * A ship is urgent when it's hit, when it can fire at a player or when it's about to run into another ship.
+ * Hits come from game events, other checks are made for a fixed slice of ships in every tick, taken
+ * in turns. Urgent ships think before due ones, but only in half of the budget, so due ships always get
+ * the other half and aren't starved by a big fleet which stays urgent.
+ * Which ships think depends only on ticks and cadences of ships, never on measured time.
+ */
+public class AiScheduler implements GameEventListener {
+
+    public static final String THINKS_PROPERTY = "ships.aiThinksPerTick";
+    public static final int NOT_SCHEDULED = -1;
+
+    private static final int DEFAULT_THINKS_PER_TICK = 8;
+    private static final int URGENCY_CHECKS_PER_TICK = 8;
+    private static final int WHEEL_TICKS = 64;
+    private static final int DUE_LIST = WHEEL_TICKS;
+    private static final int URGENT_LIST = WHEEL_TICKS + 1;
+    private static final int LISTS = WHEEL_TICKS + 2;
+    private static final int NONE = -1;
+
+    private Game game;
+    private int thinksPerTick;
+    private int urgentThinksPerTick;
+
+    private int[] heads = new int[LISTS];
+    private int[] tails = new int[LISTS];
+    private int[] counts = new int[LISTS];
+
+    private EnemyShip[] members = new EnemyShip[16];
+    private int[] next = new int[16];
+    private int[] previous = new int[16];
+    private int[] listOf = new int[16];
+    private long[] dueTicks = new long[16];
+    private long joinedTick = -1;
+    private int[] freeSlots = new int[16];
+    private int freeSlotsCount = 0;
+    private int slotsCount = 0;
+
+    private int[] active = new int[16];
+    private int[] activeIndices = new int[16];
+    private int activeCount = 0;
+    private int cursor = 0;
+
+    private long ticks;
+    private long thinks;
+    private long urgentThinks;
+    private long deferredThinks;
+    private long maxTickNanos;
+    private long maxLateTicks;
+
+    /**
+     * Constructor creating a scheduler with a budget of thinks in one tick set by a system property
+     * or a default one.
+     *
+     * @param game game in which ships are simulated
+     */
+    public AiScheduler(Game game) {
+        this.game = game;
+        thinksPerTick = Math.max(2, Integer.getInteger(THINKS_PROPERTY, DEFAULT_THINKS_PER_TICK));
+        urgentThinksPerTick = thinksPerTick / 2;
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+    }
+
+    /**
+     * Method used to schedule an enemy ship which enters a game. First decisions of ships are spread
+     * across ticks of their cadence by ids of their entities.
+     *
+     * @param ship enemy ship which is added to a game
+     */
+    public void add(EnemyShip ship) {
+        if (ship.getSchedulerSlot() != NOT_SCHEDULED) remove(ship);
+        int slot;
+        if (freeSlotsCount > 0) slot = freeSlots[--freeSlotsCount];
+        else {
+            if (slotsCount == members.length) grow();
+            slot = slotsCount++;
+        }
+        members[slot] = ship;
+        listOf[slot] = NONE;
+        ship.setSchedulerSlot(slot);
+        activeIndices[slot] = activeCount;
+        active[activeCount++] = slot;
+        int interval = thinkInterval(ship);
+        schedule(slot, game.getTickCount() + 1 + Math.floorMod(ship.getEntity(), interval));
+    }
+
+    /**
+     * Method used to stop scheduling an enemy ship, for example when it's destroyed.
+     *
+     * @param ship enemy ship which is removed from a game, ignored if it isn't scheduled
+     */
+    public void remove(EnemyShip ship) {
+        int slot = ship.getSchedulerSlot();
+        if (slot == NOT_SCHEDULED) return;
+        unlink(slot);
+        int index = activeIndices[slot];
+        int last = active[--activeCount];
+        active[index] = last;
+        activeIndices[last] = index;
+        members[slot] = null;
+        freeSlots[freeSlotsCount++] = slot;
+        ship.setSchedulerSlot(NOT_SCHEDULED);
+    }
+
+    /**
+     * Method used to stop scheduling all ships, for example when a match is cleared.
+     */
+    public void clear() {
+        while (activeCount > 0) remove(members[active[activeCount - 1]]);
+        cursor = 0;
+        joinedTick = -1;
+    }
+
+    /**
+     * Method called in every tick of a game loop after a spatial index is built, which chooses enemy ships
+     * that think in this tick and lets them make their decisions. Work done in a tick doesn't depend
+     * on amount of ships: one bucket is joined to a queue, a fixed slice of ships is checked for urgency
+     * and at most a fixed amount of ships think.
+     */
+    public void update() {
+        long start = System.nanoTime();
+        long tick = game.getTickCount();
+        join((int) (tick % WHEEL_TICKS));
+        joinedTick = tick;
+        checkUrgency(tick);
+
+        int thought = 0;
+        int urgentThought = 0;
+        while (thought < thinksPerTick) {
+            int slot;
+            if (heads[URGENT_LIST] != NONE && (urgentThought < urgentThinksPerTick || heads[DUE_LIST] == NONE)) {
+                slot = heads[URGENT_LIST];
+                urgentThought++;
+            } else if (heads[DUE_LIST] != NONE) {
+                slot = heads[DUE_LIST];
+                maxLateTicks = Math.max(maxLateTicks, tick - dueTicks[slot]);
+            } else break;
+            think(slot, tick);
+            thought++;
+        }
+        ticks++;
+        thinks += thought;
+        urgentThinks += urgentThought;
+        deferredThinks += counts[DUE_LIST];
+        maxTickNanos = Math.max(maxTickNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * This method checks a slice of ships for urgency, continuing where the previous tick stopped.
+     * Ships which have already thought in this tick or are urgent already aren't checked.
+     *
+     * @param tick number of current tick
+     */
+    private void checkUrgency(long tick) {
+        EntityWorld world = game.getWorld();
+        int checks = Math.min(URGENCY_CHECKS_PER_TICK, activeCount);
+        for (int i = 0; i < checks; i++) {
+            if (cursor >= activeCount) cursor = 0;
+            int slot = active[cursor++];
+            EnemyShip ship = members[slot];
+            if (listOf(slot) == URGENT_LIST || !ship.isAlive()
+                    || world.getLastThinkTick(ship.getEntity()) == tick) continue;
+            if (ship.isUrgent()) makeUrgent(slot);
+        }
+    }
+
+    /**
+     * This method lets a ship make a decision and schedules it's next decision by it's current cadence.
+     *
+     * @param slot slot of a ship
+     * @param tick number of current tick
+     */
+    private void think(int slot, long tick) {
+        EnemyShip ship = members[slot];
+        unlink(slot);
+        long thinkStart = System.nanoTime();
+        ship.think();
+        game.getSimulationLod().recordThink(ship.getTier(), System.nanoTime() - thinkStart);
+        game.getWorld().setLastThinkTick(ship.getEntity(), tick);
+        schedule(slot, tick + thinkInterval(ship));
+    }
+
+    /**
+     * Method used to make a ship think in the first tick which has room for urgent decisions.
+     *
+     * @param slot slot of a ship
+     */
+    private void makeUrgent(int slot) {
+        unlink(slot);
+        link(slot, URGENT_LIST);
+    }
+
+    /**
+     * Method which makes a ship urgent when it's hit, so it can react to an attack before it's cadence
+     * lets it. Destroyed ships stop being scheduled.
+     *
+     * @param event event drained from a game event bus
+     */
+    @Override
+    public void onEvent(GameEvent event) {
+        if (!(event.getShip() instanceof EnemyShip)) return;
+        EnemyShip ship = (EnemyShip) event.getShip();
+        int slot = ship.getSchedulerSlot();
+        if (slot == NOT_SCHEDULED) return;
+        if (event.getType() == GameEvent.Type.SHIP_DESTROYED) remove(ship);
+        else if (event.getType() == GameEvent.Type.HIT && listOf(slot) != URGENT_LIST) makeUrgent(slot);
+    }
+
+    /**
+     * This method gets a cadence of a ship, which has to fit into a timing wheel.
+     *
+     * @param ship enemy ship
+     * @return amount of ticks between decisions
+     */
+    private static int thinkInterval(EnemyShip ship) {
+        return Math.max(1, Math.min(ship.getThinkInterval(), WHEEL_TICKS - 1));
+    }
+
+    /**
+     * This method puts a ship into a bucket of a timing wheel for a tick in which it's due.
+     *
+     * @param slot    slot of a ship
+     * @param dueTick number of a tick in which ship is due, less than a wheel ahead of current tick
+     */
+    private void schedule(int slot, long dueTick) {
+        dueTicks[slot] = dueTick;
+        link(slot, (int) (dueTick % WHEEL_TICKS));
+    }
+
+    /**
+     * This method adds a ship at the end of a list.
+     *
+     * @param slot slot of a ship
+     * @param list index of a list
+     */
+    private void link(int slot, int list) {
+        listOf[slot] = list;
+        next[slot] = NONE;
+        previous[slot] = tails[list];
+        if (tails[list] == NONE) heads[list] = slot;
+        else next[tails[list]] = slot;
+        tails[list] = slot;
+        counts[list]++;
+    }
+
+    /**
+     * This method finds a list in which a ship is. Buckets are joined to a queue of due ships without
+     * visiting their ships, so a ship from a bucket of a tick which has been joined is in the queue.
+     *
+     * @param slot slot of a ship
+     * @return index of a list or NONE if ship isn't in any list
+     */
+    private int listOf(int slot) {
+        int list = listOf[slot];
+        if (list >= 0 && list < WHEEL_TICKS && dueTicks[slot] <= joinedTick) return DUE_LIST;
+        return list;
+    }
+
+    /**
+     * This method removes a ship from a list in which it is.
+     *
+     * @param slot slot of a ship
+     */
+    private void unlink(int slot) {
+        int list = listOf(slot);
+        if (list == NONE) return;
+        if (previous[slot] == NONE) heads[list] = next[slot];
+        else next[previous[slot]] = next[slot];
+        if (next[slot] == NONE) tails[list] = previous[slot];
+        else previous[next[slot]] = previous[slot];
+        listOf[slot] = NONE;
+        counts[list]--;
+    }
+
+    /**
+     * This method moves all ships of a bucket at the end of a queue of due ships at once.
+     *
+     * @param bucket index of a bucket which is emptied
+     */
+    private void join(int bucket) {
+        if (heads[bucket] == NONE) return;
+        if (tails[DUE_LIST] == NONE) heads[DUE_LIST] = heads[bucket];
+        else {
+            next[tails[DUE_LIST]] = heads[bucket];
+            previous[heads[bucket]] = tails[DUE_LIST];
+        }
+        tails[DUE_LIST] = tails[bucket];
+        counts[DUE_LIST] += counts[bucket];
+        heads[bucket] = NONE;
+        tails[bucket] = NONE;
+        counts[bucket] = 0;
+    }
+
+    /**
+     * Method used to double capacity of slots.
+     */
+    private void grow() {
+        int capacity = members.length * 2;
+        members = Arrays.copyOf(members, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        listOf = Arrays.copyOf(listOf, capacity);
+        dueTicks = Arrays.copyOf(dueTicks, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        active = Arrays.copyOf(active, capacity);
+        activeIndices = Arrays.copyOf(activeIndices, capacity);
+    }
+
+    /**
+     * Method used to forget statistics, for example when a match is restarted.
+     */
+    public void reset() {
+        ticks = 0;
+        thinks = 0;
+        urgentThinks = 0;
+        deferredThinks = 0;
+        maxTickNanos = 0;
+        maxLateTicks = 0;
+    }
+
+    /**
+     * Method used to create a report of decisions made in a match.
+     *
+     * @return one line report
+     */
+    public String report() {
+        return String.format("AI scheduler: %d thinks in %d ticks (%.2f per tick, %d urgent), %d deferred,"
+                        + " at most %d thinks and %d urgent checks per tick, max %.3f ms per tick,"
+                        + " at most %d ticks late", thinks, ticks, ticks > 0 ? (double) thinks / ticks : 0,
+                urgentThinks, deferredThinks, thinksPerTick, URGENCY_CHECKS_PER_TICK, maxTickNanos / 1e6,
+                maxLateTicks);
+    }
+}
@@ -1,8 +1,6 @@
 package application.game;
 
-import javafx.geometry.Bounds;
-import javafx.geometry.Point2D;
-import javafx.scene.Node;
+import application.Assets;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -18,76 +16,178 @@ public class CannonBall extends StackPane {
 
     private ImageView ballImage;
     private Circle collisionCircle;
+    private HullMask collisionMask;
 
     private Ship ship;
     private double radius = 8;
     private double angle;
     private double speed = 10;
+    private double velocityX;
+    private double velocityY;
+    private double previousPosX;
+    private double previousPosY;
+    private int slot = -1;
+    private int minimapCell = Minimap.NO_CELL;
     private int damage;
     private boolean detonated = false;
+    private boolean expired = false;
     private int explosionSize = 30;
 
     /**
-     * Constructor creating graphical Node for a cannon ball on a game scene
-     * Cannon ball start position is placed in the center of ship which shoots it.
+     * Constructor creating graphical Node for a cannon ball on a game scene.
+     * Cannon balls are reused by a game, so created cannon ball has to be launched before it's shot.
+     * It's position is set up front, so properties of a node aren't created in a game loop.
      *
-     * @param damage    the amount of damage caused if cannon ball hits a target
-     * @param ship      ship which shoots a cannon ball
-     * @param boardSide ship board side from which the cannon is shot
-     * @param game      object of Game class in which cannonball is shot
+     * @param game object of Game class in which cannonball is shot
      */
-    public CannonBall(int damage, Ship ship, Ship.Side boardSide, Game game) {
+    CannonBall(Game game) {
         this.game = game;
-        this.ship = ship;
-
-        this.setLayoutX(ship.getCenterX());
-        this.setLayoutY(ship.getCenterY());
 
-        ballImage = new ImageView(GameModels.CANNON_BALL.getUrl());
+        ballImage = new ImageView();
+        Assets.setSprite(ballImage, GameModels.CANNON_BALL.getUrl());
         ballImage.setFitWidth(2 * radius);
         ballImage.setFitHeight(2 * radius);
 
         collisionCircle = new Circle(radius);
         collisionCircle.setFill(Color.TRANSPARENT);
+        collisionMask = HullMask.circle(radius);
 
-        if (boardSide == left) angle = ship.getAngle() - 90;
-        else if (boardSide == right) angle = ship.getAngle() + 90;
+        this.getChildren().addAll(collisionCircle, ballImage);
+        this.setLayoutX(0);
+        this.setLayoutY(0);
+    }
+
+    /**
+     * Method used to prepare a cannon ball to be shot by a ship.
+     * Cannon ball start position is placed on a keel of ship which shoots it, where it's cannon is,
+     * and it's state from a previous shot is cleared.
+     *
+     * @param damage    the amount of damage caused if cannon ball hits a target
+     * @param ship      ship which shoots a cannon ball
+     * @param boardSide ship board side from which the cannon is shot
+     * @param offset    distance of a cannon from ship's center towards it's bow, negative towards it's stern
+     */
+    void launch(int damage, Ship ship, Ship.Side boardSide, double offset) {
+        this.ship = ship;
         this.damage = damage;
+        detonated = false;
+        expired = false;
+        slot = -1;
 
-        this.getChildren().addAll(collisionCircle, ballImage);
+        double shipAngle = Math.toRadians(ship.getAngle());
+        this.setLayoutX(ship.getCenterX() + offset * Math.cos(shipAngle));
+        this.setLayoutY(ship.getCenterY() + offset * Math.sin(shipAngle));
+        previousPosX = getLayoutX();
+        previousPosY = getLayoutY();
+
+        if (boardSide == left) angle = ship.getAngle() - 90;
+        else if (boardSide == right) angle = ship.getAngle() + 90;
+        velocityX = speed * Math.cos(Math.toRadians(angle));
+        velocityY = speed * Math.sin(Math.toRadians(angle));
     }
 
     /**
-     * Method used to update position of cannonball in a game loop.
-     * If cannon ball position reaches out of the game window it's simply removed from a scene.
+     * Method used to update position of cannonball in a game loop
+     * to a position computed by game's projectile kinematics.
+     * Previous position is remembered, so hits along the whole movement can be detected.
+     * If cannon ball position reaches out of the game window projectile expired event is published,
+     * so it's simply removed from a scene after current tick.
      */
     public void update() {
-        double radians = Math.toRadians(angle);
-        double dx = speed * Math.cos(radians);
-        double dy = speed * Math.sin(radians);
+        ProjectileKinematics kinematics = game.getProjectileKinematics();
+        previousPosX = this.getLayoutX();
+        previousPosY = this.getLayoutY();
+        double newPosX = kinematics.getPosX(slot);
+        double newPosY = kinematics.getPosY(slot);
 
-        double newPosX = this.getLayoutX() + dx;
-        double newPosY = this.getLayoutY() + dy;
-
-        if (newPosX < 0 || newPosX > game.getGameView().getWidth() ||
-                newPosY < 0 || newPosY > game.getGameView().getHeight()) {
-            game.removeCannonBall(this);
+        if (kinematics.isOutside(slot)) {
+            if (!expired)
+                game.getEventBus().publish(GameEvent.Type.PROJECTILE_EXPIRED, ship, this, newPosX, newPosY, 0);
+            expired = true;
         }
         this.setLayoutX(newPosX);
         this.setLayoutY(newPosY);
     }
 
+    /**
+     * Getter for movement of a cannon ball along X axis in one tick.
+     *
+     * @return movement along X axis
+     */
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * Getter for movement of a cannon ball along Y axis in one tick.
+     *
+     * @return movement along Y axis
+     */
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * Getter for slot of a cannon ball in game's projectile kinematics.
+     *
+     * @return slot of a cannon ball or -1 if it's not moved by projectile kinematics
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Setter for slot of a cannon ball in game's projectile kinematics.
+     *
+     * @param slot slot of a cannon ball or -1 if it's not moved by projectile kinematics
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Getter for a cell of a minimap in which a cannon ball is counted.
+     *
+     * @return index of a minimap cell or Minimap.NO_CELL if it's not counted
+     */
+    int getMinimapCell() {
+        return minimapCell;
+    }
+
+    /**
+     * Setter for a cell of a minimap in which a cannon ball is counted.
+     *
+     * @param minimapCell index of a minimap cell or Minimap.NO_CELL if it's not counted
+     */
+    void setMinimapCell(int minimapCell) {
+        this.minimapCell = minimapCell;
+    }
+
     /**
      * Method called on cannon ball collision with a target.
-     * Creates object of Explosion class which displays
-     * explosion animation in a place of detonation.
+     * Marks cannon ball as detonated, so it can't hit any other target.
+     * Explosion animation is played by a consumer of the hit event.
      */
     public void detonate() {
-        if (!detonated) {
-            Explosion explosion = new Explosion(this.getLayoutX(), this.getLayoutY(), explosionSize, game);
-            explosion.play();
-            detonated = true;
-        }
+        detonated = true;
+    }
+
+    /**
+     * Getter for radius of a cannon ball.
+     *
+     * @return radius of a cannon ball
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Getter for size of an explosion displayed when cannon ball hits a target.
+     *
+     * @return size of cannon ball explosion
+     */
+    public int getExplosionSize() {
+        return explosionSize;
     }
 
     /**
@@ -99,6 +199,15 @@ public class CannonBall extends StackPane {
         return damage;
     }
 
+    /**
+     * Getter for a ship which has shot a cannon ball.
+     *
+     * @return ship which has shot a cannon ball
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
     /**
      * Getter for cannon ball detonation state.
      *
@@ -109,21 +218,48 @@ public class CannonBall extends StackPane {
     }
 
     /**
-     * Method used to check whether cannon ball collides with other graphical node on a game scene
+     * Method used to check whether cannon ball has hit a ship during it's last movement.
+     * Whole movement segment of a cannon ball is checked against a ship's hull, so fast cannon balls
+     * can't pass through a ship between two frames, and only balls touching solid pixels of a hull hit it.
+     *
+     * @param ship ship which is being checked for a hit
+     * @return fraction of last movement from 0 to 1 at which ship was hit or SweptCollision.NO_HIT
+     */
+    public double timeOfImpact(Ship ship) {
+        if (this.ship == ship) return SweptCollision.NO_HIT;
+        return ship.timeOfImpact(previousPosX + radius, previousPosY + radius,
+                getLayoutX() + radius, getLayoutY() + radius, radius, collisionMask);
+    }
+
+    /**
+     * Method used to check whether cannon ball has hit an island during it's last movement.
+     *
+     * @param islandMap static obstacles of a game arena
+     * @return fraction of last movement from 0 to 1 at which an island was hit or SweptCollision.NO_HIT
+     */
+    public double timeOfImpact(IslandMap islandMap) {
+        return islandMap.timeOfImpact(previousPosX + radius, previousPosY + radius,
+                getLayoutX() + radius, getLayoutY() + radius);
+    }
+
+    /**
+     * Getter for X coordinate of cannon ball center at given moment of it's last movement.
+     *
+     * @param time fraction of last movement from 0 to 1
+     * @return X coordinate of cannon ball center
+     */
+    public double getCenterXAt(double time) {
+        return previousPosX + (getLayoutX() - previousPosX) * time + radius;
+    }
+
+    /**
+     * Getter for Y coordinate of cannon ball center at given moment of it's last movement.
      *
-     * @param node graphical node which is being checked for collision with cannonball
-     * @return true if cannon ball collides with a node on a game scene.
+     * @param time fraction of last movement from 0 to 1
+     * @return Y coordinate of cannon ball center
      */
-    public boolean collides(Node node) {
-        if (this == node || this.ship == node) return false;
-        Point2D ballCenter = this.collisionCircle.localToScene(collisionCircle.getCenterX(),
-                collisionCircle.getCenterY());
-        Bounds nodeBounds;
-        if (node instanceof Ship) {
-            Ship ship = (Ship) node;
-            nodeBounds = ship.collisionRectangle.localToScene(ship.collisionRectangle.getBoundsInLocal());
-        } else nodeBounds = node.localToScene(node.getBoundsInLocal());
-        return nodeBounds.contains(ballCenter);
+    public double getCenterYAt(double time) {
+        return previousPosY + (getLayoutY() - previousPosY) * time + radius;
     }
 
 }
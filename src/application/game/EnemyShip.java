@@ -1,12 +1,6 @@
 package application.game;
 
-import javafx.geometry.Bounds;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Line;
-import javafx.scene.shape.Polygon;
-import javafx.scene.transform.Rotate;
 
-import java.util.List;
 import java.util.Random;
 
 import static application.game.EnemyShip.ways.*;
@@ -19,74 +13,117 @@ import static application.game.Ship.Side.right;
  */
 public class EnemyShip extends Ship {
 
-    private List<Ship> ships;
     private PlayerShip playerShip;
 
     private final double lineLength = 400;
-    private Line leftShootingLine;
-    private Line rightShootingLine;
-    private Rotate shootingLineRotate;
+    private final double lineWidth = 5;
+    private double[] leftShootingLine = new double[4];
+    private double[] rightShootingLine = new double[4];
 
-    private Polygon leftTriangle;
-    private Polygon rightTriangle;
-    private Rotate trianglesRotate;
+    private double[] leftTriangle = new double[4];
+    private double[] rightTriangle = new double[4];
     private double triangleLength = 100;
     private double triangleWidth = 100;
+    private double[] viewBounds = new double[4];
+    private double viewRadius;
+    private int[] nearbyShips = new int[8];
+    private double[] nearbyDistances = new double[8];
+    private int[] closestShip = new int[1];
+    private double[] closestDistance = new double[1];
 
     public enum ways {goLeft, goStraight, goRight}
 
-    private ways way = ways.goStraight;
+    private static final ways[] WAYS = ways.values();
+
     private Random random;
+    private int schedulerSlot = AiScheduler.NOT_SCHEDULED;
 
     /**
      * Constructor which creates and initializes enemy ship by calling it's Ship parent constructor
-     * and creates invisible graphical nodes which are used for simple AI mechanism.
+     * and creates areas around it which are used for simple AI mechanism.
      *
-     * @param shipImageUrl url for a ship image which will be displayed on a game scene
-     * @param posX         ship start X coordinate on a game scene
-     * @param posY         ship start Y coordinate on a game scene
-     * @param game         object of Game class in which ship is placed
+     * @param shipClass class of a ship which defines it's image, collision mask and abilities
+     * @param posX      ship start X coordinate on a game scene
+     * @param posY      ship start Y coordinate on a game scene
+     * @param game      object of Game class in which ship is placed
      */
-    public EnemyShip(String shipImageUrl, double posX, double posY, Game game) {
-        super(shipImageUrl, posX, posY, game);
-        this.ships = game.getShips();
+    public EnemyShip(ShipClass shipClass, double posX, double posY, Game game) {
+        super(shipClass, posX, posY, game);
         this.playerShip = game.getPlayerShip();
         random = new Random();
-        angle += 90;
-        super.setAngle(angle);
+        world.setBrainWay(entity, (byte) goStraight.ordinal());
+        super.setAngle(getAngle() + 90);
+        createShootingLines();
+        createFrontViewTriangles();
+    }
+
+    /**
+     * This method overrides it's Ship parent method: it gives a ship a random enemy class, chosen by random
+     * choices of a match, and calls it, then turns ship the same way as a new enemy ship and fits areas
+     * around it to it's new size.
+     *
+     * @param posX ship start X coordinate on a game scene
+     * @param posY ship start Y coordinate on a game scene
+     */
+    @Override
+    public void respawn(double posX, double posY) {
+        setShipClass(game.getShipClasses().getRandomEnemyClass(game.getMatchRandom()));
+        super.respawn(posX, posY);
+        world.setBrainWay(entity, (byte) goStraight.ordinal());
+        super.setAngle(getAngle() + 90);
         createShootingLines();
         createFrontViewTriangles();
     }
 
+    /**
+     * Method used to set a seed of random choices of a ship, so a match started with the same seed
+     * makes the same choices.
+     *
+     * @param seed seed of random choices
+     */
+    void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Method used to make a ship stronger than other ships of it's class: it reloads it's cannons faster,
+     * deals more damage and sails faster. Stronger variant of a class is shared by all ships with the same
+     * difficulty. Difficulty 1 is a standard ship of it's class.
+     *
+     * @param difficulty multiplier of ship's abilities, at least 1
+     */
+    void setDifficulty(double difficulty) {
+        shipClass = shipClass.withDifficulty(difficulty);
+        world.setShipClass(entity, shipClass);
+    }
+
     /**
      * Method used to initialize triangles, which will be used as a front fields of a ship's view
      * Triangles help to avoid collisions with other ships and avoid getting stuck on
-     * game scene borders which they can't cross.
+     * game scene borders which they can't cross. Their size depends on a size of ship's class.
      */
     private void createFrontViewTriangles() {
-        trianglesRotate = new Rotate();
-        trianglesRotate.setPivotX(width / 2);
-        trianglesRotate.setPivotY(height / 2);
-        trianglesRotate.setAngle(angle);
-
-        leftTriangle = createFrontViewTriangle(left);
-        rightTriangle = createFrontViewTriangle(right);
+        createFrontViewTriangle(left, leftTriangle);
+        createFrontViewTriangle(right, rightTriangle);
+        viewRadius = 1.5 * shipClass.getWidth() + triangleLength;
     }
 
     /**
      * Method used to initialize specific left or right triangle, which will be used as a front field of a ship's view
-     * Triangle help to avoid collisions with other ships and avoid getting stuck on
-     * game scene borders which they can't cross
+     * Triangle is stored as a rectangle covering it in ship's local coordinates, which is rotated together
+     * with a ship when it's bounds on a game scene are computed.
+     *
+     * @param side     side of a ship's front on which triangle is placed
+     * @param triangle array in which minimum X, minimum Y, maximum X and maximum Y of a triangle
+     *                 in ship's local coordinates are stored
      */
-    private Polygon createFrontViewTriangle(Side side) {
-        Polygon triangle = new Polygon();
-        triangle.getPoints().addAll(width / 2, height / 2,
-                width + triangleLength, height / 2,
-                width + triangleLength, side == left ? height / 2 - triangleWidth : height / 2 + triangleWidth);
-        triangle.setFill(Color.TRANSPARENT);
-        triangle.getTransforms().add(trianglesRotate);
-        this.getChildren().add(triangle);
-        return triangle;
+    private void createFrontViewTriangle(Side side, double[] triangle) {
+        double width = shipClass.getWidth();
+        double height = shipClass.getHeight();
+        triangle[0] = width / 2;
+        triangle[1] = side == left ? height / 2 - triangleWidth : height / 2;
+        triangle[2] = width + triangleLength;
+        triangle[3] = side == left ? height / 2 : height / 2 + triangleWidth;
     }
 
     /**
@@ -94,89 +131,219 @@ public class EnemyShip extends Ship {
      * help detect if player ship is on it's shooting line.
      */
     private void createShootingLines() {
-        shootingLineRotate = new Rotate();
-        shootingLineRotate.setPivotX(width / 2);
-        shootingLineRotate.setPivotY(height / 2);
-        shootingLineRotate.setAngle(angle);
-
-        leftShootingLine = createShootingLine(left);
-        rightShootingLine = createShootingLine(right);
+        createShootingLine(left, leftShootingLine);
+        createShootingLine(right, rightShootingLine);
     }
 
     /**
      * Method used to initialize specific left or right board shooting line which will
      * help detect if player ship is on it's shooting line.
+     * Line is stored as a rectangle covering it together with it's width in ship's local coordinates.
+     *
+     * @param side side of a ship from which line is directed
+     * @param line array in which minimum X, minimum Y, maximum X and maximum Y of a line
+     *             in ship's local coordinates are stored
      */
-    private Line createShootingLine(Side side) {
-        Line shootingLine = new Line(width / 2, height / 2, width / 2,
-                side == left ? -lineLength : lineLength);
-        shootingLine.setStrokeWidth(5);
-        shootingLine.setStroke(Color.TRANSPARENT);
-        shootingLine.getTransforms().add(shootingLineRotate);
-        this.getChildren().add(shootingLine);
-        return shootingLine;
+    private void createShootingLine(Side side, double[] line) {
+        double width = shipClass.getWidth();
+        double height = shipClass.getHeight();
+        line[0] = width / 2 - lineWidth / 2;
+        line[1] = (side == left ? -lineLength : height / 2) - lineWidth / 2;
+        line[2] = width / 2 + lineWidth / 2;
+        line[3] = (side == left ? height / 2 : lineLength) + lineWidth / 2;
     }
 
     /**
-     * This method overrides it's Ship parent method and calls it and other methods
-     * which will determine it's behavior based on current positions of ships on a game scene.
-     * Simple AI for enemy ship detects whether to shoot player ship and chooses it's
+     * Method called by game's AI scheduler when a ship makes a decision based on current positions of ships
+     * on a game scene. Simple AI for enemy ship detects whether to shoot player ship and chooses it's
      * moving direction to avoid collisions or getting stuck on a border of a game scene.
      */
-    @Override
-    public void update() {
+    void think() {
         shootPlayerShip();
         chooseWay();
-        if (way == goLeft) turnLeft();
-        else if (way == goRight) turnRight();
-        super.update();
     }
 
     /**
-     * This method overrides it's Ship parent method and calls it and other methods
-     * to rotate shooting lines and view triangles along with their current direction
-     * and ship rotation angle in game scene.
-     *
-     * @param angle angle in which ship is directed
+     * This method overrides it's Ship parent method and calls it. Ship steers the way chosen
+     * by it's last decision, decisions are made only when game's AI scheduler lets a ship think.
+     * Tick of a ship is counted in statistics of it's simulation tier.
      */
     @Override
-    protected void setAngle(double angle) {
-        super.setAngle(angle);
-        shootingLineRotate.setAngle(angle);
-        trianglesRotate.setAngle(angle);
+    public void update() {
+        SimulationTier tier = getTier();
+        game.getSimulationLod().recordTick(tier,
+                EntityWorld.isActingInTick(game.getTickCount(), entity, tier.getMoveStep()));
+        ways way = getWay();
+        if (way == goLeft && !turnLeft()) {
+            setWay(goRight);
+            turnRight();
+        } else if (way == goRight && !turnRight()) {
+            setWay(goLeft);
+            turnLeft();
+        }
+        super.update();
     }
 
     /**
      * Method which determines in which way a ship will go to next based on surroundings.
      * It prioritizes avoiding collisions with other ships and then not getting stuck on
-     * game scene borders which they can't cross.
-     * If ship detects no ships around it chooses random way.
+     * game scene borders or islands which they can't cross.
+     * If ship detects no ships around it follows it's fleet steering.
+     * Only a few nearest ships from game's spatial index are checked.
      */
     private void chooseWay() {
-        for (Ship ship : ships) {
-            if (this == ship) continue;
-            if (ship.collides(leftTriangle) && ship.collides(rightTriangle)) {
-                way = goStraight;
+        SpatialGrid grid = game.getSpatialGrid();
+        int count = grid.nearest(getCenterX(), getCenterY(), viewRadius, this, nearbyShips, nearbyDistances);
+        for (int i = 0; i < count; i++) {
+            Ship ship = grid.getShip(nearbyShips[i]);
+            computeBounds(leftTriangle, viewBounds);
+            boolean left = ship.collides(viewBounds);
+            computeBounds(rightTriangle, viewBounds);
+            boolean right = ship.collides(viewBounds);
+            if (left && right) {
+                setWay(goStraight);
                 return;
-            } else if (ship.collides(leftTriangle)) {
-                way = goRight;
+            } else if (left) {
+                setWay(goRight);
                 return;
-            } else if (ship.collides(rightTriangle)) {
-                way = goLeft;
+            } else if (right) {
+                setWay(goLeft);
                 return;
-            } else if (!ship.collides(leftTriangle) && !ship.collides(rightTriangle)) {
-                way = randomWay();
             }
         }
+        setWay(huntingWay());
 
-        if (isOutOfTheWindow(leftTriangle)) {
-            way = goRight;
-        } else if (isOutOfTheWindow(rightTriangle)) {
-            way = goLeft;
+        if (isOutOfTheWindow(leftTriangle) || isHeadingToIsland(leftTriangle)) {
+            setWay(goRight);
+        } else if (isOutOfTheWindow(rightTriangle) || isHeadingToIsland(rightTriangle)) {
+            setWay(goLeft);
         }
 
     }
 
+    /**
+     * Getter for a cadence of ship's AI decisions. Ships in the nearest tier want to think every tick,
+     * other ships think every few ticks depending on their tier and current quality level.
+     *
+     * @return amount of ticks between decisions
+     */
+    int getThinkInterval() {
+        SimulationTier tier = getTier();
+        int interval = tier.getThinkInterval();
+        if (tier != SimulationTier.NEAR) interval *= game.getQualityGovernor().getLevel().getFarThinkInterval();
+        return interval;
+    }
+
+    /**
+     * This method informs whether a ship should think before it's cadence lets it: when it can fire
+     * at a player right now or when another ship is close in front of it. Game's AI scheduler checks
+     * only a few ships in every tick, taking them in turns.
+     *
+     * @return true if ship's decision is urgent
+     */
+    boolean isUrgent() {
+        return canFireAtPlayer() || isCollisionImminent();
+    }
+
+    /**
+     * This method checks whether a player ship, which ship's fleet can see, is on a shooting line
+     * of a board side with loaded cannons.
+     *
+     * @return true if ship can fire at a player
+     */
+    private boolean canFireAtPlayer() {
+        if (!playerShip.isAlive() || !game.getFogOfWar().isVisible(FogOfWar.ENEMY_SIDE, playerShip.getCenterX(),
+                playerShip.getCenterY()))
+            return false;
+        if (world.getLeftCannonsReloadTime(entity) == 0) {
+            computeBounds(leftShootingLine, viewBounds);
+            if (playerShip.collides(viewBounds)) return true;
+        }
+        if (world.getRightCannonsReloadTime(entity) == 0) {
+            computeBounds(rightShootingLine, viewBounds);
+            return playerShip.collides(viewBounds);
+        }
+        return false;
+    }
+
+    /**
+     * This method checks whether the nearest other ship is closer than a length of a ship
+     * and lies ahead of it, so ship may run into it before it's next decision.
+     *
+     * @return true if a collision is imminent
+     */
+    private boolean isCollisionImminent() {
+        SpatialGrid grid = game.getSpatialGrid();
+        if (grid.nearest(getCenterX(), getCenterY(), shipClass.getWidth(), this, closestShip, closestDistance) == 0)
+            return false;
+        double angle = Math.toRadians(getAngle());
+        return (grid.getX(closestShip[0]) - getCenterX()) * Math.cos(angle)
+                + (grid.getY(closestShip[0]) - getCenterY()) * Math.sin(angle) > 0;
+    }
+
+    /**
+     * Getter for a slot of a ship in game's AI scheduler.
+     *
+     * @return slot of a ship or AiScheduler.NOT_SCHEDULED if it isn't scheduled
+     */
+    int getSchedulerSlot() {
+        return schedulerSlot;
+    }
+
+    /**
+     * Setter for a slot of a ship in game's AI scheduler.
+     *
+     * @param schedulerSlot slot of a ship or AiScheduler.NOT_SCHEDULED
+     */
+    void setSchedulerSlot(int schedulerSlot) {
+        this.schedulerSlot = schedulerSlot;
+    }
+
+    /**
+     * Getter for a way chosen by ship's AI, which is stored in AiBrain component of it's entity.
+     *
+     * @return way that a ship goes
+     */
+    private ways getWay() {
+        return WAYS[world.getBrainWay(entity)];
+    }
+
+    /**
+     * Setter for a way chosen by ship's AI, which is stored in AiBrain component of it's entity.
+     *
+     * @param way way that a ship will go next
+     */
+    private void setWay(ways way) {
+        world.setBrainWay(entity, (byte) way.ordinal());
+    }
+
+    /**
+     * This method chooses way leading towards heading computed by game's fleet steering:
+     * pursuing a player, turning broadside to a player in cannons range and keeping formation
+     * with other ships. When fleet steering has no preference, random way is chosen.
+     *
+     * @return way that a ship will go next
+     */
+    private ways huntingWay() {
+        double heading = game.getFleetSteering().heading(this, playerShip, lineLength);
+        if (Double.isNaN(heading)) return randomWay();
+        return steerTowards(heading);
+    }
+
+    /**
+     * This method chooses way which turns a ship towards given heading.
+     *
+     * @param heading angle in degrees in which ship should be directed
+     * @return way that a ship will go next
+     */
+    private ways steerTowards(double heading) {
+        double difference = Math.IEEEremainder(heading - getAngle(), 360);
+        double tolerance = world.getTurningAbility(entity);
+        if (difference > tolerance) return goRight;
+        if (difference < -tolerance) return goLeft;
+        return goStraight;
+    }
+
     /**
      * This method chooses random way of moving for a ship
      * with bigger chance for going straight
@@ -195,24 +362,45 @@ public class EnemyShip extends Ship {
     /**
      * This method informs whether ship detects that it's view is outside of the game scene
      *
-     * @param viewPolygon figure which represents ship's field of view
+     * @param viewArea area in ship's local coordinates which represents ship's field of view
      * @return true if field of view is out of the application window
      */
-    private boolean isOutOfTheWindow(Polygon viewPolygon) {
-        Bounds gamePaneBounds = game.getGameView().getGamePaneLayoutBounds();
-        Bounds polygonBounds = viewPolygon.localToScene(viewPolygon.getBoundsInLocal());
-        return !gamePaneBounds.contains(polygonBounds);
+    private boolean isOutOfTheWindow(double[] viewArea) {
+        GameView gameView = game.getGameView();
+        computeBounds(viewArea, viewBounds);
+        return viewBounds[0] < 0 || viewBounds[1] < 0
+                || viewBounds[2] > gameView.getWidth() || viewBounds[3] > gameView.getHeight();
+    }
+
+    /**
+     * This method informs whether ship detects an island or a reef in it's field of view.
+     * Obstacles are found in game's island map, so only a few of them near a ship are checked.
+     *
+     * @param viewArea area in ship's local coordinates which represents ship's field of view
+     * @return true if field of view overlaps an obstacle
+     */
+    private boolean isHeadingToIsland(double[] viewArea) {
+        computeBounds(viewArea, viewBounds);
+        return game.getIslandMap().intersects(viewBounds);
     }
 
     /**
      * Method used to shoot in direction of player ship.
      * If shooting line from one side collides with a player
-     * then it shoots cannon balls from corresponding board side
+     * then it shoots cannon balls from corresponding board side.
+     * Ship doesn't shoot at a player which is destroyed or which it's fleet can't see.
      */
     private void shootPlayerShip() {
-        if (playerShip.collides(leftShootingLine))
+        if (!playerShip.isAlive() || !game.getFogOfWar().isVisible(FogOfWar.ENEMY_SIDE, playerShip.getCenterX(),
+                playerShip.getCenterY()))
+            return;
+        computeBounds(leftShootingLine, viewBounds);
+        if (playerShip.collides(viewBounds)) {
             cannonsShoot(left);
-        else if (playerShip.collides(rightShootingLine))
+            return;
+        }
+        computeBounds(rightShootingLine, viewBounds);
+        if (playerShip.collides(viewBounds))
             cannonsShoot(right);
     }
 
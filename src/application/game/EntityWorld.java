@@ -0,0 +1,743 @@
+package application.game;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * This class stores state of ships in a game as entities with components kept in packed arrays.
+ * Every entity is identified by a generational id, so an id of a destroyed entity never points
+ * to an entity created later in the same slot. Components of alive entities are kept densely
+ * at the beginning of arrays, which lets systems iterate over them without gaps:
+ * <ul>
+ * <li>Transform - position and angle,</li>
+ * <li>Class - shared definition of a ship's class with it's abilities, maximum health points and cannons,</li>
+ * <li>Velocity - current speed,</li>
+ * <li>Hull - current health points,</li>
+ * <li>Cannons - reload state of both board sides,</li>
+ * <li>AiBrain - current way chosen by AI, NO_BRAIN for ships controlled by a player,
+ * and tick of it's last decision, NO_THINK before the first one,</li>
+ * <li>Lod - simulation tier which decides how often a ship thinks and moves,</li>
+ * <li>Vision - cell of fog of war grid from which a ship reveals it's surroundings, NO_VISION before it's revealed,</li>
+ * <li>Radar - cell of a minimap in which a ship is counted, Minimap.NO_CELL if it isn't shown on a minimap,</li>
+ * <li>Sprite - graphical node of a ship and size of it's image.</li>
+ * </ul>
+ * Abilities of a ship don't change during a match, so they aren't copied into every entity:
+ * entities of the same class only point to one ShipClass object.
+ * <p>
+ * Components which are plain values are stored outside of Java heap in one direct buffer, where every entity
+ * has a record of RECORD_BYTES bytes with fields at fixed offsets in little endian order, read and written
+ * through VarHandles. Garbage collector doesn't scan this memory however many ships there are, and a snapshot
+ * of all entities is a single bulk copy of it, which can be also written directly to a file or a socket channel.
+ * Only references to classes and graphical nodes of ships stay in Java arrays.
+ */
+public class EntityWorld {
+
+    public static final byte NO_BRAIN = -1;
+    public static final long NO_THINK = -1;
+    public static final int NO_VISION = -1;
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final int POS_X_OFFSET = 0;
+    public static final int POS_Y_OFFSET = 8;
+    public static final int ANGLE_OFFSET = 16;
+    public static final int SPEED_OFFSET = 24;
+    public static final int SPRITE_WIDTH_OFFSET = 32;
+    public static final int SPRITE_HEIGHT_OFFSET = 40;
+    public static final int LAST_THINK_TICK_OFFSET = 48;
+    public static final int ENTITY_OFFSET = 56;
+    public static final int HEALTH_POINTS_OFFSET = 60;
+    public static final int LEFT_RELOAD_OFFSET = 64;
+    public static final int RIGHT_RELOAD_OFFSET = 68;
+    public static final int VISION_CELL_OFFSET = 72;
+    public static final int RADAR_CELL_OFFSET = 76;
+    public static final int BRAIN_WAY_OFFSET = 80;
+    public static final int TIER_OFFSET = 81;
+    public static final int MODEL_OFFSET = 82;
+    public static final int RECORD_BYTES = 88;
+
+    private static final VarHandle DOUBLE = MethodHandles.byteBufferViewVarHandle(double[].class, BYTE_ORDER);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, BYTE_ORDER);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, BYTE_ORDER);
+
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    private int[] generations;
+    private int[] denseIndices;
+    private int[] freeSlots;
+    private int freeSlotsCount = 0;
+    private int slotsCount = 0;
+
+    private int size = 0;
+    private int capacity;
+    private ByteBuffer records;
+    private ByteBuffer recordsView;
+
+    private ShipClass[] shipClasses;
+    private Ship[] sprites;
+
+    /**
+     * Constructor which preallocates component arrays for a given amount of entities.
+     *
+     * @param capacity initial amount of entities which can be stored without growing arrays
+     */
+    public EntityWorld(int capacity) {
+        capacity = Math.max(capacity, 1);
+        generations = new int[capacity];
+        denseIndices = new int[capacity];
+        freeSlots = new int[capacity];
+        this.capacity = capacity;
+        records = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(BYTE_ORDER);
+        recordsView = records.duplicate();
+        shipClasses = new ShipClass[capacity];
+        sprites = new Ship[capacity];
+    }
+
+    /**
+     * Method used to create a new ship entity with Transform and Sprite components.
+     * Other components are zeroed and should be set by their setters, starting with it's class.
+     *
+     * @param sprite graphical node of a ship
+     * @param x      start X coordinate on a game scene
+     * @param y      start Y coordinate on a game scene
+     * @param width  width of a ship image
+     * @param height height of a ship image
+     * @return generational id of a created entity
+     */
+    public int create(Ship sprite, double x, double y, double width, double height) {
+        int slot;
+        if (freeSlotsCount > 0) slot = freeSlots[--freeSlotsCount];
+        else {
+            if (slotsCount == generations.length) growSlots();
+            slot = slotsCount++;
+        }
+        if (size == capacity) growComponents();
+
+        int i = size++;
+        int entity = (generations[slot] << INDEX_BITS) | slot;
+        denseIndices[slot] = i;
+        int record = i * RECORD_BYTES;
+        for (int offset = 0; offset < RECORD_BYTES; offset += 8) LONG.set(records, record + offset, 0L);
+        INT.set(records, record + ENTITY_OFFSET, entity);
+        DOUBLE.set(records, record + POS_X_OFFSET, x);
+        DOUBLE.set(records, record + POS_Y_OFFSET, y);
+        records.put(record + BRAIN_WAY_OFFSET, NO_BRAIN);
+        LONG.set(records, record + LAST_THINK_TICK_OFFSET, NO_THINK);
+        records.put(record + TIER_OFFSET, (byte) SimulationTier.NEAR.ordinal());
+        INT.set(records, record + VISION_CELL_OFFSET, NO_VISION);
+        INT.set(records, record + RADAR_CELL_OFFSET, Minimap.NO_CELL);
+        DOUBLE.set(records, record + SPRITE_WIDTH_OFFSET, width);
+        DOUBLE.set(records, record + SPRITE_HEIGHT_OFFSET, height);
+        shipClasses[i] = null;
+        sprites[i] = sprite;
+        return entity;
+    }
+
+    /**
+     * Method used to destroy an entity. Components of the last entity are moved
+     * into freed place, so component arrays stay packed.
+     *
+     * @param entity id of an entity to destroy, ignored if entity is already destroyed
+     */
+    public void destroy(int entity) {
+        if (!isAlive(entity)) return;
+        int slot = entity & INDEX_MASK;
+        int i = denseIndices[slot];
+        int last = --size;
+        if (i != last) moveComponents(last, i);
+        sprites[last] = null;
+        shipClasses[last] = null;
+        denseIndices[slot] = -1;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        freeSlots[freeSlotsCount++] = slot;
+    }
+
+    /**
+     * Method used to destroy all entities, for example when a game is set up again.
+     */
+    public void clear() {
+        while (size > 0) destroy(entityAt(size - 1));
+    }
+
+    /**
+     * Method used to check whether id points to an entity which hasn't been destroyed.
+     *
+     * @param entity id of an entity
+     * @return true if entity is alive
+     */
+    public boolean isAlive(int entity) {
+        int slot = entity & INDEX_MASK;
+        return entity >= 0 && slot < slotsCount && denseIndices[slot] >= 0
+                && generations[slot] == entity >>> INDEX_BITS;
+    }
+
+    /**
+     * Method used to check whether an entity acts in given tick when it acts every few ticks.
+     * Entities are spread evenly across ticks by their ids.
+     *
+     * @param tick     number of a game loop tick
+     * @param entity   id of an entity
+     * @param interval amount of ticks between actions
+     * @return true if entity acts in given tick
+     */
+    public static boolean isActingInTick(long tick, int entity, int interval) {
+        return interval <= 1 || (tick + entity) % interval == 0;
+    }
+
+    /**
+     * Movement system which moves all ships based on their angle and speed
+     * and counts down reload time of their cannons.
+     * Ships in coarser simulation tiers are moved only every few ticks by a few ticks' distance.
+     * Ships which would leave area of a game scene stay in place. Ships which would run aground
+     * on an island or a reef are pushed back instead, so they have room to turn away from a shore.
+     * <p>
+     * Unlike cannon balls, ships aren't moved with SIMD instructions. Fields of a ship are interleaved
+     * in it's record, so lanes would have to be gathered and scattered, every ship needs sine and cosine
+     * of it's own angle, ships in coarser tiers skip ticks and every moved ship is checked against islands.
+     * There are also at most hundreds of ships, whose movement is a small part of a tick next to collisions.
+     *
+     * @param areaWidth  width of a game scene
+     * @param areaHeight height of a game scene
+     * @param tick       number of current game loop tick
+     * @param islandMap  static obstacles of a game arena
+     */
+    public void moveShips(double areaWidth, double areaHeight, long tick, IslandMap islandMap) {
+        for (int i = 0; i < size; i++) {
+            int record = i * RECORD_BYTES;
+            int leftReload = (int) INT.get(records, record + LEFT_RELOAD_OFFSET);
+            if (leftReload > 0) INT.set(records, record + LEFT_RELOAD_OFFSET, leftReload - 1);
+            int rightReload = (int) INT.get(records, record + RIGHT_RELOAD_OFFSET);
+            if (rightReload > 0) INT.set(records, record + RIGHT_RELOAD_OFFSET, rightReload - 1);
+
+            int step = SimulationTier.of(records.get(record + TIER_OFFSET)).getMoveStep();
+            if (!isActingInTick(tick, (int) INT.get(records, record + ENTITY_OFFSET), step)) continue;
+            double posX = (double) DOUBLE.get(records, record + POS_X_OFFSET);
+            double posY = (double) DOUBLE.get(records, record + POS_Y_OFFSET);
+            double angle = (double) DOUBLE.get(records, record + ANGLE_OFFSET);
+            double speed = (double) DOUBLE.get(records, record + SPEED_OFFSET);
+            double maxX = areaWidth - (double) DOUBLE.get(records, record + SPRITE_WIDTH_OFFSET);
+            double maxY = areaHeight - (double) DOUBLE.get(records, record + SPRITE_HEIGHT_OFFSET);
+            double radians = Math.toRadians(angle);
+            double moveX = step * speed * Math.cos(radians);
+            double moveY = step * speed * Math.sin(radians);
+            double newPosX = posX + moveX;
+            double newPosY = posY + moveY;
+            if (newPosX < 0 || newPosX > maxX || newPosY < 0 || newPosY > maxY) continue;
+            if (runsAground(i, newPosX, newPosY, islandMap)) {
+                newPosX = posX - moveX;
+                newPosY = posY - moveY;
+                if (newPosX < 0 || newPosX > maxX || newPosY < 0 || newPosY > maxY
+                        || runsAground(i, newPosX, newPosY, islandMap))
+                    continue;
+            }
+            DOUBLE.set(records, record + POS_X_OFFSET, newPosX);
+            DOUBLE.set(records, record + POS_Y_OFFSET, newPosY);
+        }
+    }
+
+    /**
+     * This method checks whether a ship's keel would overlap an island or a reef in given position.
+     *
+     * @param i         index of an entity in component arrays
+     * @param newPosX   X coordinate of a sprite
+     * @param newPosY   Y coordinate of a sprite
+     * @param islandMap static obstacles of a game arena
+     * @return true if ship would run aground
+     */
+    private boolean runsAground(int i, double newPosX, double newPosY, IslandMap islandMap) {
+        double spriteWidth = getDouble(i, SPRITE_WIDTH_OFFSET);
+        return islandMap.collidesWithKeel(newPosX + spriteWidth / 2, newPosY + getDouble(i, SPRITE_HEIGHT_OFFSET) / 2,
+                getDouble(i, ANGLE_OFFSET), spriteWidth * Ship.HULL_LENGTH / 2);
+    }
+
+    /**
+     * Sprite system which moves graphical nodes of ships to positions of their entities.
+     */
+    public void syncSprites() {
+        for (int i = 0; i < size; i++) {
+            sprites[i].setLayoutX(getDouble(i, POS_X_OFFSET));
+            sprites[i].setLayoutY(getDouble(i, POS_Y_OFFSET));
+        }
+    }
+
+    /**
+     * Getter for amount of alive entities.
+     *
+     * @return amount of alive entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Setter for Class component of an entity, which also gives it a fully repaired hull and loaded cannons.
+     *
+     * @param entity    id of an entity
+     * @param shipClass shared definition of a ship's class
+     */
+    public void setShipClass(int entity, ShipClass shipClass) {
+        int i = indexOf(entity);
+        shipClasses[i] = shipClass;
+        setInt(i, HEALTH_POINTS_OFFSET, shipClass.getHealthPoints());
+        setInt(i, LEFT_RELOAD_OFFSET, 0);
+        setInt(i, RIGHT_RELOAD_OFFSET, 0);
+        records.put(i * RECORD_BYTES + MODEL_OFFSET, (byte) shipClass.getModel().ordinal());
+    }
+
+    /**
+     * Getter for an entity's Class component.
+     *
+     * @param entity id of an alive entity
+     * @return shared definition of a ship's class
+     */
+    public ShipClass getShipClass(int entity) {
+        return shipClasses[indexOf(entity)];
+    }
+
+    /**
+     * Getter for X coordinate of an entity's Transform component.
+     *
+     * @param entity id of an alive entity
+     * @return X coordinate
+     */
+    public double getPosX(int entity) {
+        return getDouble(indexOf(entity), POS_X_OFFSET);
+    }
+
+    /**
+     * Getter for Y coordinate of an entity's Transform component.
+     *
+     * @param entity id of an alive entity
+     * @return Y coordinate
+     */
+    public double getPosY(int entity) {
+        return getDouble(indexOf(entity), POS_Y_OFFSET);
+    }
+
+    /**
+     * Getter for angle of an entity's Transform component.
+     *
+     * @param entity id of an alive entity
+     * @return angle
+     */
+    public double getAngle(int entity) {
+        return getDouble(indexOf(entity), ANGLE_OFFSET);
+    }
+
+    /**
+     * Setter for angle of an entity's Transform component.
+     *
+     * @param entity id of an alive entity
+     * @param angle new value of angle
+     */
+    public void setAngle(int entity, double angle) {
+        setDouble(indexOf(entity), ANGLE_OFFSET, angle);
+    }
+
+    /**
+     * Getter for current speed of an entity's Velocity component.
+     *
+     * @param entity id of an alive entity
+     * @return current speed
+     */
+    public double getSpeed(int entity) {
+        return getDouble(indexOf(entity), SPEED_OFFSET);
+    }
+
+    /**
+     * Setter for current speed of an entity's Velocity component.
+     *
+     * @param entity id of an alive entity
+     * @param speed new value of current speed
+     */
+    public void setSpeed(int entity, double speed) {
+        setDouble(indexOf(entity), SPEED_OFFSET, speed);
+    }
+
+    /**
+     * Getter for minimum speed of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return minimum speed
+     */
+    public double getMinSpeed(int entity) {
+        return shipClasses[indexOf(entity)].getMinSpeed();
+    }
+
+    /**
+     * Getter for maximum speed of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return maximum speed
+     */
+    public double getMaxSpeed(int entity) {
+        return shipClasses[indexOf(entity)].getMaxSpeed();
+    }
+
+    /**
+     * Getter for ability to accelerate of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return ability to accelerate
+     */
+    public double getDxSpeed(int entity) {
+        return shipClasses[indexOf(entity)].getDxSpeed();
+    }
+
+    /**
+     * Getter for turning ability of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return turning ability
+     */
+    public double getTurningAbility(int entity) {
+        return shipClasses[indexOf(entity)].getTurningAbility();
+    }
+
+    /**
+     * Getter for current health points of an entity's Hull component.
+     *
+     * @param entity id of an alive entity
+     * @return current health points
+     */
+    public int getHealthPoints(int entity) {
+        return getInt(indexOf(entity), HEALTH_POINTS_OFFSET);
+    }
+
+    /**
+     * Setter for current health points of an entity's Hull component.
+     *
+     * @param entity id of an alive entity
+     * @param healthPoints new value of current health points
+     */
+    public void setHealthPoints(int entity, int healthPoints) {
+        setInt(indexOf(entity), HEALTH_POINTS_OFFSET, healthPoints);
+    }
+
+    /**
+     * Getter for maximum health points of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return maximum health points
+     */
+    public int getMaxHealthPoints(int entity) {
+        return shipClasses[indexOf(entity)].getHealthPoints();
+    }
+
+    /**
+     * Getter for cannon ball damage of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return cannon ball damage
+     */
+    public int getCannonballDamage(int entity) {
+        return shipClasses[indexOf(entity)].getCannonballDamage();
+    }
+
+    /**
+     * Getter for full reload time of cannons of an entity's class.
+     *
+     * @param entity id of an alive entity
+     * @return full reload time
+     */
+    public int getCannonsReloadTime(int entity) {
+        return shipClasses[indexOf(entity)].getCannonsReloadTime();
+    }
+
+    /**
+     * Getter for left board reload time of an entity's Cannons component.
+     *
+     * @param entity id of an alive entity
+     * @return left board reload time
+     */
+    public int getLeftCannonsReloadTime(int entity) {
+        return getInt(indexOf(entity), LEFT_RELOAD_OFFSET);
+    }
+
+    /**
+     * Setter for left board reload time of an entity's Cannons component.
+     *
+     * @param entity id of an alive entity
+     * @param reloadTime new value of left board reload time
+     */
+    public void setLeftCannonsReloadTime(int entity, int reloadTime) {
+        setInt(indexOf(entity), LEFT_RELOAD_OFFSET, reloadTime);
+    }
+
+    /**
+     * Getter for right board reload time of an entity's Cannons component.
+     *
+     * @param entity id of an alive entity
+     * @return right board reload time
+     */
+    public int getRightCannonsReloadTime(int entity) {
+        return getInt(indexOf(entity), RIGHT_RELOAD_OFFSET);
+    }
+
+    /**
+     * Setter for right board reload time of an entity's Cannons component.
+     *
+     * @param entity id of an alive entity
+     * @param reloadTime new value of right board reload time
+     */
+    public void setRightCannonsReloadTime(int entity, int reloadTime) {
+        setInt(indexOf(entity), RIGHT_RELOAD_OFFSET, reloadTime);
+    }
+
+    /**
+     * Getter for way chosen by an entity's AiBrain component.
+     *
+     * @param entity id of an alive entity
+     * @return way chosen by an entity's AiBrain component
+     */
+    public byte getBrainWay(int entity) {
+        return records.get(indexOf(entity) * RECORD_BYTES + BRAIN_WAY_OFFSET);
+    }
+
+    /**
+     * Setter for way chosen by an entity's AiBrain component.
+     *
+     * @param entity id of an alive entity
+     * @param way new value of way chosen by an entity's AiBrain component
+     */
+    public void setBrainWay(int entity, byte way) {
+        records.put(indexOf(entity) * RECORD_BYTES + BRAIN_WAY_OFFSET, way);
+    }
+
+    /**
+     * Getter for tick of the last decision of an entity's AiBrain component.
+     *
+     * @param entity id of an alive entity
+     * @return number of a tick or NO_THINK if an entity hasn't made any decision yet
+     */
+    public long getLastThinkTick(int entity) {
+        return (long) LONG.get(records, indexOf(entity) * RECORD_BYTES + LAST_THINK_TICK_OFFSET);
+    }
+
+    /**
+     * Setter for tick of the last decision of an entity's AiBrain component.
+     *
+     * @param entity id of an alive entity
+     * @param tick   number of a tick in which a decision was made
+     */
+    public void setLastThinkTick(int entity, long tick) {
+        LONG.set(records, indexOf(entity) * RECORD_BYTES + LAST_THINK_TICK_OFFSET, tick);
+    }
+
+    /**
+     * Getter for simulation tier of an entity's Lod component.
+     *
+     * @param entity id of an alive entity
+     * @return ordinal number of simulation tier
+     */
+    public byte getTier(int entity) {
+        return records.get(indexOf(entity) * RECORD_BYTES + TIER_OFFSET);
+    }
+
+    /**
+     * Setter for simulation tier of an entity's Lod component.
+     *
+     * @param entity id of an alive entity
+     * @param tier   ordinal number of simulation tier
+     */
+    public void setTier(int entity, byte tier) {
+        records.put(indexOf(entity) * RECORD_BYTES + TIER_OFFSET, tier);
+    }
+
+    /**
+     * Getter for cell of an entity's Vision component.
+     *
+     * @param entity id of an alive entity
+     * @return index of a fog of war cell or NO_VISION
+     */
+    public int getVisionCell(int entity) {
+        return getInt(indexOf(entity), VISION_CELL_OFFSET);
+    }
+
+    /**
+     * Setter for cell of an entity's Vision component.
+     *
+     * @param entity id of an alive entity
+     * @param cell   index of a fog of war cell or NO_VISION
+     */
+    public void setVisionCell(int entity, int cell) {
+        setInt(indexOf(entity), VISION_CELL_OFFSET, cell);
+    }
+
+    /**
+     * Getter for cell of an entity's Radar component.
+     *
+     * @param entity id of an alive entity
+     * @return index of a minimap cell or Minimap.NO_CELL
+     */
+    public int getRadarCell(int entity) {
+        return getInt(indexOf(entity), RADAR_CELL_OFFSET);
+    }
+
+    /**
+     * Setter for cell of an entity's Radar component.
+     *
+     * @param entity id of an alive entity
+     * @param cell   index of a minimap cell or Minimap.NO_CELL
+     */
+    public void setRadarCell(int entity, int cell) {
+        setInt(indexOf(entity), RADAR_CELL_OFFSET, cell);
+    }
+
+    /**
+     * Getter for graphical node of an entity's Sprite component.
+     *
+     * @param entity id of an alive entity
+     * @return graphical node
+     */
+    public Ship getSprite(int entity) {
+        return sprites[indexOf(entity)];
+    }
+
+    /**
+     * Getter for size of a snapshot of all alive entities.
+     *
+     * @return amount of bytes written by copyRecords or writeRecords
+     */
+    public int getRecordsBytes() {
+        return size * RECORD_BYTES;
+    }
+
+    /**
+     * Method used to take a snapshot of all alive entities by one bulk copy of their records
+     * into a buffer at it's position, which is then moved after copied records.
+     * Records are packed in the same order as entities are iterated by systems.
+     *
+     * @param target buffer with at least getRecordsBytes remaining bytes
+     * @throws java.nio.BufferOverflowException if there isn't enough room in a buffer
+     */
+    public void copyRecords(ByteBuffer target) {
+        int bytes = getRecordsBytes();
+        int position = target.position();
+        target.put(position, records, 0, bytes);
+        target.position(position + bytes);
+    }
+
+    /**
+     * Method used to write a snapshot of all alive entities straight from memory of records to a channel,
+     * for example a file or a socket, without copying them on Java heap.
+     *
+     * @param channel channel to which records are written
+     * @throws IOException if records can't be written
+     */
+    public void writeRecords(WritableByteChannel channel) throws IOException {
+        recordsView.clear().limit(getRecordsBytes());
+        while (recordsView.hasRemaining()) channel.write(recordsView);
+    }
+
+    /**
+     * Method used to find id of an entity whose components are at given position in packed arrays.
+     *
+     * @param i index of entity's components
+     * @return id of an entity
+     */
+    private int entityAt(int i) {
+        return getInt(i, ENTITY_OFFSET);
+    }
+
+    /**
+     * This method reads a double field of an entity's record.
+     *
+     * @param i      index of entity's components
+     * @param offset offset of a field in a record
+     * @return value of a field
+     */
+    private double getDouble(int i, int offset) {
+        return (double) DOUBLE.get(records, i * RECORD_BYTES + offset);
+    }
+
+    /**
+     * This method writes a double field of an entity's record.
+     *
+     * @param i      index of entity's components
+     * @param offset offset of a field in a record
+     * @param value  new value of a field
+     */
+    private void setDouble(int i, int offset, double value) {
+        DOUBLE.set(records, i * RECORD_BYTES + offset, value);
+    }
+
+    /**
+     * This method reads an int field of an entity's record.
+     *
+     * @param i      index of entity's components
+     * @param offset offset of a field in a record
+     * @return value of a field
+     */
+    private int getInt(int i, int offset) {
+        return (int) INT.get(records, i * RECORD_BYTES + offset);
+    }
+
+    /**
+     * This method writes an int field of an entity's record.
+     *
+     * @param i      index of entity's components
+     * @param offset offset of a field in a record
+     * @param value  new value of a field
+     */
+    private void setInt(int i, int offset, int value) {
+        INT.set(records, i * RECORD_BYTES + offset, value);
+    }
+
+    /**
+     * Method used to find position of entity's components in packed arrays. Generation of an id is checked,
+     * so a stale id of a destroyed entity never reads or writes a record of an entity which reused it's slot.
+     *
+     * @param entity id of an alive entity
+     * @return index of entity's components
+     * @throws IllegalStateException if entity has been destroyed
+     */
+    private int indexOf(int entity) {
+        if (!isAlive(entity)) throw new IllegalStateException("entity " + entity + " isn't alive");
+        return denseIndices[entity & INDEX_MASK];
+    }
+
+    /**
+     * Method used to move all components of an entity to other place in packed arrays.
+     * Record of an entity is moved by one bulk copy.
+     *
+     * @param from index of components to move
+     * @param to   index to which components are moved
+     */
+    private void moveComponents(int from, int to) {
+        records.put(to * RECORD_BYTES, records, from * RECORD_BYTES, RECORD_BYTES);
+        denseIndices[entityAt(to) & INDEX_MASK] = to;
+        shipClasses[to] = shipClasses[from];
+        sprites[to] = sprites[from];
+    }
+
+    /**
+     * Method used to double amount of entity slots.
+     */
+    private void growSlots() {
+        int capacity = generations.length * 2;
+        generations = Arrays.copyOf(generations, capacity);
+        denseIndices = Arrays.copyOf(denseIndices, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    /**
+     * Method used to double capacity of component arrays. Records are copied into a new direct buffer
+     * and memory of the old one is released when it's collected.
+     */
+    private void growComponents() {
+        capacity *= 2;
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(BYTE_ORDER);
+        grown.put(0, records, 0, size * RECORD_BYTES);
+        records = grown;
+        recordsView = records.duplicate();
+        shipClasses = Arrays.copyOf(shipClasses, capacity);
+        sprites = Arrays.copyOf(sprites, capacity);
+    }
+}
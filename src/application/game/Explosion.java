@@ -1,75 +1,163 @@
 package application.game;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.scene.image.Image;
+import application.Assets;
 import javafx.scene.image.ImageView;
-import javafx.util.Duration;
 
 /**
- * Class used to display explosion animation on a game scene
+ * Class used to display explosion animation on a game scene.
+ * Animation is advanced by a game loop and explosions are reused by a game,
+ * so one object can be played many times.
  */
 public class Explosion {
 
     private Game game;
     private ImageView explosion;
-    private int frameDuration = 200;
+    private int frameTicks = 12;
+    private int frames;
+    private int age;
     private double size1;
     private double size2;
     private double size3;
 
     private double layoutX;
     private double layoutY;
+    private int minimapCell = Minimap.NO_CELL;
 
     /**
-     * Constructor initializing Explosion class object,
-     * it's size and position on a game scene
+     * Constructor initializing Explosion class object and placing it's hidden image on a game scene.
+     * Image of a first frame is set up front, so properties of an image aren't created in a game loop.
+     *
+     * @param game game in which explosion is happening
+     */
+    Explosion(Game game) {
+        this.game = game;
+        explosion = new ImageView();
+        explosion.setVisible(false);
+        setFrameImage(GameModels.EXPLOSION1.getUrl(), 0);
+        game.getGameView().addNode(explosion);
+    }
+
+    /**
+     * Method which starts explosion animation of a given size and position on a game scene.
+     * Amount of displayed frames depends on current quality level of a game.
      *
      * @param layoutX position on X axis
      * @param layoutY position on Y axis
      * @param size    size of explosion
-     * @param game    game in which explosion is happening
      */
-    Explosion(double layoutX, double layoutY, double size, Game game) {
-        this.game = game;
-        explosion = new ImageView();
+    void play(double layoutX, double layoutY, double size) {
         this.layoutX = layoutX;
         this.layoutY = layoutY;
         size1 = size;
         size2 = 0.8 * size;
         size3 = 0.5 * size2;
+        frames = game.getQualityGovernor().getLevel().getExplosionFrames();
+        age = 0;
+        setFrameImage(GameModels.EXPLOSION1.getUrl(), size1);
+        explosion.setVisible(true);
+    }
+
+    /**
+     * Method called in every tick of a game loop which advances explosion animation.
+     * Every frame is displayed for a few ticks, which is 200 ms at 60 frames per second,
+     * and when all frames have been displayed explosion is hidden.
+     */
+    void update() {
+        if (isFinished()) return;
+        age++;
+        if (age % frameTicks != 0) return;
+        int frame = age / frameTicks;
+        if (frame >= frames) explosion.setVisible(false);
+        else if (frame == 1) setFrameImage(GameModels.EXPLOSION2.getUrl(), size2);
+        else setFrameImage(GameModels.EXPLOSION3.getUrl(), size3);
+    }
+
+    /**
+     * Method used to hide explosion before all of it's frames have been displayed,
+     * for example when a match is restarted.
+     */
+    void stop() {
+        explosion.setVisible(false);
+    }
+
+    /**
+     * Method used to remove explosion's image from a game scene when a game is disposed.
+     */
+    void dispose() {
+        game.getGameView().removeNode(explosion);
+    }
+
+    /**
+     * Getter for explosion animation state.
+     *
+     * @return true if all frames of an explosion have been displayed
+     */
+    boolean isFinished() {
+        return !explosion.isVisible();
     }
 
     /**
-     * Method which plays explosion animation on a game scene
+     * Getter for a cell of a minimap in which an explosion is counted.
+     *
+     * @return index of a minimap cell or Minimap.NO_CELL if it's not counted
+     */
+    int getMinimapCell() {
+        return minimapCell;
+    }
+
+    /**
+     * Setter for a cell of a minimap in which an explosion is counted.
+     *
+     * @param minimapCell index of a minimap cell or Minimap.NO_CELL if it's not counted
+     */
+    void setMinimapCell(int minimapCell) {
+        this.minimapCell = minimapCell;
+    }
+
+    /**
+     * Getter for a currently displayed frame of an explosion animation.
+     *
+     * @return index of a frame, 0 for the first frame
+     */
+    int getFrame() {
+        return Math.min(age / frameTicks, 2);
+    }
+
+    /**
+     * Getter for a size of a currently displayed frame of an explosion.
+     *
+     * @return width and height of a frame
+     */
+    double getSize() {
+        return explosion.getFitWidth();
+    }
+
+    /**
+     * Getter for X coordinate of an explosion center.
+     *
+     * @return X coordinate on a game scene
+     */
+    double getCenterX() {
+        return layoutX;
+    }
+
+    /**
+     * Getter for Y coordinate of an explosion center.
+     *
+     * @return Y coordinate on a game scene
      */
-    public void play() {
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.ZERO, e -> {
-                    game.getGameView().addNode(explosion);
-                    setFrameImage(new Image(GameModels.EXPLOSION1.getUrl()), size1);
-                }),
-                new KeyFrame(Duration.millis(frameDuration), e -> {
-                    setFrameImage(new Image(GameModels.EXPLOSION2.getUrl()), size2);
-                }),
-                new KeyFrame(Duration.millis(2 * frameDuration), e -> {
-                    setFrameImage(new Image(GameModels.EXPLOSION3.getUrl()), size3);
-                }),
-                new KeyFrame(Duration.millis(3 * frameDuration), e -> {
-                    game.getGameView().removeNode(explosion);
-                })
-        );
-        timeline.play();
+    double getCenterY() {
+        return layoutY;
     }
 
     /**
      * Sets image for explosion frame in animation timeline
      *
-     * @param image image for frame of an explosion
-     * @param size  size of explosion
+     * @param url  url of an image for frame of an explosion
+     * @param size size of explosion
      */
-    private void setFrameImage(Image image, double size) {
-        explosion.setImage(image);
+    private void setFrameImage(String url, double size) {
+        Assets.setSprite(explosion, url);
         explosion.setLayoutX(layoutX - size / 2);
         explosion.setLayoutY(layoutY - size / 2);
         explosion.setFitWidth(size);
@@ -0,0 +1,133 @@
+package application.game;
+
+/**
+ * This class is used to steer enemy ships as a fleet. Desired heading of a ship combines
+ * pursuit of a player's last seen position along a flow field, turning broadside to a player
+ * seen within cannon range, and flocking with nearest neighbours: separation, alignment and cohesion,
+ * replaced by keeping line-ahead formation when a neighbour sails right in front of a ship.
+ * Only a bounded amount of nearest neighbours is taken into account, so steering cost
+ * of a single ship doesn't grow with the size of a fleet.
+ */
+public class FleetSteering {
+
+    private static final int NEIGHBOURS = 6;
+    private static final double NEIGHBOUR_RADIUS = 300;
+    private static final double SEPARATION_RADIUS = 120;
+    private static final double FORMATION_SPACING = 150;
+    private static final double FORMATION_CONE_COS = Math.cos(Math.toRadians(30));
+
+    private static final double PURSUIT_WEIGHT = 1.0;
+    private static final double BROADSIDE_WEIGHT = 1.5;
+    private static final double SEPARATION_WEIGHT = 2.0;
+    private static final double ALIGNMENT_WEIGHT = 0.5;
+    private static final double COHESION_WEIGHT = 0.3;
+    private static final double FORMATION_WEIGHT = 1.0;
+
+    private Game game;
+
+    private int[] neighbours = new int[NEIGHBOURS];
+    private double[] neighbourDistances = new double[NEIGHBOURS];
+
+    /**
+     * Constructor initializing fleet steering for a game.
+     *
+     * @param game game in which ships are steered
+     */
+    public FleetSteering(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Method used to compute heading in which a ship should go.
+     *
+     * @param ship        steered ship
+     * @param playerShip  ship controlled by a player
+     * @param cannonRange distance from which a ship can hit a player with it's cannons
+     * @return desired angle in degrees in the same convention as ship's angle or NaN if there is no preference
+     */
+    public double heading(Ship ship, PlayerShip playerShip, double cannonRange) {
+        double x = ship.getCenterX();
+        double y = ship.getCenterY();
+        double radians = Math.toRadians(ship.getAngle());
+        double dirX = Math.cos(radians);
+        double dirY = Math.sin(radians);
+        double steerX = 0;
+        double steerY = 0;
+
+        FlowField flowField = game.getFlowField();
+        if (flowField.isBlocked(x, y)) return flowField.getHeading(x, y);
+
+        if (playerShip.isAlive()) {
+            double dx = playerShip.getCenterX() - x;
+            double dy = playerShip.getCenterY() - y;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            boolean seen = game.getFogOfWar().isVisible(FogOfWar.ENEMY_SIDE,
+                    playerShip.getCenterX(), playerShip.getCenterY());
+            if (seen && distance < cannonRange && distance > 0) {
+                double sideX = -dy / distance;
+                double sideY = dx / distance;
+                if (sideX * dirX + sideY * dirY < 0) {
+                    sideX = -sideX;
+                    sideY = -sideY;
+                }
+                steerX += BROADSIDE_WEIGHT * sideX;
+                steerY += BROADSIDE_WEIGHT * sideY;
+            } else {
+                double heading = flowField.getHeading(x, y);
+                if (!Double.isNaN(heading)) {
+                    steerX += PURSUIT_WEIGHT * Math.cos(Math.toRadians(heading));
+                    steerY += PURSUIT_WEIGHT * Math.sin(Math.toRadians(heading));
+                }
+            }
+        }
+
+        SpatialGrid grid = game.getSpatialGrid();
+        int count = grid.nearest(x, y, NEIGHBOUR_RADIUS, ship, neighbours, neighbourDistances);
+        double alignX = 0;
+        double alignY = 0;
+        double centerX = 0;
+        double centerY = 0;
+        int flockmates = 0;
+        int leader = -1;
+        for (int n = 0; n < count; n++) {
+            int i = neighbours[n];
+            double dx = grid.getX(i) - x;
+            double dy = grid.getY(i) - y;
+            double distanceSquared = Math.max(neighbourDistances[n], 1);
+            if (distanceSquared < SEPARATION_RADIUS * SEPARATION_RADIUS) {
+                steerX -= SEPARATION_WEIGHT * SEPARATION_RADIUS * dx / distanceSquared;
+                steerY -= SEPARATION_WEIGHT * SEPARATION_RADIUS * dy / distanceSquared;
+            }
+            if (grid.getShip(i) == playerShip) continue;
+
+            double angle = Math.toRadians(grid.getAngle(i));
+            alignX += Math.cos(angle);
+            alignY += Math.sin(angle);
+            centerX += dx;
+            centerY += dy;
+            flockmates++;
+            if (leader < 0 && (dx * dirX + dy * dirY) > FORMATION_CONE_COS * Math.sqrt(distanceSquared))
+                leader = i;
+        }
+
+        if (flockmates > 0) {
+            steerX += ALIGNMENT_WEIGHT * alignX / flockmates;
+            steerY += ALIGNMENT_WEIGHT * alignY / flockmates;
+            if (leader >= 0) {
+                double leaderAngle = Math.toRadians(grid.getAngle(leader));
+                double slotX = grid.getX(leader) - FORMATION_SPACING * Math.cos(leaderAngle) - x;
+                double slotY = grid.getY(leader) - FORMATION_SPACING * Math.sin(leaderAngle) - y;
+                double slotDistance = Math.max(Math.sqrt(slotX * slotX + slotY * slotY), 1);
+                steerX += FORMATION_WEIGHT * slotX / slotDistance;
+                steerY += FORMATION_WEIGHT * slotY / slotDistance;
+            } else {
+                double cohesionDistance = Math.max(Math.sqrt(centerX * centerX + centerY * centerY), 1);
+                steerX += COHESION_WEIGHT * centerX / cohesionDistance;
+                steerY += COHESION_WEIGHT * centerY / cohesionDistance;
+            }
+        }
+
+        if (steerX == 0 && steerY == 0) return Double.NaN;
+        return Math.toDegrees(Math.atan2(steerY, steerX));
+    }
+}
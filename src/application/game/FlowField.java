@@ -0,0 +1,203 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to navigate enemy ships towards a player.
+ * Game scene is divided into a coarse grid and for every cell the direction to the neighbouring cell
+ * closer to a player is stored, so each ship finds it's desired heading with a single lookup.
+ * Field is shared by all ships and is recomputed only when a player moves to another cell.
+ */
+public class FlowField {
+
+    private static final int[] NEIGHBOUR_DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] NEIGHBOUR_DY = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final double[] NEIGHBOUR_ANGLES = {0, 45, 90, 135, 180, 225, 270, 315};
+    private static final byte NO_DIRECTION = -1;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private double cellSize;
+    private int columns;
+    private int rows;
+
+    private boolean[] blocked;
+    private int[] distances;
+    private byte[] directions;
+    private int[] queue;
+
+    private int targetCell = -1;
+
+    /**
+     * Constructor creating a navigation grid covering a game scene.
+     *
+     * @param width    width of a game scene
+     * @param height   height of a game scene
+     * @param cellSize size of a single grid cell
+     */
+    public FlowField(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        blocked = new boolean[columns * rows];
+        distances = new int[columns * rows];
+        directions = new byte[columns * rows];
+        queue = new int[columns * rows];
+        Arrays.fill(directions, NO_DIRECTION);
+    }
+
+    /**
+     * Method used to mark cell containing given point as blocked, so ships are led around it.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     */
+    public void setBlocked(double x, double y) {
+        int cell = cellAt(x, y);
+        if (cell < 0) return;
+        blocked[cell] = true;
+        targetCell = -1;
+    }
+
+    /**
+     * Method called in every tick with current position of a target.
+     * The field is recomputed only if a target has moved to another cell.
+     *
+     * @param targetX target X coordinate on a game scene
+     * @param targetY target Y coordinate on a game scene
+     */
+    public void update(double targetX, double targetY) {
+        int cell = cellAt(Math.min(Math.max(targetX, 0), columns * cellSize - 1),
+                Math.min(Math.max(targetY, 0), rows * cellSize - 1));
+        if (cell == targetCell) return;
+        targetCell = cell;
+        compute();
+    }
+
+    /**
+     * Getter for a direction in which a ship in given point should go to reach a target.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return angle in degrees in the same convention as ship's angle or NaN if there is no way to a target
+     */
+    public double getHeading(double x, double y) {
+        int cell = cellAt(x, y);
+        if (cell < 0 || directions[cell] == NO_DIRECTION) return Double.NaN;
+        return NEIGHBOUR_ANGLES[directions[cell]];
+    }
+
+    /**
+     * Method which computes distances from a target cell with breadth-first search over grid cells
+     * and stores for each cell direction to a neighbour which is the closest to a target.
+     * Diagonal moves are allowed only if both adjacent cells are free.
+     * Search is then continued into blocked cells, so a ship which has got into a blocked cell
+     * is led out of it to the nearest free cell on it's way to a target.
+     */
+    private void compute() {
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(directions, NO_DIRECTION);
+        if (targetCell < 0) return;
+
+        int head = 0;
+        int tail = 0;
+        distances[targetCell] = 0;
+        queue[tail++] = targetCell;
+        while (head < tail) {
+            int cell = queue[head++];
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int d = 0; d < NEIGHBOUR_DX.length; d += 2) {
+                int nColumn = column + NEIGHBOUR_DX[d];
+                int nRow = row + NEIGHBOUR_DY[d];
+                if (!isFree(nColumn, nRow)) continue;
+                int neighbour = nRow * columns + nColumn;
+                if (distances[neighbour] != UNREACHABLE) continue;
+                distances[neighbour] = distances[cell] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        int freeCells = tail;
+        for (int i = 0; i < tail; i++) {
+            int cell = queue[i];
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int d = 0; d < NEIGHBOUR_DX.length; d += 2) {
+                int nColumn = column + NEIGHBOUR_DX[d];
+                int nRow = row + NEIGHBOUR_DY[d];
+                if (!isInside(nColumn, nRow)) continue;
+                int neighbour = nRow * columns + nColumn;
+                if (!blocked[neighbour] || distances[neighbour] != UNREACHABLE) continue;
+                distances[neighbour] = distances[cell] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        for (int i = 0; i < tail; i++) {
+            int cell = queue[i];
+            int column = cell % columns;
+            int row = cell / columns;
+            int best = distances[cell];
+            boolean escaping = i >= freeCells;
+            for (int d = 0; d < NEIGHBOUR_DX.length; d++) {
+                int nColumn = column + NEIGHBOUR_DX[d];
+                int nRow = row + NEIGHBOUR_DY[d];
+                if (escaping ? !isInside(nColumn, nRow) : !isFree(nColumn, nRow)) continue;
+                if (!escaping && d % 2 == 1 && (!isFree(nColumn, row) || !isFree(column, nRow))) continue;
+                int distance = distances[nRow * columns + nColumn];
+                if (distance < best) {
+                    best = distance;
+                    directions[cell] = (byte) d;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method used to check whether grid cell exists and isn't blocked.
+     *
+     * @param column column of a cell
+     * @param row    row of a cell
+     * @return true if ships can go through a cell
+     */
+    private boolean isFree(int column, int row) {
+        return isInside(column, row) && !blocked[row * columns + column];
+    }
+
+    /**
+     * Method used to check whether grid cell exists.
+     *
+     * @param column column of a cell
+     * @param row    row of a cell
+     * @return true if cell is inside of a grid
+     */
+    private boolean isInside(int column, int row) {
+        return column >= 0 && column < columns && row >= 0 && row < rows;
+    }
+
+    /**
+     * Method used to check whether a cell containing given point is blocked.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return true if point is in a blocked cell
+     */
+    public boolean isBlocked(double x, double y) {
+        int cell = cellAt(x, y);
+        return cell >= 0 && blocked[cell];
+    }
+
+    /**
+     * Method used to find grid cell containing given point.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return index of a cell or -1 if point is outside of a grid
+     */
+    private int cellAt(double x, double y) {
+        int column = (int) Math.floor(x / cellSize);
+        int row = (int) Math.floor(y / cellSize);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return -1;
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,310 @@
+package application.game;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to decide what each side of a battle can see. Game scene is divided into a coarse grid
+ * and every ship reveals cells in it's vision radius, unless line of sight to a cell is blocked by an island.
+ * For every side and cell an amount of ships which see it is stored, so a ship which moves to another cell
+ * only takes back cells revealed from the old one and reveals cells from the new one. Ships which stay
+ * in their cell cost nothing, so work done in a tick depends on movement of ships, not on size of a scene.
+ * Line of sight is checked with rays precomputed once for a vision radius: every cell in a radius points to
+ * the next cell towards a ship, so a cell is visible if that cell is visible and doesn't block sight.
+ * Cells which a player can't see are covered with fog, which is lighter over already explored cells,
+ * and enemy ships in them are hidden.
+ */
+public class FogOfWar {
+
+    public static final int PLAYER_SIDE = 0;
+    public static final int ENEMY_SIDE = 1;
+    private static final int SIDES = 2;
+
+    private static final int UNEXPLORED_FOG = premultiply(10, 20, 35, 0.75);
+    private static final int EXPLORED_FOG = premultiply(10, 20, 35, 0.4);
+    private static final int CLEAR = 0;
+
+    private Game game;
+    private EntityWorld world;
+
+    private double cellSize;
+    private int columns;
+    private int rows;
+    private boolean[] opaque;
+    private int[][] observers = new int[SIDES][];
+    private boolean[] explored;
+
+    private int offsetsCount;
+    private int[] offsetX;
+    private int[] offsetY;
+    private int[] offsetParent;
+    private boolean[] offsetVisible;
+
+    private int[] pixels;
+    private int[] dirty = new int[4];
+    private PixelWriter pixelWriter;
+    private ImageView layer;
+    private WritablePixelFormat<IntBuffer> pixelFormat = PixelFormat.getIntArgbPreInstance();
+
+    /**
+     * Constructor creating visibility grid covering a game scene and placing fog on top of all nodes
+     * which are already on a game view. Cells with an island in their center block line of sight,
+     * while reefs don't, because they don't rise above water.
+     *
+     * @param game         game in which visibility is computed
+     * @param cellSize     size of a grid cell
+     * @param visionRadius distance in which a ship sees other ships
+     */
+    public FogOfWar(Game game, double cellSize, double visionRadius) {
+        this.game = game;
+        this.world = game.getWorld();
+        this.cellSize = cellSize;
+        GameView gameView = game.getGameView();
+        columns = (int) Math.ceil(gameView.getWidth() / cellSize);
+        rows = (int) Math.ceil(gameView.getHeight() / cellSize);
+        int cells = columns * rows;
+        opaque = new boolean[cells];
+        for (int cell = 0; cell < cells; cell++)
+            opaque[cell] = game.getIslandMap().isOnIsland((cell % columns + 0.5) * cellSize,
+                    (cell / columns + 0.5) * cellSize);
+        for (int side = 0; side < SIDES; side++) observers[side] = new int[cells];
+        explored = new boolean[cells];
+        createRays((int) Math.ceil(visionRadius / cellSize));
+
+        pixels = new int[cells];
+        WritableImage image = new WritableImage(columns, rows);
+        pixelWriter = image.getPixelWriter();
+        layer = new ImageView(image);
+        layer.setFitWidth(columns * cellSize);
+        layer.setFitHeight(rows * cellSize);
+        layer.setSmooth(true);
+        layer.setMouseTransparent(true);
+        layer.setFocusTraversable(false);
+        gameView.addNode(layer);
+        clear();
+    }
+
+    /**
+     * This method precomputes offsets of all cells in a vision radius ordered by rings around a ship,
+     * and for each of them an offset of a cell one ring closer on a line to a ship, which has to be visible
+     * for a cell to be visible. Parent cells are always in a previous ring, so they are checked first.
+     *
+     * @param radius vision radius in cells
+     */
+    private void createRays(int radius) {
+        int side = 2 * radius + 1;
+        int[] indices = new int[side * side];
+        offsetX = new int[side * side];
+        offsetY = new int[side * side];
+        offsetParent = new int[side * side];
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring || dx * dx + dy * dy > radius * radius) continue;
+                    int i = offsetsCount++;
+                    offsetX[i] = dx;
+                    offsetY[i] = dy;
+                    indices[(dy + radius) * side + dx + radius] = i;
+                    if (ring == 0) continue;
+                    int parentX = (int) Math.round(dx * (ring - 1) / (double) ring);
+                    int parentY = (int) Math.round(dy * (ring - 1) / (double) ring);
+                    offsetParent[i] = indices[(parentY + radius) * side + parentX + radius];
+                }
+            }
+        }
+        offsetVisible = new boolean[offsetsCount];
+    }
+
+    /**
+     * Method used to update visibility after ships have moved. Only ships which have moved to another cell
+     * change visibility. Then enemy ships are shown or hidden depending on whether a player can see them.
+     *
+     * @param ships ships in a game
+     */
+    public void update(List<Ship> ships) {
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (!ship.isAlive()) continue;
+            int entity = ship.getEntity();
+            int cell = cellAt(ship.getCenterX(), ship.getCenterY());
+            int previous = world.getVisionCell(entity);
+            if (cell == previous) continue;
+            int side = sideOf(ship);
+            if (previous != EntityWorld.NO_VISION) reveal(side, previous, -1);
+            reveal(side, cell, 1);
+            world.setVisionCell(entity, cell);
+        }
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (ship.isAlive() && sideOf(ship) == ENEMY_SIDE)
+                ship.setVisible(isVisible(PLAYER_SIDE, ship.getCenterX(), ship.getCenterY()));
+        }
+        draw();
+    }
+
+    /**
+     * Method used to take back cells revealed by a ship which is removed from a game.
+     *
+     * @param ship ship which is removed from a game
+     */
+    public void removeObserver(Ship ship) {
+        int entity = ship.getEntity();
+        int previous = world.getVisionCell(entity);
+        if (previous == EntityWorld.NO_VISION) return;
+        reveal(sideOf(ship), previous, -1);
+        world.setVisionCell(entity, EntityWorld.NO_VISION);
+    }
+
+    /**
+     * This method adds or takes back one observer of a side in all cells visible from a given cell.
+     * When a player starts or stops seeing a cell, fog over it is changed.
+     *
+     * @param side   side of a ship which sees cells
+     * @param center cell in which a ship is
+     * @param change 1 if cells are revealed, -1 if they are taken back
+     */
+    private void reveal(int side, int center, int change) {
+        int centerColumn = center % columns;
+        int centerRow = center / columns;
+        int[] seen = observers[side];
+        for (int i = 0; i < offsetsCount; i++) {
+            int column = centerColumn + offsetX[i];
+            int row = centerRow + offsetY[i];
+            boolean visible = column >= 0 && column < columns && row >= 0 && row < rows;
+            if (visible && i > 0) {
+                int parent = offsetParent[i];
+                visible = offsetVisible[parent] && (parent == 0
+                        || !opaque[(centerRow + offsetY[parent]) * columns + centerColumn + offsetX[parent]]);
+            }
+            offsetVisible[i] = visible;
+            if (!visible) continue;
+
+            int cell = row * columns + column;
+            seen[cell] += change;
+            if (side != PLAYER_SIDE) continue;
+            if (change > 0 && seen[cell] == 1) {
+                explored[cell] = true;
+                setFog(column, row, CLEAR);
+            } else if (change < 0 && seen[cell] == 0) {
+                setFog(column, row, EXPLORED_FOG);
+            }
+        }
+    }
+
+    /**
+     * This method changes fog over a cell and adds it to a part of fog which has to be copied to it's image.
+     *
+     * @param column column of a cell
+     * @param row    row of a cell
+     * @param color  premultiplied color of fog
+     */
+    private void setFog(int column, int row, int color) {
+        pixels[row * columns + column] = color;
+        dirty[0] = Math.min(dirty[0], column);
+        dirty[1] = Math.min(dirty[1], row);
+        dirty[2] = Math.max(dirty[2], column + 1);
+        dirty[3] = Math.max(dirty[3], row + 1);
+    }
+
+    /**
+     * This method copies changed part of fog to it's image.
+     */
+    private void draw() {
+        if (dirty[0] < dirty[2] && dirty[1] < dirty[3])
+            pixelWriter.setPixels(dirty[0], dirty[1], dirty[2] - dirty[0], dirty[3] - dirty[1], pixelFormat,
+                    pixels, dirty[1] * columns + dirty[0], columns);
+        dirty[0] = columns;
+        dirty[1] = rows;
+        dirty[2] = 0;
+        dirty[3] = 0;
+    }
+
+    /**
+     * Method used to forget everything seen in a previous match, so a whole scene is covered with fog again.
+     * Vision of ships' entities has to be forgotten too, which happens when they are destroyed.
+     */
+    public void clear() {
+        for (int side = 0; side < SIDES; side++) Arrays.fill(observers[side], 0);
+        Arrays.fill(explored, false);
+        Arrays.fill(pixels, UNEXPLORED_FOG);
+        dirty[0] = 0;
+        dirty[1] = 0;
+        dirty[2] = columns;
+        dirty[3] = rows;
+        draw();
+    }
+
+    /**
+     * Method used to remove fog from a game scene.
+     */
+    public void dispose() {
+        game.getGameView().removeNode(layer);
+    }
+
+    /**
+     * Method used to check whether any ship of a side sees a point on a game scene.
+     *
+     * @param side side which looks at a point, PLAYER_SIDE or ENEMY_SIDE
+     * @param x    X coordinate on a game scene
+     * @param y    Y coordinate on a game scene
+     * @return true if point is visible for a side
+     */
+    public boolean isVisible(int side, double x, double y) {
+        return observers[side][cellAt(x, y)] > 0;
+    }
+
+    /**
+     * Method used to check whether a player has ever seen a point on a game scene in a current match.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return true if point has been explored by a player
+     */
+    public boolean isExplored(double x, double y) {
+        return explored[cellAt(x, y)];
+    }
+
+    /**
+     * This method finds a side to which a ship belongs.
+     *
+     * @param ship ship in a game
+     * @return PLAYER_SIDE for a player ship, ENEMY_SIDE for enemy ships
+     */
+    private int sideOf(Ship ship) {
+        return ship == game.getPlayerShip() ? PLAYER_SIDE : ENEMY_SIDE;
+    }
+
+    /**
+     * This method finds a cell containing a point, points outside of a scene belong to the nearest border cell.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return index of a cell
+     */
+    private int cellAt(double x, double y) {
+        int column = Math.min(Math.max((int) (x / cellSize), 0), columns - 1);
+        int row = Math.min(Math.max((int) (y / cellSize), 0), rows - 1);
+        return row * columns + column;
+    }
+
+    /**
+     * This method converts a color with opacity to premultiplied ARGB format of fog image.
+     *
+     * @param red     red component from 0 to 255
+     * @param green   green component from 0 to 255
+     * @param blue    blue component from 0 to 255
+     * @param opacity opacity from 0 to 1
+     * @return premultiplied ARGB color
+     */
+    private static int premultiply(int red, int green, int blue, double opacity) {
+        int alpha = (int) Math.round(opacity * 255);
+        return alpha << 24 | (red * alpha / 255) << 16 | (green * alpha / 255) << 8 | blue * alpha / 255;
+    }
+}
@@ -1,25 +1,86 @@
 package application.game;
 
+import application.Main;
+import application.StartupMetrics;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.event.Event;
 import javafx.util.Duration;
 
-import java.util.LinkedList;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Random;
 
 /**
  * This class is used as a game engine in which behavior of a game is defined.
  */
-public class Game {
+public class Game implements GameEventListener {
+    private static final int FRAME_RATE = 60;
+    private static final double NAVIGATION_CELL_SIZE = 50;
+    private static final double SPATIAL_CELL_SIZE = 150;
+    private static final double VISIBILITY_CELL_SIZE = 40;
+    private static final double VISION_RADIUS = 450;
+    private static final int MINIMAP_COLUMNS = 80;
+    private static final double MINIMAP_WIDTH = 240;
+    private static final String MONITOR_NAME = "application.game:type=GameMonitor";
+    private static final int CANNON_BALLS_PER_CANNON = 4;
+    private static final int EXPLOSIONS_PER_SHIP = 2;
+    private static final int SPECTATOR_KEYFRAME_INTERVAL = 30;
+    private static final int SPAWN_LANES = 8;
+    private static final double SPAWN_POS_Y = 100;
+    private static final int SNAPSHOT_MAGIC = 0x534e4150;
+    private static final int SNAPSHOT_HEADER_BYTES = 24;
+
     private GameView gameView;
 
+    private GameEventBus eventBus;
+    private EntityWorld world;
+    private ByteBuffer snapshotHeader = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(EntityWorld.BYTE_ORDER);
+
     private Timeline gameTimeline;
 
     private boolean running = false;
+    private boolean monitorRegistered = false;
+    private long tickCount = 0;
+
+    private QualityGovernor qualityGovernor;
+    private SimulationLod simulationLod;
+    private AiScheduler aiScheduler;
+    private IslandMap islandMap;
+    private ShipClasses shipClasses;
+    private FlowField flowField;
+    private SpatialGrid spatialGrid;
+    private FleetSteering fleetSteering;
+    private ProjectileKinematics projectileKinematics;
+    private TickProfiler tickProfiler;
+    private GameMonitor gameMonitor;
+    private ParticleSystem particleSystem;
+    private FogOfWar fogOfWar;
+    private Minimap minimap;
+    private MatchRecorder matchRecorder;
+    private SpectatorEncoder spectatorEncoder;
+    private SpectatorServer spectatorServer;
+    private MatchResult matchResult = new MatchResult();
+    private Random matchSeeds = new Random();
+    private long matchSeed;
+    private Random matchRandom = new Random();
+    private boolean survival = false;
+    private SurvivalWaves survivalWaves;
+    private LoadTracker loadTracker;
 
     private PlayerShip playerShip;
+    private List<EnemyShip> enemyShips;
 
     private int enemyShipsAmount;
     private List<Ship> ships;
@@ -29,6 +90,10 @@ public class Game {
     private List<CannonBall> cannonBalls;
     private List<CannonBall> newCannonBalls;
     private List<CannonBall> toRemoveCannonBalls;
+    private Deque<CannonBall> cannonBallPool;
+
+    private List<Explosion> explosions;
+    private Deque<Explosion> explosionPool;
 
     /**
      * Constructor which initializes it's GameView object and amount of enemy ships in game.
@@ -43,38 +108,220 @@ public class Game {
 
     /**
      * This method nitializes data structures in which ships and
-     * cannon balls are stored and creates ships in a game
+     * cannon balls are stored, creates game animation timeline and creates ships in a game.
+     * It's called once, next matches are started by reset method which reuses all of it.
+     * Lists are indexed in a game loop, so no iterators are created in every tick,
+     * and cannon balls and explosions which will be reused during a battle are created up front,
+     * together with collision masks of all classes of ships.
      */
     public void setup() {
-        cannonBalls = new LinkedList<>();
-        newCannonBalls = new LinkedList<>();
-        toRemoveCannonBalls = new LinkedList<>();
+        int shipsAmount = enemyShipsAmount + 1;
+        eventBus = new GameEventBus(256);
+        eventBus.subscribe(this);
+        world = new EntityWorld(shipsAmount);
+        qualityGovernor = new QualityGovernor(1000.0 / FRAME_RATE);
+        simulationLod = new SimulationLod(this);
+        aiScheduler = new AiScheduler(this);
+        eventBus.subscribe(aiScheduler);
+        shipClasses = ShipClasses.load();
+        for (ShipClass shipClass : shipClasses.getAll()) shipClass.getHullMask();
+        int cannonBallsAmount = CANNON_BALLS_PER_CANNON * shipClasses.getMaxCannons() * shipsAmount;
+        islandMap = IslandMap.load(IslandMap.DEFAULT_MAP, gameView.getWidth(), gameView.getHeight());
+        islandMap.show(gameView);
+        flowField = new FlowField(gameView.getWidth(), gameView.getHeight(), NAVIGATION_CELL_SIZE);
+        islandMap.blockFlowField(flowField, gameView.getWidth(), gameView.getHeight(), NAVIGATION_CELL_SIZE);
+        spatialGrid = new SpatialGrid(gameView.getWidth(), gameView.getHeight(), SPATIAL_CELL_SIZE);
+        fleetSteering = new FleetSteering(this);
+        projectileKinematics = new ProjectileKinematics(cannonBallsAmount);
+        tickProfiler = new TickProfiler();
+        gameMonitor = new GameMonitor(this, tickProfiler);
+        particleSystem = new ParticleSystem(this);
+        eventBus.subscribe(particleSystem);
+        String recordDirectory = System.getProperty(MatchRecorder.DIRECTORY_PROPERTY);
+        if (recordDirectory != null) matchRecorder = new MatchRecorder(Paths.get(recordDirectory));
+        spectatorEncoder = new SpectatorEncoder(SPECTATOR_KEYFRAME_INTERVAL);
+        survivalWaves = new SurvivalWaves(this);
+        String loadLog = System.getProperty(LoadTracker.LOG_PROPERTY);
+        loadTracker = new LoadTracker(loadLog != null ? Paths.get(loadLog) : null);
+        gameView.showQualityLevel(qualityGovernor.getLevel());
+
+        cannonBalls = new ArrayList<>(cannonBallsAmount);
+        newCannonBalls = new ArrayList<>(cannonBallsAmount);
+        toRemoveCannonBalls = new ArrayList<>(cannonBallsAmount);
+        cannonBallPool = new ArrayDeque<>(cannonBallsAmount);
+
+        explosions = new ArrayList<>(EXPLOSIONS_PER_SHIP * shipsAmount);
+        explosionPool = new ArrayDeque<>(EXPLOSIONS_PER_SHIP * shipsAmount);
+
+        ships = new ArrayList<>(shipsAmount);
+        newShips = new ArrayList<>(shipsAmount);
+        toRemoveShips = new ArrayList<>(shipsAmount);
+        enemyShips = new ArrayList<>(enemyShipsAmount);
+
+        final Duration d = Duration.millis((int) (1000 / FRAME_RATE));
+        final KeyFrame oneFrame = new KeyFrame(d, this::run);
+        gameTimeline = new Timeline(FRAME_RATE, oneFrame);
+        gameTimeline.setCycleCount(Animation.INDEFINITE);
+
+        createPlayerShip();
+        createEnemyShips();
+        updateShipsList();
+
+        for (int i = 0; i < cannonBallsAmount; i++) cannonBallPool.push(createCannonBall());
+        for (int i = 0; i < EXPLOSIONS_PER_SHIP * shipsAmount; i++) explosionPool.push(new Explosion(this));
+
+        fogOfWar = new FogOfWar(this, VISIBILITY_CELL_SIZE, VISION_RADIUS);
+        minimap = new Minimap(this, MINIMAP_COLUMNS, MINIMAP_WIDTH);
+        startMatch();
+    }
 
-        ships = new LinkedList<>();
-        newShips = new LinkedList<>();
-        toRemoveShips = new LinkedList<>();
+    /**
+     * This method prepares a new match with given amount of enemy ships in place of a previous one.
+     * Game world is cleared and ships, cannon balls, explosions and game view are reused,
+     * so restarting a match many times doesn't take more memory than playing it once.
+     *
+     * @param enemyShipsAmount amount of enemy ships in a new match
+     */
+    public void reset(int enemyShipsAmount) {
+        stop();
+        clearMatch();
+        this.enemyShipsAmount = enemyShipsAmount;
+        tickCount = 0;
+        qualityGovernor.reset();
+        simulationLod.reset();
+        aiScheduler.reset();
+        tickProfiler.reset();
+        gameView.showQualityLevel(qualityGovernor.getLevel());
 
         createPlayerShip();
         createEnemyShips();
+        updateShipsList();
+        startMatch();
+    }
+
+    /**
+     * This method prepares a match for it's first tick: surroundings of ships are revealed, ships are placed
+     * on a minimap, recording of a match is started if matches are recorded, spectators get a keyframe first
+     * and counting of match statistics starts. In survival mode waves and tracking of a game loop start.
+     * Enemy fleet knows where a player enters the arena, so it's led there until it sees a player.
+     */
+    private void startMatch() {
+        fogOfWar.update(ships);
+        minimap.update(ships, cannonBalls, explosions);
+        flowField.update(playerShip.getCenterX(), playerShip.getCenterY());
+        if (matchRecorder != null) matchRecorder.start(gameView.getWidth(), gameView.getHeight(), FRAME_RATE, islandMap);
+        spectatorEncoder.reset();
+        matchResult.start(matchSeed, enemyShipsAmount);
+        if (survival) {
+            survivalWaves.start(enemyShipsAmount);
+            loadTracker.start();
+        }
+    }
+
+    /**
+     * This method removes everything from a finished match: pending events are applied, cannon balls
+     * and explosions are hidden and kept to be reused, ships are hidden and their entities are destroyed.
+     */
+    private void clearMatch() {
+        eventBus.drain();
+        particleSystem.clear();
+        fogOfWar.clear();
+        clearCannonBalls();
+        for (int i = 0; i < explosions.size(); i++) {
+            explosions.get(i).stop();
+            minimap.remove(explosions.get(i));
+            explosionPool.push(explosions.get(i));
+        }
+        explosions.clear();
+        for (int i = 0; i < ships.size(); i++) ships.get(i).setVisible(false);
+        ships.clear();
+        newShips.clear();
+        toRemoveShips.clear();
+        world.clear();
+        minimap.clear();
+        aiScheduler.clear();
+    }
+
+    /**
+     * This method removes all cannon balls from a game and keeps them to be reused.
+     */
+    private void clearCannonBalls() {
+        for (int i = 0; i < newCannonBalls.size(); i++) removeCannonBall(newCannonBalls.get(i));
+        for (int i = 0; i < cannonBalls.size(); i++) removeCannonBall(cannonBalls.get(i));
+        newCannonBalls.clear();
+        updateCannonBallsList();
+    }
+
+    /**
+     * This method releases everything created by a game: stops it's animation, removes all of it's nodes
+     * from a game view and stops listening to events. Game can't be used after it's disposed.
+     */
+    public void dispose() {
+        stop();
+        clearMatch();
+        eventBus.unsubscribe(this);
+        eventBus.unsubscribe(particleSystem);
+        eventBus.unsubscribe(aiScheduler);
+        particleSystem.dispose();
+        fogOfWar.dispose();
+        minimap.dispose();
+        if (spectatorServer != null) spectatorServer.close();
+        loadTracker.close();
+        islandMap.hide(gameView);
+        gameView.removeNode(playerShip);
+        for (int i = 0; i < enemyShips.size(); i++) gameView.removeNode(enemyShips.get(i));
+        enemyShips.clear();
+        while (!cannonBallPool.isEmpty()) gameView.removeNode(cannonBallPool.pop());
+        while (!explosionPool.isEmpty()) explosionPool.pop().dispose();
     }
 
     /**
      * This method creates PlayerShip object and places it on a game scene.
+     * In next matches the same player ship is respawned.
      */
     private void createPlayerShip() {
-        playerShip = new PlayerShip(GameModels.PLAYER_SHIP.getUrl(),
-                gameView.getWidth() / 2 - 100, gameView.getHeight() - 100, this);
-        addShip(playerShip);
+        double spawnPosX = gameView.getWidth() / 2 - 100;
+        double spawnPosY = gameView.getHeight() - 100;
+        if (playerShip == null) {
+            playerShip = new PlayerShip(shipClasses.getPlayerClass(), spawnPosX, spawnPosY, this);
+            gameView.addNode(playerShip);
+            addShip(playerShip);
+        } else {
+            playerShip.respawn(spawnPosX, spawnPosY);
+            addShip(playerShip);
+            playerShip.requestFocus();
+        }
     }
 
     /**
      * This method creates EnemyShip objects and places them on a game
-     * scene in specific positions depending on their amount.
+     * scene in specific positions depending on their amount. Ships are placed in a row at the top of a scene,
+     * big fleets which don't fit in one row are placed in more rows.
+     * Enemy ships from previous matches are respawned, new ones are created only if there are not enough of them.
+     * Random choices of enemy ships, their classes and their AI's choices, are seeded with a new seed of a match,
+     * which is saved in match history. Ships think in ticks given by game's AI scheduler, which depend only
+     * on ticks, so the same seed leads to the same match as long as a player plays it the same way
+     * at the same quality level, which decides how often far ships think.
      */
     private void createEnemyShips() {
+        matchSeed = matchSeeds.nextLong();
+        matchRandom.setSeed(matchSeed);
+        int shipsInRow = Math.max(1, (int) (gameView.getWidth() / 200));
         for (int i = 0; i < enemyShipsAmount; i++) {
-            double spawnPosX = (gameView.getWidth() / 2) - (enemyShipsAmount) * 100 + i * 200;
-            EnemyShip es = new EnemyShip(GameModels.getRandomEnemyShipUrl(), spawnPosX, 100, this);
+            int row = i / shipsInRow;
+            int rowLength = Math.min(enemyShipsAmount - row * shipsInRow, shipsInRow);
+            double spawnPosX = (gameView.getWidth() / 2) - rowLength * 100 + (i % shipsInRow) * 200;
+            double spawnPosY = 100 + row * 200;
+            EnemyShip es;
+            if (i < enemyShips.size()) {
+                es = enemyShips.get(i);
+                es.respawn(spawnPosX, spawnPosY);
+            } else {
+                es = new EnemyShip(shipClasses.getRandomEnemyClass(matchRandom), spawnPosX, spawnPosY, this);
+                enemyShips.add(es);
+                gameView.addNode(es);
+            }
+            es.setSeed(matchSeed + i);
             addShip(es);
         }
     }
@@ -85,31 +332,157 @@ public class Game {
      */
     public void start() {
         running = true;
-        int frameRate = 60;
-        final Duration d = Duration.millis((int) (1000 / frameRate));
-        final KeyFrame oneFrame = new KeyFrame(d, this::run);
-        gameTimeline = new Timeline(frameRate, oneFrame);
-        gameTimeline.setCycleCount(Animation.INDEFINITE);
+        qualityGovernor.resetTiming();
         gameTimeline.play();
+        registerMonitor();
+        startSpectatorServer();
+    }
+
+    /**
+     * This method is used to end a game loop of a current match, for example when a match is finished
+     * or player leaves to menu. Game monitor is removed from MBean server and a match is saved if it's recorded.
+     */
+    public void stop() {
+        gameTimeline.stop();
+        running = false;
+        unregisterMonitor();
+        if (matchRecorder != null) matchRecorder.save();
+    }
+
+    /**
+     * This method starts a server broadcasting matches to spectators when the first match of a game starts,
+     * if "ships.spectatorPort" system property is set. Server is kept for all next matches.
+     */
+    private void startSpectatorServer() {
+        Integer port = Integer.getInteger(SpectatorServer.PORT_PROPERTY);
+        if (port == null || spectatorServer != null) return;
+        try {
+            spectatorServer = SpectatorServer.start(port);
+        } catch (IOException e) {
+            System.err.println("Spectator server couldn't be started: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method registers game's monitor in platform MBean server, so a running game
+     * can be watched and controlled through JMX. Monitor of a previous game is replaced.
+     */
+    private void registerMonitor() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MONITOR_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(gameMonitor, name);
+            monitorRegistered = true;
+        } catch (JMException e) {
+            System.err.println("Game monitor couldn't be registered: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method removes game's monitor from platform MBean server if it's registered.
+     * A game which has never been started, like a warm-up one, doesn't remove a monitor of another game.
+     */
+    private void unregisterMonitor() {
+        if (!monitorRegistered) return;
+        monitorRegistered = false;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MONITOR_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException e) {
+            System.err.println("Game monitor couldn't be unregistered: " + e.getMessage());
+        }
     }
 
     /**
      * Method responding for game animation which is called in every new frame of an animation.
+     * Time of each frame is passed to quality governor which adjusts amount of optional work.
      *
      * @param event event which calls the run function
      */
     private void run(Event event) {
-        for (Ship s : ships) s.update();
-        for (CannonBall c : cannonBalls) c.update();
+        StartupMetrics.battleFrame();
+        long frameStart = System.nanoTime();
+        tick();
+        if (qualityGovernor.update(frameStart, System.nanoTime() - frameStart))
+            gameView.showQualityLevel(qualityGovernor.getLevel());
+        gameMonitor.publish(ships.size(), cannonBalls.size(), explosions.size(),
+                particleSystem.getParticlesCount(), gameView.getNodeCount(),
+                tickCount, qualityGovernor.getLevel(), running);
+        if (gameFinished()) {
+            if (!survival) saveMatchResult();
+            gameView.displayGameOverView(isPlayerAlive(), survival ? "Survived " + survivalSummary("\n") : null);
+            stop();
+            clearCannonBalls();
+        }
+    }
+
+    /**
+     * This method appends a result of a finished match to match history, if it's open.
+     * Simulated matches aren't played by a player, so they are never saved.
+     */
+    private void saveMatchResult() {
+        MatchHistory matchHistory = Main.matchHistory;
+        if (matchHistory == null) return;
+        matchResult.finish(tickCount, isPlayerAlive());
+        try {
+            matchHistory.append(matchResult);
+        } catch (IOException e) {
+            System.err.println("Match result couldn't be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method used to run game simulation without animation timeline, for example to let
+     * JIT compiler optimize a game loop before the first real frame is displayed.
+     * Simulation ends after given amount of ticks or when the game is finished.
+     *
+     * @param ticks maximum amount of game loop ticks to simulate
+     */
+    public void simulate(int ticks) {
+        for (int i = 0; i < ticks && !gameFinished(); i++) tick();
+    }
+
+    /**
+     * Method which updates all objects of a game by one step of a simulation.
+     */
+    private void tick() {
+        tickProfiler.startTick();
+        tickCount++;
+        if (playerShip.isAlive() && fogOfWar.isVisible(FogOfWar.ENEMY_SIDE, playerShip.getCenterX(),
+                playerShip.getCenterY()))
+            flowField.update(playerShip.getCenterX(), playerShip.getCenterY());
+        spatialGrid.build(ships);
+        simulationLod.update(ships, playerShip);
+        aiScheduler.update();
+        for (int i = 0; i < ships.size(); i++) ships.get(i).update();
+        tickProfiler.endPhase(TickProfiler.Phase.AI);
+        world.moveShips(gameView.getWidth(), gameView.getHeight(), tickCount, islandMap);
+        world.syncSprites();
+        projectileKinematics.integrate(gameView.getWidth(), gameView.getHeight());
+        for (int i = 0; i < cannonBalls.size(); i++) cannonBalls.get(i).update();
+        tickProfiler.endPhase(TickProfiler.Phase.MOVEMENT);
         checkHits();
         checkCollisions();
+        tickProfiler.endPhase(TickProfiler.Phase.COLLISIONS);
+        eventBus.drain();
+        if (survival) survivalWaves.update(tickCount);
         updateShipsList();
         updateCannonBallsList();
-        if (gameFinished()) {
-            gameView.displayGameOverView(isPlayerAlive());
-            gameTimeline.stop();
-            gameView.clearCannonballs();
-        }
+        updateExplosions();
+        tickProfiler.endPhase(TickProfiler.Phase.EVENTS);
+        fogOfWar.update(ships);
+        tickProfiler.endPhase(TickProfiler.Phase.VISIBILITY);
+        particleSystem.update(ships);
+        minimap.update(ships, cannonBalls, explosions);
+        if (matchRecorder != null && running) matchRecorder.record(tickCount, ships, cannonBalls, explosions);
+        if (spectatorServer != null && running)
+            spectatorServer.publish(spectatorEncoder.encode(tickCount, gameView.getWidth(), gameView.getHeight(),
+                    ships, cannonBalls, explosions), spectatorEncoder.isKeyframe());
+        tickProfiler.endPhase(TickProfiler.Phase.EFFECTS);
+        long tickNanos = tickProfiler.endTick();
+        if (survival) loadTracker.recordTick(tickCount, tickNanos);
     }
 
     /**
@@ -124,16 +497,87 @@ public class Game {
      * Calling this method resumes game animation timeline and unpauses the game.
      */
     public void unpause() {
+        qualityGovernor.resetTiming();
         gameTimeline.play();
         running = true;
     }
 
+    /**
+     * Calling this method changes speed of game animation timeline.
+     *
+     * @param timeScale speed of a game, 1 is normal speed
+     */
+    public void setTimeScale(double timeScale) {
+        if (gameTimeline != null) gameTimeline.setRate(timeScale);
+    }
+
+    /**
+     * Method used to play an explosion on a game scene.
+     * Explosion which has already ended is reused if there is any.
+     * Animation of an explosion is advanced by a game loop.
+     *
+     * @param posX X coordinate of an explosion center
+     * @param posY Y coordinate of an explosion center
+     * @param size size of an explosion
+     */
+    private void playExplosion(double posX, double posY, double size) {
+        Explosion explosion = explosionPool.isEmpty() ? new Explosion(this) : explosionPool.pop();
+        explosion.play(posX, posY, size);
+        explosions.add(explosion);
+    }
+
+    /**
+     * Method used to advance animations of explosions during game loop.
+     * Finished explosions are kept, so they can be played again.
+     */
+    private void updateExplosions() {
+        for (int i = explosions.size() - 1; i >= 0; i--) {
+            Explosion explosion = explosions.get(i);
+            explosion.update();
+            if (explosion.isFinished()) {
+                minimap.remove(explosion);
+                explosions.remove(i);
+                explosionPool.push(explosion);
+            }
+        }
+    }
+
+    /**
+     * Method used to get a cannon ball ready to be shot by a ship.
+     * Cannon ball which has already been removed from a game is reused if there is any.
+     *
+     * @param damage    the amount of damage caused if cannon ball hits a target
+     * @param ship      ship which shoots a cannon ball
+     * @param boardSide ship board side from which the cannon is shot
+     * @param offset    distance of a cannon from ship's center towards it's bow, negative towards it's stern
+     * @return cannon ball which will be added to a game on shot fired event
+     */
+    CannonBall obtainCannonBall(int damage, Ship ship, Ship.Side boardSide, double offset) {
+        CannonBall cannonBall = cannonBallPool.isEmpty() ? createCannonBall() : cannonBallPool.pop();
+        cannonBall.launch(damage, ship, boardSide, offset);
+        return cannonBall;
+    }
+
+    /**
+     * This method creates new cannon ball and places it on a game scene,
+     * where it stays hidden until it's shot.
+     *
+     * @return created cannon ball
+     */
+    private CannonBall createCannonBall() {
+        CannonBall cannonBall = new CannonBall(this);
+        cannonBall.setVisible(false);
+        gameView.addNode(cannonBall);
+        return cannonBall;
+    }
+
     /**
      * This method is used to check if conditions for finished game are met.
      *
      * @return true if player won or lost
      */
     private boolean gameFinished() {
+        if (survival) return playerShip.getCurrentHealthPoints() <= 0;
         return ships.size() <= 1 || playerShip.getCurrentHealthPoints() <= 0;
     }
 
@@ -151,84 +595,128 @@ public class Game {
      */
     private void updateShipsList() {
         ships.removeAll(toRemoveShips);
-        ships.addAll(newShips);
+        for (int i = 0; i < newShips.size(); i++) ships.add(newShips.get(i));
         toRemoveShips.clear();
         newShips.clear();
     }
 
     /**
      * Method used to update cannon balls list during game loop.
+     * Removed cannon balls are kept, so they can be shot again.
      */
     private void updateCannonBallsList() {
         cannonBalls.removeAll(toRemoveCannonBalls);
-        cannonBalls.addAll(newCannonBalls);
+        for (int i = 0; i < toRemoveCannonBalls.size(); i++) cannonBallPool.push(toRemoveCannonBalls.get(i));
+        for (int i = 0; i < newCannonBalls.size(); i++) cannonBalls.add(newCannonBalls.get(i));
         toRemoveCannonBalls.clear();
         newCannonBalls.clear();
     }
 
     /**
-     * Method used to add ship to a game and it's game view.
+     * Method used to add ship to a game and show it in it's game view.
+     * Ship has to be placed on a game view when it's created. Enemy ships are scheduled by game's AI scheduler.
      *
      * @param ship ship which is added to a game
      */
     public void addShip(Ship ship) {
         newShips.add(ship);
-        gameView.addNode(ship);
+        ship.setVisible(true);
+        if (ship instanceof EnemyShip) aiScheduler.add((EnemyShip) ship);
     }
 
     /**
-     * Method used to remove ship from game and it's game view.
+     * Method used to remove ship from game and hide it in it's game view,
+     * so it can be respawned in a next match.
      *
      * @param ship ship which is removed from a game
      */
     public void removeShip(Ship ship) {
         toRemoveShips.add(ship);
-        gameView.removeNode(ship);
+        ship.setVisible(false);
     }
 
     /**
-     * Method used to add cannon ball to a game and it's game view.
+     * Method used to add cannon ball to a game and show it in it's game view.
      *
      * @param cannonBall cannon ball which is added to a game
      */
     public void addCannonBall(CannonBall cannonBall) {
+        cannonBall.setSlot(projectileKinematics.add(cannonBall, cannonBall.getLayoutX(), cannonBall.getLayoutY(),
+                cannonBall.getVelocityX(), cannonBall.getVelocityY()));
         newCannonBalls.add(cannonBall);
-        gameView.addNode(cannonBall);
+        cannonBall.setVisible(true);
     }
 
     /**
-     * Method used to remove cannon ball from game and it's game view.
+     * Method used to remove cannon ball from game and hide it in it's game view.
+     *
+     * Cannon ball which has already been removed in current tick is ignored.
      *
      * @param cannonBall cannon ball which is removed from a game
      */
     public void removeCannonBall(CannonBall cannonBall) {
+        if (cannonBall.getSlot() < 0) return;
+        projectileKinematics.remove(cannonBall.getSlot());
+        cannonBall.setSlot(-1);
+        minimap.remove(cannonBall);
         toRemoveCannonBalls.add(cannonBall);
-        gameView.removeNode(cannonBall);
+        cannonBall.setVisible(false);
     }
 
     /**
      * This method checks if any of the ships has collided with other.
      * If it does, the colliding ships is instantly destroyed.
+     * Ships in simulation tiers far from any other ship are skipped.
      */
     private void checkCollisions() {
-        for (Ship ship : ships)
-            for (Ship ship2 : ships)
-                if (ship.collides(ship2)) {
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (!ship.getTier().isCollidingWithShips()) continue;
+            for (int j = 0; j < ships.size(); j++) {
+                Ship ship2 = ships.get(j);
+                if (ship2.getTier().isCollidingWithShips() && ship.collides(ship2)) {
                     ship.receiveDamage(1000);
                     ship2.receiveDamage(1000);
                 }
+            }
+        }
     }
 
     /**
-     * This method checks if any of the cannon balls has hit a ship.
-     * If it does, the hit method is called to hit a ship by this cannon ball.
+     * This method checks if any of the cannon balls has hit a ship during it's last movement.
+     * If it does, the hit method is called to hit the ship which was reached first by this cannon ball,
+     * unless the cannon ball has hit an island before, which stops it.
      */
     private void checkHits() {
-        for (CannonBall cannonBall : cannonBalls)
-            for (Ship ship : ships)
-                if (cannonBall.collides(ship) && !cannonBall.isDetonated())
-                    hit(cannonBall, ship);
+        for (int i = 0; i < cannonBalls.size(); i++) {
+            CannonBall cannonBall = cannonBalls.get(i);
+            if (cannonBall.isDetonated()) continue;
+            Ship target = null;
+            double blocked = cannonBall.timeOfImpact(islandMap);
+            double earliest = blocked;
+            for (int j = 0; j < ships.size(); j++) {
+                Ship ship = ships.get(j);
+                double time = cannonBall.timeOfImpact(ship);
+                if (time != SweptCollision.NO_HIT && (earliest == SweptCollision.NO_HIT || time < earliest)) {
+                    target = ship;
+                    earliest = time;
+                }
+            }
+            if (target != null) hit(cannonBall, target, earliest);
+            else if (blocked != SweptCollision.NO_HIT) block(cannonBall, blocked);
+        }
+    }
 
+    /**
+     * This method stops a cannon ball which has hit an island.
+     *
+     * @param cannonBall cannon ball which hits an island
+     * @param time       fraction of cannon ball's last movement at which island was hit
+     */
+    private void block(CannonBall cannonBall, double time) {
+        cannonBall.detonate();
+        eventBus.publish(GameEvent.Type.PROJECTILE_BLOCKED, null, cannonBall,
+                cannonBall.getCenterXAt(time), cannonBall.getCenterYAt(time), 0);
     }
 
     /**
@@ -236,11 +724,177 @@ public class Game {
      *
      * @param cannonBall cannon ball which hits a ship
      * @param ship       which is hit by a cannon ball
+     * @param time       fraction of cannon ball's last movement at which ship was hit
      */
-    private void hit(CannonBall cannonBall, Ship ship) {
-        ship.receiveDamage(cannonBall.getDamage());
+    private void hit(CannonBall cannonBall, Ship ship, double time) {
         cannonBall.detonate();
-        removeCannonBall(cannonBall);
+        eventBus.publish(GameEvent.Type.HIT, ship, cannonBall,
+                cannonBall.getCenterXAt(time), cannonBall.getCenterYAt(time), cannonBall.getDamage());
+        ship.receiveDamage(cannonBall.getDamage());
+    }
+
+    /**
+     * This method applies effects of game events published during a tick:
+     * adds shot cannon balls, counts shots and hits of a match, plays explosions
+     * and removes destroyed objects from a game.
+     *
+     * @param event event drained from a game event bus
+     */
+    @Override
+    public void onEvent(GameEvent event) {
+        switch (event.getType()) {
+            case SHOT_FIRED:
+                addCannonBall(event.getCannonBall());
+                if (event.getShip() == playerShip) matchResult.addShot();
+                break;
+            case HIT:
+                countHit(event.getCannonBall().getShip(), event.getAmount());
+                playExplosion(event.getPosX(), event.getPosY(), event.getCannonBall().getExplosionSize());
+                removeCannonBall(event.getCannonBall());
+                break;
+            case SHIP_DESTROYED:
+                playExplosion(event.getPosX(), event.getPosY(), event.getShip().getShipWidth());
+                removeShip(event.getShip());
+                fogOfWar.removeObserver(event.getShip());
+                minimap.remove(event.getShip());
+                world.destroy(event.getShip().getEntity());
+                break;
+            case PROJECTILE_EXPIRED:
+            case PROJECTILE_BLOCKED:
+                removeCannonBall(event.getCannonBall());
+                break;
+        }
+    }
+
+    /**
+     * Method used to choose whether next matches are played in survival mode, in which enemy ships
+     * are replaced by waves as they are destroyed and a match ends only when a player is destroyed.
+     * It takes effect when a match is set up or reset.
+     *
+     * @param survival true for survival mode, false for a standard match
+     */
+    public void setSurvival(boolean survival) {
+        this.survival = survival;
+    }
+
+    /**
+     * Method used to count enemy ships which haven't been destroyed yet.
+     *
+     * @return amount of live enemy ships
+     */
+    int countLiveEnemyShips() {
+        int count = 0;
+        for (int i = 0; i < enemyShips.size(); i++)
+            if (enemyShips.get(i).isAlive()) count++;
+        return count;
+    }
+
+    /**
+     * Method used by survival waves to spawn an enemy ship. A destroyed enemy ship is respawned if there is any,
+     * a new one is created only if all of them are alive. Ship enters at the top of a scene, in a lane
+     * which is farthest from other ships and isn't on an island.
+     *
+     * @param difficulty multiplier of abilities of a spawned ship
+     */
+    void spawnEnemyShip(double difficulty) {
+        double spawnPosX = 0;
+        double bestDistance = -1;
+        for (int lane = 0; lane < SPAWN_LANES; lane++) {
+            double x = (lane + 0.5) * gameView.getWidth() / SPAWN_LANES;
+            if (islandMap.isOnIsland(x, SPAWN_POS_Y)) continue;
+            double distance = Double.MAX_VALUE;
+            for (int i = 0; i < ships.size(); i++) {
+                Ship ship = ships.get(i);
+                if (!ship.isAlive()) continue;
+                double dx = ship.getCenterX() - x;
+                double dy = ship.getCenterY() - SPAWN_POS_Y;
+                distance = Math.min(distance, dx * dx + dy * dy);
+            }
+            if (distance > bestDistance) {
+                bestDistance = distance;
+                spawnPosX = x;
+            }
+        }
+        EnemyShip es = null;
+        for (int i = 0; i < enemyShips.size() && es == null; i++)
+            if (!enemyShips.get(i).isAlive()) es = enemyShips.get(i);
+        if (es == null) {
+            es = new EnemyShip(shipClasses.getRandomEnemyClass(matchRandom), spawnPosX, SPAWN_POS_Y, this);
+            enemyShips.add(es);
+            gameView.addNode(es);
+        } else {
+            es.respawn(spawnPosX, SPAWN_POS_Y);
+        }
+        es.setSeed(matchSeed + enemyShipsAmount + survivalWaves.getSpawnedShips());
+        es.setDifficulty(difficulty);
+        addShip(es);
+    }
+
+    /**
+     * Method used to bring a destroyed player ship back to a running match, for example when a survival match
+     * is simulated for a long time to measure it's load.
+     *
+     * @return true if a player ship was destroyed and has been brought back
+     */
+    public boolean respawnPlayer() {
+        if (playerShip.isAlive()) return false;
+        createPlayerShip();
+        return true;
+    }
+
+    /**
+     * This method describes how long a player has survived and how a game loop behaved in a survival match.
+     *
+     * @return report of a survival match
+     */
+    public String survivalReport() {
+        return "Survival: " + survivalSummary(", ") + "\n" + loadTracker.report();
+    }
+
+    /**
+     * This method describes how long a player has survived in a survival match, so it can be shown
+     * in a game over view and in a report.
+     *
+     * @param separator text put between time and amount of spawned enemy ships
+     * @return summary of a survival match
+     */
+    private String survivalSummary(String separator) {
+        return tickCount / FRAME_RATE + " s, wave " + (survivalWaves.getWave() + 1) + separator
+                + survivalWaves.getSpawnedShips() + " enemy ships spawned";
+    }
+
+    /**
+     * Getter for a scheduler of waves in survival mode.
+     *
+     * @return survival waves of a game
+     */
+    public SurvivalWaves getSurvivalWaves() {
+        return survivalWaves;
+    }
+
+    /**
+     * Getter for a tracker of a game loop in survival mode.
+     *
+     * @return load tracker of a game
+     */
+    public LoadTracker getLoadTracker() {
+        return loadTracker;
+    }
+
+    /**
+     * This method counts a hit in statistics of a match. Damage of enemy ships is counted
+     * by their index in a fleet, after a player ship.
+     *
+     * @param shooter ship which has shot a cannon ball
+     * @param damage  amount of dealt damage
+     */
+    private void countHit(Ship shooter, int damage) {
+        if (shooter == playerShip) {
+            matchResult.addHit();
+            matchResult.addDamage(0, damage);
+        } else {
+            matchResult.addDamage(enemyShips.indexOf(shooter) + 1, damage);
+        }
     }
 
     /**
@@ -270,6 +924,151 @@ public class Game {
         return playerShip;
     }
 
+    /**
+     * Getter for amount of game loop ticks simulated since the game was set up.
+     *
+     * @return amount of simulated ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Getter for a game's quality governor which decides how much optional work is done.
+     *
+     * @return game's QualityGovernor object
+     */
+    public QualityGovernor getQualityGovernor() {
+        return qualityGovernor;
+    }
+
+    /**
+     * Getter for a game's simulation level of detail which assigns simulation tiers to ships.
+     *
+     * @return game's SimulationLod object
+     */
+    public SimulationLod getSimulationLod() {
+        return simulationLod;
+    }
+
+    /**
+     * Getter for a game's scheduler of enemy ships' decisions.
+     *
+     * @return game's AiScheduler object
+     */
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    /**
+     * Getter for a game's map of islands and reefs.
+     *
+     * @return game's IslandMap object
+     */
+    public IslandMap getIslandMap() {
+        return islandMap;
+    }
+
+    /**
+     * Getter for classes of ships which can appear in a game.
+     *
+     * @return game's ShipClasses object
+     */
+    public ShipClasses getShipClasses() {
+        return shipClasses;
+    }
+
+    /**
+     * Getter for a game's flow field leading enemy ships towards a player's last seen position.
+     *
+     * @return game's FlowField object
+     */
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    /**
+     * Getter for a game's fog of war which decides what each side of a battle can see.
+     *
+     * @return game's FogOfWar object
+     */
+    public FogOfWar getFogOfWar() {
+        return fogOfWar;
+    }
+
+    /**
+     * Getter for a game's spatial index of ships, rebuilt at the beginning of every tick.
+     *
+     * @return game's SpatialGrid object
+     */
+    public SpatialGrid getSpatialGrid() {
+        return spatialGrid;
+    }
+
+    /**
+     * Getter for a game's fleet steering which computes desired headings of enemy ships.
+     *
+     * @return game's FleetSteering object
+     */
+    public FleetSteering getFleetSteering() {
+        return fleetSteering;
+    }
+
+    /**
+     * Getter for a game's projectile kinematics which moves all cannon balls.
+     *
+     * @return game's ProjectileKinematics object
+     */
+    public ProjectileKinematics getProjectileKinematics() {
+        return projectileKinematics;
+    }
+
+    /**
+     * Getter for a game's event bus on which simulation publishes game events.
+     *
+     * @return game's GameEventBus object
+     */
+    public GameEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Getter for a source of random choices of a match, which is seeded with a seed of a match,
+     * for example to choose classes of enemy ships.
+     *
+     * @return random choices of a match
+     */
+    Random getMatchRandom() {
+        return matchRandom;
+    }
+
+    /**
+     * Getter for a game's entity world in which state of ships is stored.
+     *
+     * @return game's EntityWorld object
+     */
+    public EntityWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Method used to write a snapshot of a simulation to a channel, for example a file or a socket.
+     * Snapshot starts with a header of magic number, tick, amount of ships, size of a ship record
+     * and amount of cannon balls, followed by records of ships and columns of cannon balls, which are
+     * written straight from their off-heap memory, so taking a snapshot copies nothing on Java heap.
+     *
+     * @param channel channel to which a snapshot is written
+     * @throws IOException if a snapshot can't be written
+     */
+    public void writeSnapshot(WritableByteChannel channel) throws IOException {
+        snapshotHeader.clear();
+        snapshotHeader.putInt(SNAPSHOT_MAGIC).putLong(tickCount).putInt(world.size())
+                .putInt(EntityWorld.RECORD_BYTES).putInt(projectileKinematics.size()).flip();
+        while (snapshotHeader.hasRemaining()) channel.write(snapshotHeader);
+        world.writeRecords(channel);
+        projectileKinematics.writeColumns(channel);
+    }
+
     /**
      * Getter for a game's GameView object.
      *
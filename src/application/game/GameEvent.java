@@ -0,0 +1,109 @@
+package application.game;
+
+/**
+ * Class representing single event published on a game event bus during a game loop tick.
+ * Objects of this class are preallocated by GameEventBus and reused for every published event,
+ * so they should not be stored by listeners after the event has been handled.
+ */
+public class GameEvent {
+
+    /**
+     * Enum used to distinguish kinds of events which can happen in a game.
+     */
+    public enum Type {SHOT_FIRED, HIT, SHIP_DESTROYED, PROJECTILE_EXPIRED, PROJECTILE_BLOCKED}
+
+    private Type type;
+    private Ship ship;
+    private CannonBall cannonBall;
+    private double posX;
+    private double posY;
+    private int amount;
+
+    /**
+     * Package-private constructor, events are created only by GameEventBus.
+     */
+    GameEvent() {
+    }
+
+    /**
+     * Method used to overwrite all event parameters when the event slot is reused.
+     *
+     * @param type       type of an event
+     * @param ship       ship which takes part in an event or null
+     * @param cannonBall cannon ball which takes part in an event or null
+     * @param posX       X coordinate on a game scene where event happened
+     * @param posY       Y coordinate on a game scene where event happened
+     * @param amount     amount related to an event, for example damage dealt
+     */
+    void set(Type type, Ship ship, CannonBall cannonBall, double posX, double posY, int amount) {
+        this.type = type;
+        this.ship = ship;
+        this.cannonBall = cannonBall;
+        this.posX = posX;
+        this.posY = posY;
+        this.amount = amount;
+    }
+
+    /**
+     * Method used to release references held by an event after it has been handled.
+     */
+    void clear() {
+        ship = null;
+        cannonBall = null;
+    }
+
+    /**
+     * Getter for type of an event.
+     *
+     * @return type of an event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Getter for a ship which takes part in an event.
+     * For SHOT_FIRED it's a shooting ship, for HIT and SHIP_DESTROYED it's a ship which was hit.
+     *
+     * @return ship taking part in an event or null
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * Getter for a cannon ball which takes part in an event.
+     *
+     * @return cannon ball taking part in an event or null
+     */
+    public CannonBall getCannonBall() {
+        return cannonBall;
+    }
+
+    /**
+     * Getter for X coordinate of an event on a game scene.
+     *
+     * @return X coordinate of an event
+     */
+    public double getPosX() {
+        return posX;
+    }
+
+    /**
+     * Getter for Y coordinate of an event on a game scene.
+     *
+     * @return Y coordinate of an event
+     */
+    public double getPosY() {
+        return posY;
+    }
+
+    /**
+     * Getter for amount related to an event, for example damage dealt by a hit.
+     *
+     * @return amount related to an event
+     */
+    public int getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,113 @@
+package application.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to pass game events from simulation phases of a game loop to their consumers.
+ * Events are stored in a preallocated ring buffer of reusable GameEvent objects and
+ * are delivered to listeners in batches after a tick, in the same order as they were published.
+ * Publishing and draining happen on the game loop thread, so no locking is needed.
+ */
+public class GameEventBus {
+
+    private GameEvent[] events;
+    private int mask;
+    private int head = 0;
+    private int tail = 0;
+
+    private List<GameEventListener> listeners;
+
+    /**
+     * Constructor which preallocates ring buffer with event objects.
+     *
+     * @param capacity initial amount of events which can be stored between drains,
+     *                 rounded up to a power of two
+     */
+    public GameEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        events = new GameEvent[size];
+        for (int i = 0; i < size; i++) events[i] = new GameEvent();
+        mask = size - 1;
+        listeners = new ArrayList<>();
+    }
+
+    /**
+     * Method used to register consumer of game events.
+     *
+     * @param listener listener which will receive drained events
+     */
+    public void subscribe(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Method used to unregister consumer of game events.
+     *
+     * @param listener listener which won't receive drained events anymore
+     */
+    public void unsubscribe(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Method used to publish an event which will be delivered to listeners on next drain.
+     * Event object is taken from a ring buffer, so no allocation happens unless the buffer is full.
+     *
+     * @param type       type of an event
+     * @param ship       ship which takes part in an event or null
+     * @param cannonBall cannon ball which takes part in an event or null
+     * @param posX       X coordinate on a game scene where event happened
+     * @param posY       Y coordinate on a game scene where event happened
+     * @param amount     amount related to an event, for example damage dealt
+     */
+    public void publish(GameEvent.Type type, Ship ship, CannonBall cannonBall, double posX, double posY, int amount) {
+        if (tail - head == events.length) grow();
+        events[tail & mask].set(type, ship, cannonBall, posX, posY, amount);
+        tail++;
+    }
+
+    /**
+     * Method used to deliver all pending events to listeners.
+     * Events published by listeners during a drain are delivered in the same drain.
+     */
+    public void drain() {
+        while (head != tail) {
+            GameEvent event = events[head & mask];
+            for (int i = 0; i < listeners.size(); i++) listeners.get(i).onEvent(event);
+            event.clear();
+            head++;
+        }
+    }
+
+    /**
+     * Method used to drop all pending events without delivering them.
+     */
+    public void clear() {
+        while (head != tail) events[head++ & mask].clear();
+    }
+
+    /**
+     * Getter for amount of events waiting for a drain.
+     *
+     * @return amount of pending events
+     */
+    public int getPendingCount() {
+        return tail - head;
+    }
+
+    /**
+     * Method used to double ring buffer capacity when more events are published in one tick
+     * than it can store. Pending events keep their order.
+     */
+    private void grow() {
+        GameEvent[] grown = new GameEvent[events.length * 2];
+        int pending = tail - head;
+        for (int i = 0; i < pending; i++) grown[i] = events[(head + i) & mask];
+        for (int i = pending; i < grown.length; i++) grown[i] = new GameEvent();
+        events = grown;
+        mask = grown.length - 1;
+        head = 0;
+        tail = pending;
+    }
+}
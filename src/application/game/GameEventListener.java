@@ -0,0 +1,14 @@
+package application.game;
+
+/**
+ * Interface implemented by consumers of game events, for example effects, HUD or statistics.
+ */
+public interface GameEventListener {
+
+    /**
+     * Method called for every event drained from a game event bus after a game loop tick.
+     *
+     * @param event event which happened during a tick, reused after this method returns
+     */
+    void onEvent(GameEvent event);
+}
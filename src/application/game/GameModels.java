@@ -28,6 +28,7 @@ public enum GameModels {
     private static final String directoryName = "/application/resources/";
     private String url;
     private static final int enemyShipModelsAmount = 5;
+    private static final GameModels[] MODELS = values();
 
     /**
      * Constructor initializing enum type and setting
@@ -48,6 +49,18 @@ public enum GameModels {
         return url;
     }
 
+    /**
+     * Static method finding a model by it's url.
+     *
+     * @param url url of a model file in project's "resources" package
+     * @return model with given url or null if there is no such model
+     */
+    public static GameModels fromUrl(String url) {
+        for (GameModels model : MODELS)
+            if (model.url.equals(url)) return model;
+        return null;
+    }
+
     /**
      * Static method returning random ship model url used to create enemy ship.
      *
@@ -0,0 +1,264 @@
+package application.game;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class exposes live statistics of a game through JMX.
+ * Game loop publishes a few counters once per tick with volatile writes and measures phase times
+ * with TickProfiler, everything else like tick rate or allocation rate is computed only when
+ * a monitoring client asks for it, so monitoring costs almost nothing on the game loop thread.
+ * Control operations are passed to JavaFX application thread. Snapshots are saved only to a fixed directory
+ * set by a system property, or in a user's home directory if it isn't set, so a monitoring client
+ * can't write to any other file.
+ */
+public class GameMonitor implements GameMonitorMBean {
+
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "ships.snapshots";
+
+    private Game game;
+    private TickProfiler profiler;
+    private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private volatile long gameThreadId = -1;
+    private volatile int shipCount;
+    private volatile int projectileCount;
+    private volatile int explosionsInFlight;
+    private volatile int particleCount;
+    private volatile int sceneNodeCount;
+    private volatile long tickCount;
+    private volatile String qualityLevel = "";
+    private volatile double timeScale = 1;
+    private volatile boolean running;
+
+    private long lastRateNanos = -1;
+    private long lastRateTicks;
+    private double tickRate;
+    private long lastAllocationNanos = -1;
+    private long lastAllocatedBytes;
+    private double allocationRate;
+
+    /**
+     * Constructor initializing monitor of a game.
+     *
+     * @param game     monitored game
+     * @param profiler profiler measuring game loop ticks
+     */
+    public GameMonitor(Game game, TickProfiler profiler) {
+        this.game = game;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Method called by a game loop at the end of every tick to publish current counters.
+     *
+     * @param ships              amount of ships in game
+     * @param projectiles        amount of cannon balls in game
+     * @param explosions         amount of explosions being animated
+     * @param particles          amount of live particles
+     * @param sceneNodes         amount of nodes on a game pane
+     * @param ticks              amount of simulated ticks
+     * @param level              current quality level
+     * @param gameRunning        true if game isn't paused
+     */
+    public void publish(int ships, int projectiles, int explosions, int particles, int sceneNodes, long ticks,
+                        QualityLevel level, boolean gameRunning) {
+        if (gameThreadId < 0) gameThreadId = Thread.currentThread().getId();
+        shipCount = ships;
+        projectileCount = projectiles;
+        explosionsInFlight = explosions;
+        particleCount = particles;
+        sceneNodeCount = sceneNodes;
+        tickCount = ticks;
+        qualityLevel = level.name();
+        running = gameRunning;
+    }
+
+    @Override
+    public int getShipCount() {
+        return shipCount;
+    }
+
+    @Override
+    public int getProjectileCount() {
+        return projectileCount;
+    }
+
+    @Override
+    public int getExplosionsInFlight() {
+        return explosionsInFlight;
+    }
+
+    @Override
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    @Override
+    public int getSceneNodeCount() {
+        return sceneNodeCount;
+    }
+
+    @Override
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Tick rate is computed from amount of ticks simulated since the previous call.
+     *
+     * @return ticks per second
+     */
+    @Override
+    public synchronized double getTickRate() {
+        long now = System.nanoTime();
+        long ticks = tickCount;
+        if (lastRateNanos >= 0 && now > lastRateNanos)
+            tickRate = (ticks - lastRateTicks) * 1e9 / (now - lastRateNanos);
+        lastRateNanos = now;
+        lastRateTicks = ticks;
+        return tickRate;
+    }
+
+    @Override
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    @Override
+    public void setTimeScale(double timeScale) {
+        if (timeScale <= 0) throw new IllegalArgumentException("Time scale must be positive");
+        this.timeScale = timeScale;
+        Platform.runLater(() -> game.setTimeScale(timeScale));
+    }
+
+    @Override
+    public String getQualityLevel() {
+        return qualityLevel;
+    }
+
+    /**
+     * Allocation rate of a game loop thread is computed from amount of bytes allocated
+     * by this thread since the previous call, which is read by JVM without involving game loop thread.
+     *
+     * @return bytes allocated by a game loop thread per second or 0 if it can't be measured
+     */
+    @Override
+    public synchronized double getAllocationRateBytesPerSecond() {
+        if (gameThreadId < 0 || !(threads instanceof com.sun.management.ThreadMXBean)) return 0;
+        long bytes = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(gameThreadId);
+        long now = System.nanoTime();
+        if (bytes < 0) return 0;
+        if (lastAllocationNanos >= 0 && now > lastAllocationNanos)
+            allocationRate = (bytes - lastAllocatedBytes) * 1e9 / (now - lastAllocationNanos);
+        lastAllocationNanos = now;
+        lastAllocatedBytes = bytes;
+        return allocationRate;
+    }
+
+    @Override
+    public double getTickTimeP50Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.TICK, 50);
+    }
+
+    @Override
+    public double getTickTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.TICK, 99);
+    }
+
+    @Override
+    public double getAiTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.AI, 99);
+    }
+
+    @Override
+    public double getMovementTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.MOVEMENT, 99);
+    }
+
+    @Override
+    public double getCollisionsTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.COLLISIONS, 99);
+    }
+
+    @Override
+    public double getEventsTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.EVENTS, 99);
+    }
+
+    @Override
+    public double getVisibilityTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.VISIBILITY, 99);
+    }
+
+    @Override
+    public double getEffectsTimeP99Millis() {
+        return profiler.percentileMillis(TickProfiler.Phase.EFFECTS, 99);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void pause() {
+        Platform.runLater(() -> {
+            if (game.isRunning()) game.pause();
+        });
+    }
+
+    @Override
+    public void resume() {
+        Platform.runLater(() -> {
+            if (!game.isRunning()) game.unpause();
+        });
+    }
+
+    @Override
+    public void resetStatistics() {
+        profiler.reset();
+    }
+
+    @Override
+    public void saveSnapshot(String name) {
+        if (name == null || name.isEmpty() || name.equals(".") || name.equals("..") || name.indexOf('/') >= 0
+                || name.indexOf('\\') >= 0 || name.indexOf(':') >= 0 || name.indexOf('\0') >= 0)
+            throw new IllegalArgumentException("snapshot name " + name + " isn't a plain file name");
+        Path directory = snapshotDirectory();
+        Path file = directory.resolve(name).normalize();
+        if (!directory.equals(file.getParent()))
+            throw new IllegalArgumentException("snapshot name " + name + " isn't a plain file name");
+        Platform.runLater(() -> {
+            try {
+                Files.createDirectories(directory);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    game.writeSnapshot(channel);
+                }
+            } catch (IOException e) {
+                System.err.println("Snapshot " + file + " couldn't be saved: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * This method finds a directory in which snapshots are saved.
+     *
+     * @return directory set by a system property or a directory in a user's home directory
+     */
+    private static Path snapshotDirectory() {
+        String property = System.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+        Path directory = property != null ? Paths.get(property)
+                : Paths.get(System.getProperty("user.home"), ".ships", "snapshots");
+        return directory.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,172 @@
+package application.game;
+
+/**
+ * Management interface of a game engine, exposed through JMX to monitor a running game
+ * and to control it without a debugger.
+ */
+public interface GameMonitorMBean {
+
+    /**
+     * Getter for amount of ships in a game.
+     *
+     * @return amount of ships
+     */
+    int getShipCount();
+
+    /**
+     * Getter for amount of cannon balls in flight.
+     *
+     * @return amount of cannon balls
+     */
+    int getProjectileCount();
+
+    /**
+     * Getter for amount of explosion animations being played.
+     *
+     * @return amount of explosions
+     */
+    int getExplosionsInFlight();
+
+    /**
+     * Getter for amount of live particles of effects.
+     *
+     * @return amount of particles
+     */
+    int getParticleCount();
+
+    /**
+     * Getter for amount of graphical nodes on a game pane.
+     *
+     * @return amount of scene graph nodes
+     */
+    int getSceneNodeCount();
+
+    /**
+     * Getter for amount of game loop ticks simulated since a game was set up.
+     *
+     * @return amount of ticks
+     */
+    long getTickCount();
+
+    /**
+     * Getter for current rate of game loop ticks.
+     *
+     * @return ticks per second
+     */
+    double getTickRate();
+
+    /**
+     * Getter for speed of a game.
+     *
+     * @return speed of a game, 1 is normal speed
+     */
+    double getTimeScale();
+
+    /**
+     * Setter for speed of a game, applied to game animation timeline.
+     *
+     * @param timeScale speed of a game, 1 is normal speed
+     */
+    void setTimeScale(double timeScale);
+
+    /**
+     * Getter for current quality level chosen by game's quality governor.
+     *
+     * @return name of a quality level
+     */
+    String getQualityLevel();
+
+    /**
+     * Getter for rate of memory allocation on a game loop thread.
+     *
+     * @return allocated bytes per second
+     */
+    double getAllocationRateBytesPerSecond();
+
+    /**
+     * Getter for median time of a game loop tick.
+     *
+     * @return time in milliseconds
+     */
+    double getTickTimeP50Millis();
+
+    /**
+     * Getter for 99th percentile of a game loop tick time.
+     *
+     * @return time in milliseconds
+     */
+    double getTickTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on AI and player input in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getAiTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on moving ships and cannon balls in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getMovementTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on hits and collisions in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getCollisionsTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on handling game events in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getEventsTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on updating fog of war in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getVisibilityTimeP99Millis();
+
+    /**
+     * Getter for 99th percentile of time spent on emitting, updating and drawing particles in a tick.
+     *
+     * @return time in milliseconds
+     */
+    double getEffectsTimeP99Millis();
+
+    /**
+     * Getter to check whether a game is running.
+     *
+     * @return true if game isn't paused
+     */
+    boolean isRunning();
+
+    /**
+     * Operation which pauses a game.
+     */
+    void pause();
+
+    /**
+     * Operation which resumes a paused game.
+     */
+    void resume();
+
+    /**
+     * Operation which forgets measured tick times.
+     */
+    void resetStatistics();
+
+    /**
+     * Operation which saves a snapshot of ships and cannon balls to a file between two ticks.
+     * File is created in a snapshot directory of a game, a name can't contain a path.
+     *
+     * @param name name of a created file
+     * @throws IllegalArgumentException if a name isn't a plain file name
+     */
+    void saveSnapshot(String name);
+}
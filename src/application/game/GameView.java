@@ -1,5 +1,6 @@
 package application.game;
 
+import application.Assets;
 import application.menu.*;
 import javafx.geometry.Bounds;
 import javafx.geometry.Pos;
@@ -9,7 +10,6 @@ import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
-import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 
@@ -21,6 +21,8 @@ import static application.Main.menuView;
  */
 public class GameView {
 
+    private static final double MINIMAP_MARGIN = 10;
+
     private Stage mainStage;
 
     private double width;
@@ -33,6 +35,10 @@ public class GameView {
     private VBox pauseView;
     private VBox leaveWarningView;
     private VBox gameOverView;
+    private ImageView gameResult;
+    private Label survivalLabel;
+    private SmallMenuButton pauseButton;
+    private Label qualityLabel;
 
     /**
      * Constructor for GameView class creating and initializing game menu
@@ -51,7 +57,8 @@ public class GameView {
 
     /**
      * This method initializes stage of game view and creates all of it's elements:
-     * background, buttons, pause view and leave to menu warning.
+     * background, buttons, pause view, leave to menu warning and game over view.
+     * Elements are created once and reused in every match displayed on this game view.
      */
     private void initializeStage() {
         gamePane = new Pane();
@@ -60,14 +67,14 @@ public class GameView {
         createTopButtons();
         createPauseView();
         createLeaveWarning();
+        createGameOverView();
     }
 
     /**
      * This method creates a background for a game scene.
      */
     private void createBackground() {
-        Image backgroundImage = new Image(GameModels.WATER_TILE.getUrl(),
-                64, 64, false, true);
+        Image backgroundImage = Assets.getImage(GameModels.WATER_TILE.getUrl());
         BackgroundImage background = new BackgroundImage(backgroundImage, BackgroundRepeat.REPEAT,
                 BackgroundRepeat.REPEAT, BackgroundPosition.DEFAULT, null);
         gamePane.setBackground(new Background(background));
@@ -88,7 +95,7 @@ public class GameView {
             }
         });
 
-        SmallMenuButton pauseButton = new SmallMenuButton("⏸");
+        pauseButton = new SmallMenuButton("⏸");
         pauseButton.setFocusTraversable(false);
         pauseButton.setLayoutX(50);
         pauseButton.setOnAction(e -> {
@@ -106,7 +113,14 @@ public class GameView {
                 }
             }
         });
-        gamePane.getChildren().addAll(goMenuButton, pauseButton);
+        qualityLabel = new Label();
+        qualityLabel.setFocusTraversable(false);
+        qualityLabel.setFont(Assets.getFont(25));
+        qualityLabel.setOpacity(0.5);
+        qualityLabel.setLayoutX(110);
+        qualityLabel.setLayoutY(10);
+
+        gamePane.getChildren().addAll(goMenuButton, pauseButton, qualityLabel);
     }
 
     /**
@@ -120,8 +134,7 @@ public class GameView {
         pauseView.setLayoutY(height / 2 - 50);
         Label pausedLabel = new Label("PAUSED");
         pausedLabel.setTextAlignment(TextAlignment.CENTER);
-        Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 50);
-        pausedLabel.setFont(font);
+        pausedLabel.setFont(Assets.getFont(50));
         pauseView.getChildren().add(pausedLabel);
     }
 
@@ -139,11 +152,11 @@ public class GameView {
 
         Label leaveLabel = new Label("Quit to menu?\nYour progress won't be saved.");
         leaveLabel.setTextAlignment(TextAlignment.CENTER);
-        Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 30);
-        leaveLabel.setFont(font);
+        leaveLabel.setFont(Assets.getFont(30));
 
         MenuButton yesButton = new MenuButton("YES");
         yesButton.setOnAction(e -> {
+            game.stop();
             menuView.show();
         });
 
@@ -158,14 +171,11 @@ public class GameView {
     }
 
     /**
-     * This method is used to show view for the finished game
-     * depending on game result in the middle of a game scene.
-     * View contains victory or defeat title text along with
-     * 2 buttons to leave to menu or restart level.
-     *
-     * @param victory boolean value which is true if player has won the game
+     * This method is used to create view for the finished game.
+     * View contains victory or defeat title image, a summary of a survival match along with
+     * 2 buttons to leave to menu or restart level, in which the same game is reset.
      */
-    public void displayGameOverView(boolean victory) {
+    private void createGameOverView() {
         gameOverView = new VBox();
         gameOverView.setFocusTraversable(false);
         gameOverView.setLayoutX(width / 2 - 250);
@@ -173,34 +183,71 @@ public class GameView {
         gameOverView.setAlignment(Pos.CENTER);
         gameOverView.setSpacing(30);
 
-        ImageView result;
-        if (victory)
-            result = new ImageView(GameModels.VICTORY.getUrl());
-        else
-            result = new ImageView(GameModels.DEFEAT.getUrl());
-        result.setFitWidth(500);
-        result.setFitHeight(100);
+        gameResult = new ImageView();
+        gameResult.setFitWidth(500);
+        gameResult.setFitHeight(100);
+
+        survivalLabel = new Label();
+        survivalLabel.setTextAlignment(TextAlignment.CENTER);
+        survivalLabel.setFont(Assets.getFont(30));
 
         MenuButton menuButton = new MenuButton("MENU");
         menuButton.setOnAction(e -> {
+            game.stop();
             menuView.show();
         });
 
         MenuButton restartButton = new MenuButton("RESTART");
         restartButton.setOnAction(e -> {
-            this.gamePane.getChildren().clear();
-            createTopButtons();
-            inGameMenuShowed = false;
-            game = new Game(this, menuView.getEnemyShipsAmount());
-            game.setup();
+            game.reset(menuView.getEnemyShipsAmount());
+            reset();
             game.start();
         });
 
-        gameOverView.getChildren().addAll(result, menuButton, restartButton);
-        gamePane.getChildren().add(gameOverView);
+        gameOverView.getChildren().addAll(gameResult, survivalLabel, menuButton, restartButton);
+    }
+
+    /**
+     * This method is used to show view for the finished game
+     * depending on game result in the middle of a game scene.
+     * After a survival match it also shows how long a player has survived.
+     *
+     * @param victory         boolean value which is true if player has won the game
+     * @param survivalSummary summary of a survival match or null if match wasn't a survival one
+     */
+    public void displayGameOverView(boolean victory, String survivalSummary) {
+        if (victory)
+            Assets.setSprite(gameResult, GameModels.VICTORY.getUrl());
+        else
+            Assets.setSprite(gameResult, GameModels.DEFEAT.getUrl());
+        survivalLabel.setText(survivalSummary);
+        survivalLabel.setVisible(survivalSummary != null);
+        survivalLabel.setManaged(survivalSummary != null);
+        if (!isOnGamePane(gameOverView)) addNode(gameOverView);
         inGameMenuShowed = true;
     }
 
+    /**
+     * This method prepares game view for a new match: removes pause view, leave to menu warning
+     * and game over view from a game scene and brings pause button back to it's initial state.
+     */
+    public void reset() {
+        if (isOnGamePane(pauseView)) removeNode(pauseView);
+        if (isOnGamePane(leaveWarningView)) removeNode(leaveWarningView);
+        if (isOnGamePane(gameOverView)) removeNode(gameOverView);
+        pauseButton.setText("⏸");
+        inGameMenuShowed = false;
+    }
+
+    /**
+     * This method is used to display current quality level of a game next to in-game buttons.
+     *
+     * @param level quality level chosen by game's quality governor
+     */
+    public void showQualityLevel(QualityLevel level) {
+        qualityLabel.setText("QUALITY: " + level);
+    }
+
     /**
      * This method is used to add graphical node to a game view
      *
@@ -210,6 +257,29 @@ public class GameView {
         gamePane.getChildren().add(node);
     }
 
+    /**
+     * This method is used to add graphical node to a game view below all other nodes,
+     * for example to display effects on water under ships.
+     *
+     * @param node node to be added to a game view
+     */
+    public void addBackgroundNode(Node node) {
+        gamePane.getChildren().add(0, node);
+    }
+
+    /**
+     * This method is used to display a minimap in the bottom right corner of a game view, above all other nodes
+     * which are already on it.
+     *
+     * @param minimap node of a minimap with it's final size
+     */
+    public void showMinimap(Node minimap) {
+        Bounds bounds = minimap.getLayoutBounds();
+        minimap.setLayoutX(width - bounds.getWidth() - MINIMAP_MARGIN);
+        minimap.setLayoutY(height - bounds.getHeight() - MINIMAP_MARGIN);
+        addNode(minimap);
+    }
+
     /**
      * This method is used to remove graphical node to a game view
      *
@@ -220,12 +290,12 @@ public class GameView {
     }
 
     /**
-     * This method is used to remove cannon balls from a game view after finished game.
+     * This method is used to count graphical nodes displayed directly on a game pane.
+     *
+     * @return amount of nodes on a game pane
      */
-    public void clearCannonballs() {
-        gamePane.getChildren().removeIf(n ->
-                n instanceof CannonBall
-        );
+    public int getNodeCount() {
+        return gamePane.getChildren().size();
     }
 
     /**
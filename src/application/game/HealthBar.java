@@ -1,24 +1,24 @@
 package application.game;
 
-import application.menu.MenuModels;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import application.Assets;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.text.Font;
-import javafx.util.Duration;
 
 /**
  * This class is used to graphically display health points of a ship in game.
  */
 public class HealthBar extends StackPane {
 
+    private static final double BAR_WIDTH = 50;
+
     private int currentHealthPoints;
     private int maxHealthPoints;
-    private int duration = 2;
+    private int duration = 120;
+    private int shownTicks = 0;
 
+    private ShipClass shipClass;
     private Label healthLabel;
     private Rectangle health;
     private Rectangle frame;
@@ -26,46 +26,70 @@ public class HealthBar extends StackPane {
     /**
      * Constructor for graphical node of a ship health bar
      * displaying "current / maximum" health points of a ship.
-     *
-     * @param healthPoints healthPoints of a Ship object which has a health bar.
+     * Maximum health points are set by a class of a ship.
      */
-    HealthBar(int healthPoints) {
+    HealthBar() {
         this.setVisible(false);
-        maxHealthPoints = healthPoints;
-        currentHealthPoints = maxHealthPoints;
-        healthLabel = new Label(Integer.toString(currentHealthPoints) + '/' + Integer.toString(maxHealthPoints));
-        Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 10);
-        healthLabel.setFont(font);
+        healthLabel = new Label();
+        healthLabel.setFont(Assets.getFont(10));
 
-        frame = new Rectangle(0, 0, 50, 10);
+        frame = new Rectangle(0, 0, BAR_WIDTH, 10);
         frame.setStroke(Color.BLACK);
         frame.setFill(Color.TRANSPARENT);
 
-        health = new Rectangle(0, 0, 50, 10);
+        health = new Rectangle(0, 0, BAR_WIDTH, 10);
         health.setFill(Color.GREEN);
 
         this.getChildren().addAll(frame, health, healthLabel);
     }
 
+    /**
+     * This method sets maximum health points of a ship's class and refills health bar.
+     * Texts of a label for every amount of health points are shared by all ships of a class,
+     * so they are reused whenever a ship is hit.
+     *
+     * @param shipClass class of a ship which has a health bar
+     */
+    void setShipClass(ShipClass shipClass) {
+        this.shipClass = shipClass;
+        maxHealthPoints = shipClass.getHealthPoints();
+        reset();
+    }
+
     /**
      * This method shows ship's health bar briefly after it's ship has been hit.
+     * Health bar stays visible for a few ticks of a game loop, which is 2 seconds at 60 frames per second.
+     * Health bar is only updated without being shown if shown parameter is false.
      *
      * @param currentHealthPoints current ship health points to update on a health bar label
+     * @param shown               true if health bar should be displayed
      */
-    public void show(int currentHealthPoints) {
+    public void show(int currentHealthPoints, boolean shown) {
         this.currentHealthPoints = currentHealthPoints;
-        healthLabel.setText(Integer.toString(currentHealthPoints) + '/' + maxHealthPoints);
-        health.setWidth((float) currentHealthPoints / 2);
+        healthLabel.setText(shipClass.getHealthLabel(currentHealthPoints));
+        health.setWidth(BAR_WIDTH * Math.max(currentHealthPoints, 0) / maxHealthPoints);
         if ((float) currentHealthPoints / maxHealthPoints <= 0.25) health.setFill(Color.RED);
+        if (!shown) return;
+        this.setVisible(true);
+        shownTicks = duration;
+    }
 
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.ZERO, e -> {
-                    this.setVisible(true);
-                }),
-                new KeyFrame(Duration.seconds(duration), e -> {
-                    this.setVisible(false);
-                })
-        );
-        timeline.play();
+    /**
+     * This method refills health bar and hides it, so it can be used again when it's ship is respawned.
+     */
+    void reset() {
+        currentHealthPoints = maxHealthPoints;
+        healthLabel.setText(shipClass.getHealthLabel(maxHealthPoints));
+        health.setWidth(BAR_WIDTH);
+        health.setFill(Color.GREEN);
+        shownTicks = 0;
+        this.setVisible(false);
+    }
+
+    /**
+     * Method called in every tick of a game loop which hides health bar when it's been shown long enough.
+     */
+    void update() {
+        if (shownTicks > 0 && --shownTicks == 0) this.setVisible(false);
     }
 }
@@ -0,0 +1,244 @@
+package application.game;
+
+import application.Assets;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is used to check collisions of ships pixel by pixel. Mask of a ship model is built from alpha channel
+ * of it's image scaled to a ship's size, then rotated in advance by every quantized angle. Each rotated mask
+ * is a square around a ship center in which every row is stored as bits of long words, so two masks are compared
+ * by shifting words of one of them and joining them with bitwise AND, 64 pixels at once, only in rows and columns
+ * where both masks can have solid pixels. Masks are shared by all ships of the same model, so they are built once.
+ */
+public class HullMask {
+
+    public static final int ROTATIONS = 128;
+    private static final int ALPHA_THRESHOLD = 128;
+
+    private static final Map<String, HullMask> masks = new ConcurrentHashMap<>();
+
+    private int rotations;
+    private int size;
+    private int half;
+    private int words;
+    private long[][] bits;
+    private int[] minRow;
+    private int[] maxRow;
+    private int[] minColumn;
+    private int[] maxColumn;
+    private double[] solidArea = new double[4];
+
+    /**
+     * Constructor creating empty masks for given amount of rotations.
+     *
+     * @param rotations amount of quantized angles
+     * @param size      width and height of a square containing a mask rotated by any angle
+     */
+    private HullMask(int rotations, int size) {
+        this.rotations = rotations;
+        this.size = size;
+        half = size / 2;
+        words = (size + 63) / 64;
+        bits = new long[rotations][size * words];
+        minRow = new int[rotations];
+        maxRow = new int[rotations];
+        minColumn = new int[rotations];
+        maxColumn = new int[rotations];
+    }
+
+    /**
+     * Getter for a shared mask of a ship model. Mask is built when it's needed for the first time.
+     *
+     * @param imageUrl url of a ship image
+     * @param width    width of a ship on a game scene
+     * @param height   height of a ship on a game scene
+     * @return mask of a ship model
+     */
+    public static HullMask of(String imageUrl, double width, double height) {
+        return masks.computeIfAbsent(imageUrl + "@" + width + "x" + height,
+                key -> fromImage(Assets.getImage(imageUrl), width, height));
+    }
+
+    /**
+     * Getter for a shared mask of a circle, for example of a cannon ball. Circle looks the same
+     * in every angle, so it has only one rotation.
+     *
+     * @param radius radius of a circle
+     * @return mask of a circle
+     */
+    public static HullMask circle(double radius) {
+        return masks.computeIfAbsent("circle@" + radius, key -> {
+            HullMask mask = new HullMask(1, 2 * (int) Math.ceil(radius) + 2);
+            double center = mask.half;
+            for (int row = 0; row < mask.size; row++)
+                for (int column = 0; column < mask.size; column++) {
+                    double dx = column + 0.5 - center;
+                    double dy = row + 0.5 - center;
+                    if (dx * dx + dy * dy <= radius * radius) mask.set(0, column, row);
+                }
+            mask.solidArea = new double[]{center - radius, center - radius, center + radius, center + radius};
+            mask.computeBounds(0);
+            return mask;
+        });
+    }
+
+    /**
+     * This method builds masks of an image scaled to given size in all rotations. Pixel of a rotated mask
+     * is solid if a pixel of an image which is rotated onto it's center is opaque enough.
+     *
+     * @param image  image of a ship model
+     * @param width  width of a ship on a game scene
+     * @param height height of a ship on a game scene
+     * @return built mask
+     */
+    private static HullMask fromImage(Image image, double width, double height) {
+        int imageWidth = (int) image.getWidth();
+        int imageHeight = (int) image.getHeight();
+        int[] argb = new int[imageWidth * imageHeight];
+        image.getPixelReader().getPixels(0, 0, imageWidth, imageHeight, PixelFormat.getIntArgbInstance(),
+                argb, 0, imageWidth);
+
+        HullMask mask = new HullMask(ROTATIONS, 2 * (int) Math.ceil(Math.hypot(width, height) / 2) + 2);
+        mask.solidArea = new double[]{width, height, 0, 0};
+        for (int i = 0; i < argb.length; i++) {
+            if (argb[i] >>> 24 < ALPHA_THRESHOLD) continue;
+            double x = (i % imageWidth) * width / imageWidth;
+            double y = (i / imageWidth) * height / imageHeight;
+            mask.solidArea[0] = Math.min(mask.solidArea[0], x);
+            mask.solidArea[1] = Math.min(mask.solidArea[1], y);
+            mask.solidArea[2] = Math.max(mask.solidArea[2], x + width / imageWidth);
+            mask.solidArea[3] = Math.max(mask.solidArea[3], y + height / imageHeight);
+        }
+
+        for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+            double radians = Math.toRadians(rotation * 360.0 / ROTATIONS);
+            double cos = Math.cos(radians);
+            double sin = Math.sin(radians);
+            for (int row = 0; row < mask.size; row++) {
+                for (int column = 0; column < mask.size; column++) {
+                    double dx = column + 0.5 - mask.half;
+                    double dy = row + 0.5 - mask.half;
+                    double localX = dx * cos + dy * sin + width / 2;
+                    double localY = -dx * sin + dy * cos + height / 2;
+                    if (localX < 0 || localX >= width || localY < 0 || localY >= height) continue;
+                    int pixel = (int) (localY * imageHeight / height) * imageWidth + (int) (localX * imageWidth / width);
+                    if (argb[pixel] >>> 24 >= ALPHA_THRESHOLD) mask.set(rotation, column, row);
+                }
+            }
+            mask.computeBounds(rotation);
+        }
+        return mask;
+    }
+
+    /**
+     * This method marks a pixel of a rotated mask as solid.
+     *
+     * @param rotation index of a rotation
+     * @param column   column of a pixel
+     * @param row      row of a pixel
+     */
+    private void set(int rotation, int column, int row) {
+        bits[rotation][row * words + (column >>> 6)] |= 1L << column;
+    }
+
+    /**
+     * This method finds rows and columns of a rotated mask which contain solid pixels.
+     *
+     * @param rotation index of a rotation
+     */
+    private void computeBounds(int rotation) {
+        minRow[rotation] = size;
+        minColumn[rotation] = size;
+        maxRow[rotation] = -1;
+        maxColumn[rotation] = -1;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if ((bits[rotation][row * words + (column >>> 6)] & 1L << column) == 0) continue;
+                minRow[rotation] = Math.min(minRow[rotation], row);
+                maxRow[rotation] = Math.max(maxRow[rotation], row);
+                minColumn[rotation] = Math.min(minColumn[rotation], column);
+                maxColumn[rotation] = Math.max(maxColumn[rotation], column);
+            }
+        }
+    }
+
+    /**
+     * Method used to check whether this mask overlaps other mask, when both are placed with their centers
+     * in given points and rotated by given angles. Centers are rounded to whole pixels.
+     *
+     * @param angle        angle in degrees by which this mask is rotated
+     * @param centerX      X coordinate of this mask center on a game scene
+     * @param centerY      Y coordinate of this mask center on a game scene
+     * @param other        other mask
+     * @param otherAngle   angle in degrees by which other mask is rotated
+     * @param otherCenterX X coordinate of other mask center on a game scene
+     * @param otherCenterY Y coordinate of other mask center on a game scene
+     * @return true if any solid pixels of both masks overlap
+     */
+    public boolean overlaps(double angle, double centerX, double centerY,
+                            HullMask other, double otherAngle, double otherCenterX, double otherCenterY) {
+        int rotation = rotationOf(angle);
+        int otherRotation = other.rotationOf(otherAngle);
+        int offsetX = (int) Math.round(otherCenterX - centerX) + half - other.half;
+        int offsetY = (int) Math.round(otherCenterY - centerY) + half - other.half;
+
+        int firstRow = Math.max(minRow[rotation], other.minRow[otherRotation] + offsetY);
+        int lastRow = Math.min(maxRow[rotation], other.maxRow[otherRotation] + offsetY);
+        int firstColumn = Math.max(minColumn[rotation], other.minColumn[otherRotation] + offsetX);
+        int lastColumn = Math.min(maxColumn[rotation], other.maxColumn[otherRotation] + offsetX);
+        if (firstRow > lastRow || firstColumn > lastColumn) return false;
+
+        long[] own = bits[rotation];
+        long[] others = other.bits[otherRotation];
+        for (int row = firstRow; row <= lastRow; row++) {
+            int otherRow = (row - offsetY) * other.words;
+            for (int word = firstColumn >>> 6; word <= lastColumn >>> 6; word++) {
+                long solid = own[row * words + word];
+                if (solid != 0 && (solid & other.wordAt(others, otherRow, (word << 6) - offsetX)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method reads 64 pixels of a mask row starting from any column, joining two neighbouring words.
+     * Pixels outside of a mask are empty.
+     *
+     * @param rowBits bits of a rotated mask
+     * @param row     index of the first word of a row
+     * @param column  column of the first read pixel, may be negative
+     * @return pixels as bits of a long word, the first pixel in the lowest bit
+     */
+    private long wordAt(long[] rowBits, int row, int column) {
+        int word = Math.floorDiv(column, 64);
+        int shift = Math.floorMod(column, 64);
+        long low = word >= 0 && word < words ? rowBits[row + word] : 0;
+        if (shift == 0) return low;
+        long high = word + 1 >= 0 && word + 1 < words ? rowBits[row + word + 1] : 0;
+        return low >>> shift | high << (64 - shift);
+    }
+
+    /**
+     * This method finds index of a rotation which is the closest to given angle.
+     *
+     * @param angle angle in degrees
+     * @return index of a rotation
+     */
+    private int rotationOf(double angle) {
+        return Math.floorMod((int) Math.round(angle * rotations / 360), rotations);
+    }
+
+    /**
+     * Getter for a rectangle containing all solid pixels of a mask before rotation,
+     * in local coordinates of a ship.
+     *
+     * @return minimum X, minimum Y, maximum X and maximum Y of solid pixels
+     */
+    public double[] getSolidArea() {
+        return solidArea;
+    }
+}
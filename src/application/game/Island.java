@@ -0,0 +1,224 @@
+package application.game;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+
+/**
+ * This class is used to create a static obstacle in a game arena - an island or a reef.
+ * Obstacle is a polygon on a game scene, which ships can't sail through.
+ * Islands also stop cannon balls, while cannon balls fly over reefs.
+ * Polygon doesn't have to be convex, but it's edges can't cross each other.
+ */
+public class Island {
+
+    private static final Color ISLAND_COLOR = Color.rgb(222, 196, 140);
+    private static final Color ISLAND_SHORE_COLOR = Color.rgb(90, 140, 70);
+    private static final Color REEF_COLOR = Color.rgb(120, 170, 160, 0.6);
+
+    private double[] xs;
+    private double[] ys;
+    private boolean reef;
+
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    private Polygon polygon;
+
+    /**
+     * Constructor creating an obstacle and it's polygon displayed on a game scene.
+     *
+     * @param points X and Y coordinates of polygon vertices on a game scene, one after another
+     * @param reef   true if obstacle is a reef, which doesn't stop cannon balls
+     */
+    public Island(double[] points, boolean reef) {
+        this.reef = reef;
+        int vertices = points.length / 2;
+        xs = new double[vertices];
+        ys = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            xs[i] = points[2 * i];
+            ys[i] = points[2 * i + 1];
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        polygon = new Polygon(points);
+        polygon.setFill(reef ? REEF_COLOR : ISLAND_COLOR);
+        if (!reef) {
+            polygon.setStroke(ISLAND_SHORE_COLOR);
+            polygon.setStrokeWidth(4);
+        }
+        polygon.setMouseTransparent(true);
+        polygon.setFocusTraversable(false);
+    }
+
+    /**
+     * Method used to check whether obstacle overlaps an axis aligned box on a game scene.
+     *
+     * @param boxMinX minimum X coordinate of a box
+     * @param boxMinY minimum Y coordinate of a box
+     * @param boxMaxX maximum X coordinate of a box
+     * @param boxMaxY maximum Y coordinate of a box
+     * @return true if obstacle and a box overlap
+     */
+    public boolean intersectsBox(double boxMinX, double boxMinY, double boxMaxX, double boxMaxY) {
+        if (maxX < boxMinX || boxMaxX < minX || maxY < boxMinY || boxMaxY < minY) return false;
+        if (xs[0] >= boxMinX && xs[0] <= boxMaxX && ys[0] >= boxMinY && ys[0] <= boxMaxY) return true;
+        if (contains(boxMinX, boxMinY)) return true;
+        return crossesEdge(boxMinX, boxMinY, boxMaxX, boxMinY) || crossesEdge(boxMaxX, boxMinY, boxMaxX, boxMaxY)
+                || crossesEdge(boxMaxX, boxMaxY, boxMinX, boxMaxY) || crossesEdge(boxMinX, boxMaxY, boxMinX, boxMinY);
+    }
+
+    /**
+     * Method used to check whether obstacle overlaps a segment, for example keel of a ship.
+     *
+     * @param x1 X coordinate of a segment start
+     * @param y1 Y coordinate of a segment start
+     * @param x2 X coordinate of a segment end
+     * @param y2 Y coordinate of a segment end
+     * @return true if obstacle and a segment overlap
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+        return contains(x1, y1) || crossesEdge(x1, y1, x2, y2);
+    }
+
+    /**
+     * Method used to find the earliest moment at which a point moving along a segment reaches an edge of an obstacle.
+     *
+     * @param startX X coordinate at the beginning of a movement
+     * @param startY Y coordinate at the beginning of a movement
+     * @param endX   X coordinate at the end of a movement
+     * @param endY   Y coordinate at the end of a movement
+     * @return fraction of a movement from 0 to 1 or SweptCollision.NO_HIT if point doesn't reach an obstacle
+     */
+    public double timeOfImpact(double startX, double startY, double endX, double endY) {
+        double earliest = SweptCollision.NO_HIT;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            double time = SweptCollision.sweepPointSegment(startX, startY, endX, endY, xs[j], ys[j], xs[i], ys[i]);
+            if (time != SweptCollision.NO_HIT && (earliest == SweptCollision.NO_HIT || time < earliest))
+                earliest = time;
+        }
+        return earliest;
+    }
+
+    /**
+     * Method used to check whether a point is inside of an obstacle, by counting crossings of a ray with it's edges.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return true if point is inside of an obstacle
+     */
+    public boolean contains(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) return false;
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > y) != (ys[j] > y) && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i])
+                inside = !inside;
+        }
+        return inside;
+    }
+
+    /**
+     * This method checks whether a segment crosses any edge of an obstacle.
+     *
+     * @param x1 X coordinate of a segment start
+     * @param y1 Y coordinate of a segment start
+     * @param x2 X coordinate of a segment end
+     * @param y2 Y coordinate of a segment end
+     * @return true if segment crosses an edge
+     */
+    private boolean crossesEdge(double x1, double y1, double x2, double y2) {
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if (SweptCollision.sweepPointSegment(x1, y1, x2, y2, xs[j], ys[j], xs[i], ys[i]) != SweptCollision.NO_HIT)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Getter to check whether obstacle is a reef.
+     *
+     * @return true if obstacle is a reef, which doesn't stop cannon balls
+     */
+    public boolean isReef() {
+        return reef;
+    }
+
+    /**
+     * Getter for amount of vertices of an obstacle's polygon.
+     *
+     * @return amount of vertices
+     */
+    public int getVerticesCount() {
+        return xs.length;
+    }
+
+    /**
+     * Getter for X coordinate of a vertex of an obstacle's polygon.
+     *
+     * @param vertex index of a vertex
+     * @return X coordinate on a game scene
+     */
+    public double getVertexX(int vertex) {
+        return xs[vertex];
+    }
+
+    /**
+     * Getter for Y coordinate of a vertex of an obstacle's polygon.
+     *
+     * @param vertex index of a vertex
+     * @return Y coordinate on a game scene
+     */
+    public double getVertexY(int vertex) {
+        return ys[vertex];
+    }
+
+    /**
+     * Getter for graphical node of an obstacle.
+     *
+     * @return polygon displayed on a game scene
+     */
+    public Polygon getPolygon() {
+        return polygon;
+    }
+
+    /**
+     * Getter for minimum X coordinate of obstacle bounds.
+     *
+     * @return minimum X coordinate
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Getter for minimum Y coordinate of obstacle bounds.
+     *
+     * @return minimum Y coordinate
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Getter for maximum X coordinate of obstacle bounds.
+     *
+     * @return maximum X coordinate
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Getter for maximum Y coordinate of obstacle bounds.
+     *
+     * @return maximum Y coordinate
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+}
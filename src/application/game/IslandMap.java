@@ -0,0 +1,357 @@
+package application.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class is used to store static obstacles of a game arena - islands and reefs loaded from a map description.
+ * Obstacles never move, so a bounding volume hierarchy of them is built once when a map is loaded:
+ * each node stores bounds of a few obstacles or of two child nodes, which split obstacles in half along
+ * the longer axis. Queries skip every node which bounds don't touch a queried area, so they stay
+ * logarithmic even on maps with thousands of polygons. Hierarchy is stored in flat arrays and
+ * traversed with a preallocated stack, so queries don't create any objects in a game loop.
+ */
+public class IslandMap {
+
+    public static final String DEFAULT_MAP = "/application/resources/islands.map";
+
+    private static final int LEAF_SIZE = 4;
+    private static final int MAX_DEPTH = 64;
+    private static final double FLOW_FIELD_MARGIN = 25;
+
+    private Island[] islands;
+
+    private int nodesCount = 0;
+    private double[] nodeMinX;
+    private double[] nodeMinY;
+    private double[] nodeMaxX;
+    private double[] nodeMaxY;
+    private int[] nodeLeft;
+    private int[] nodeRight;
+    private int[] nodeStart;
+    private int[] nodeEnd;
+
+    private int[] stack = new int[MAX_DEPTH];
+
+    /**
+     * Constructor creating a map of given obstacles and building their bounding volume hierarchy.
+     *
+     * @param islands obstacles of a map
+     */
+    public IslandMap(List<Island> islands) {
+        this.islands = islands.toArray(new Island[0]);
+        int capacity = Math.max(1, 2 * this.islands.length);
+        nodeMinX = new double[capacity];
+        nodeMinY = new double[capacity];
+        nodeMaxX = new double[capacity];
+        nodeMaxY = new double[capacity];
+        nodeLeft = new int[capacity];
+        nodeRight = new int[capacity];
+        nodeStart = new int[capacity];
+        nodeEnd = new int[capacity];
+        if (this.islands.length > 0) build(0, this.islands.length);
+    }
+
+    /**
+     * Method used to load a map from a description in project's "resources" package.
+     * Every line of a description contains type of an obstacle, "island" or "reef", and vertices of it's polygon
+     * as pairs of coordinates separated with a comma, given as fractions of a game scene size.
+     * Empty lines and lines starting with "#" are skipped. If a map can't be read, an empty map is returned.
+     *
+     * @param url    url of a map description
+     * @param width  width of a game scene
+     * @param height height of a game scene
+     * @return loaded map
+     */
+    public static IslandMap load(String url, double width, double height) {
+        List<Island> islands = new ArrayList<>();
+        InputStream stream = IslandMap.class.getResourceAsStream(url);
+        if (stream == null) {
+            System.err.println("Island map " + url + " couldn't be found");
+            return new IslandMap(islands);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\s+");
+                if (parts.length < 4 || !(parts[0].equals("island") || parts[0].equals("reef"))) {
+                    System.err.println("Island map " + url + ", line " + lineNumber + " skipped: " + line);
+                    continue;
+                }
+                double[] points = new double[2 * (parts.length - 1)];
+                for (int i = 1; i < parts.length; i++) {
+                    String[] point = parts[i].split(",");
+                    points[2 * (i - 1)] = Double.parseDouble(point[0]) * width;
+                    points[2 * (i - 1) + 1] = Double.parseDouble(point[1]) * height;
+                }
+                islands.add(new Island(points, parts[0].equals("reef")));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Island map " + url + " couldn't be loaded: " + e.getMessage());
+            islands.clear();
+        }
+        return new IslandMap(islands);
+    }
+
+    /**
+     * This method builds a node of a hierarchy for a range of obstacles. If there are more obstacles
+     * than fit in a leaf, they are sorted by centers along the longer axis of node bounds and split in half.
+     *
+     * @param start index of the first obstacle of a node
+     * @param end   index after the last obstacle of a node
+     * @return index of a built node
+     */
+    private int build(int start, int end) {
+        int node = nodesCount++;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            minX = Math.min(minX, islands[i].getMinX());
+            minY = Math.min(minY, islands[i].getMinY());
+            maxX = Math.max(maxX, islands[i].getMaxX());
+            maxY = Math.max(maxY, islands[i].getMaxY());
+        }
+        nodeMinX[node] = minX;
+        nodeMinY[node] = minY;
+        nodeMaxX[node] = maxX;
+        nodeMaxY[node] = maxY;
+        nodeStart[node] = start;
+        nodeEnd[node] = end;
+        nodeLeft[node] = -1;
+        nodeRight[node] = -1;
+        if (end - start <= LEAF_SIZE) return node;
+
+        Comparator<Island> order = maxX - minX >= maxY - minY
+                ? Comparator.comparingDouble(island -> island.getMinX() + island.getMaxX())
+                : Comparator.comparingDouble(island -> island.getMinY() + island.getMaxY());
+        Arrays.sort(islands, start, end, order);
+        int middle = (start + end) / 2;
+        nodeLeft[node] = build(start, middle);
+        nodeRight[node] = build(middle, end);
+        return node;
+    }
+
+    /**
+     * Method used to check whether a ship placed in given position would run aground on any obstacle.
+     * Ship's keel - a segment from it's stern to it's bow - is checked, so a ship pressed against a shore
+     * can still turn away from it, because it's bow moves away from a shore whichever way it turns.
+     *
+     * @param centerX    X coordinate of a ship center
+     * @param centerY    Y coordinate of a ship center
+     * @param angle      angle in degrees in which a ship is directed
+     * @param halfLength half of a ship's hull length
+     * @return true if keel overlaps an island or a reef
+     */
+    public boolean collidesWithKeel(double centerX, double centerY, double angle, double halfLength) {
+        if (nodesCount == 0) return false;
+        double radians = Math.toRadians(angle);
+        double bowX = centerX + Math.cos(radians) * halfLength;
+        double bowY = centerY + Math.sin(radians) * halfLength;
+        double sternX = 2 * centerX - bowX;
+        double sternY = 2 * centerY - bowY;
+        double minX = Math.min(bowX, sternX);
+        double minY = Math.min(bowY, sternY);
+        double maxX = Math.max(bowX, sternX);
+        double maxY = Math.max(bowY, sternY);
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, minX, minY, maxX, maxY)) continue;
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++)
+                    if (islands[i].intersectsSegment(sternX, sternY, bowX, bowY)) return true;
+            } else {
+                stack[top++] = nodeLeft[node];
+                stack[top++] = nodeRight[node];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method used to check whether any obstacle overlaps given bounds on a game scene,
+     * for example bounds of a ship's field of view.
+     *
+     * @param bounds minimum X, minimum Y, maximum X and maximum Y of bounds on a game scene
+     * @return true if an island or a reef overlaps bounds
+     */
+    public boolean intersects(double[] bounds) {
+        return intersects(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Method used to check whether any obstacle overlaps an axis aligned box on a game scene.
+     *
+     * @param minX minimum X coordinate of a box
+     * @param minY minimum Y coordinate of a box
+     * @param maxX maximum X coordinate of a box
+     * @param maxY maximum Y coordinate of a box
+     * @return true if an island or a reef overlaps a box
+     */
+    public boolean intersects(double minX, double minY, double maxX, double maxY) {
+        if (nodesCount == 0) return false;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, minX, minY, maxX, maxY)) continue;
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++)
+                    if (islands[i].intersectsBox(minX, minY, maxX, maxY)) return true;
+            } else {
+                stack[top++] = nodeLeft[node];
+                stack[top++] = nodeRight[node];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method used to check whether a point on a game scene lies on an island. Reefs are skipped,
+     * because they don't rise above water.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return true if point is inside of an island
+     */
+    public boolean isOnIsland(double x, double y) {
+        if (nodesCount == 0) return false;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, x, y, x, y)) continue;
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++)
+                    if (!islands[i].isReef() && islands[i].contains(x, y)) return true;
+            } else {
+                stack[top++] = nodeLeft[node];
+                stack[top++] = nodeRight[node];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method used to find the earliest moment at which a cannon ball moving along a segment hits an island.
+     * Reefs are skipped, because cannon balls fly over them.
+     *
+     * @param startX X coordinate at the beginning of a movement
+     * @param startY Y coordinate at the beginning of a movement
+     * @param endX   X coordinate at the end of a movement
+     * @param endY   Y coordinate at the end of a movement
+     * @return fraction of a movement from 0 to 1 or SweptCollision.NO_HIT if no island is hit
+     */
+    public double timeOfImpact(double startX, double startY, double endX, double endY) {
+        if (nodesCount == 0) return SweptCollision.NO_HIT;
+        double minX = Math.min(startX, endX);
+        double minY = Math.min(startY, endY);
+        double maxX = Math.max(startX, endX);
+        double maxY = Math.max(startY, endY);
+        double earliest = SweptCollision.NO_HIT;
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, minX, minY, maxX, maxY)) continue;
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++) {
+                    if (islands[i].isReef()) continue;
+                    double time = islands[i].timeOfImpact(startX, startY, endX, endY);
+                    if (time != SweptCollision.NO_HIT && (earliest == SweptCollision.NO_HIT || time < earliest))
+                        earliest = time;
+                }
+            } else {
+                stack[top++] = nodeLeft[node];
+                stack[top++] = nodeRight[node];
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * This method checks whether bounds of a hierarchy node overlap a box.
+     *
+     * @param node index of a node
+     * @param minX minimum X coordinate of a box
+     * @param minY minimum Y coordinate of a box
+     * @param maxX maximum X coordinate of a box
+     * @param maxY maximum Y coordinate of a box
+     * @return true if node bounds and a box overlap
+     */
+    private boolean overlaps(int node, double minX, double minY, double maxX, double maxY) {
+        return nodeMinX[node] <= maxX && minX <= nodeMaxX[node] && nodeMinY[node] <= maxY && minY <= nodeMaxY[node];
+    }
+
+    /**
+     * Method used to block cells of a flow field which are covered by obstacles or are too close to them
+     * for a ship to sail through, so enemy ships are led around islands and reefs.
+     *
+     * @param flowField flow field covering a game scene
+     * @param width     width of a game scene
+     * @param height    height of a game scene
+     * @param cellSize  size of a flow field cell
+     */
+    public void blockFlowField(FlowField flowField, double width, double height, double cellSize) {
+        for (double y = 0; y < height; y += cellSize) {
+            for (double x = 0; x < width; x += cellSize) {
+                if (intersects(x - FLOW_FIELD_MARGIN, y - FLOW_FIELD_MARGIN,
+                        x + cellSize + FLOW_FIELD_MARGIN, y + cellSize + FLOW_FIELD_MARGIN))
+                    flowField.setBlocked(x + cellSize / 2, y + cellSize / 2);
+            }
+        }
+    }
+
+    /**
+     * Method used to display all obstacles on a game view below all other nodes.
+     *
+     * @param gameView game view on which obstacles are displayed
+     */
+    public void show(GameView gameView) {
+        for (Island island : islands) gameView.addBackgroundNode(island.getPolygon());
+    }
+
+    /**
+     * Method used to remove all obstacles from a game view.
+     *
+     * @param gameView game view from which obstacles are removed
+     */
+    public void hide(GameView gameView) {
+        for (Island island : islands) gameView.removeNode(island.getPolygon());
+    }
+
+    /**
+     * Getter for an obstacle of a map.
+     *
+     * @param index index of an obstacle, from 0 to amount of obstacles
+     * @return island or reef
+     */
+    public Island getIsland(int index) {
+        return islands[index];
+    }
+
+    /**
+     * Getter for amount of obstacles on a map.
+     *
+     * @return amount of islands and reefs
+     */
+    public int size() {
+        return islands.length;
+    }
+}
@@ -0,0 +1,292 @@
+package application.game;
+
+import com.sun.management.GarbageCollectorMXBean;
+import com.sun.management.GcInfo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to track a game loop during long matches, so slow drift of tick times, memory leaks
+ * and growing garbage collection show up, which short matches hide. Game loop records time of every tick,
+ * which costs only a few additions. Once every minute of a game a sample is taken: mean and maximum tick time
+ * in that minute, heap used after the last garbage collection, committed heap, and amount and time of
+ * garbage collections in that minute. Heap after collection grows only if objects are kept alive, so it shows
+ * leaks, while committed heap much bigger than it shows fragmentation. Samples can be written to a CSV file
+ * as they are taken, and a report compares the beginning of a match with it's end.
+ */
+public class LoadTracker {
+
+    public static final String LOG_PROPERTY = "ships.loadLog";
+    public static final int SAMPLE_TICKS = 60 * 60;
+
+    private static final double TICKS_PER_HOUR = 60 * 60 * 60;
+
+    private MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private List<GarbageCollectorMXBean> collectors = new ArrayList<>();
+    private List<String> heapPools = new ArrayList<>();
+    private PrintWriter log;
+
+    private long intervalNanos;
+    private long intervalMaxNanos;
+    private int intervalTicks;
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    private int samples = 0;
+    private long[] sampleTicks = new long[64];
+    private double[] meanTickMillis = new double[64];
+    private double[] maxTickMillis = new double[64];
+    private long[] heapAfterGc = new long[64];
+    private long[] heapCommitted = new long[64];
+    private long[] gcCounts = new long[64];
+    private long[] gcMillis = new long[64];
+
+    /**
+     * Constructor creating a tracker, which writes samples to a CSV file if it's given.
+     *
+     * @param logFile path of a CSV file or null if samples aren't written
+     */
+    public LoadTracker(Path logFile) {
+        for (java.lang.management.GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            if (collector instanceof GarbageCollectorMXBean) collectors.add((GarbageCollectorMXBean) collector);
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool.getName());
+        if (logFile == null) return;
+        try {
+            log = new PrintWriter(new BufferedWriter(Files.newBufferedWriter(logFile)));
+            log.println("tick,mean_tick_ms,max_tick_ms,heap_after_gc_bytes,heap_committed_bytes,gc_count,gc_ms");
+            log.flush();
+        } catch (IOException e) {
+            System.err.println("Load log " + logFile + " couldn't be created: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method used to forget samples of a previous match and start tracking a new one.
+     */
+    public void start() {
+        samples = 0;
+        intervalNanos = 0;
+        intervalMaxNanos = 0;
+        intervalTicks = 0;
+        lastGcCount = gcCount();
+        lastGcMillis = gcMillis();
+    }
+
+    /**
+     * Method called by a game loop at the end of every tick. After every minute of a game a sample is taken.
+     *
+     * @param tick  number of a tick in a match
+     * @param nanos time of a tick in nanoseconds
+     */
+    public void recordTick(long tick, long nanos) {
+        intervalNanos += nanos;
+        intervalMaxNanos = Math.max(intervalMaxNanos, nanos);
+        if (++intervalTicks == SAMPLE_TICKS) sample(tick);
+    }
+
+    /**
+     * This method takes a sample of tick times, heap and garbage collections since the previous sample.
+     *
+     * @param tick number of the last tick of a sample
+     */
+    private void sample(long tick) {
+        if (samples == sampleTicks.length) grow();
+        long gcCount = gcCount();
+        long gcTime = gcMillis();
+        int i = samples++;
+        sampleTicks[i] = tick;
+        meanTickMillis[i] = intervalNanos / 1e6 / intervalTicks;
+        maxTickMillis[i] = intervalMaxNanos / 1e6;
+        heapAfterGc[i] = heapAfterLastGc();
+        heapCommitted[i] = memory.getHeapMemoryUsage().getCommitted();
+        gcCounts[i] = gcCount - lastGcCount;
+        gcMillis[i] = gcTime - lastGcMillis;
+        lastGcCount = gcCount;
+        lastGcMillis = gcTime;
+        intervalNanos = 0;
+        intervalMaxNanos = 0;
+        intervalTicks = 0;
+        if (log != null) {
+            log.println(tick + "," + meanTickMillis[i] + "," + maxTickMillis[i] + "," + heapAfterGc[i] + ","
+                    + heapCommitted[i] + "," + gcCounts[i] + "," + gcMillis[i]);
+            log.flush();
+        }
+    }
+
+    /**
+     * This method finds heap used right after the most recent garbage collection of any collector.
+     * If there wasn't any collection yet, currently used heap is returned.
+     *
+     * @return used heap in bytes
+     */
+    private long heapAfterLastGc() {
+        GcInfo last = null;
+        for (GarbageCollectorMXBean collector : collectors) {
+            GcInfo info = collector.getLastGcInfo();
+            if (info != null && (last == null || info.getEndTime() > last.getEndTime())) last = info;
+        }
+        if (last == null) return memory.getHeapMemoryUsage().getUsed();
+        long used = 0;
+        for (String pool : heapPools) {
+            MemoryUsage usage = last.getMemoryUsageAfterGc().get(pool);
+            if (usage != null) used += usage.getUsed();
+        }
+        return used;
+    }
+
+    /**
+     * This method sums amounts of collections of all garbage collectors.
+     *
+     * @return amount of collections since JVM start
+     */
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) count += Math.max(collector.getCollectionCount(), 0);
+        return count;
+    }
+
+    /**
+     * This method sums time of collections of all garbage collectors.
+     *
+     * @return time of collections since JVM start in milliseconds
+     */
+    private long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) millis += Math.max(collector.getCollectionTime(), 0);
+        return millis;
+    }
+
+    /**
+     * This method doubles arrays of samples.
+     */
+    private void grow() {
+        int capacity = 2 * sampleTicks.length;
+        sampleTicks = Arrays.copyOf(sampleTicks, capacity);
+        meanTickMillis = Arrays.copyOf(meanTickMillis, capacity);
+        maxTickMillis = Arrays.copyOf(maxTickMillis, capacity);
+        heapAfterGc = Arrays.copyOf(heapAfterGc, capacity);
+        heapCommitted = Arrays.copyOf(heapCommitted, capacity);
+        gcCounts = Arrays.copyOf(gcCounts, capacity);
+        gcMillis = Arrays.copyOf(gcMillis, capacity);
+    }
+
+    /**
+     * Method used to describe a sample in one line.
+     *
+     * @param i index of a sample
+     * @return description of a sample
+     */
+    public String describeSample(int i) {
+        return String.format("minute %d: tick mean %.3f ms, max %.2f ms, heap after GC %.1f MB, committed %.1f MB,"
+                        + " %d GCs in %d ms", sampleTicks[i] / SAMPLE_TICKS, meanTickMillis[i], maxTickMillis[i],
+                heapAfterGc[i] / 1048576.0, heapCommitted[i] / 1048576.0, gcCounts[i], gcMillis[i]);
+    }
+
+    /**
+     * Method used to create a report of a match, which compares the first quarter of samples with the last one
+     * and estimates how fast heap after garbage collection grows with a least squares line.
+     *
+     * @return report of a match or a short note if not even one sample was taken
+     */
+    public String report() {
+        if (samples == 0) return "Load tracker: match was shorter than one sample";
+        int quarter = Math.max(1, samples / 4);
+        long gcCount = 0;
+        long gcTime = 0;
+        double maxTick = 0;
+        for (int i = 0; i < samples; i++) {
+            gcCount += gcCounts[i];
+            gcTime += gcMillis[i];
+            maxTick = Math.max(maxTick, maxTickMillis[i]);
+        }
+        double minutes = samples * SAMPLE_TICKS / 3600.0;
+        return String.format("Load tracker, %d minutes: tick mean %.3f ms at start, %.3f ms at end, max %.2f ms;"
+                        + " heap after GC %.1f MB at start, %.1f MB at end, growing %.1f MB per hour;"
+                        + " committed %.1f MB at end; %d GCs taking %.2f%% of time",
+                samples, mean(meanTickMillis, 0, quarter), mean(meanTickMillis, samples - quarter, samples), maxTick,
+                mean(heapAfterGc, 0, quarter) / 1048576.0, mean(heapAfterGc, samples - quarter, samples) / 1048576.0,
+                heapGrowthPerHour() / 1048576.0, heapCommitted[samples - 1] / 1048576.0, gcCount,
+                100.0 * gcTime / (minutes * 60_000));
+    }
+
+    /**
+     * This method fits a line to heap after garbage collection over ticks with least squares.
+     *
+     * @return slope of a line in bytes per hour of a game, 0 if there are fewer than two samples
+     */
+    public double heapGrowthPerHour() {
+        if (samples < 2) return 0;
+        double meanTick = 0;
+        double meanHeap = 0;
+        for (int i = 0; i < samples; i++) {
+            meanTick += sampleTicks[i];
+            meanHeap += heapAfterGc[i];
+        }
+        meanTick /= samples;
+        meanHeap /= samples;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < samples; i++) {
+            covariance += (sampleTicks[i] - meanTick) * (heapAfterGc[i] - meanHeap);
+            variance += (sampleTicks[i] - meanTick) * (sampleTicks[i] - meanTick);
+        }
+        return covariance / variance * TICKS_PER_HOUR;
+    }
+
+    /**
+     * This method computes a mean of a range of values.
+     *
+     * @param values array of values
+     * @param from   index of the first value
+     * @param to     index after the last value
+     * @return mean of values
+     */
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += values[i];
+        return sum / (to - from);
+    }
+
+    /**
+     * This method computes a mean of a range of values.
+     *
+     * @param values array of values
+     * @param from   index of the first value
+     * @param to     index after the last value
+     * @return mean of values
+     */
+    private static double mean(long[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += values[i];
+        return sum / (to - from);
+    }
+
+    /**
+     * Getter for amount of samples taken in a match.
+     *
+     * @return amount of samples
+     */
+    public int getSamplesCount() {
+        return samples;
+    }
+
+    /**
+     * Method used to close a CSV file of samples.
+     */
+    public void close() {
+        if (log != null) log.close();
+    }
+}
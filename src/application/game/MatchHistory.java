@@ -0,0 +1,262 @@
+package application.game;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to store results of all finished matches in a local directory, so statistics of a player
+ * can be shown. Matches are only appended, into segment files of fixed amount of fixed width records, which are
+ * mapped into memory. A record isn't stored in one place: every field has it's own column in a segment, so a query
+ * reads only columns it needs, one after another. A segment starts with a header with amount of records
+ * written in it, which is updated after a record, so a record is either counted whole or not at all.
+ * When a segment is full a new one is created.
+ * <p>
+ * Header: magic number, version, capacity and amount of records. Columns: seed, time of a match end,
+ * duration in ticks, player's shots, player's hits, damage dealt by each of recorded ships, amount of enemy ships
+ * and winner.
+ */
+public class MatchHistory {
+
+    public static final String DIRECTORY_PROPERTY = "ships.history";
+
+    private static final int MAGIC = 0x53484D48;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_CAPACITY = 1 << 16;
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 12;
+
+    private static final int SEED = 0;
+    private static final int TIME = 1;
+    private static final int DURATION = 2;
+    private static final int SHOTS = 3;
+    private static final int HITS = 4;
+    private static final int DAMAGE = 5;
+    private static final int ENEMY_COUNT = DAMAGE + MatchResult.RECORDED_SHIPS;
+    private static final int WINNER = ENEMY_COUNT + 1;
+    private static final int[] COLUMN_WIDTHS = columnWidths();
+    private static final int[] COLUMN_OFFSETS = columnOffsets();
+    private static final int SEGMENT_SIZE = COLUMN_OFFSETS[COLUMN_OFFSETS.length - 1];
+
+    private Path directory;
+    private List<MappedByteBuffer> segments = new ArrayList<>();
+    private List<FileChannel> channels = new ArrayList<>();
+    private long size = 0;
+
+    /**
+     * Constructor opening match history stored in a directory, which is created if it doesn't exist.
+     * Segments are mapped in order of their names.
+     *
+     * @param directory directory with segment files
+     * @throws IOException if a directory or a segment can't be opened or a segment isn't valid
+     */
+    public MatchHistory(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.dat")) {
+            for (Path file : stream) files.add(file);
+        }
+        files.sort(null);
+        try {
+            for (Path file : files) {
+                MappedByteBuffer segment = map(file, false);
+                if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION
+                        || segment.getInt(8) != SEGMENT_CAPACITY || countOf(segment) > SEGMENT_CAPACITY) {
+                    throw new IOException(file + " isn't a valid segment of match history");
+                }
+                size += countOf(segment);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method used to open match history in a directory set by a system property,
+     * or in a directory in a user's home directory if it isn't set.
+     *
+     * @return opened match history or null if it can't be opened
+     */
+    public static MatchHistory openDefault() {
+        String property = System.getProperty(DIRECTORY_PROPERTY);
+        Path directory = property != null ? Paths.get(property)
+                : Paths.get(System.getProperty("user.home"), ".ships", "history");
+        try {
+            return new MatchHistory(directory);
+        } catch (IOException e) {
+            System.err.println("Match history couldn't be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Method used to append a result of a finished match. Fields of a record are written first,
+     * and then amount of records in a segment is increased.
+     *
+     * @param result result of a finished match
+     * @throws IOException if a new segment can't be created
+     */
+    public void append(MatchResult result) throws IOException {
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || countOf(segment) == SEGMENT_CAPACITY) {
+            segment = map(directory.resolve(String.format("segment-%06d.dat", segments.size() + 1)), true);
+            segment.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, SEGMENT_CAPACITY).putInt(COUNT_OFFSET, 0);
+        }
+        int index = countOf(segment);
+        segment.putLong(fieldOffset(SEED, index), result.getSeed());
+        segment.putLong(fieldOffset(TIME, index), System.currentTimeMillis());
+        segment.putInt(fieldOffset(DURATION, index), result.getDurationTicks());
+        segment.putInt(fieldOffset(SHOTS, index), result.getShots());
+        segment.putInt(fieldOffset(HITS, index), result.getHits());
+        for (int ship = 0; ship < MatchResult.RECORDED_SHIPS; ship++) {
+            segment.putInt(fieldOffset(DAMAGE + ship, index), result.getDamage(ship));
+        }
+        segment.putShort(fieldOffset(ENEMY_COUNT, index), (short) Math.min(result.getEnemyCount(), Short.MAX_VALUE));
+        segment.put(fieldOffset(WINNER, index), (byte) (result.isPlayerWon() ? 1 : 0));
+        segment.putInt(COUNT_OFFSET, index + 1);
+        size++;
+    }
+
+    /**
+     * Method used to compute statistics of all stored matches. Only needed columns of a segment are read,
+     * each of them from it's start, so a scan goes through memory in order.
+     *
+     * @return statistics of stored matches
+     */
+    public MatchStatistics query() {
+        MatchStatistics statistics = new MatchStatistics();
+        for (MappedByteBuffer segment : segments) {
+            int count = countOf(segment);
+            int enemyCountOffset = COLUMN_OFFSETS[ENEMY_COUNT];
+            int winnerOffset = COLUMN_OFFSETS[WINNER];
+            int durationOffset = COLUMN_OFFSETS[DURATION];
+            for (int i = 0; i < count; i++) {
+                int enemyCount = segment.getShort(enemyCountOffset + 2 * i);
+                statistics.addMatch(enemyCount, segment.get(winnerOffset + i) != 0,
+                        segment.getInt(durationOffset + 4 * i));
+            }
+            long shots = 0;
+            int shotsOffset = COLUMN_OFFSETS[SHOTS];
+            for (int i = 0; i < count; i++) shots += segment.getInt(shotsOffset + 4 * i);
+            long hits = 0;
+            int hitsOffset = COLUMN_OFFSETS[HITS];
+            for (int i = 0; i < count; i++) hits += segment.getInt(hitsOffset + 4 * i);
+            statistics.addShots(shots, hits);
+        }
+        return statistics;
+    }
+
+    /**
+     * This method maps a segment file into memory and remembers it.
+     *
+     * @param file   path of a segment file
+     * @param create true if a new file is created, it's deleted if it can't be mapped
+     * @return mapped segment
+     * @throws IOException if a file can't be opened or mapped
+     */
+    private MappedByteBuffer map(Path file, boolean create) throws IOException {
+        FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (!create && channel.size() != SEGMENT_SIZE) throw new IOException(file + " has wrong size");
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            channels.add(channel);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            channel.close();
+            if (create) Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * This method reads amount of records written in a segment.
+     *
+     * @param segment mapped segment
+     * @return amount of records
+     */
+    private static int countOf(MappedByteBuffer segment) {
+        return segment.getInt(COUNT_OFFSET);
+    }
+
+    /**
+     * This method computes a position of a field of a record in a segment.
+     *
+     * @param column column of a field
+     * @param index  index of a record in a segment
+     * @return offset in bytes from the start of a segment
+     */
+    private static int fieldOffset(int column, int index) {
+        return COLUMN_OFFSETS[column] + COLUMN_WIDTHS[column] * index;
+    }
+
+    /**
+     * This method creates widths of fields of all columns in bytes.
+     *
+     * @return array of widths in order of columns
+     */
+    private static int[] columnWidths() {
+        int[] widths = new int[WINNER + 1];
+        widths[SEED] = Long.BYTES;
+        widths[TIME] = Long.BYTES;
+        widths[DURATION] = Integer.BYTES;
+        widths[SHOTS] = Integer.BYTES;
+        widths[HITS] = Integer.BYTES;
+        for (int ship = 0; ship < MatchResult.RECORDED_SHIPS; ship++) widths[DAMAGE + ship] = Integer.BYTES;
+        widths[ENEMY_COUNT] = Short.BYTES;
+        widths[WINNER] = Byte.BYTES;
+        return widths;
+    }
+
+    /**
+     * This method computes where every column starts in a segment. Wider columns go first, so all fields
+     * are aligned to their size. The last element is the end of a segment.
+     *
+     * @return array of offsets in order of columns
+     */
+    private static int[] columnOffsets() {
+        int[] offsets = new int[COLUMN_WIDTHS.length + 1];
+        offsets[0] = HEADER_SIZE;
+        for (int column = 0; column < COLUMN_WIDTHS.length; column++) {
+            offsets[column + 1] = offsets[column] + COLUMN_WIDTHS[column] * SEGMENT_CAPACITY;
+        }
+        return offsets;
+    }
+
+    /**
+     * Getter for amount of stored matches.
+     *
+     * @return amount of matches
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Method used to write all changes to disk and close segment files.
+     */
+    public void close() {
+        for (MappedByteBuffer segment : segments) segment.force();
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        segments.clear();
+        channels.clear();
+    }
+}
@@ -0,0 +1,158 @@
+package application.game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is used to record matches, so they can be rendered later without playing them again.
+ * State of everything displayed on a game scene is written after every tick into one growing buffer:
+ * ships with their models, positions, sizes and angles, cannon balls and explosions. Islands of a map are written
+ * once at the beginning, so a recording can be rendered even if a map changes. When a match ends, a copy
+ * of a buffer is compressed and saved to a file on a background thread, so a game loop isn't stopped by it.
+ */
+public class MatchRecorder {
+
+    public static final String DIRECTORY_PROPERTY = "ships.record";
+    public static final int MAGIC = 0x53484950;
+    public static final int VERSION = 1;
+
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private Path directory;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private int framesCount = 0;
+
+    /**
+     * Constructor creating a recorder which saves recordings in a given directory.
+     *
+     * @param directory directory in which recordings are saved
+     */
+    public MatchRecorder(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Method used to start recording of a new match. Recording of a previous match which hasn't been saved is lost.
+     *
+     * @param width     width of a game scene
+     * @param height    height of a game scene
+     * @param frameRate amount of ticks in a second
+     * @param islandMap map of islands and reefs of a match
+     */
+    public void start(double width, double height, int frameRate, IslandMap islandMap) {
+        buffer.clear();
+        framesCount = 0;
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putFloat((float) width);
+        buffer.putFloat((float) height);
+        buffer.putInt(frameRate);
+        buffer.putInt(islandMap.size());
+        for (int i = 0; i < islandMap.size(); i++) {
+            Island island = islandMap.getIsland(i);
+            ensureCapacity(5 + 8 * island.getVerticesCount());
+            buffer.put((byte) (island.isReef() ? 1 : 0));
+            buffer.putInt(island.getVerticesCount());
+            for (int v = 0; v < island.getVerticesCount(); v++) {
+                buffer.putFloat((float) island.getVertexX(v));
+                buffer.putFloat((float) island.getVertexY(v));
+            }
+        }
+    }
+
+    /**
+     * Method used to record state of a game scene after a tick.
+     *
+     * @param tick        number of a tick
+     * @param ships       ships in a game
+     * @param cannonBalls flying cannon balls
+     * @param explosions  playing explosions
+     */
+    public void record(long tick, List<Ship> ships, List<CannonBall> cannonBalls, List<Explosion> explosions) {
+        ensureCapacity(10 + 21 * ships.size() + 12 * cannonBalls.size() + 13 * explosions.size());
+        buffer.putInt((int) tick);
+        buffer.putShort((short) ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            buffer.put((byte) ship.getModel().ordinal());
+            buffer.putFloat((float) ship.getCenterX());
+            buffer.putFloat((float) ship.getCenterY());
+            buffer.putFloat((float) ship.getAngle());
+            buffer.putFloat((float) ship.getShipWidth());
+            buffer.putFloat((float) ship.getShipHeight());
+        }
+        buffer.putShort((short) cannonBalls.size());
+        for (int i = 0; i < cannonBalls.size(); i++) {
+            CannonBall cannonBall = cannonBalls.get(i);
+            buffer.putFloat((float) cannonBall.getCenterXAt(1));
+            buffer.putFloat((float) cannonBall.getCenterYAt(1));
+            buffer.putFloat((float) cannonBall.getRadius());
+        }
+        buffer.putShort((short) explosions.size());
+        for (int i = 0; i < explosions.size(); i++) {
+            Explosion explosion = explosions.get(i);
+            buffer.put((byte) explosion.getFrame());
+            buffer.putFloat((float) explosion.getCenterX());
+            buffer.putFloat((float) explosion.getCenterY());
+            buffer.putFloat((float) explosion.getSize());
+        }
+        framesCount++;
+    }
+
+    /**
+     * Method used to save a recorded match to a new file in recorder's directory.
+     * Nothing is saved if no frames have been recorded since the beginning of a match.
+     */
+    public void save() {
+        if (framesCount == 0) return;
+        byte[] recording = new byte[buffer.position()];
+        buffer.get(0, recording);
+        Path file = directory.resolve("match-" + LocalDateTime.now().format(FILE_NAME_FORMAT)
+                + "-" + framesCount + ".replay");
+        framesCount = 0;
+        Thread writer = new Thread(() -> write(file, recording), "replay-writer");
+        writer.setDaemon(false);
+        writer.start();
+    }
+
+    /**
+     * This method compresses a recording and writes it to a file.
+     *
+     * @param file      file to which recording is written
+     * @param recording recorded bytes
+     */
+    private static void write(Path file, byte[] recording) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                out.write(recording);
+            }
+            System.out.println("Match recorded to " + file);
+        } catch (IOException e) {
+            System.err.println("Match recording couldn't be saved to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method doubles capacity of a buffer until given amount of bytes fits in it.
+     *
+     * @param bytes amount of bytes which will be written
+     */
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes) capacity *= 2;
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,136 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to count statistics of a match while it's played, so they can be saved
+ * in match history when it's finished. One object is reused for all matches of a game.
+ */
+public class MatchResult {
+
+    public static final int RECORDED_SHIPS = 8;
+
+    private long seed;
+    private int enemyCount;
+    private int durationTicks;
+    private boolean playerWon;
+    private int shots;
+    private int hits;
+    private int[] damage = new int[RECORDED_SHIPS];
+
+    /**
+     * Method used to start counting a new match.
+     *
+     * @param seed       seed of random choices of enemy ships in a match
+     * @param enemyCount amount of enemy ships in a match
+     */
+    void start(long seed, int enemyCount) {
+        this.seed = seed;
+        this.enemyCount = enemyCount;
+        durationTicks = 0;
+        playerWon = false;
+        shots = 0;
+        hits = 0;
+        Arrays.fill(damage, 0);
+    }
+
+    /**
+     * Method used to count a cannon ball shot by a player.
+     */
+    void addShot() {
+        shots++;
+    }
+
+    /**
+     * Method used to count a cannon ball shot by a player which has hit an enemy ship.
+     */
+    void addHit() {
+        hits++;
+    }
+
+    /**
+     * Method used to count damage dealt by a ship. Player is ship 0 and enemy ships are counted from 1
+     * in order in which they were created, enemy ships which don't fit are counted together in the last ship.
+     *
+     * @param ship   index of a ship which dealt damage
+     * @param amount amount of dealt damage
+     */
+    void addDamage(int ship, int amount) {
+        damage[Math.min(ship, RECORDED_SHIPS - 1)] += amount;
+    }
+
+    /**
+     * Method used to end counting when a match is finished.
+     *
+     * @param durationTicks amount of ticks played in a match
+     * @param playerWon     true if player has won a match
+     */
+    void finish(long durationTicks, boolean playerWon) {
+        this.durationTicks = (int) durationTicks;
+        this.playerWon = playerWon;
+    }
+
+    /**
+     * Getter for seed of random choices of enemy ships in a match.
+     *
+     * @return seed of a match
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for amount of enemy ships in a match.
+     *
+     * @return amount of enemy ships
+     */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /**
+     * Getter for length of a match.
+     *
+     * @return amount of played ticks
+     */
+    public int getDurationTicks() {
+        return durationTicks;
+    }
+
+    /**
+     * Getter to check who has won a match.
+     *
+     * @return true if player has won
+     */
+    public boolean isPlayerWon() {
+        return playerWon;
+    }
+
+    /**
+     * Getter for amount of cannon balls shot by a player.
+     *
+     * @return amount of shots
+     */
+    public int getShots() {
+        return shots;
+    }
+
+    /**
+     * Getter for amount of cannon balls shot by a player which have hit enemy ships.
+     *
+     * @return amount of hits
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Getter for damage dealt by a ship.
+     *
+     * @param ship index of a ship, 0 for a player
+     * @return amount of dealt damage
+     */
+    public int getDamage(int ship) {
+        return damage[ship];
+    }
+}
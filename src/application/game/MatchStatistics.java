@@ -0,0 +1,150 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class stores statistics of matches computed from match history: amounts of matches, wins and ticks
+ * for every amount of enemy ships, and shots and hits of a player in all matches.
+ */
+public class MatchStatistics {
+
+    private static final double TICKS_PER_SECOND = 60;
+
+    private long[] matches = new long[8];
+    private long[] wins = new long[8];
+    private long[] durationTicks = new long[8];
+    private long shots = 0;
+    private long hits = 0;
+
+    /**
+     * Method used to count a match.
+     *
+     * @param enemyCount    amount of enemy ships in a match
+     * @param playerWon     true if player has won a match
+     * @param durationTicks amount of ticks played in a match
+     */
+    void addMatch(int enemyCount, boolean playerWon, int durationTicks) {
+        if (enemyCount >= matches.length) {
+            int length = Integer.highestOneBit(enemyCount) * 2;
+            matches = Arrays.copyOf(matches, length);
+            wins = Arrays.copyOf(wins, length);
+            this.durationTicks = Arrays.copyOf(this.durationTicks, length);
+        }
+        matches[enemyCount]++;
+        if (playerWon) wins[enemyCount]++;
+        this.durationTicks[enemyCount] += durationTicks;
+    }
+
+    /**
+     * Method used to count shots and hits of a player.
+     *
+     * @param shots amount of cannon balls shot by a player
+     * @param hits  amount of them which have hit enemy ships
+     */
+    void addShots(long shots, long hits) {
+        this.shots += shots;
+        this.hits += hits;
+    }
+
+    /**
+     * Getter for the biggest amount of enemy ships for which matches are counted.
+     *
+     * @return amount of enemy ships
+     */
+    public int getMaxEnemyCount() {
+        for (int enemyCount = matches.length - 1; enemyCount > 0; enemyCount--) {
+            if (matches[enemyCount] > 0) return enemyCount;
+        }
+        return 0;
+    }
+
+    /**
+     * Getter for amount of all matches.
+     *
+     * @return amount of matches
+     */
+    public long getMatchesCount() {
+        return sum(matches);
+    }
+
+    /**
+     * Getter for amount of matches against given amount of enemy ships.
+     *
+     * @param enemyCount amount of enemy ships
+     * @return amount of matches
+     */
+    public long getMatchesCount(int enemyCount) {
+        return enemyCount < matches.length ? matches[enemyCount] : 0;
+    }
+
+    /**
+     * Getter for part of all matches won by a player.
+     *
+     * @return win rate from 0 to 1, 0 if there are no matches
+     */
+    public double getWinRate() {
+        return ratio(sum(wins), sum(matches));
+    }
+
+    /**
+     * Getter for part of matches against given amount of enemy ships won by a player.
+     *
+     * @param enemyCount amount of enemy ships
+     * @return win rate from 0 to 1, 0 if there are no such matches
+     */
+    public double getWinRate(int enemyCount) {
+        return enemyCount < matches.length ? ratio(wins[enemyCount], matches[enemyCount]) : 0;
+    }
+
+    /**
+     * Getter for average length of all matches.
+     *
+     * @return average duration in seconds
+     */
+    public double getAverageDuration() {
+        return ratio(sum(durationTicks), sum(matches)) / TICKS_PER_SECOND;
+    }
+
+    /**
+     * Getter for average length of matches against given amount of enemy ships.
+     *
+     * @param enemyCount amount of enemy ships
+     * @return average duration in seconds
+     */
+    public double getAverageDuration(int enemyCount) {
+        if (enemyCount >= matches.length) return 0;
+        return ratio(durationTicks[enemyCount], matches[enemyCount]) / TICKS_PER_SECOND;
+    }
+
+    /**
+     * Getter for part of cannon balls shot by a player which have hit enemy ships.
+     *
+     * @return accuracy from 0 to 1, 0 if player hasn't shot
+     */
+    public double getAccuracy() {
+        return ratio(hits, shots);
+    }
+
+    /**
+     * This method sums all values of an array.
+     *
+     * @param values array of values
+     * @return sum of values
+     */
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) sum += value;
+        return sum;
+    }
+
+    /**
+     * This method divides two amounts, treating division by zero as 0.
+     *
+     * @param part  divided amount
+     * @param whole amount by which it's divided
+     * @return ratio of amounts
+     */
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,309 @@
+package application.game;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to display a small map of a whole game scene in a corner of a game view.
+ * Scene is divided into a low resolution grid in which every cell is one pixel of a minimap image.
+ * For every cell amounts of player ships, enemy ships, cannon balls and explosions in it are stored,
+ * and every object remembers a cell in which it's counted, so only objects which move to another cell
+ * change the grid. Cells whose amounts have changed are marked as dirty and only their pixels are drawn
+ * again, so drawing a minimap never costs more than drawing all of it's cells once, however many objects
+ * are on a scene. Enemy ships, cannon balls and explosions are shown only where a player can see them.
+ * Cell of an object changes also when fog of war covers or reveals it without moving it, so every object
+ * is still visited in every tick to compare it's cell with the counted one, and only this comparison
+ * grows with amount of objects.
+ */
+public class Minimap {
+
+    public static final int NO_CELL = -1;
+
+    private static final int PLAYER = 0;
+    private static final int ENEMY = 1;
+    private static final int CANNON_BALL = 2;
+    private static final int EXPLOSION = 3;
+    private static final int LAYERS = 4;
+
+    private static final int WATER_COLOR = premultiply(20, 40, 70, 0.6);
+    private static final int ISLAND_COLOR = premultiply(222, 196, 140, 0.9);
+    private static final int REEF_COLOR = premultiply(120, 170, 160, 0.7);
+    private static final int PLAYER_COLOR = premultiply(255, 255, 255, 1);
+    private static final int ENEMY_COLOR = premultiply(230, 60, 50, 1);
+    private static final int EXPLOSION_COLOR = premultiply(255, 160, 30, 1);
+    private static final int[] CANNON_BALLS_COLORS = {premultiply(250, 230, 120, 0.5),
+            premultiply(250, 230, 120, 0.7), premultiply(250, 230, 120, 0.85), premultiply(250, 230, 120, 1)};
+
+    private Game game;
+    private EntityWorld world;
+
+    private double cellSize;
+    private int columns;
+    private int rows;
+    private int[][] counts = new int[LAYERS][];
+    private int[] background;
+
+    private int[] dirtyCells;
+    private int dirtyCount = 0;
+    private boolean[] dirty;
+
+    private int[] pixels;
+    private PixelWriter pixelWriter;
+    private ImageView layer;
+    private WritablePixelFormat<IntBuffer> pixelFormat = PixelFormat.getIntArgbPreInstance();
+
+    /**
+     * Constructor creating a minimap grid covering a game scene and placing it's image in a corner of a game view.
+     * Water, islands and reefs are drawn once, because they don't change during a game.
+     *
+     * @param game    game which is displayed on a minimap
+     * @param columns amount of minimap cells in a row, rows are added to keep proportions of a scene
+     * @param width   width of a minimap on a game view
+     */
+    public Minimap(Game game, int columns, double width) {
+        this.game = game;
+        this.world = game.getWorld();
+        GameView gameView = game.getGameView();
+        this.columns = columns;
+        cellSize = gameView.getWidth() / columns;
+        rows = (int) Math.ceil(gameView.getHeight() / cellSize);
+        int cells = columns * rows;
+        for (int layer = 0; layer < LAYERS; layer++) counts[layer] = new int[cells];
+        dirtyCells = new int[cells];
+        dirty = new boolean[cells];
+
+        background = new int[cells];
+        IslandMap islandMap = game.getIslandMap();
+        for (int cell = 0; cell < cells; cell++) {
+            double x = (cell % columns + 0.5) * cellSize;
+            double y = (cell / columns + 0.5) * cellSize;
+            background[cell] = WATER_COLOR;
+            for (int i = 0; i < islandMap.size(); i++) {
+                Island island = islandMap.getIsland(i);
+                if (!island.contains(x, y)) continue;
+                background[cell] = island.isReef() ? REEF_COLOR : ISLAND_COLOR;
+                if (!island.isReef()) break;
+            }
+        }
+
+        pixels = Arrays.copyOf(background, cells);
+        WritableImage image = new WritableImage(columns, rows);
+        pixelWriter = image.getPixelWriter();
+        pixelWriter.setPixels(0, 0, columns, rows, pixelFormat, pixels, 0, columns);
+        layer = new ImageView(image);
+        layer.setFitWidth(width);
+        layer.setFitHeight(width * rows / columns);
+        layer.setSmooth(false);
+        layer.setMouseTransparent(true);
+        layer.setFocusTraversable(false);
+        gameView.showMinimap(layer);
+    }
+
+    /**
+     * Method used to update a minimap after objects of a game have moved. Every object is visited,
+     * but objects which are still in their cells cost only a comparison, and then only dirty cells are drawn.
+     * It has to be called after fog of war is updated, so it knows which enemy ships are visible.
+     *
+     * @param ships       ships in a game
+     * @param cannonBalls flying cannon balls
+     * @param explosions  playing explosions
+     */
+    public void update(List<Ship> ships, List<CannonBall> cannonBalls, List<Explosion> explosions) {
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (!ship.isAlive()) continue;
+            int entity = ship.getEntity();
+            int cell = ship.isVisible() ? cellAt(ship.getCenterX(), ship.getCenterY()) : NO_CELL;
+            int previous = world.getRadarCell(entity);
+            if (cell == previous) continue;
+            move(layerOf(ship), previous, cell);
+            world.setRadarCell(entity, cell);
+        }
+        for (int i = 0; i < cannonBalls.size(); i++) {
+            CannonBall cannonBall = cannonBalls.get(i);
+            int cell = visibleCellAt(cannonBall.getCenterXAt(1), cannonBall.getCenterYAt(1));
+            if (cell == cannonBall.getMinimapCell()) continue;
+            move(CANNON_BALL, cannonBall.getMinimapCell(), cell);
+            cannonBall.setMinimapCell(cell);
+        }
+        for (int i = 0; i < explosions.size(); i++) {
+            Explosion explosion = explosions.get(i);
+            int cell = visibleCellAt(explosion.getCenterX(), explosion.getCenterY());
+            if (cell == explosion.getMinimapCell()) continue;
+            move(EXPLOSION, explosion.getMinimapCell(), cell);
+            explosion.setMinimapCell(cell);
+        }
+        draw();
+    }
+
+    /**
+     * Method used to stop counting a ship which is removed from a game.
+     *
+     * @param ship ship which is removed from a game
+     */
+    public void remove(Ship ship) {
+        int entity = ship.getEntity();
+        move(layerOf(ship), world.getRadarCell(entity), NO_CELL);
+        world.setRadarCell(entity, NO_CELL);
+    }
+
+    /**
+     * Method used to stop counting a cannon ball which is removed from a game.
+     *
+     * @param cannonBall cannon ball which is removed from a game
+     */
+    public void remove(CannonBall cannonBall) {
+        move(CANNON_BALL, cannonBall.getMinimapCell(), NO_CELL);
+        cannonBall.setMinimapCell(NO_CELL);
+    }
+
+    /**
+     * Method used to stop counting an explosion which has finished.
+     *
+     * @param explosion explosion which is removed from a game
+     */
+    public void remove(Explosion explosion) {
+        move(EXPLOSION, explosion.getMinimapCell(), NO_CELL);
+        explosion.setMinimapCell(NO_CELL);
+    }
+
+    /**
+     * This method moves one object of a layer from a cell to other cell and marks both cells as dirty.
+     *
+     * @param layer    layer of an object
+     * @param previous cell in which an object was counted or NO_CELL
+     * @param cell     cell in which an object is counted now or NO_CELL
+     */
+    private void move(int layer, int previous, int cell) {
+        if (previous != NO_CELL) {
+            counts[layer][previous]--;
+            markDirty(previous);
+        }
+        if (cell != NO_CELL) {
+            counts[layer][cell]++;
+            markDirty(cell);
+        }
+    }
+
+    /**
+     * This method marks a cell whose pixel has to be drawn again.
+     *
+     * @param cell index of a cell
+     */
+    private void markDirty(int cell) {
+        if (dirty[cell]) return;
+        dirty[cell] = true;
+        dirtyCells[dirtyCount++] = cell;
+    }
+
+    /**
+     * This method draws pixels of dirty cells and copies a part of a minimap containing them to it's image.
+     */
+    private void draw() {
+        if (dirtyCount == 0) return;
+        int minColumn = columns;
+        int minRow = rows;
+        int maxColumn = 0;
+        int maxRow = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirtyCells[i];
+            dirty[cell] = false;
+            pixels[cell] = colorOf(cell);
+            minColumn = Math.min(minColumn, cell % columns);
+            minRow = Math.min(minRow, cell / columns);
+            maxColumn = Math.max(maxColumn, cell % columns + 1);
+            maxRow = Math.max(maxRow, cell / columns + 1);
+        }
+        dirtyCount = 0;
+        pixelWriter.setPixels(minColumn, minRow, maxColumn - minColumn, maxRow - minRow, pixelFormat,
+                pixels, minRow * columns + minColumn, columns);
+    }
+
+    /**
+     * This method chooses a color of a cell: a player ship is drawn over enemy ships, enemy ships
+     * over explosions and explosions over cannon balls, which are brighter where there are more of them.
+     *
+     * @param cell index of a cell
+     * @return premultiplied ARGB color
+     */
+    private int colorOf(int cell) {
+        if (counts[PLAYER][cell] > 0) return PLAYER_COLOR;
+        if (counts[ENEMY][cell] > 0) return ENEMY_COLOR;
+        if (counts[EXPLOSION][cell] > 0) return EXPLOSION_COLOR;
+        int cannonBalls = counts[CANNON_BALL][cell];
+        if (cannonBalls > 0) return CANNON_BALLS_COLORS[Math.min(cannonBalls, CANNON_BALLS_COLORS.length) - 1];
+        return background[cell];
+    }
+
+    /**
+     * Method used to forget all objects of a previous match. Cells of ships' entities are forgotten
+     * when they are destroyed, while cannon balls and explosions have to be removed before.
+     */
+    public void clear() {
+        for (int layer = 0; layer < LAYERS; layer++) Arrays.fill(counts[layer], 0);
+        for (int cell = 0; cell < pixels.length; cell++) markDirty(cell);
+        draw();
+    }
+
+    /**
+     * Method used to remove a minimap from a game view.
+     */
+    public void dispose() {
+        game.getGameView().removeNode(layer);
+    }
+
+    /**
+     * This method finds a layer on which a ship is counted.
+     *
+     * @param ship ship in a game
+     * @return PLAYER for a player ship, ENEMY for enemy ships
+     */
+    private int layerOf(Ship ship) {
+        return ship == game.getPlayerShip() ? PLAYER : ENEMY;
+    }
+
+    /**
+     * This method finds a cell containing a point if a player can see it.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return index of a cell or NO_CELL if a point is covered by fog
+     */
+    private int visibleCellAt(double x, double y) {
+        return game.getFogOfWar().isVisible(FogOfWar.PLAYER_SIDE, x, y) ? cellAt(x, y) : NO_CELL;
+    }
+
+    /**
+     * This method finds a cell containing a point, points outside of a scene belong to the nearest border cell.
+     *
+     * @param x X coordinate on a game scene
+     * @param y Y coordinate on a game scene
+     * @return index of a cell
+     */
+    private int cellAt(double x, double y) {
+        int column = Math.min(Math.max((int) (x / cellSize), 0), columns - 1);
+        int row = Math.min(Math.max((int) (y / cellSize), 0), rows - 1);
+        return row * columns + column;
+    }
+
+    /**
+     * This method converts a color with opacity to premultiplied ARGB format of a minimap image.
+     *
+     * @param red     red component from 0 to 255
+     * @param green   green component from 0 to 255
+     * @param blue    blue component from 0 to 255
+     * @param opacity opacity from 0 to 1
+     * @return premultiplied ARGB color
+     */
+    private static int premultiply(int red, int green, int blue, double opacity) {
+        int alpha = (int) Math.round(opacity * 255);
+        return alpha << 24 | (red * alpha / 255) << 16 | (green * alpha / 255) << 8 | blue * alpha / 255;
+    }
+}
@@ -0,0 +1,412 @@
+package application.game;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to display particle effects on a game scene: wakes behind moving ships,
+ * smoke of shot cannons, splashes of cannon balls falling into water and fire of ship wrecks.
+ * Particles are stored in preallocated arrays of primitives, so emitting, updating and drawing them
+ * doesn't create any objects in a game loop. Dead particles are replaced with the last living one,
+ * so live particles are always packed at the beginning of arrays and updated in one tight loop.
+ * Particles aren't graphical nodes, all of them are blended into one array of pixels in half resolution
+ * of a game scene, which is copied to a single image once per tick, so the whole layer is drawn as one batch.
+ * If all particles are alive, new ones aren't emitted until some of them die.
+ */
+public class ParticleSystem implements GameEventListener {
+
+    public static final int MAX_PARTICLES = 100_000;
+    private static final int MAX_WRECKS = 64;
+    private static final int PIXEL_SCALE = 2;
+
+    private static final int WAKE = 0;
+    private static final int SMOKE = 1;
+    private static final int SPLASH = 2;
+    private static final int FIRE = 3;
+
+    private static final int[] LIFE_TICKS = {90, 70, 30, 25};
+    private static final float[] START_SIZES = {3, 4, 2, 3};
+    private static final float[] SIZE_GROWTH = {0.06f, 0.12f, 0.02f, -0.08f};
+    private static final float[] DRAG = {0.96f, 0.97f, 0.90f, 0.93f};
+    private static final int[] COLORS = {0xEBF5FF, 0x5A5A5A, 0xC8E6FF, 0xFF8C1E};
+    private static final int[] OPACITIES = {140, 160, 230, 230};
+
+    private static final double WAKE_PER_SPEED = 0.8;
+    private static final int SMOKE_PER_SHOT = 12;
+    private static final int SPLASH_PER_MISS = 20;
+    private static final int FIRE_PER_HIT = 10;
+    private static final int WRECK_TICKS = 300;
+    private static final int WRECK_FIRE_PER_TICK = 3;
+
+    private Game game;
+    private double width;
+    private double height;
+
+    private ImageView layer;
+    private PixelWriter pixelWriter;
+    private WritablePixelFormat<IntBuffer> pixelFormat = PixelFormat.getIntArgbPreInstance();
+    private int pixelsWidth;
+    private int pixelsHeight;
+    private int[] pixels;
+    private int[] dirty = new int[4];
+    private int[] drawn = new int[4];
+
+    private int size = 0;
+    private float[] posX = new float[MAX_PARTICLES];
+    private float[] posY = new float[MAX_PARTICLES];
+    private float[] velocityX = new float[MAX_PARTICLES];
+    private float[] velocityY = new float[MAX_PARTICLES];
+    private float[] sizes = new float[MAX_PARTICLES];
+    private short[] ages = new short[MAX_PARTICLES];
+    private byte[] kinds = new byte[MAX_PARTICLES];
+
+    private int wrecksCount = 0;
+    private float[] wreckPosX = new float[MAX_WRECKS];
+    private float[] wreckPosY = new float[MAX_WRECKS];
+    private int[] wreckTicks = new int[MAX_WRECKS];
+
+    private double scale = 1;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    /**
+     * Constructor initializing particle system of a game and placing it's image on a game scene
+     * below all other nodes, so particles are displayed on water under ships.
+     *
+     * @param game game in which particles are displayed
+     */
+    public ParticleSystem(Game game) {
+        this.game = game;
+        GameView gameView = game.getGameView();
+        width = gameView.getWidth();
+        height = gameView.getHeight();
+        pixelsWidth = (int) Math.ceil(width / PIXEL_SCALE);
+        pixelsHeight = (int) Math.ceil(height / PIXEL_SCALE);
+        pixels = new int[pixelsWidth * pixelsHeight];
+        emptyBounds(dirty);
+
+        WritableImage image = new WritableImage(pixelsWidth, pixelsHeight);
+        pixelWriter = image.getPixelWriter();
+        layer = new ImageView(image);
+        layer.setFitWidth(pixelsWidth * PIXEL_SCALE);
+        layer.setFitHeight(pixelsHeight * PIXEL_SCALE);
+        layer.setSmooth(true);
+        layer.setMouseTransparent(true);
+        layer.setFocusTraversable(false);
+        gameView.addBackgroundNode(layer);
+    }
+
+    /**
+     * Method used to emit particles in a game loop tick, age and move all particles and draw them.
+     * Amount of emitted particles is scaled by particles scale of a current quality level.
+     *
+     * @param ships ships which leave wakes behind them
+     */
+    public void update(List<Ship> ships) {
+        scale = game.getQualityGovernor().getLevel().getParticlesScale();
+        for (int i = 0; i < ships.size(); i++) emitWake(ships.get(i));
+        emitWrecks();
+        simulate();
+        draw();
+    }
+
+    /**
+     * This method emits wake particles behind a ship's stern, more of them the faster a ship sails.
+     *
+     * @param ship ship leaving a wake
+     */
+    private void emitWake(Ship ship) {
+        double speed = game.getWorld().getSpeed(ship.getEntity());
+        int count = count(speed * WAKE_PER_SPEED);
+        if (count == 0) return;
+        double angle = Math.toRadians(ship.getAngle());
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double sternX = ship.getCenterX() - cos * ship.getShipWidth() / 2;
+        double sternY = ship.getCenterY() - sin * ship.getShipWidth() / 2;
+        for (int i = 0; i < count; i++) {
+            double side = random() * 2 - 1;
+            emit(WAKE, sternX - sin * side * 6, sternY + cos * side * 6,
+                    -sin * side * 0.4 - cos * 0.2, cos * side * 0.4 - sin * 0.2);
+        }
+    }
+
+    /**
+     * This method emits fire and smoke particles from burning wrecks of destroyed ships,
+     * until they burn out.
+     */
+    private void emitWrecks() {
+        for (int w = wrecksCount - 1; w >= 0; w--) {
+            if (--wreckTicks[w] <= 0) {
+                wrecksCount--;
+                wreckPosX[w] = wreckPosX[wrecksCount];
+                wreckPosY[w] = wreckPosY[wrecksCount];
+                wreckTicks[w] = wreckTicks[wrecksCount];
+                continue;
+            }
+            double intensity = wreckTicks[w] / (double) WRECK_TICKS;
+            burst(FIRE, wreckPosX[w], wreckPosY[w], count(WRECK_FIRE_PER_TICK * intensity), 0.6, 20);
+            burst(SMOKE, wreckPosX[w], wreckPosY[w], count(intensity), 0.5, 15);
+        }
+    }
+
+    /**
+     * This method ages, slows down and moves all live particles and removes the dead ones.
+     */
+    private void simulate() {
+        int i = 0;
+        while (i < size) {
+            int kind = kinds[i];
+            if (++ages[i] >= LIFE_TICKS[kind]) {
+                remove(i);
+                continue;
+            }
+            float drag = DRAG[kind];
+            velocityX[i] *= drag;
+            velocityY[i] *= drag;
+            posX[i] += velocityX[i];
+            posY[i] += velocityY[i];
+            sizes[i] += SIZE_GROWTH[kind];
+            i++;
+        }
+    }
+
+    /**
+     * This method draws all live particles. Pixels covered by particles in a previous tick are cleared,
+     * particles are blended into pixels with opacity fading out with their age, and only the part of pixels
+     * which has changed is copied to an image.
+     */
+    private void draw() {
+        clearPixels(dirty);
+        emptyBounds(drawn);
+        for (int i = 0; i < size; i++) drawParticle(i);
+
+        int minX = Math.min(dirty[0], drawn[0]);
+        int minY = Math.min(dirty[1], drawn[1]);
+        int maxX = Math.max(dirty[2], drawn[2]);
+        int maxY = Math.max(dirty[3], drawn[3]);
+        if (minX < maxX && minY < maxY)
+            pixelWriter.setPixels(minX, minY, maxX - minX, maxY - minY, pixelFormat,
+                    pixels, minY * pixelsWidth + minX, pixelsWidth);
+        System.arraycopy(drawn, 0, dirty, 0, 4);
+    }
+
+    /**
+     * This method blends a square of a particle into pixels and extends bounds of drawn pixels.
+     *
+     * @param i index of a particle
+     */
+    private void drawParticle(int i) {
+        int kind = kinds[i];
+        float half = sizes[i] / 2;
+        int x0 = Math.max(0, (int) ((posX[i] - half) / PIXEL_SCALE));
+        int y0 = Math.max(0, (int) ((posY[i] - half) / PIXEL_SCALE));
+        int x1 = Math.min(pixelsWidth, (int) ((posX[i] + half) / PIXEL_SCALE) + 1);
+        int y1 = Math.min(pixelsHeight, (int) ((posY[i] + half) / PIXEL_SCALE) + 1);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        int life = LIFE_TICKS[kind];
+        int alpha = OPACITIES[kind] * (life - ages[i]) / life;
+        int color = COLORS[kind] | 0xFF000000;
+        int source = premultiply(color & 0xFF00FF, alpha) | (premultiply((color >>> 8) & 0xFF00FF, alpha) << 8);
+        int remaining = 256 - alpha;
+        for (int y = y0; y < y1; y++) {
+            int row = y * pixelsWidth;
+            for (int x = x0; x < x1; x++) {
+                int pixel = pixels[row + x];
+                pixels[row + x] = source + (premultiply(pixel & 0xFF00FF, remaining)
+                        | (premultiply((pixel >>> 8) & 0xFF00FF, remaining) << 8));
+            }
+        }
+        if (x0 < drawn[0]) drawn[0] = x0;
+        if (y0 < drawn[1]) drawn[1] = y0;
+        if (x1 > drawn[2]) drawn[2] = x1;
+        if (y1 > drawn[3]) drawn[3] = y1;
+    }
+
+    /**
+     * This method multiplies two color channels packed in bits 0-7 and 16-23 of a number by alpha at once.
+     *
+     * @param channels two color channels of a pixel
+     * @param alpha    alpha from 0 to 256
+     * @return multiplied channels packed the same way
+     */
+    private static int premultiply(int channels, int alpha) {
+        return ((channels * alpha) >>> 8) & 0xFF00FF;
+    }
+
+    /**
+     * This method makes pixels in given bounds transparent.
+     *
+     * @param bounds minimum X, minimum Y, maximum X and maximum Y of pixels, maximums are exclusive
+     */
+    private void clearPixels(int[] bounds) {
+        for (int y = bounds[1]; y < bounds[3]; y++)
+            Arrays.fill(pixels, y * pixelsWidth + bounds[0], y * pixelsWidth + bounds[2], 0);
+    }
+
+    /**
+     * This method sets bounds which don't contain any pixel, so they can be extended by drawn particles.
+     *
+     * @param bounds minimum X, minimum Y, maximum X and maximum Y of pixels, maximums are exclusive
+     */
+    private void emptyBounds(int[] bounds) {
+        bounds[0] = pixelsWidth;
+        bounds[1] = pixelsHeight;
+        bounds[2] = 0;
+        bounds[3] = 0;
+    }
+
+    /**
+     * This method emits particles which fly from a point in random directions.
+     *
+     * @param kind     kind of particles
+     * @param posX     X coordinate on a game scene
+     * @param posY     Y coordinate on a game scene
+     * @param count    amount of particles
+     * @param speed    maximum speed of particles
+     * @param spread   maximum distance from a point in which particles are emitted
+     */
+    private void burst(int kind, double posX, double posY, int count, double speed, double spread) {
+        for (int i = 0; i < count; i++) {
+            double angle = random() * 2 * Math.PI;
+            double velocity = random() * speed;
+            double distance = random() * spread;
+            emit(kind, posX + Math.cos(angle) * distance, posY + Math.sin(angle) * distance,
+                    Math.cos(angle) * velocity, Math.sin(angle) * velocity);
+        }
+    }
+
+    /**
+     * This method adds a particle at the end of live particles, if there is still place for it.
+     *
+     * @param kind      kind of a particle
+     * @param posX      X coordinate on a game scene
+     * @param posY      Y coordinate on a game scene
+     * @param velocityX velocity on X axis
+     * @param velocityY velocity on Y axis
+     */
+    private void emit(int kind, double posX, double posY, double velocityX, double velocityY) {
+        if (size == MAX_PARTICLES) return;
+        int i = size++;
+        this.posX[i] = (float) posX;
+        this.posY[i] = (float) posY;
+        this.velocityX[i] = (float) velocityX;
+        this.velocityY[i] = (float) velocityY;
+        sizes[i] = START_SIZES[kind];
+        ages[i] = 0;
+        kinds[i] = (byte) kind;
+    }
+
+    /**
+     * This method removes a particle by moving the last live particle in it's place.
+     *
+     * @param i index of a removed particle
+     */
+    private void remove(int i) {
+        int last = --size;
+        posX[i] = posX[last];
+        posY[i] = posY[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        sizes[i] = sizes[last];
+        ages[i] = ages[last];
+        kinds[i] = kinds[last];
+    }
+
+    /**
+     * This method scales expected amount of particles by current quality level and rounds it randomly,
+     * so fractional amounts are emitted on average.
+     *
+     * @param expected expected amount of particles at the highest quality
+     * @return amount of particles to emit
+     */
+    private int count(double expected) {
+        double scaled = expected * scale;
+        int count = (int) scaled;
+        return random() < scaled - count ? count + 1 : count;
+    }
+
+    /**
+     * This method returns next number of a xorshift generator, which is fast and keeps effects
+     * of a simulated game repeatable.
+     *
+     * @return pseudorandom number from 0 inclusive to 1 exclusive
+     */
+    private double random() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (seed >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * This method emits particles for game events: smoke of shot cannons, fire of hits,
+     * splashes of cannon balls which missed and fell out of a game scene or hit an island
+     * and burning wrecks of destroyed ships.
+     *
+     * @param event event drained from a game event bus
+     */
+    @Override
+    public void onEvent(GameEvent event) {
+        switch (event.getType()) {
+            case SHOT_FIRED:
+                CannonBall cannonBall = event.getCannonBall();
+                burst(SMOKE, event.getPosX() + cannonBall.getVelocityX() * 5,
+                        event.getPosY() + cannonBall.getVelocityY() * 5, count(SMOKE_PER_SHOT), 0.8, 10);
+                break;
+            case HIT:
+                burst(FIRE, event.getPosX(), event.getPosY(), count(FIRE_PER_HIT), 1.5, 5);
+                burst(SMOKE, event.getPosX(), event.getPosY(), count(FIRE_PER_HIT / 2.0), 0.8, 5);
+                break;
+            case PROJECTILE_BLOCKED:
+                burst(SMOKE, event.getPosX(), event.getPosY(), count(SPLASH_PER_MISS / 4.0), 0.6, 4);
+                burst(SPLASH, event.getPosX(), event.getPosY(), count(SPLASH_PER_MISS / 2.0), 1.5, 4);
+                break;
+            case PROJECTILE_EXPIRED:
+                burst(SPLASH, Math.max(0, Math.min(width, event.getPosX())),
+                        Math.max(0, Math.min(height, event.getPosY())), count(SPLASH_PER_MISS), 2, 4);
+                break;
+            case SHIP_DESTROYED:
+                if (wrecksCount < MAX_WRECKS) {
+                    wreckPosX[wrecksCount] = (float) event.getPosX();
+                    wreckPosY[wrecksCount] = (float) event.getPosY();
+                    wreckTicks[wrecksCount] = WRECK_TICKS;
+                    wrecksCount++;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Method used to remove all particles and wrecks, for example when a match is restarted.
+     */
+    public void clear() {
+        size = 0;
+        wrecksCount = 0;
+        draw();
+    }
+
+    /**
+     * Method used to remove image of particles from a game scene.
+     */
+    public void dispose() {
+        clear();
+        game.getGameView().removeNode(layer);
+    }
+
+    /**
+     * Getter for amount of live particles.
+     *
+     * @return amount of live particles
+     */
+    public int getParticlesCount() {
+        return size;
+    }
+}
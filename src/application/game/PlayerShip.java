@@ -11,17 +11,19 @@ import static application.game.Ship.Side.*;
  */
 public class PlayerShip extends Ship {
 
+    private Set<KeyCode> codes = new HashSet<>();
+
     /**
      * Constructor which creates and initializes player ship by calling it's Ship parent constructor
      * and creates key listeners for a keyboard to control a ship manually.
      *
-     * @param shipImageUrl url for a ship image which will be displayed on a game scene
-     * @param posX         ship start X coordinate on a game scene
-     * @param posY         ship start Y coordinate on a game scene
-     * @param game         object of Game class in which ship is placed
+     * @param shipClass class of a ship which defines it's image, collision mask and abilities
+     * @param posX      ship start X coordinate on a game scene
+     * @param posY      ship start Y coordinate on a game scene
+     * @param game      object of Game class in which ship is placed
      */
-    public PlayerShip(String shipImageUrl, double posX, double posY, Game game) {
-        super(shipImageUrl, posX, posY, game);
+    public PlayerShip(ShipClass shipClass, double posX, double posY, Game game) {
+        super(shipClass, posX, posY, game);
         createKeyListeners();
     }
 
@@ -31,9 +33,8 @@ public class PlayerShip extends Ship {
     private void createKeyListeners() {
         this.setFocusTraversable(true);
         List<KeyCode> acceptedCodes = Arrays.asList(KeyCode.W, KeyCode.S, KeyCode.A, KeyCode.D, KeyCode.Q, KeyCode.E);
-        Set<KeyCode> codes = new HashSet<>();
         this.setOnKeyPressed(e -> {
-            if (acceptedCodes.contains(e.getCode()) && game.isRunning()) {
+            if (acceptedCodes.contains(e.getCode()) && game.isRunning() && isAlive()) {
                 codes.add(e.getCode());
                 if (codes.contains(KeyCode.W))
                     increaseSpeed();
@@ -54,4 +55,17 @@ public class PlayerShip extends Ship {
         });
     }
 
+    /**
+     * This method overrides it's Ship parent method and calls it
+     * and forgets keys which were held when previous match ended.
+     *
+     * @param posX ship start X coordinate on a game scene
+     * @param posY ship start Y coordinate on a game scene
+     */
+    @Override
+    public void respawn(double posX, double posY) {
+        super.respawn(posX, posY);
+        codes.clear();
+    }
+
 }
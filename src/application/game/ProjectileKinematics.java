@@ -0,0 +1,298 @@
+package application.game;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * This class stores positions and velocities of cannon balls in packed columns
+ * and integrates all of them at once in a game loop. If "jdk.incubator.vector" module is available,
+ * integration and arena bounds checks are vectorized with SIMD instructions,
+ * otherwise a scalar loop is used.
+ * <p>
+ * Columns are stored outside of Java heap in one direct buffer, one after another in little endian order:
+ * X coordinates, Y coordinates, movements along X axis and movements along Y axis, each with room
+ * for the capacity of cannon balls. A snapshot of all cannon balls is a bulk copy of the used part
+ * of every column, as it is for ships in EntityWorld.
+ */
+public class ProjectileKinematics {
+
+    private static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    public static final int POS_X_COLUMN = 0;
+    public static final int POS_Y_COLUMN = 1;
+    public static final int VELOCITY_X_COLUMN = 2;
+    public static final int VELOCITY_Y_COLUMN = 3;
+    public static final int COLUMNS = 4;
+
+    private static final VarHandle DOUBLE =
+            MethodHandles.byteBufferViewVarHandle(double[].class, EntityWorld.BYTE_ORDER);
+
+    private int size = 0;
+    private int capacity;
+    private ByteBuffer columns;
+    private ByteBuffer columnsView;
+    private boolean[] outside;
+    private CannonBall[] cannonBalls;
+
+    /**
+     * Constructor which preallocates arrays for a given amount of cannon balls.
+     *
+     * @param capacity initial amount of cannon balls which can be stored without growing arrays
+     */
+    public ProjectileKinematics(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.capacity = capacity;
+        columns = ByteBuffer.allocateDirect(COLUMNS * capacity * Double.BYTES).order(EntityWorld.BYTE_ORDER);
+        columnsView = columns.duplicate();
+        outside = new boolean[capacity];
+        cannonBalls = new CannonBall[capacity];
+    }
+
+    /**
+     * Method used to add a cannon ball to integrated projectiles.
+     *
+     * @param cannonBall cannon ball which is moved by these kinematics, or null when only kinematics are measured
+     * @param x          start X coordinate
+     * @param y          start Y coordinate
+     * @param vx         movement along X axis in one tick
+     * @param vy         movement along Y axis in one tick
+     * @return slot of a cannon ball, which can change when other cannon balls are removed
+     */
+    public int add(CannonBall cannonBall, double x, double y, double vx, double vy) {
+        if (size == capacity) grow();
+        set(POS_X_COLUMN, size, x);
+        set(POS_Y_COLUMN, size, y);
+        set(VELOCITY_X_COLUMN, size, vx);
+        set(VELOCITY_Y_COLUMN, size, vy);
+        outside[size] = false;
+        cannonBalls[size] = cannonBall;
+        return size++;
+    }
+
+    /**
+     * Method used to remove a cannon ball. The last cannon ball is moved into freed slot,
+     * so arrays stay packed, and it's slot is updated.
+     *
+     * @param slot slot of a removed cannon ball
+     */
+    public void remove(int slot) {
+        int last = --size;
+        if (slot != last) {
+            for (int column = 0; column < COLUMNS; column++) set(column, slot, get(column, last));
+            outside[slot] = outside[last];
+            cannonBalls[slot] = cannonBalls[last];
+            if (cannonBalls[slot] != null) cannonBalls[slot].setSlot(slot);
+        }
+        cannonBalls[last] = null;
+    }
+
+    /**
+     * Method used to remove all cannon balls.
+     */
+    public void clear() {
+        Arrays.fill(cannonBalls, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Method which moves all cannon balls by their velocity
+     * and marks cannon balls which have left area of a game scene.
+     *
+     * @param areaWidth  width of a game scene
+     * @param areaHeight height of a game scene
+     */
+    public void integrate(double areaWidth, double areaHeight) {
+        integrate(areaWidth, areaHeight, VECTORIZED);
+    }
+
+    /**
+     * Method which moves all cannon balls by their velocity with a chosen loop, so both loops
+     * can be compared by a benchmark. Vectorized loop is used only if it's available.
+     *
+     * @param areaWidth  width of a game scene
+     * @param areaHeight height of a game scene
+     * @param vectorized true if SIMD instructions should be used
+     */
+    public void integrate(double areaWidth, double areaHeight, boolean vectorized) {
+        if (vectorized && VECTORIZED)
+            VectorKinematics.integrate(columns, capacity, outside, size, areaWidth, areaHeight);
+        else integrateScalar(columns, capacity, outside, 0, size, areaWidth, areaHeight);
+    }
+
+    /**
+     * Scalar integration of cannon balls in given range of slots.
+     *
+     * @param columns    buffer with columns of positions and velocities
+     * @param capacity   amount of cannon balls for which every column has room
+     * @param outside    flags set for cannon balls outside of a game scene
+     * @param from       first integrated slot
+     * @param to         slot after the last integrated one
+     * @param areaWidth  width of a game scene
+     * @param areaHeight height of a game scene
+     */
+    static void integrateScalar(ByteBuffer columns, int capacity, boolean[] outside, int from, int to,
+                                double areaWidth, double areaHeight) {
+        int column = capacity * Double.BYTES;
+        for (int i = from; i < to; i++) {
+            int offset = i * Double.BYTES;
+            double x = (double) DOUBLE.get(columns, offset) + (double) DOUBLE.get(columns, 2 * column + offset);
+            double y = (double) DOUBLE.get(columns, column + offset)
+                    + (double) DOUBLE.get(columns, 3 * column + offset);
+            DOUBLE.set(columns, offset, x);
+            DOUBLE.set(columns, column + offset, y);
+            outside[i] = x < 0 || x > areaWidth || y < 0 || y > areaHeight;
+        }
+    }
+
+    /**
+     * Getter for information whether integration is vectorized.
+     *
+     * @return true if SIMD instructions are used
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Getter for amount of integrated cannon balls.
+     *
+     * @return amount of cannon balls
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for X coordinate of a cannon ball.
+     *
+     * @param slot slot of a cannon ball
+     * @return X coordinate
+     */
+    public double getPosX(int slot) {
+        return get(POS_X_COLUMN, slot);
+    }
+
+    /**
+     * Getter for Y coordinate of a cannon ball.
+     *
+     * @param slot slot of a cannon ball
+     * @return Y coordinate
+     */
+    public double getPosY(int slot) {
+        return get(POS_Y_COLUMN, slot);
+    }
+
+    /**
+     * Getter for movement of a cannon ball along X axis in one tick.
+     *
+     * @param slot slot of a cannon ball
+     * @return movement along X axis
+     */
+    public double getVelocityX(int slot) {
+        return get(VELOCITY_X_COLUMN, slot);
+    }
+
+    /**
+     * Getter for movement of a cannon ball along Y axis in one tick.
+     *
+     * @param slot slot of a cannon ball
+     * @return movement along Y axis
+     */
+    public double getVelocityY(int slot) {
+        return get(VELOCITY_Y_COLUMN, slot);
+    }
+
+    /**
+     * Getter for information whether a cannon ball has left area of a game scene in last integration.
+     *
+     * @param slot slot of a cannon ball
+     * @return true if cannon ball is outside of a game scene
+     */
+    public boolean isOutside(int slot) {
+        return outside[slot];
+    }
+
+    /**
+     * Getter for size of a snapshot of all cannon balls.
+     *
+     * @return amount of bytes written by copyColumns or writeColumns
+     */
+    public int getColumnsBytes() {
+        return COLUMNS * size * Double.BYTES;
+    }
+
+    /**
+     * Method used to take a snapshot of all cannon balls by bulk copies of used parts of columns
+     * into a buffer at it's position, which is then moved after copied columns.
+     *
+     * @param target buffer with at least getColumnsBytes remaining bytes
+     * @throws java.nio.BufferOverflowException if there isn't enough room in a buffer
+     */
+    public void copyColumns(ByteBuffer target) {
+        int bytes = size * Double.BYTES;
+        for (int column = 0; column < COLUMNS; column++) {
+            int position = target.position();
+            target.put(position, columns, column * capacity * Double.BYTES, bytes);
+            target.position(position + bytes);
+        }
+    }
+
+    /**
+     * Method used to write a snapshot of all cannon balls straight from memory of columns to a channel,
+     * for example a file or a socket, without copying them on Java heap.
+     *
+     * @param channel channel to which columns are written
+     * @throws IOException if columns can't be written
+     */
+    public void writeColumns(WritableByteChannel channel) throws IOException {
+        for (int column = 0; column < COLUMNS; column++) {
+            int start = column * capacity * Double.BYTES;
+            columnsView.clear().position(start).limit(start + size * Double.BYTES);
+            while (columnsView.hasRemaining()) channel.write(columnsView);
+        }
+    }
+
+    /**
+     * This method reads a value of a cannon ball from a column.
+     *
+     * @param column index of a column
+     * @param slot   slot of a cannon ball
+     * @return value in a column
+     */
+    private double get(int column, int slot) {
+        return (double) DOUBLE.get(columns, (column * capacity + slot) * Double.BYTES);
+    }
+
+    /**
+     * This method writes a value of a cannon ball to a column.
+     *
+     * @param column index of a column
+     * @param slot   slot of a cannon ball
+     * @param value  new value in a column
+     */
+    private void set(int column, int slot, double value) {
+        DOUBLE.set(columns, (column * capacity + slot) * Double.BYTES, value);
+    }
+
+    /**
+     * Method used to double capacity of columns. Columns are copied into a new direct buffer
+     * and memory of the old one is released when it's collected.
+     */
+    private void grow() {
+        ByteBuffer grown = ByteBuffer.allocateDirect(2 * COLUMNS * capacity * Double.BYTES)
+                .order(EntityWorld.BYTE_ORDER);
+        for (int column = 0; column < COLUMNS; column++)
+            grown.put(2 * column * capacity * Double.BYTES, columns, column * capacity * Double.BYTES,
+                    size * Double.BYTES);
+        capacity *= 2;
+        columns = grown;
+        columnsView = columns.duplicate();
+        outside = Arrays.copyOf(outside, capacity);
+        cannonBalls = Arrays.copyOf(cannonBalls, capacity);
+    }
+}
@@ -0,0 +1,120 @@
+package application.game;
+
+/**
+ * This class is used to keep a game within it's frame time budget.
+ * It watches recent tick and frame times and steps quality level down when the budget is exceeded
+ * and up again when there is enough headroom. Stepping up requires much longer period of
+ * headroom than stepping down requires overload, so quality level doesn't oscillate.
+ */
+public class QualityGovernor {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double OVERLOAD_RATIO = 1.15;
+    private static final double HEADROOM_RATIO = 0.5;
+    private static final int OVERLOAD_FRAMES = 30;
+    private static final int HEADROOM_FRAMES = 180;
+
+    private double budgetNanos;
+    private double averageFrameNanos;
+    private double averageTickNanos;
+    private long lastFrameNanos = -1;
+    private int overloadFrames = 0;
+    private int headroomFrames = 0;
+
+    private QualityLevel level = QualityLevel.HIGH;
+
+    /**
+     * Constructor initializing governor with target frame budget.
+     *
+     * @param budgetMillis target time of one frame in milliseconds, for example 16.6 for 60 frames per second
+     */
+    public QualityGovernor(double budgetMillis) {
+        budgetNanos = budgetMillis * 1_000_000;
+        averageFrameNanos = budgetNanos;
+        averageTickNanos = 0;
+    }
+
+    /**
+     * Method called once per frame with time measured for it.
+     * Time between frames includes rendering of previous frame by JavaFX,
+     * so it's used to detect overload, while tick time shows how much headroom is left.
+     *
+     * @param frameStartNanos time at which a frame started, from System.nanoTime
+     * @param tickNanos       time spent on a game loop tick in this frame
+     * @return true if quality level has changed
+     */
+    public boolean update(long frameStartNanos, long tickNanos) {
+        if (lastFrameNanos >= 0)
+            averageFrameNanos += SMOOTHING * ((frameStartNanos - lastFrameNanos) - averageFrameNanos);
+        lastFrameNanos = frameStartNanos;
+        averageTickNanos += SMOOTHING * (tickNanos - averageTickNanos);
+
+        if (averageFrameNanos > OVERLOAD_RATIO * budgetNanos || averageTickNanos > budgetNanos) {
+            if (overloadFrames < OVERLOAD_FRAMES) overloadFrames++;
+            headroomFrames = 0;
+        } else if (averageTickNanos < HEADROOM_RATIO * budgetNanos) {
+            if (headroomFrames < HEADROOM_FRAMES) headroomFrames++;
+            overloadFrames = 0;
+        } else {
+            overloadFrames = 0;
+            headroomFrames = 0;
+        }
+
+        QualityLevel newLevel = level;
+        if (overloadFrames >= OVERLOAD_FRAMES) newLevel = level.lower();
+        else if (headroomFrames >= HEADROOM_FRAMES) newLevel = level.higher();
+        if (newLevel == level) return false;
+
+        level = newLevel;
+        overloadFrames = 0;
+        headroomFrames = 0;
+        averageFrameNanos = budgetNanos;
+        return true;
+    }
+
+    /**
+     * Method used to forget measured times, for example after a game was paused.
+     */
+    public void resetTiming() {
+        lastFrameNanos = -1;
+        overloadFrames = 0;
+        headroomFrames = 0;
+        averageFrameNanos = budgetNanos;
+    }
+
+    /**
+     * Method used to bring governor back to it's initial state, for example when a match is restarted.
+     */
+    public void reset() {
+        resetTiming();
+        averageTickNanos = 0;
+        level = QualityLevel.HIGH;
+    }
+
+    /**
+     * Getter for current quality level.
+     *
+     * @return current quality level
+     */
+    public QualityLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Getter for recent average time of a game loop tick.
+     *
+     * @return average tick time in milliseconds
+     */
+    public double getAverageTickMillis() {
+        return averageTickNanos / 1_000_000;
+    }
+
+    /**
+     * Getter for recent average time between frames.
+     *
+     * @return average frame time in milliseconds
+     */
+    public double getAverageFrameMillis() {
+        return averageFrameNanos / 1_000_000;
+    }
+}
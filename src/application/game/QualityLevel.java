@@ -0,0 +1,85 @@
+package application.game;
+
+/**
+ * Enum used to store levels of optional work done in a game loop.
+ * Lower levels are chosen by QualityGovernor when a game can't keep up with it's frame budget.
+ */
+public enum QualityLevel {
+    HIGH(3, true, 1, 1.0),
+    MEDIUM(2, true, 3, 0.5),
+    LOW(1, false, 6, 0.25);
+
+    private int explosionFrames;
+    private boolean healthBarsShown;
+    private int farThinkInterval;
+    private double particlesScale;
+
+    /**
+     * Constructor initializing quality level with amounts of optional work.
+     *
+     * @param explosionFrames  amount of explosion animation frames displayed
+     * @param healthBarsShown  true if health bars are shown after ships are hit
+     * @param farThinkInterval amount of ticks between AI decisions of ships far from a player
+     * @param particlesScale   fraction of particles emitted by visual effects
+     */
+    QualityLevel(int explosionFrames, boolean healthBarsShown, int farThinkInterval, double particlesScale) {
+        this.explosionFrames = explosionFrames;
+        this.healthBarsShown = healthBarsShown;
+        this.farThinkInterval = farThinkInterval;
+        this.particlesScale = particlesScale;
+    }
+
+    /**
+     * Getter for amount of explosion animation frames displayed.
+     *
+     * @return amount of explosion frames from 1 to 3
+     */
+    public int getExplosionFrames() {
+        return explosionFrames;
+    }
+
+    /**
+     * Getter for information whether health bars are shown after ships are hit.
+     *
+     * @return true if health bars are shown
+     */
+    public boolean areHealthBarsShown() {
+        return healthBarsShown;
+    }
+
+    /**
+     * Getter for amount of ticks between AI decisions of ships far from a player.
+     *
+     * @return amount of ticks between decisions
+     */
+    public int getFarThinkInterval() {
+        return farThinkInterval;
+    }
+
+    /**
+     * Getter for fraction of particles emitted by visual effects.
+     *
+     * @return fraction of particles from 0 to 1
+     */
+    public double getParticlesScale() {
+        return particlesScale;
+    }
+
+    /**
+     * Getter for a level with less optional work.
+     *
+     * @return lower quality level or this level if it's the lowest one
+     */
+    public QualityLevel lower() {
+        return this == HIGH ? MEDIUM : LOW;
+    }
+
+    /**
+     * Getter for a level with more optional work.
+     *
+     * @return higher quality level or this level if it's the highest one
+     */
+    public QualityLevel higher() {
+        return this == LOW ? MEDIUM : HIGH;
+    }
+}
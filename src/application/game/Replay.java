@@ -0,0 +1,208 @@
+package application.game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class is used to read a match recorded by MatchRecorder. Whole recording is kept in memory
+ * and positions of frames are indexed when it's loaded, so any frame can be read at any time.
+ * Frames are read only with absolute positions, so many threads can read one replay at once.
+ */
+public class Replay {
+
+    private ByteBuffer data;
+    private double width;
+    private double height;
+    private int frameRate;
+
+    private boolean[] reefs;
+    private double[][] islandXs;
+    private double[][] islandYs;
+
+    private int framesCount = 0;
+    private int[] frameOffsets = new int[1024];
+
+    /**
+     * Constructor parsing a recording and indexing it's frames.
+     *
+     * @param recording decompressed bytes of a recording
+     * @throws IOException if recording isn't a valid match recording
+     */
+    private Replay(byte[] recording) throws IOException {
+        data = ByteBuffer.wrap(recording);
+        try {
+            if (data.getInt() != MatchRecorder.MAGIC) throw new IOException("not a match recording");
+            int version = data.getInt();
+            if (version != MatchRecorder.VERSION) throw new IOException("unsupported recording version " + version);
+            width = data.getFloat();
+            height = data.getFloat();
+            frameRate = data.getInt();
+            int islandsCount = data.getInt();
+            reefs = new boolean[islandsCount];
+            islandXs = new double[islandsCount][];
+            islandYs = new double[islandsCount][];
+            for (int i = 0; i < islandsCount; i++) {
+                reefs[i] = data.get() != 0;
+                int vertices = data.getInt();
+                islandXs[i] = new double[vertices];
+                islandYs[i] = new double[vertices];
+                for (int v = 0; v < vertices; v++) {
+                    islandXs[i][v] = data.getFloat();
+                    islandYs[i][v] = data.getFloat();
+                }
+            }
+            while (data.hasRemaining()) {
+                if (framesCount == frameOffsets.length) frameOffsets = Arrays.copyOf(frameOffsets, 2 * framesCount);
+                frameOffsets[framesCount++] = data.position();
+                data.getInt();
+                skip(21);
+                skip(12);
+                skip(13);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("recording is truncated");
+        }
+    }
+
+    /**
+     * This method skips a list of objects of a frame which starts at current position of a buffer.
+     *
+     * @param objectSize amount of bytes of a single object
+     */
+    private void skip(int objectSize) {
+        int count = data.getShort();
+        data.position(data.position() + objectSize * count);
+    }
+
+    /**
+     * Method used to load a compressed recording from a file.
+     *
+     * @param file file saved by MatchRecorder
+     * @return loaded replay
+     * @throws IOException if file can't be read or isn't a valid match recording
+     */
+    public static Replay load(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new Replay(in.readAllBytes());
+        }
+    }
+
+    /**
+     * Method used to read state of a game scene in a given frame.
+     *
+     * @param index index of a frame, from 0 to amount of frames
+     * @param frame frame object which is filled with read state, so it can be reused for next frames
+     */
+    public void readFrame(int index, ReplayFrame frame) {
+        int position = frameOffsets[index];
+        frame.setTick(data.getInt(position));
+        position += 4;
+
+        int ships = data.getShort(position);
+        position += 2;
+        frame.ensureCapacity(ships);
+        for (int i = 0; i < ships; i++, position += 21) {
+            frame.setShip(i, data.get(position), data.getFloat(position + 1), data.getFloat(position + 5),
+                    data.getFloat(position + 9), data.getFloat(position + 13), data.getFloat(position + 17));
+        }
+        frame.setShipsCount(ships);
+
+        int cannonBalls = data.getShort(position);
+        position += 2;
+        frame.ensureCapacity(cannonBalls);
+        for (int i = 0; i < cannonBalls; i++, position += 12) {
+            frame.setCannonBall(i, data.getFloat(position), data.getFloat(position + 4), data.getFloat(position + 8));
+        }
+        frame.setCannonBallsCount(cannonBalls);
+
+        int explosions = data.getShort(position);
+        position += 2;
+        frame.ensureCapacity(explosions);
+        for (int i = 0; i < explosions; i++, position += 13) {
+            frame.setExplosion(i, data.get(position), data.getFloat(position + 1), data.getFloat(position + 5),
+                    data.getFloat(position + 9));
+        }
+        frame.setExplosionsCount(explosions);
+    }
+
+    /**
+     * Getter for amount of recorded frames.
+     *
+     * @return amount of frames
+     */
+    public int getFramesCount() {
+        return framesCount;
+    }
+
+    /**
+     * Getter for width of a recorded game scene.
+     *
+     * @return width of a game scene
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter for height of a recorded game scene.
+     *
+     * @return height of a game scene
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Getter for amount of frames recorded in a second of a match.
+     *
+     * @return frame rate of a recorded game
+     */
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * Getter for amount of islands and reefs of a recorded map.
+     *
+     * @return amount of obstacles
+     */
+    public int getIslandsCount() {
+        return reefs.length;
+    }
+
+    /**
+     * Getter to check whether an obstacle of a recorded map is a reef.
+     *
+     * @param island index of an obstacle
+     * @return true if obstacle is a reef
+     */
+    public boolean isReef(int island) {
+        return reefs[island];
+    }
+
+    /**
+     * Getter for X coordinates of vertices of an obstacle's polygon.
+     *
+     * @param island index of an obstacle
+     * @return X coordinates on a game scene
+     */
+    public double[] getIslandXs(int island) {
+        return islandXs[island];
+    }
+
+    /**
+     * Getter for Y coordinates of vertices of an obstacle's polygon.
+     *
+     * @param island index of an obstacle
+     * @return Y coordinates on a game scene
+     */
+    public double[] getIslandYs(int island) {
+        return islandYs[island];
+    }
+}
@@ -0,0 +1,308 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to store state of a game scene in one frame of a replay.
+ * Objects are stored in arrays of primitives which grow when a frame has more of them,
+ * so one frame object can be reused for all frames of a replay.
+ */
+public class ReplayFrame {
+
+    private static final GameModels[] MODELS = GameModels.values();
+
+    private int tick;
+
+    private int shipsCount;
+    private byte[] shipModels = new byte[0];
+    private float[] shipX = new float[0];
+    private float[] shipY = new float[0];
+    private float[] shipAngle = new float[0];
+    private float[] shipWidth = new float[0];
+    private float[] shipHeight = new float[0];
+
+    private int cannonBallsCount;
+    private float[] cannonBallX = new float[0];
+    private float[] cannonBallY = new float[0];
+    private float[] cannonBallRadius = new float[0];
+
+    private int explosionsCount;
+    private byte[] explosionFrame = new byte[0];
+    private float[] explosionX = new float[0];
+    private float[] explosionY = new float[0];
+    private float[] explosionSize = new float[0];
+
+    /**
+     * Method used to grow arrays of a frame, so they can hold given amount of objects of each kind.
+     *
+     * @param capacity amount of objects
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= shipX.length) return;
+        shipModels = Arrays.copyOf(shipModels, capacity);
+        shipX = Arrays.copyOf(shipX, capacity);
+        shipY = Arrays.copyOf(shipY, capacity);
+        shipAngle = Arrays.copyOf(shipAngle, capacity);
+        shipWidth = Arrays.copyOf(shipWidth, capacity);
+        shipHeight = Arrays.copyOf(shipHeight, capacity);
+        cannonBallX = Arrays.copyOf(cannonBallX, capacity);
+        cannonBallY = Arrays.copyOf(cannonBallY, capacity);
+        cannonBallRadius = Arrays.copyOf(cannonBallRadius, capacity);
+        explosionFrame = Arrays.copyOf(explosionFrame, capacity);
+        explosionX = Arrays.copyOf(explosionX, capacity);
+        explosionY = Arrays.copyOf(explosionY, capacity);
+        explosionSize = Arrays.copyOf(explosionSize, capacity);
+    }
+
+    /**
+     * Setter for a recorded ship.
+     *
+     * @param i      index of a ship in a frame
+     * @param model  ordinal number of a ship's model
+     * @param x      X coordinate of a ship center
+     * @param y      Y coordinate of a ship center
+     * @param angle  angle in degrees in which ship is directed
+     * @param width  width of a ship's image
+     * @param height height of a ship's image
+     */
+    void setShip(int i, byte model, float x, float y, float angle, float width, float height) {
+        shipModels[i] = model;
+        shipX[i] = x;
+        shipY[i] = y;
+        shipAngle[i] = angle;
+        shipWidth[i] = width;
+        shipHeight[i] = height;
+    }
+
+    /**
+     * Setter for a recorded cannon ball.
+     *
+     * @param i      index of a cannon ball in a frame
+     * @param x      X coordinate of a cannon ball center
+     * @param y      Y coordinate of a cannon ball center
+     * @param radius radius of a cannon ball
+     */
+    void setCannonBall(int i, float x, float y, float radius) {
+        cannonBallX[i] = x;
+        cannonBallY[i] = y;
+        cannonBallRadius[i] = radius;
+    }
+
+    /**
+     * Setter for a recorded explosion.
+     *
+     * @param i     index of an explosion in a frame
+     * @param frame index of a displayed frame of an explosion animation
+     * @param x     X coordinate of an explosion center
+     * @param y     Y coordinate of an explosion center
+     * @param size  size of a displayed frame
+     */
+    void setExplosion(int i, byte frame, float x, float y, float size) {
+        explosionFrame[i] = frame;
+        explosionX[i] = x;
+        explosionY[i] = y;
+        explosionSize[i] = size;
+    }
+
+    /**
+     * Setter for a number of a recorded tick.
+     *
+     * @param tick number of a tick
+     */
+    void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Setter for amount of ships in a frame.
+     *
+     * @param shipsCount amount of ships
+     */
+    void setShipsCount(int shipsCount) {
+        this.shipsCount = shipsCount;
+    }
+
+    /**
+     * Setter for amount of cannon balls in a frame.
+     *
+     * @param cannonBallsCount amount of cannon balls
+     */
+    void setCannonBallsCount(int cannonBallsCount) {
+        this.cannonBallsCount = cannonBallsCount;
+    }
+
+    /**
+     * Setter for amount of explosions in a frame.
+     *
+     * @param explosionsCount amount of explosions
+     */
+    void setExplosionsCount(int explosionsCount) {
+        this.explosionsCount = explosionsCount;
+    }
+
+    /**
+     * Getter for a number of a recorded tick.
+     *
+     * @return number of a tick
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Getter for amount of ships in a frame.
+     *
+     * @return amount of ships
+     */
+    public int getShipsCount() {
+        return shipsCount;
+    }
+
+    /**
+     * Getter for a model of a ship.
+     *
+     * @param i index of a ship
+     * @return model of a ship's image
+     */
+    public GameModels getShipModel(int i) {
+        return MODELS[shipModels[i]];
+    }
+
+    /**
+     * Getter for X coordinate of a ship center.
+     *
+     * @param i index of a ship
+     * @return X coordinate on a game scene
+     */
+    public double getShipX(int i) {
+        return shipX[i];
+    }
+
+    /**
+     * Getter for Y coordinate of a ship center.
+     *
+     * @param i index of a ship
+     * @return Y coordinate on a game scene
+     */
+    public double getShipY(int i) {
+        return shipY[i];
+    }
+
+    /**
+     * Getter for angle of a ship.
+     *
+     * @param i index of a ship
+     * @return angle in degrees in which ship is directed
+     */
+    public double getShipAngle(int i) {
+        return shipAngle[i];
+    }
+
+    /**
+     * Getter for width of a ship's image.
+     *
+     * @param i index of a ship
+     * @return width of a ship
+     */
+    public double getShipWidth(int i) {
+        return shipWidth[i];
+    }
+
+    /**
+     * Getter for height of a ship's image.
+     *
+     * @param i index of a ship
+     * @return height of a ship
+     */
+    public double getShipHeight(int i) {
+        return shipHeight[i];
+    }
+
+    /**
+     * Getter for amount of cannon balls in a frame.
+     *
+     * @return amount of cannon balls
+     */
+    public int getCannonBallsCount() {
+        return cannonBallsCount;
+    }
+
+    /**
+     * Getter for X coordinate of a cannon ball center.
+     *
+     * @param i index of a cannon ball
+     * @return X coordinate on a game scene
+     */
+    public double getCannonBallX(int i) {
+        return cannonBallX[i];
+    }
+
+    /**
+     * Getter for Y coordinate of a cannon ball center.
+     *
+     * @param i index of a cannon ball
+     * @return Y coordinate on a game scene
+     */
+    public double getCannonBallY(int i) {
+        return cannonBallY[i];
+    }
+
+    /**
+     * Getter for radius of a cannon ball.
+     *
+     * @param i index of a cannon ball
+     * @return radius of a cannon ball
+     */
+    public double getCannonBallRadius(int i) {
+        return cannonBallRadius[i];
+    }
+
+    /**
+     * Getter for amount of explosions in a frame.
+     *
+     * @return amount of explosions
+     */
+    public int getExplosionsCount() {
+        return explosionsCount;
+    }
+
+    /**
+     * Getter for a displayed frame of an explosion animation.
+     *
+     * @param i index of an explosion
+     * @return index of a frame, 0 for the first frame
+     */
+    public int getExplosionFrame(int i) {
+        return explosionFrame[i];
+    }
+
+    /**
+     * Getter for X coordinate of an explosion center.
+     *
+     * @param i index of an explosion
+     * @return X coordinate on a game scene
+     */
+    public double getExplosionX(int i) {
+        return explosionX[i];
+    }
+
+    /**
+     * Getter for Y coordinate of an explosion center.
+     *
+     * @param i index of an explosion
+     * @return Y coordinate on a game scene
+     */
+    public double getExplosionY(int i) {
+        return explosionY[i];
+    }
+
+    /**
+     * Getter for size of a displayed frame of an explosion.
+     *
+     * @param i index of an explosion
+     * @return width and height of an explosion
+     */
+    public double getExplosionSize(int i) {
+        return explosionSize[i];
+    }
+}
@@ -1,78 +1,106 @@
 package application.game;
 
-import javafx.geometry.Bounds;
-import javafx.scene.Node;
+import application.Assets;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
 
 import static application.game.Ship.Side.left;
 import static application.game.Ship.Side.right;
 
 /**
  * This class is used to create parameters necessary for a ship
- * and to use mainly by extending this class - for example by PlayerShip or EnemyShip class
+ * and to use mainly by extending this class - for example by PlayerShip or EnemyShip class.
+ * State of a ship is stored as an entity in game's EntityWorld,
+ * while this class is used as it's graphical node and behaviour.
+ * Sprite, size, collision mask and abilities of a ship are defined by it's ShipClass, which is shared
+ * by all ships of the same class.
  */
 public class Ship extends Pane {
 
     protected Game game;
 
     protected ImageView shipImage;
-    protected double width = 100;
-    protected double height = 50;
-    protected Rectangle collisionRectangle;
+    protected ShipClass shipClass;
     protected HealthBar healthBar;
+    private double[] collisionBounds = new double[4];
 
-    protected int currentHealthPoints;
-    protected int maxHealthPoints;
-    protected int healthPoints = 100;
-    protected double angle = 0;
-    protected double turningAbility = 3;
-    protected double minSpeed = 0;
-    protected double maxSpeed = 3;
-    protected double speed = 1;
-    protected double dxSpeed = 0.5;
-
-    protected int cannonballDamage = 10;
-    protected final int CANNONS_RELOAD_TIME = 30;
-    protected int rightCannonsReloadTime;
-    protected int leftCannonsReloadTime;
+    protected EntityWorld world;
+    protected int entity;
+
+    protected static final double MIN_SPEED = 0;
+    protected static final double START_SPEED = 1;
+    protected static final double HULL_LENGTH = 0.7;
+    protected static final double HULL_WIDTH = 0.4;
 
     protected enum Side {left, right}
 
     /**
      * Constructor which creates and initializes a ship for our game:
-     * it's image, invisible collision rectangle, health bar and other parameters.
+     * it's image, health bar and it's entity with other parameters.
      *
-     * @param shipImageUrl url for a ship image which will be displayed on a game scene
-     * @param posX         ship start X coordinate on a game scene
-     * @param posY         ship start Y coordinate on a game scene
-     * @param game         object of Game class in which ship is placed
+     * @param shipClass class of a ship which defines it's image, collision mask and abilities
+     * @param posX      ship start X coordinate on a game scene
+     * @param posY      ship start Y coordinate on a game scene
+     * @param game      object of Game class in which ship is placed
      */
-    public Ship(String shipImageUrl, double posX, double posY, Game game) {
-        this.setWidth(height);
-        this.setHeight(width);
-        this.setLayoutX(posX);
-        this.setLayoutY(posY);
+    public Ship(ShipClass shipClass, double posX, double posY, Game game) {
+        this.game = game;
+        world = game.getWorld();
 
-        collisionRectangle = new Rectangle(0.7 * width, 0.4 * height, Color.TRANSPARENT);
-        collisionRectangle.setLayoutX(0.15 * width);
-        collisionRectangle.setLayoutY(0.3 * height);
+        shipImage = new ImageView();
+        healthBar = new HealthBar();
+        setShipClass(shipClass);
 
-        this.game = game;
-        shipImage = new ImageView(shipImageUrl);
+        this.getChildren().addAll(shipImage, healthBar);
+        createEntity(posX, posY);
+    }
+
+    /**
+     * This method changes class of a ship: it's image, size and health bar. Collision mask of it's hull
+     * and abilities are read from a class, so nothing else is copied into a ship.
+     * New abilities are given to ship's entity when it's created, so class is changed before a ship is respawned.
+     *
+     * @param shipClass class of a ship
+     */
+    protected void setShipClass(ShipClass shipClass) {
+        this.shipClass = shipClass;
+        double width = shipClass.getWidth();
+        double height = shipClass.getHeight();
+        this.setWidth(height);
+        this.setHeight(width);
         shipImage.setFitWidth(width);
         shipImage.setFitHeight(height);
-
-        maxHealthPoints = healthPoints;
-        currentHealthPoints = maxHealthPoints;
-        healthBar = new HealthBar(maxHealthPoints);
+        Assets.setSprite(shipImage, shipClass.getModel().getUrl());
+        healthBar.setShipClass(shipClass);
         healthBar.setLayoutX(width / 4);
+    }
 
-        leftCannonsReloadTime = 0;
-        rightCannonsReloadTime = 0;
-        this.getChildren().addAll(shipImage, healthBar, collisionRectangle);
+    /**
+     * This method places a ship on a game scene and creates it's entity in game's EntityWorld
+     * with it's class and starting speed.
+     *
+     * @param posX ship start X coordinate on a game scene
+     * @param posY ship start Y coordinate on a game scene
+     */
+    private void createEntity(double posX, double posY) {
+        this.setLayoutX(posX);
+        this.setLayoutY(posY);
+        entity = world.create(this, posX, posY, shipClass.getWidth(), shipClass.getHeight());
+        world.setShipClass(entity, shipClass);
+        world.setSpeed(entity, START_SPEED);
+        setAngle(0);
+    }
+
+    /**
+     * Method used to bring a ship back to a game in a restarted match, so the same ship object
+     * and it's graphical nodes are reused. Ship's previous entity has to be destroyed before.
+     *
+     * @param posX ship start X coordinate on a game scene
+     * @param posY ship start Y coordinate on a game scene
+     */
+    public void respawn(double posX, double posY) {
+        createEntity(posX, posY);
+        healthBar.reset();
     }
 
     /**
@@ -80,7 +108,8 @@ public class Ship extends Pane {
      * which is stored in dxSpeed variable.
      */
     protected void increaseSpeed() {
-        if (speed < maxSpeed) speed += dxSpeed;
+        double speed = world.getSpeed(entity);
+        if (speed < world.getMaxSpeed(entity)) world.setSpeed(entity, speed + world.getDxSpeed(entity));
     }
 
     /**
@@ -88,105 +117,199 @@ public class Ship extends Pane {
      * which is stored in dxSpeed variable.
      */
     protected void decreaseSpeed() {
-        if (speed > minSpeed) speed -= dxSpeed;
+        double speed = world.getSpeed(entity);
+        if (speed > world.getMinSpeed(entity)) world.setSpeed(entity, speed - world.getDxSpeed(entity));
     }
 
     /**
-     * This method rotates ship image and it's collision rectangle
-     * by given angle.
+     * This method rotates ship image by given angle and stores it in ship's entity.
+     * Collision mask of a ship's hull is rotated with it, because it's chosen by this angle.
      *
      * @param angle angle in which ship is directed
      */
     protected void setAngle(double angle) {
+        world.setAngle(entity, angle);
         shipImage.setRotate(angle);
-        collisionRectangle.setRotate(angle);
     }
 
     /**
      * This method causes ship to change it's angle by turning ability
      * so it turns left on a game scene.
+     *
+     * @return false if ship couldn't turn, because it would swing onto an island or a reef
      */
-    protected void turnLeft() {
-        angle -= turningAbility;
-        setAngle(angle);
+    protected boolean turnLeft() {
+        return turn(getAngle() - world.getTurningAbility(entity));
     }
 
     /**
      * This method causes ship to change it's angle by turning ability
      * so it turns right on a game scene.
+     *
+     * @return false if ship couldn't turn, because it would swing onto an island or a reef
+     */
+    protected boolean turnRight() {
+        return turn(getAngle() + world.getTurningAbility(entity));
+    }
+
+    /**
+     * This method turns a ship to a given angle, unless it's keel would swing onto an island or a reef.
+     *
+     * @param angle angle in which ship will be directed
+     * @return true if ship has turned
      */
-    protected void turnRight() {
-        angle += turningAbility;
+    private boolean turn(double angle) {
+        if (game.getIslandMap().collidesWithKeel(getCenterX(), getCenterY(), angle, HULL_LENGTH * shipClass.getWidth() / 2))
+            return false;
         setAngle(angle);
+        return true;
     }
 
     /**
-     * This method updates ship position on a game scene based on current position, angle, speed.
-     * It's also decreasing cannonsReloadTime to zero allowing ship too shoot.
+     * This method is called in every frame of a game loop before the movement system
+     * of EntityWorld updates ship position based on it's angle and speed.
+     * Subclasses override it to decide how a ship will steer and shoot.
+     * Ship's health bar is hidden here after it's been shown long enough.
      */
     public void update() {
-        double radians = Math.toRadians(angle);
-        double dx = speed * Math.cos(radians);
-        double dy = speed * Math.sin(radians);
-
-        double newPosX = this.getLayoutX() + dx;
-        double newPosY = this.getLayoutY() + dy;
-
-        leftCannonsReloadTime--;
-        rightCannonsReloadTime--;
-        if (newPosX < 0 || newPosX > game.getGameView().getWidth() - shipImage.getFitWidth() ||
-                newPosY < 0 || newPosY > game.getGameView().getHeight() - shipImage.getFitHeight()) {
-            return;
-        }
-        this.setLayoutX(newPosX);
-        this.setLayoutY(newPosY);
+        healthBar.update();
     }
 
     /**
-     * This method is used to shoot cannon ball from a ship's side.
-     * @param boardSide side of a ship from which cannon ball will be shot.
+     * This method is used to shoot cannon balls from all cannons of a ship's side defined by it's class.
+     * @param boardSide side of a ship from which cannon balls will be shot.
      */
     protected void cannonsShoot(Side boardSide) {
-        if ((boardSide == left && leftCannonsReloadTime > 0) || (boardSide == right && rightCannonsReloadTime > 0)) {
+        if ((boardSide == left && world.getLeftCannonsReloadTime(entity) > 0) ||
+                (boardSide == right && world.getRightCannonsReloadTime(entity) > 0)) {
             return;
         }
-        CannonBall c = new CannonBall(this.cannonballDamage, this, boardSide, game);
-        game.addCannonBall(c);
-        if (boardSide == left) leftCannonsReloadTime = CANNONS_RELOAD_TIME;
-        else if (boardSide == right) rightCannonsReloadTime = CANNONS_RELOAD_TIME;
+        int damage = world.getCannonballDamage(entity);
+        double[] cannons = shipClass.getCannons(boardSide);
+        for (int i = 0; i < cannons.length; i++) {
+            CannonBall c = game.obtainCannonBall(damage, this, boardSide, cannons[i] * shipClass.getWidth() / 2);
+            game.getEventBus().publish(GameEvent.Type.SHOT_FIRED, this, c, c.getLayoutX(), c.getLayoutY(), damage);
+        }
+        if (boardSide == left) world.setLeftCannonsReloadTime(entity, world.getCannonsReloadTime(entity));
+        else if (boardSide == right) world.setRightCannonsReloadTime(entity, world.getCannonsReloadTime(entity));
     }
 
     /**
      * This method causes ship receive dmg by decreasing it's current health points.
-     * If ship's current health points are lower then zero then ship explodes and is removed from the game.
+     * If ship's current health points drop to zero then ship destroyed event is published,
+     * so the ship explodes and is removed from the game after current tick.
      * @param damage amount of dmg taken by ship
      */
     public void receiveDamage(int damage) {
+        int currentHealthPoints = getCurrentHealthPoints();
+        if (currentHealthPoints <= 0) return;
         currentHealthPoints -= damage;
-        if (currentHealthPoints <= 0) {
-            Explosion explosion = new Explosion(this.getLayoutX() + width / 2,
-                    this.getLayoutY() + height / 2, width, game);
-            explosion.play();
-            game.removeShip(this);
-        } else
-            healthBar.show(currentHealthPoints);
+        world.setHealthPoints(entity, currentHealthPoints);
+        if (currentHealthPoints <= 0)
+            game.getEventBus().publish(GameEvent.Type.SHIP_DESTROYED, this, null, getCenterX(), getCenterY(), damage);
+        else
+            healthBar.show(currentHealthPoints, game.getQualityGovernor().getLevel().areHealthBarsShown());
     }
 
     /**
-     * Method used to check whether ship collides with other graphical node on a game scene.
+     * Method used to check whether ship collides with other ship on a game scene.
+     * Bounds of ship's rotated collision areas are compared first, the same way as bounds of graphical nodes
+     * on a game scene would be, but without creating any objects in a game loop.
+     * Only if bounds overlap, rotated masks of both hulls are compared pixel by pixel.
      *
-     * @param node graphical node which is being checked for collision with a ship
-     * @return true if ship collides with a node on a game scene.
+     * @param ship ship which is being checked for collision with this ship
+     * @return true if ship collides with other ship on a game scene.
      */
-    public boolean collides(Node node) {
-        if (this == node) return false;
-        Bounds thisBounds = this.collisionRectangle.localToScene(this.collisionRectangle.getBoundsInLocal());
-        Bounds nodeBounds;
-        if (node instanceof Ship) {
-            Ship ship = (Ship) node;
-            nodeBounds = ship.collisionRectangle.localToScene(ship.collisionRectangle.getBoundsInLocal());
-        } else nodeBounds = node.localToScene(node.getBoundsInLocal());
-        return thisBounds.intersects(nodeBounds);
+    public boolean collides(Ship ship) {
+        if (this == ship) return false;
+        if (!collides(ship.getCollisionBounds())) return false;
+        return shipClass.getHullMask().overlaps(getAngle(), getCenterX(), getCenterY(),
+                ship.shipClass.getHullMask(), ship.getAngle(), ship.getCenterX(), ship.getCenterY());
+    }
+
+    /**
+     * Method used to find the earliest moment at which a circle moving along a segment, for example a cannon ball,
+     * hits a ship's hull. Circle is swept against a rotated box around a ship's collision area first.
+     * If it enters the box, it's mask is compared with a mask of a ship's hull in steps of one pixel
+     * from the moment it enters, so a circle which passes a box corner without touching a hull misses a ship.
+     *
+     * @param startX     circle center X coordinate at the beginning of a movement
+     * @param startY     circle center Y coordinate at the beginning of a movement
+     * @param endX       circle center X coordinate at the end of a movement
+     * @param endY       circle center Y coordinate at the end of a movement
+     * @param radius     radius of a circle
+     * @param circleMask mask of a circle
+     * @return fraction of a movement from 0 to 1 at which circle first touches a hull or SweptCollision.NO_HIT
+     */
+    public double timeOfImpact(double startX, double startY, double endX, double endY,
+                               double radius, HullMask circleMask) {
+        HullMask hullMask = shipClass.getHullMask();
+        double[] collisionArea = hullMask.getSolidArea();
+        double width = shipClass.getWidth();
+        double height = shipClass.getHeight();
+        double halfWidth = Math.max(width / 2 - collisionArea[0], collisionArea[2] - width / 2);
+        double halfHeight = Math.max(height / 2 - collisionArea[1], collisionArea[3] - height / 2);
+        double enter = SweptCollision.sweepCircleOrientedBox(startX, startY, endX, endY, radius,
+                getCenterX(), getCenterY(), halfWidth, halfHeight, getAngle());
+        if (enter == SweptCollision.NO_HIT) return SweptCollision.NO_HIT;
+
+        double length = Math.hypot(endX - startX, endY - startY);
+        int steps = Math.max(1, (int) Math.ceil(length * (1 - enter)));
+        for (int step = 0; step <= steps; step++) {
+            double time = enter + (1 - enter) * step / steps;
+            if (hullMask.overlaps(getAngle(), getCenterX(), getCenterY(), circleMask, 0,
+                    startX + (endX - startX) * time, startY + (endY - startY) * time))
+                return time;
+        }
+        return SweptCollision.NO_HIT;
+    }
+
+    /**
+     * Method used to check whether ship's collision area collides with given bounds on a game scene.
+     *
+     * @param bounds minimum X, minimum Y, maximum X and maximum Y of bounds on a game scene
+     * @return true if ship collides with given bounds
+     */
+    public boolean collides(double[] bounds) {
+        double[] own = getCollisionBounds();
+        return own[0] <= bounds[2] && bounds[0] <= own[2] && own[1] <= bounds[3] && bounds[1] <= own[3];
+    }
+
+    /**
+     * Getter for bounds of a ship's rotated collision area on a game scene.
+     * Returned array is reused, so it's valid only until the next call of this method.
+     *
+     * @return minimum X, minimum Y, maximum X and maximum Y of collision area bounds
+     */
+    private double[] getCollisionBounds() {
+        computeBounds(shipClass.getHullMask().getSolidArea(), collisionBounds);
+        return collisionBounds;
+    }
+
+    /**
+     * This method computes bounds on a game scene of an area given as a rectangle in ship's local coordinates,
+     * which is rotated together with a ship around it's center.
+     * Result is equal to scene bounds of a rotated graphical node covering this area.
+     *
+     * @param area   minimum X, minimum Y, maximum X and maximum Y of an area in ship's local coordinates
+     * @param result array in which minimum X, minimum Y, maximum X and maximum Y of bounds are stored
+     */
+    protected void computeBounds(double[] area, double[] result) {
+        double angle = Math.toRadians(getAngle());
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double halfWidth = shipClass.getWidth() / 2;
+        double halfHeight = shipClass.getHeight() / 2;
+        double x0 = area[0] - halfWidth;
+        double y0 = area[1] - halfHeight;
+        double x1 = area[2] - halfWidth;
+        double y1 = area[3] - halfHeight;
+        double centerX = getCenterX();
+        double centerY = getCenterY();
+        result[0] = centerX + Math.min(cos * x0, cos * x1) + Math.min(-sin * y0, -sin * y1);
+        result[1] = centerY + Math.min(sin * x0, sin * x1) + Math.min(cos * y0, cos * y1);
+        result[2] = centerX + Math.max(cos * x0, cos * x1) + Math.max(-sin * y0, -sin * y1);
+        result[3] = centerY + Math.max(sin * x0, sin * x1) + Math.max(cos * y0, cos * y1);
     }
 
     /**
@@ -194,15 +317,71 @@ public class Ship extends Pane {
      * @return angle which ship is directed in.
      */
     public double getAngle() {
-        return angle;
+        return world.getAngle(entity);
     }
 
     /**
      * Getter for current ship's health points.
-     * @return current ship's health points
+     * @return current ship's health points, zero if ship has been destroyed
      */
     public int getCurrentHealthPoints() {
-        return currentHealthPoints;
+        return isAlive() ? world.getHealthPoints(entity) : 0;
+    }
+
+    /**
+     * Method used to check whether ship's entity still exists in game's EntityWorld.
+     * @return true if ship hasn't been destroyed
+     */
+    public boolean isAlive() {
+        return world.isAlive(entity);
+    }
+
+    /**
+     * Getter for ship's current simulation tier.
+     * @return simulation tier of a ship
+     */
+    public SimulationTier getTier() {
+        return SimulationTier.of(world.getTier(entity));
+    }
+
+    /**
+     * Getter for id of ship's entity in game's EntityWorld.
+     * @return id of ship's entity
+     */
+    public int getEntity() {
+        return entity;
+    }
+
+    /**
+     * Getter for a ship's model.
+     * @return model of a ship's image
+     */
+    public GameModels getModel() {
+        return shipClass.getModel();
+    }
+
+    /**
+     * Getter for a ship's class.
+     * @return shared definition of a ship's class
+     */
+    public ShipClass getShipClass() {
+        return shipClass;
+    }
+
+    /**
+     * Getter for a width of a ship's image model.
+     * @return width of a ship's image
+     */
+    public double getShipWidth() {
+        return shipClass.getWidth();
+    }
+
+    /**
+     * Getter for a height of a ship's image model.
+     * @return height of a ship's image
+     */
+    public double getShipHeight() {
+        return shipClass.getHeight();
     }
 
     /**
@@ -210,7 +389,7 @@ public class Ship extends Pane {
      * @return ship's center X position
      */
     public double getCenterX() {
-        return this.getLayoutX() + this.width / 2;
+        return this.getLayoutX() + shipClass.getWidth() / 2;
     }
 
     /**
@@ -218,7 +397,7 @@ public class Ship extends Pane {
      * @return ship's center Y position
      */
     public double getCenterY() {
-        return this.getLayoutY() + this.height / 2;
+        return this.getLayoutY() + shipClass.getHeight() / 2;
     }
 
 }
\ No newline at end of file
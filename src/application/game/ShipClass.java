@@ -0,0 +1,272 @@
+package application.game;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to store a definition of a class of ships, for example a sloop or a frigate:
+ * it's sprite, size, collision mask of it's hull, abilities and layout of cannons on both board sides.
+ * Definitions are immutable and shared by all ships of a class, so a ship stores only a reference to it's class
+ * and state which changes during a match. Classes are loaded from a data file by ShipClasses.
+ * Stronger variants of a class, used by enemy ships in survival waves, are created once and shared as well.
+ */
+public final class ShipClass {
+
+    public static final int DEFAULT_HEALTH_POINTS = 100;
+    public static final double DEFAULT_TURNING_ABILITY = 3;
+    public static final double DEFAULT_MAX_SPEED = 3;
+    public static final double DEFAULT_DX_SPEED = 0.5;
+    public static final int DEFAULT_CANNONBALL_DAMAGE = 10;
+    public static final int DEFAULT_CANNONS_RELOAD_TIME = 30;
+    public static final double DEFAULT_WIDTH = 100;
+    public static final double DEFAULT_HEIGHT = 50;
+
+    private static final int DIFFICULTY_STEPS = 10;
+
+    private final String name;
+    private final GameModels model;
+    private final double width;
+    private final double height;
+    private final int healthPoints;
+    private final double minSpeed;
+    private final double maxSpeed;
+    private final double dxSpeed;
+    private final double turningAbility;
+    private final int cannonballDamage;
+    private final int cannonsReloadTime;
+    private final double[] leftCannons;
+    private final double[] rightCannons;
+    private final boolean enemy;
+    private final String[] healthLabels;
+
+    private ShipClass base;
+    private HullMask hullMask;
+    private ShipClass[] harderClasses = new ShipClass[0];
+
+    /**
+     * Constructor creating a definition of a class of ships.
+     *
+     * @param name              name of a class
+     * @param model             model of a ship's image
+     * @param width             width of a ship on a game scene
+     * @param height            height of a ship on a game scene
+     * @param healthPoints      maximum health points of a hull
+     * @param minSpeed          minimum speed
+     * @param maxSpeed          maximum speed
+     * @param dxSpeed           ability to accelerate and slow down
+     * @param turningAbility    angle by which a ship turns at once
+     * @param cannonballDamage  damage caused by a cannon ball
+     * @param cannonsReloadTime amount of ticks needed to reload cannons of one board side
+     * @param leftCannons       positions of cannons on the left board side along a hull,
+     *                          from -1 at the stern to 1 at the bow
+     * @param rightCannons      positions of cannons on the right board side along a hull
+     * @param enemy             true if enemy ships can be of this class
+     */
+    public ShipClass(String name, GameModels model, double width, double height, int healthPoints,
+                     double minSpeed, double maxSpeed, double dxSpeed, double turningAbility,
+                     int cannonballDamage, int cannonsReloadTime, double[] leftCannons, double[] rightCannons,
+                     boolean enemy) {
+        this.name = name;
+        this.model = model;
+        this.width = width;
+        this.height = height;
+        this.healthPoints = healthPoints;
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+        this.dxSpeed = dxSpeed;
+        this.turningAbility = turningAbility;
+        this.cannonballDamage = cannonballDamage;
+        this.cannonsReloadTime = cannonsReloadTime;
+        this.leftCannons = leftCannons.clone();
+        this.rightCannons = rightCannons.clone();
+        this.enemy = enemy;
+        healthLabels = createHealthLabels(healthPoints);
+    }
+
+    /**
+     * This method creates texts of a health bar label for every amount of health points,
+     * so they are created once for all ships of a class.
+     *
+     * @param healthPoints maximum health points of a hull
+     * @return texts of a label indexed by current health points
+     */
+    private static String[] createHealthLabels(int healthPoints) {
+        String[] labels = new String[healthPoints + 1];
+        for (int i = 0; i <= healthPoints; i++)
+            labels[i] = Integer.toString(i) + '/' + Integer.toString(healthPoints);
+        return labels;
+    }
+
+    /**
+     * Method used to get a stronger variant of a class: ships reload their cannons faster, deal more damage
+     * and sail faster. Difficulty is rounded to tenths, so there are only a few variants of every class,
+     * which are created when they are needed for the first time and then shared.
+     *
+     * @param difficulty multiplier of abilities, 1 is this class
+     * @return class with stronger abilities, or this class if difficulty isn't bigger than 1
+     */
+    public ShipClass withDifficulty(double difficulty) {
+        if (base != null) return base.withDifficulty(difficulty);
+        int step = (int) Math.round((difficulty - 1) * DIFFICULTY_STEPS);
+        if (step <= 0) return this;
+        if (step >= harderClasses.length) harderClasses = Arrays.copyOf(harderClasses, step + 1);
+        if (harderClasses[step] == null) {
+            double rounded = 1 + (double) step / DIFFICULTY_STEPS;
+            harderClasses[step] = new ShipClass(name, model, width, height, healthPoints, minSpeed,
+                    maxSpeed * Math.min(Math.sqrt(rounded), 1.5), dxSpeed, turningAbility,
+                    (int) Math.round(cannonballDamage * rounded),
+                    (int) Math.max(Math.round(cannonsReloadTime / rounded), cannonsReloadTime / 3),
+                    leftCannons, rightCannons, enemy);
+            harderClasses[step].base = this;
+        }
+        return harderClasses[step];
+    }
+
+    /**
+     * Getter for a shared collision mask of a ship's hull, which is built when it's needed for the first time.
+     *
+     * @return mask of a hull
+     */
+    public HullMask getHullMask() {
+        if (hullMask == null)
+            hullMask = base != null ? base.getHullMask() : HullMask.of(model.getUrl(), width, height);
+        return hullMask;
+    }
+
+    /**
+     * Getter for a name of a class.
+     *
+     * @return name of a class
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for a model of a ship's image.
+     *
+     * @return model of a ship's image
+     */
+    public GameModels getModel() {
+        return model;
+    }
+
+    /**
+     * Getter for a width of a ship on a game scene.
+     *
+     * @return width of a ship
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter for a height of a ship on a game scene.
+     *
+     * @return height of a ship
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Getter for maximum health points of a hull.
+     *
+     * @return maximum health points
+     */
+    public int getHealthPoints() {
+        return healthPoints;
+    }
+
+    /**
+     * Getter for a minimum speed.
+     *
+     * @return minimum speed
+     */
+    public double getMinSpeed() {
+        return minSpeed;
+    }
+
+    /**
+     * Getter for a maximum speed.
+     *
+     * @return maximum speed
+     */
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Getter for an ability to accelerate and slow down.
+     *
+     * @return change of speed at once
+     */
+    public double getDxSpeed() {
+        return dxSpeed;
+    }
+
+    /**
+     * Getter for an angle by which a ship turns at once.
+     *
+     * @return turning ability
+     */
+    public double getTurningAbility() {
+        return turningAbility;
+    }
+
+    /**
+     * Getter for damage caused by a cannon ball.
+     *
+     * @return cannon ball damage
+     */
+    public int getCannonballDamage() {
+        return cannonballDamage;
+    }
+
+    /**
+     * Getter for amount of ticks needed to reload cannons of one board side.
+     *
+     * @return full reload time
+     */
+    public int getCannonsReloadTime() {
+        return cannonsReloadTime;
+    }
+
+    /**
+     * Getter for positions of cannons on a board side along a hull, from -1 at the stern to 1 at the bow.
+     * Returned array is shared by all ships of a class, so it mustn't be changed.
+     *
+     * @param side board side of a ship
+     * @return positions of cannons
+     */
+    double[] getCannons(Ship.Side side) {
+        return side == Ship.Side.left ? leftCannons : rightCannons;
+    }
+
+    /**
+     * Getter for the biggest amount of cannons on one board side.
+     *
+     * @return amount of cannons
+     */
+    public int getMaxCannons() {
+        return Math.max(leftCannons.length, rightCannons.length);
+    }
+
+    /**
+     * Getter to check whether enemy ships can be of this class.
+     *
+     * @return true if it's a class of enemy ships
+     */
+    public boolean isEnemy() {
+        return enemy;
+    }
+
+    /**
+     * Getter for a text of a health bar label.
+     *
+     * @param currentHealthPoints current health points of a ship
+     * @return text showing current and maximum health points
+     */
+    public String getHealthLabel(int currentHealthPoints) {
+        return healthLabels[Math.max(0, Math.min(currentHealthPoints, healthPoints))];
+    }
+}
@@ -0,0 +1,283 @@
+package application.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class is used to store all classes of ships which can appear in a game, loaded from a data file,
+ * so new classes can be added and balanced without recompiling a game. Every line of a file defines one class:
+ * it's name followed by properties given as "key=value", any of which can be left out to use abilities
+ * of a standard ship. Class named "player" is used by a player ship, enemy ships are of random enemy classes.
+ */
+public class ShipClasses {
+
+    public static final String DEFAULT_CLASSES = "/application/resources/ships.classes";
+    public static final String FILE_PROPERTY = "ships.classes";
+    public static final String PLAYER_CLASS = "player";
+
+    private static final String RESOURCES_DIRECTORY = "/application/resources/";
+
+    private Map<String, ShipClass> classes = new LinkedHashMap<>();
+    private ShipClass[] enemyClasses;
+    private int maxCannons = 0;
+
+    /**
+     * Constructor creating a set of classes, which has to contain a player class and at least one enemy class.
+     *
+     * @param classes definitions of classes
+     * @throws IllegalArgumentException if there is no player class or no enemy class or two classes have the same name
+     */
+    public ShipClasses(List<ShipClass> classes) {
+        List<ShipClass> enemies = new ArrayList<>();
+        for (ShipClass shipClass : classes) {
+            if (this.classes.put(shipClass.getName(), shipClass) != null)
+                throw new IllegalArgumentException("class " + shipClass.getName() + " is defined twice");
+            if (shipClass.isEnemy()) enemies.add(shipClass);
+            maxCannons = Math.max(maxCannons, shipClass.getMaxCannons());
+        }
+        if (!this.classes.containsKey(PLAYER_CLASS))
+            throw new IllegalArgumentException("there is no class named " + PLAYER_CLASS);
+        if (enemies.isEmpty()) throw new IllegalArgumentException("there is no enemy class");
+        enemyClasses = enemies.toArray(new ShipClass[0]);
+    }
+
+    /**
+     * Method used to load classes from a file given in "ships.classes" system property,
+     * or from a data file in project's "resources" package if it isn't set.
+     * If classes can't be loaded, classes of standard ships with all models are used.
+     *
+     * @return loaded classes
+     */
+    public static ShipClasses load() {
+        String file = System.getProperty(FILE_PROPERTY);
+        try (InputStream stream = file != null ? Files.newInputStream(Paths.get(file))
+                : ShipClasses.class.getResourceAsStream(DEFAULT_CLASSES)) {
+            String name = file != null ? file : DEFAULT_CLASSES;
+            if (stream == null) throw new IOException(name + " couldn't be found");
+            return load(stream, name);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ship classes couldn't be loaded: " + e.getMessage());
+            return defaults();
+        }
+    }
+
+    /**
+     * Method used to load classes from a data file. Empty lines and lines starting with "#" are skipped.
+     *
+     * @param stream stream with contents of a data file
+     * @param name   name of a data file used in error messages
+     * @return loaded classes
+     * @throws IOException              if a file can't be read
+     * @throws IllegalArgumentException if a line of a file isn't a valid definition of a class
+     */
+    public static ShipClasses load(InputStream stream, String name) throws IOException {
+        List<ShipClass> classes = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                classes.add(parse(line.split("\\s+")));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(name + ", line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return new ShipClasses(classes);
+    }
+
+    /**
+     * This method creates a class from a name and it's properties. Sprite has to be an image of one of
+     * game models, so it's packed in a texture atlas and can be recorded in replays.
+     *
+     * @param parts name of a class followed by "key=value" properties
+     * @return definition of a class
+     * @throws IllegalArgumentException if a property is unknown or has a wrong value
+     */
+    private static ShipClass parse(String[] parts) {
+        GameModels model = null;
+        double width = ShipClass.DEFAULT_WIDTH;
+        double height = ShipClass.DEFAULT_HEIGHT;
+        int healthPoints = ShipClass.DEFAULT_HEALTH_POINTS;
+        double maxSpeed = ShipClass.DEFAULT_MAX_SPEED;
+        double dxSpeed = ShipClass.DEFAULT_DX_SPEED;
+        double turningAbility = ShipClass.DEFAULT_TURNING_ABILITY;
+        int cannonballDamage = ShipClass.DEFAULT_CANNONBALL_DAMAGE;
+        int cannonsReloadTime = ShipClass.DEFAULT_CANNONS_RELOAD_TIME;
+        double[] leftCannons = {0};
+        double[] rightCannons = {0};
+        boolean enemy = false;
+        for (int i = 1; i < parts.length; i++) {
+            int separator = parts[i].indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("property " + parts[i] + " has no value");
+            String key = parts[i].substring(0, separator);
+            String value = parts[i].substring(separator + 1);
+            switch (key) {
+                case "sprite":
+                    model = GameModels.fromUrl(RESOURCES_DIRECTORY + value);
+                    if (model == null) throw new IllegalArgumentException("sprite " + value + " isn't a game model");
+                    break;
+                case "size":
+                    String[] size = value.split("x");
+                    width = positive(key, Double.parseDouble(size[0]));
+                    height = positive(key, Double.parseDouble(size[1]));
+                    break;
+                case "health":
+                    healthPoints = (int) positive(key, Integer.parseInt(value));
+                    break;
+                case "speed":
+                    maxSpeed = positive(key, Double.parseDouble(value));
+                    break;
+                case "acceleration":
+                    dxSpeed = positive(key, Double.parseDouble(value));
+                    break;
+                case "turning":
+                    turningAbility = positive(key, Double.parseDouble(value));
+                    break;
+                case "damage":
+                    cannonballDamage = (int) positive(key, Integer.parseInt(value));
+                    break;
+                case "reload":
+                    cannonsReloadTime = (int) positive(key, Integer.parseInt(value));
+                    break;
+                case "left":
+                    leftCannons = parseCannons(value);
+                    break;
+                case "right":
+                    rightCannons = parseCannons(value);
+                    break;
+                case "enemy":
+                    enemy = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown property " + key);
+            }
+        }
+        if (model == null) throw new IllegalArgumentException("class " + parts[0] + " has no sprite");
+        return new ShipClass(parts[0], model, width, height, healthPoints, Ship.MIN_SPEED, maxSpeed, dxSpeed,
+                turningAbility, cannonballDamage, cannonsReloadTime, leftCannons, rightCannons, enemy);
+    }
+
+    /**
+     * This method parses positions of cannons on one board side separated with commas.
+     * Empty value means a board side without cannons.
+     *
+     * @param value positions of cannons along a hull, from -1 at the stern to 1 at the bow
+     * @return positions of cannons
+     * @throws IllegalArgumentException if a position is outside of a hull
+     */
+    private static double[] parseCannons(String value) {
+        if (value.isEmpty()) return new double[0];
+        String[] positions = value.split(",");
+        double[] cannons = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            cannons[i] = Double.parseDouble(positions[i]);
+            if (cannons[i] < -1 || cannons[i] > 1)
+                throw new IllegalArgumentException("cannon position " + positions[i] + " is outside of a hull");
+        }
+        return cannons;
+    }
+
+    /**
+     * This method checks that a value of a property is positive.
+     *
+     * @param key   name of a property
+     * @param value value of a property
+     * @return checked value
+     * @throws IllegalArgumentException if a value isn't positive
+     */
+    private static double positive(String key, double value) {
+        if (!(value > 0)) throw new IllegalArgumentException("property " + key + " has to be positive");
+        return value;
+    }
+
+    /**
+     * Method used to create classes of standard ships, used when a data file can't be loaded:
+     * a player class and one enemy class for every model of an enemy ship.
+     *
+     * @return classes of standard ships
+     */
+    public static ShipClasses defaults() {
+        List<ShipClass> classes = new ArrayList<>();
+        classes.add(standard(PLAYER_CLASS, GameModels.PLAYER_SHIP, false));
+        GameModels[] enemyModels = {GameModels.ENEMY_SHIP1, GameModels.ENEMY_SHIP2, GameModels.ENEMY_SHIP3,
+                GameModels.ENEMY_SHIP4, GameModels.ENEMY_SHIP5};
+        for (GameModels model : enemyModels) classes.add(standard(model.name().toLowerCase(), model, true));
+        return new ShipClasses(classes);
+    }
+
+    /**
+     * This method creates a class with abilities of a standard ship and one cannon on each board side.
+     *
+     * @param name  name of a class
+     * @param model model of a ship's image
+     * @param enemy true if enemy ships can be of this class
+     * @return definition of a class
+     */
+    private static ShipClass standard(String name, GameModels model, boolean enemy) {
+        return new ShipClass(name, model, ShipClass.DEFAULT_WIDTH, ShipClass.DEFAULT_HEIGHT,
+                ShipClass.DEFAULT_HEALTH_POINTS, Ship.MIN_SPEED, ShipClass.DEFAULT_MAX_SPEED,
+                ShipClass.DEFAULT_DX_SPEED, ShipClass.DEFAULT_TURNING_ABILITY, ShipClass.DEFAULT_CANNONBALL_DAMAGE,
+                ShipClass.DEFAULT_CANNONS_RELOAD_TIME, new double[]{0}, new double[]{0}, enemy);
+    }
+
+    /**
+     * Getter for a class with given name.
+     *
+     * @param name name of a class
+     * @return definition of a class or null if there is no such class
+     */
+    public ShipClass get(String name) {
+        return classes.get(name);
+    }
+
+    /**
+     * Getter for a class of a player ship.
+     *
+     * @return definition of a player class
+     */
+    public ShipClass getPlayerClass() {
+        return classes.get(PLAYER_CLASS);
+    }
+
+    /**
+     * Method used to choose a random class of an enemy ship.
+     *
+     * @param random source of random choices, seeded by a match so it's choices can be repeated
+     * @return definition of a random enemy class
+     */
+    public ShipClass getRandomEnemyClass(Random random) {
+        return enemyClasses[random.nextInt(enemyClasses.length)];
+    }
+
+    /**
+     * Getter for all classes in order of a data file.
+     *
+     * @return definitions of all classes
+     */
+    public Collection<ShipClass> getAll() {
+        return classes.values();
+    }
+
+    /**
+     * Getter for the biggest amount of cannons on one board side of any class.
+     *
+     * @return amount of cannons
+     */
+    public int getMaxCannons() {
+        return maxCannons;
+    }
+}
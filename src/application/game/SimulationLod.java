@@ -0,0 +1,131 @@
+package application.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to assign simulation tiers to ships based on their distance
+ * to a player and to the nearest threat, and to measure how much work each tier saves.
+ */
+public class SimulationLod {
+
+    private static final int TIER_UPDATE_INTERVAL = 10;
+
+    private Game game;
+    private int tiersCount;
+    private int[] nearestShip = new int[1];
+    private double[] nearestDistance = new double[1];
+
+    private long[] shipTicks;
+    private long[] thinks;
+    private long[] thinkNanos;
+    private long[] skippedMoves;
+
+    /**
+     * Constructor initializing statistics for all tiers.
+     *
+     * @param game game in which ships are simulated
+     */
+    public SimulationLod(Game game) {
+        this.game = game;
+        int tiers = SimulationTier.values().length;
+        tiersCount = tiers;
+        shipTicks = new long[tiers];
+        thinks = new long[tiers];
+        thinkNanos = new long[tiers];
+        skippedMoves = new long[tiers];
+    }
+
+    /**
+     * Method called in every tick after a spatial index is built, which assigns tiers to ships every few ticks.
+     * Distance to action is the smaller of distances to a player and to the nearest other ship.
+     * Player ship always stays in the nearest tier.
+     *
+     * @param ships      ships in a game
+     * @param playerShip ship controlled by a player
+     */
+    public void update(List<Ship> ships, PlayerShip playerShip) {
+        if (game.getTickCount() % TIER_UPDATE_INTERVAL != 0) return;
+        EntityWorld world = game.getWorld();
+        SpatialGrid spatialGrid = game.getSpatialGrid();
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (ship == playerShip || !ship.isAlive()) continue;
+            world.setTier(ship.getEntity(), (byte) tierOf(ship, spatialGrid).ordinal());
+        }
+    }
+
+    /**
+     * This method chooses a tier of a ship by looking for other ships in a spatial index, from the nearest tier
+     * outwards, within a distance in which the next tier starts. Most ships in a big fleet have a neighbour
+     * nearby, so they are found in a few cells around them instead of by comparing them with all other ships.
+     *
+     * @param ship        ship for which a tier is chosen
+     * @param spatialGrid spatial index of alive ships
+     * @return tier of a ship
+     */
+    private SimulationTier tierOf(Ship ship, SpatialGrid spatialGrid) {
+        double x = ship.getCenterX();
+        double y = ship.getCenterY();
+        for (int i = 1; i < tiersCount; i++) {
+            double radius = SimulationTier.of(i).getMinDistance();
+            if (spatialGrid.nearest(x, y, radius, ship, nearestShip, nearestDistance) > 0)
+                return SimulationTier.forDistance(Math.sqrt(nearestDistance[0]));
+        }
+        return SimulationTier.of(tiersCount - 1);
+    }
+
+    /**
+     * Method used to forget statistics of all tiers, for example when a match is restarted.
+     */
+    public void reset() {
+        Arrays.fill(shipTicks, 0);
+        Arrays.fill(thinks, 0);
+        Arrays.fill(thinkNanos, 0);
+        Arrays.fill(skippedMoves, 0);
+    }
+
+    /**
+     * Method used to record one tick of a ship in given tier.
+     *
+     * @param tier  tier of a ship
+     * @param moved true if ship is moved by movement system in this tick
+     */
+    public void recordTick(SimulationTier tier, boolean moved) {
+        int i = tier.ordinal();
+        shipTicks[i]++;
+        if (!moved) skippedMoves[i]++;
+    }
+
+    /**
+     * Method used to record a decision of ship's AI in given tier.
+     *
+     * @param tier  tier of a ship
+     * @param nanos time spent on a decision
+     */
+    public void recordThink(SimulationTier tier, long nanos) {
+        int i = tier.ordinal();
+        thinks[i]++;
+        thinkNanos[i] += nanos;
+    }
+
+    /**
+     * Method used to create report of work done and saved in each tier. Saved time is estimated
+     * from decisions which were skipped and average time of a decision in the nearest tier.
+     *
+     * @return multi-line report with one line per tier
+     */
+    public String report() {
+        int near = SimulationTier.NEAR.ordinal();
+        double nearThinkNanos = thinks[near] > 0 ? (double) thinkNanos[near] / thinks[near] : 0;
+        StringBuilder report = new StringBuilder("Simulation level of detail:");
+        for (SimulationTier tier : SimulationTier.values()) {
+            int i = tier.ordinal();
+            long skippedThinks = shipTicks[i] - thinks[i];
+            report.append(String.format("%n  %-4s ship ticks: %d, thinks: %d, skipped thinks: %d, " +
+                            "skipped moves: %d, saved: ~%.2f ms", tier, shipTicks[i], thinks[i], skippedThinks,
+                    skippedMoves[i], skippedThinks * nearThinkNanos / 1_000_000));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package application.game;
+
+/**
+ * Enum used to store simulation levels of detail of ships, chosen by their distance
+ * to a player and to the nearest threat. Ships far from any action think less often
+ * and are moved in coarser steps.
+ */
+public enum SimulationTier {
+    NEAR(0, 1, 1, true),
+    MID(500, 4, 1, true),
+    FAR(1000, 8, 4, false);
+
+    private static final SimulationTier[] TIERS = values();
+
+    private double minDistance;
+    private int thinkInterval;
+    private int moveStep;
+    private boolean collidingWithShips;
+
+    /**
+     * Constructor initializing simulation tier with it's parameters.
+     *
+     * @param minDistance        minimum distance to a player or the nearest threat for this tier
+     * @param thinkInterval      amount of ticks between AI decisions
+     * @param moveStep           amount of ticks integrated at once by movement system
+     * @param collidingWithShips true if ships of this tier are checked for collisions with other ships
+     */
+    SimulationTier(double minDistance, int thinkInterval, int moveStep, boolean collidingWithShips) {
+        this.minDistance = minDistance;
+        this.thinkInterval = thinkInterval;
+        this.moveStep = moveStep;
+        this.collidingWithShips = collidingWithShips;
+    }
+
+    /**
+     * Method used to choose tier for a ship in given distance from action.
+     *
+     * @param distance distance to a player or the nearest threat
+     * @return simulation tier for given distance
+     */
+    public static SimulationTier forDistance(double distance) {
+        for (int i = TIERS.length - 1; i > 0; i--)
+            if (distance >= TIERS[i].minDistance) return TIERS[i];
+        return NEAR;
+    }
+
+    /**
+     * Getter for a tier stored as it's ordinal number.
+     *
+     * @param ordinal ordinal number of a tier
+     * @return simulation tier
+     */
+    public static SimulationTier of(int ordinal) {
+        return TIERS[ordinal];
+    }
+
+    /**
+     * Getter for minimum distance to a player or the nearest threat for this tier.
+     *
+     * @return minimum distance of this tier
+     */
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    /**
+     * Getter for amount of ticks between AI decisions.
+     *
+     * @return amount of ticks between decisions
+     */
+    public int getThinkInterval() {
+        return thinkInterval;
+    }
+
+    /**
+     * Getter for amount of ticks integrated at once by movement system.
+     *
+     * @return amount of ticks in one movement step
+     */
+    public int getMoveStep() {
+        return moveStep;
+    }
+
+    /**
+     * Getter for information whether ships of this tier collide with other ships.
+     *
+     * @return true if ships of this tier are checked for collisions with other ships
+     */
+    public boolean isCollidingWithShips() {
+        return collidingWithShips;
+    }
+}
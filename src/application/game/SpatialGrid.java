@@ -0,0 +1,185 @@
+package application.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used as a spatial index of ships on a game scene.
+ * Ships are put into cells of a uniform grid once per tick, so queries for neighbours
+ * of a ship only look at a few cells around it instead of all ships in a game.
+ */
+public class SpatialGrid {
+
+    private double cellSize;
+    private int columns;
+    private int rows;
+    private int[] cellHeads;
+
+    private int size = 0;
+    private int[] next;
+    private double[] posX;
+    private double[] posY;
+    private double[] angles;
+    private Ship[] ships;
+
+    /**
+     * Constructor creating grid covering a game scene.
+     *
+     * @param width    width of a game scene
+     * @param height   height of a game scene
+     * @param cellSize size of a single grid cell
+     */
+    public SpatialGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, -1);
+        next = new int[16];
+        posX = new double[16];
+        posY = new double[16];
+        angles = new double[16];
+        ships = new Ship[16];
+    }
+
+    /**
+     * Method used to rebuild the index with current positions and angles of alive ships.
+     *
+     * @param shipsList ships in a game
+     */
+    public void build(List<Ship> shipsList) {
+        Arrays.fill(cellHeads, -1);
+        Arrays.fill(ships, 0, size, null);
+        size = 0;
+        for (int i = 0; i < shipsList.size(); i++) {
+            Ship ship = shipsList.get(i);
+            if (ship.isAlive()) insert(ship, ship.getCenterX(), ship.getCenterY(), ship.getAngle());
+        }
+    }
+
+    /**
+     * Method used to find up to k nearest ships within given radius from a point.
+     * Found ships are written to a result array sorted from the nearest one.
+     *
+     * @param x        X coordinate on a game scene
+     * @param y        Y coordinate on a game scene
+     * @param radius   maximum distance of a neighbour
+     * @param excluded ship which is skipped, usually the one asking for neighbours
+     * @param result   array for indices of found ships, it's length is the maximum amount of neighbours
+     * @param distances array for squared distances of found ships, at least as long as result array
+     * @return amount of found ships
+     */
+    public int nearest(double x, double y, double radius, Ship excluded, int[] result, double[] distances) {
+        int k = result.length;
+        int count = 0;
+        double radiusSquared = radius * radius;
+        int minColumn = clamp((int) Math.floor((x - radius) / cellSize), columns);
+        int maxColumn = clamp((int) Math.floor((x + radius) / cellSize), columns);
+        int minRow = clamp((int) Math.floor((y - radius) / cellSize), rows);
+        int maxRow = clamp((int) Math.floor((y + radius) / cellSize), rows);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int i = cellHeads[row * columns + column]; i >= 0; i = next[i]) {
+                    if (ships[i] == excluded) continue;
+                    double dx = posX[i] - x;
+                    double dy = posY[i] - y;
+                    double distance = dx * dx + dy * dy;
+                    if (distance > radiusSquared || (count == k && distance >= distances[k - 1])) continue;
+                    int j = count < k ? count++ : k - 1;
+                    while (j > 0 && distances[j - 1] > distance) {
+                        result[j] = result[j - 1];
+                        distances[j] = distances[j - 1];
+                        j--;
+                    }
+                    result[j] = i;
+                    distances[j] = distance;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Getter for X coordinate of an indexed ship center.
+     *
+     * @param i index of a ship returned by a query
+     * @return X coordinate of a ship center
+     */
+    public double getX(int i) {
+        return posX[i];
+    }
+
+    /**
+     * Getter for Y coordinate of an indexed ship center.
+     *
+     * @param i index of a ship returned by a query
+     * @return Y coordinate of a ship center
+     */
+    public double getY(int i) {
+        return posY[i];
+    }
+
+    /**
+     * Getter for angle of an indexed ship.
+     *
+     * @param i index of a ship returned by a query
+     * @return angle in degrees in which ship is directed
+     */
+    public double getAngle(int i) {
+        return angles[i];
+    }
+
+    /**
+     * Getter for an indexed ship.
+     *
+     * @param i index of a ship returned by a query
+     * @return indexed ship
+     */
+    public Ship getShip(int i) {
+        return ships[i];
+    }
+
+    /**
+     * Method used to add a ship to the index.
+     *
+     * @param ship  indexed ship
+     * @param x     X coordinate of a ship center
+     * @param y     Y coordinate of a ship center
+     * @param angle angle of a ship
+     */
+    private void insert(Ship ship, double x, double y, double angle) {
+        if (size == ships.length) grow();
+        int cell = clamp((int) Math.floor(y / cellSize), rows) * columns
+                + clamp((int) Math.floor(x / cellSize), columns);
+        posX[size] = x;
+        posY[size] = y;
+        angles[size] = angle;
+        ships[size] = ship;
+        next[size] = cellHeads[cell];
+        cellHeads[cell] = size;
+        size++;
+    }
+
+    /**
+     * Method used to limit cell coordinate to the grid.
+     *
+     * @param value cell column or row
+     * @param count amount of columns or rows
+     * @return cell coordinate inside of the grid
+     */
+    private static int clamp(int value, int count) {
+        return Math.min(Math.max(value, 0), count - 1);
+    }
+
+    /**
+     * Method used to double capacity of the index.
+     */
+    private void grow() {
+        int capacity = ships.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        angles = Arrays.copyOf(angles, capacity);
+        ships = Arrays.copyOf(ships, capacity);
+    }
+}
@@ -0,0 +1,182 @@
+package application.game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class is used by spectators to decode frames written by SpectatorEncoder into frames of a game scene.
+ * State of ships from the last keyframe is kept, so following delta frames can be added to it.
+ * Delta frames which refer to a keyframe that hasn't been received are rejected, so a spectator
+ * which joins in the middle of a match waits for the next keyframe.
+ */
+public class SpectatorDecoder {
+
+    private short keyframeNumber;
+    private boolean hasKeyframe = false;
+    private double width;
+    private double height;
+
+    private int keyframeShips = 0;
+    private byte[] keyframeModel = new byte[16];
+    private int[] keyframeX = new int[16];
+    private int[] keyframeY = new int[16];
+    private int[] keyframeAngle = new int[16];
+    private int[] keyframeWidth = new int[16];
+    private int[] keyframeHeight = new int[16];
+
+    /**
+     * Method used to decode a frame.
+     *
+     * @param data  buffer with a frame between it's position and limit
+     * @param frame frame object which is filled with decoded state
+     * @return true if frame was decoded, false if it refers to a keyframe which hasn't been received
+     * or to a ship which isn't in that keyframe
+     */
+    public boolean decode(ByteBuffer data, ReplayFrame frame) {
+        byte type = data.get();
+        frame.setTick(data.getInt());
+        short number = data.getShort();
+        int ships;
+        if (type == SpectatorEncoder.KEYFRAME) {
+            keyframeNumber = number;
+            hasKeyframe = true;
+            width = data.getShort() & 0xFFFF;
+            height = data.getShort() & 0xFFFF;
+            ships = readVarInt(data);
+            if (keyframeX.length < ships) growKeyframe(ships);
+            frame.ensureCapacity(ships);
+            keyframeShips = ships;
+            for (int i = 0; i < ships; i++) {
+                keyframeModel[i] = data.get();
+                keyframeX[i] = data.getShort();
+                keyframeY[i] = data.getShort();
+                keyframeAngle[i] = data.getShort() & 0xFFFF;
+                keyframeWidth[i] = data.getShort();
+                keyframeHeight[i] = data.getShort();
+                setShip(frame, i, keyframeModel[i], keyframeX[i], keyframeY[i], keyframeAngle[i],
+                        keyframeWidth[i], keyframeHeight[i]);
+            }
+        } else {
+            if (!hasKeyframe || number != keyframeNumber) return false;
+            ships = readVarInt(data);
+            frame.ensureCapacity(ships);
+            for (int i = 0; i < ships; i++) {
+                int index = readVarInt(data) - 1;
+                if (index >= keyframeShips) return false;
+                if (index < 0) {
+                    setShip(frame, i, data.get(), data.getShort(), data.getShort(), data.getShort() & 0xFFFF,
+                            data.getShort(), data.getShort());
+                    continue;
+                }
+                int x = keyframeX[index] + unZigZag(readVarInt(data));
+                int y = keyframeY[index] + unZigZag(readVarInt(data));
+                int angle = (keyframeAngle[index] + unZigZag(readVarInt(data))) & 0xFFFF;
+                setShip(frame, i, keyframeModel[index], x, y, angle, keyframeWidth[index], keyframeHeight[index]);
+            }
+        }
+        frame.setShipsCount(ships);
+
+        int cannonBalls = readVarInt(data);
+        frame.ensureCapacity(cannonBalls);
+        for (int i = 0; i < cannonBalls; i++) {
+            frame.setCannonBall(i, unquantize(data.getShort()), unquantize(data.getShort()),
+                    unquantize(data.getShort()));
+        }
+        frame.setCannonBallsCount(cannonBalls);
+
+        int explosions = readVarInt(data);
+        frame.ensureCapacity(explosions);
+        for (int i = 0; i < explosions; i++) {
+            frame.setExplosion(i, data.get(), unquantize(data.getShort()), unquantize(data.getShort()),
+                    unquantize(data.getShort()));
+        }
+        frame.setExplosionsCount(explosions);
+        return true;
+    }
+
+    /**
+     * This method sets a decoded ship in a frame.
+     *
+     * @param frame  decoded frame
+     * @param i      index of a ship in a frame
+     * @param model  ordinal number of a ship's model
+     * @param x      quantized X coordinate of a ship center
+     * @param y      quantized Y coordinate of a ship center
+     * @param angle  quantized angle of a ship
+     * @param width  quantized width of a ship
+     * @param height quantized height of a ship
+     */
+    private static void setShip(ReplayFrame frame, int i, byte model, int x, int y, int angle, int width, int height) {
+        frame.setShip(i, model, (float) x / SpectatorEncoder.POSITION_SCALE, (float) y / SpectatorEncoder.POSITION_SCALE,
+                (float) (angle / SpectatorEncoder.ANGLE_SCALE), (float) width / SpectatorEncoder.POSITION_SCALE,
+                (float) height / SpectatorEncoder.POSITION_SCALE);
+    }
+
+    /**
+     * This method grows arrays of keyframe state, so they can hold given amount of ships.
+     *
+     * @param ships amount of ships
+     */
+    private void growKeyframe(int ships) {
+        int capacity = Integer.highestOneBit(ships) * 2;
+        keyframeModel = Arrays.copyOf(keyframeModel, capacity);
+        keyframeX = Arrays.copyOf(keyframeX, capacity);
+        keyframeY = Arrays.copyOf(keyframeY, capacity);
+        keyframeAngle = Arrays.copyOf(keyframeAngle, capacity);
+        keyframeWidth = Arrays.copyOf(keyframeWidth, capacity);
+        keyframeHeight = Arrays.copyOf(keyframeHeight, capacity);
+    }
+
+    /**
+     * This method reads a number written in 7 bit groups.
+     *
+     * @param data buffer with a frame
+     * @return read number
+     */
+    private static int readVarInt(ByteBuffer data) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * This method maps a number written by zig-zag encoding back to a signed number.
+     *
+     * @param value non-negative number
+     * @return signed number
+     */
+    private static int unZigZag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * This method converts a quantized coordinate or size back to pixels.
+     *
+     * @param value quantized value
+     * @return value in pixels
+     */
+    private static float unquantize(short value) {
+        return (float) value / SpectatorEncoder.POSITION_SCALE;
+    }
+
+    /**
+     * Getter for width of a game scene from the last keyframe.
+     *
+     * @return width of a game scene
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter for height of a game scene from the last keyframe.
+     *
+     * @return height of a game scene
+     */
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,265 @@
+package application.game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to encode state of a game scene after a tick into a compact binary frame for spectators.
+ * Positions and sizes are quantized to a quarter of a pixel and angles to 1/65536 of a full turn, so they fit
+ * in two bytes. Positions are signed, because ships enter a scene from outside of it. Every few ticks
+ * a keyframe with full state of all ships is written. Other frames store ships only as differences from
+ * the last keyframe, written as variable length numbers, so a spectator which has a keyframe can decode
+ * any later frame, even if frames between them were skipped. Cannon balls and explosions
+ * live only a moment, so they are always written whole. Frame is written into one reused buffer.
+ * <p>
+ * Keyframe: type, tick, keyframe number, scene size and ships with model, position, angle and size.
+ * Delta frame: type, tick, number of a keyframe it refers to and ships with an index in that keyframe
+ * and differences of position and angle, or index 0 and a full record for ships which appeared after it.
+ * Both end with cannon balls and explosions.
+ */
+public class SpectatorEncoder {
+
+    public static final byte DELTA = 0;
+    public static final byte KEYFRAME = 1;
+    public static final int POSITION_SCALE = 4;
+    public static final double ANGLE_SCALE = 65536 / 360.0;
+
+    private static final int MAX_SHIP_BYTES = 5 + 11;
+    private static final int CANNON_BALL_BYTES = 6;
+    private static final int EXPLOSION_BYTES = 7;
+
+    private int keyframeInterval;
+    private int ticksSinceKeyframe;
+    private short keyframeNumber = -1;
+    private boolean keyframe;
+    private ByteBuffer frame = ByteBuffer.allocate(4096);
+
+    private int[] keyframeX = new int[16];
+    private int[] keyframeY = new int[16];
+    private int[] keyframeAngle = new int[16];
+    private int[] indexTable = new int[32];
+    private int[] entityTable = new int[32];
+
+    /**
+     * Constructor creating an encoder which writes a keyframe every given amount of ticks.
+     *
+     * @param keyframeInterval amount of ticks between keyframes
+     */
+    public SpectatorEncoder(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+        reset();
+    }
+
+    /**
+     * Method used to make the next frame a keyframe, for example when a new match starts.
+     */
+    public void reset() {
+        ticksSinceKeyframe = keyframeInterval;
+    }
+
+    /**
+     * Method used to encode state of a game scene after a tick.
+     *
+     * @param tick        number of a tick
+     * @param width       width of a game scene
+     * @param height      height of a game scene
+     * @param ships       ships in a game
+     * @param cannonBalls flying cannon balls
+     * @param explosions  playing explosions
+     * @return buffer with an encoded frame between it's position and limit, valid until the next frame is encoded
+     */
+    public ByteBuffer encode(long tick, double width, double height, List<Ship> ships, List<CannonBall> cannonBalls,
+                             List<Explosion> explosions) {
+        keyframe = ticksSinceKeyframe >= keyframeInterval;
+        ensureCapacity(16 + MAX_SHIP_BYTES * ships.size() + CANNON_BALL_BYTES * cannonBalls.size()
+                + EXPLOSION_BYTES * explosions.size());
+        frame.clear();
+        if (keyframe) {
+            ticksSinceKeyframe = 0;
+            keyframeNumber++;
+            writeKeyframeShips(tick, width, height, ships);
+        } else {
+            writeDeltaShips(tick, ships);
+        }
+        ticksSinceKeyframe++;
+
+        writeVarInt(cannonBalls.size());
+        for (int i = 0; i < cannonBalls.size(); i++) {
+            CannonBall cannonBall = cannonBalls.get(i);
+            frame.putShort((short) quantize(cannonBall.getCenterXAt(1)));
+            frame.putShort((short) quantize(cannonBall.getCenterYAt(1)));
+            frame.putShort((short) quantize(cannonBall.getRadius()));
+        }
+        writeVarInt(explosions.size());
+        for (int i = 0; i < explosions.size(); i++) {
+            Explosion explosion = explosions.get(i);
+            frame.put((byte) explosion.getFrame());
+            frame.putShort((short) quantize(explosion.getCenterX()));
+            frame.putShort((short) quantize(explosion.getCenterY()));
+            frame.putShort((short) quantize(explosion.getSize()));
+        }
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * This method writes a keyframe header and full records of all ships, and remembers their quantized state,
+     * so next frames can be written as differences from it.
+     *
+     * @param tick   number of a tick
+     * @param width  width of a game scene
+     * @param height height of a game scene
+     * @param ships  ships in a game
+     */
+    private void writeKeyframeShips(long tick, double width, double height, List<Ship> ships) {
+        frame.put(KEYFRAME);
+        frame.putInt((int) tick);
+        frame.putShort(keyframeNumber);
+        frame.putShort((short) width);
+        frame.putShort((short) height);
+        if (keyframeX.length < ships.size()) growKeyframe(ships.size());
+        Arrays.fill(entityTable, -1);
+        writeVarInt(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            writeShip(ship);
+            keyframeX[i] = quantize(ship.getCenterX());
+            keyframeY[i] = quantize(ship.getCenterY());
+            keyframeAngle[i] = quantizeAngle(ship.getAngle());
+            int slot = slotOf(ship.getEntity());
+            entityTable[slot] = ship.getEntity();
+            indexTable[slot] = i;
+        }
+    }
+
+    /**
+     * This method writes a delta frame header and ships as differences from the last keyframe.
+     *
+     * @param tick  number of a tick
+     * @param ships ships in a game
+     */
+    private void writeDeltaShips(long tick, List<Ship> ships) {
+        frame.put(DELTA);
+        frame.putInt((int) tick);
+        frame.putShort(keyframeNumber);
+        writeVarInt(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            int slot = slotOf(ship.getEntity());
+            if (entityTable[slot] != ship.getEntity()) {
+                writeVarInt(0);
+                writeShip(ship);
+                continue;
+            }
+            int index = indexTable[slot];
+            writeVarInt(index + 1);
+            writeVarInt(zigZag(quantize(ship.getCenterX()) - keyframeX[index]));
+            writeVarInt(zigZag(quantize(ship.getCenterY()) - keyframeY[index]));
+            writeVarInt(zigZag((short) (quantizeAngle(ship.getAngle()) - keyframeAngle[index])));
+        }
+    }
+
+    /**
+     * This method writes a full record of a ship.
+     *
+     * @param ship ship in a game
+     */
+    private void writeShip(Ship ship) {
+        frame.put((byte) ship.getModel().ordinal());
+        frame.putShort((short) quantize(ship.getCenterX()));
+        frame.putShort((short) quantize(ship.getCenterY()));
+        frame.putShort((short) quantizeAngle(ship.getAngle()));
+        frame.putShort((short) quantize(ship.getShipWidth()));
+        frame.putShort((short) quantize(ship.getShipHeight()));
+    }
+
+    /**
+     * This method finds a slot of a keyframe table in which an entity is or would be stored.
+     * Table is at least twice as big as amount of ships in a keyframe, so there are always empty slots.
+     *
+     * @param entity id of an entity
+     * @return index of a slot
+     */
+    private int slotOf(int entity) {
+        int mask = entityTable.length - 1;
+        int slot = (entity * 0x9E3779B9 >>> 16) & mask;
+        while (entityTable[slot] != -1 && entityTable[slot] != entity) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * This method grows arrays of keyframe state, so they can hold given amount of ships.
+     *
+     * @param ships amount of ships
+     */
+    private void growKeyframe(int ships) {
+        int capacity = Integer.highestOneBit(ships) * 2;
+        keyframeX = new int[capacity];
+        keyframeY = new int[capacity];
+        keyframeAngle = new int[capacity];
+        indexTable = new int[2 * capacity];
+        entityTable = new int[2 * capacity];
+    }
+
+    /**
+     * This method grows a frame buffer, so given amount of bytes fits in it.
+     *
+     * @param bytes maximum size of a frame
+     */
+    private void ensureCapacity(int bytes) {
+        if (frame.capacity() < bytes) frame = ByteBuffer.allocate(Integer.highestOneBit(bytes) * 2);
+    }
+
+    /**
+     * This method writes a non-negative number in 7 bit groups, so small numbers take one byte.
+     *
+     * @param value number to write
+     */
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            frame.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        frame.put((byte) value);
+    }
+
+    /**
+     * This method maps signed numbers to non-negative ones, so numbers close to zero stay small.
+     *
+     * @param value signed number
+     * @return non-negative number
+     */
+    private static int zigZag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    /**
+     * This method quantizes a coordinate or a size to a quarter of a pixel in range of a short.
+     *
+     * @param value coordinate or size on a game scene
+     * @return quantized value
+     */
+    private static int quantize(double value) {
+        return Math.min(Math.max((int) Math.round(value * POSITION_SCALE), Short.MIN_VALUE), Short.MAX_VALUE);
+    }
+
+    /**
+     * This method quantizes an angle to 1/65536 of a full turn.
+     *
+     * @param angle angle in degrees
+     * @return quantized angle from 0 to 65535
+     */
+    private static int quantizeAngle(double angle) {
+        return (int) Math.round(angle * ANGLE_SCALE) & 0xFFFF;
+    }
+
+    /**
+     * Getter to check whether the last encoded frame is a keyframe.
+     *
+     * @return true if the last frame is a keyframe
+     */
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+}
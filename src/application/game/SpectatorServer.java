@@ -0,0 +1,290 @@
+package application.game;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to broadcast a live battle to spectators connected over TCP on a local machine.
+ * Game loop encodes every frame once and copies it with it's length into a ring buffer, then wakes up
+ * a server thread, which sends the same bytes to every spectator through non-blocking sockets. Every spectator
+ * has only it's own view of a ring and a position in it, so nothing is encoded, copied or buffered per spectator.
+ * A spectator which can't take frames as fast as they are published isn't buffered: as soon as a keyframe newer
+ * than it's position is published, frames it has missed are skipped and it continues from that keyframe, which
+ * it can decode without them. New spectators start from the last keyframe. If a frame which is being sent
+ * is overwritten in a ring, a spectator is disconnected.
+ */
+public class SpectatorServer {
+
+    public static final String PORT_PROPERTY = "ships.spectatorPort";
+
+    private static final int RING_CAPACITY = 1 << 22;
+    private static final int SLOTS = 1 << 12;
+    private static final int MAX_LAG = 2;
+    private static final int SEND_BUFFER_SIZE = 1 << 13;
+
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private Thread thread;
+    private volatile boolean open = true;
+
+    private ByteBuffer ring = ByteBuffer.allocateDirect(RING_CAPACITY);
+    private long[] frameStarts = new long[SLOTS];
+    private int[] frameLengths = new int[SLOTS];
+    private volatile long written = 0;
+    private volatile long published = -1;
+    private volatile long lastKeyframe = -1;
+
+    private List<Spectator> spectators = new ArrayList<>();
+    private volatile int spectatorsCount = 0;
+    private long sentFrames = 0;
+    private long skippedFrames = 0;
+
+    /**
+     * Class storing state of a single connected spectator.
+     */
+    private class Spectator {
+        private SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer view = ring.duplicate();
+        private long frame = Math.max(lastKeyframe, 0) - 1;
+        private long frameStart;
+        private boolean sending = false;
+
+        /**
+         * Constructor registering a spectator's channel in a server's selector.
+         * Spectator starts from the last published keyframe.
+         *
+         * @param channel connected non-blocking channel
+         * @throws IOException if channel can't be registered
+         */
+        private Spectator(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            key = channel.register(selector, 0, this);
+        }
+    }
+
+    /**
+     * Constructor binding a server to a port on a loopback address.
+     *
+     * @param port TCP port on which spectators connect, 0 for any free port
+     * @throws IOException if a port can't be bound
+     */
+    private SpectatorServer(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::serve, "spectator-server");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Method used to start a server on a port on a loopback address.
+     *
+     * @param port TCP port on which spectators connect, 0 for any free port
+     * @return started server
+     * @throws IOException if a port can't be bound
+     */
+    public static SpectatorServer start(int port) throws IOException {
+        SpectatorServer server = new SpectatorServer(port);
+        server.thread.start();
+        System.out.println("Spectator server listening on " + server.serverChannel.getLocalAddress());
+        return server;
+    }
+
+    /**
+     * Method used by a game loop to publish an encoded frame to all spectators. Frame is copied
+     * once into a ring buffer with it's length in front of it, and the server thread is woken up.
+     *
+     * @param frame    buffer with an encoded frame between it's position and limit
+     * @param keyframe true if a frame can be decoded without previous frames
+     */
+    public void publish(ByteBuffer frame, boolean keyframe) {
+        int length = Integer.BYTES + frame.remaining();
+        long start = written;
+        int offset = (int) (start % RING_CAPACITY);
+        if (offset + length > RING_CAPACITY) {
+            start += RING_CAPACITY - offset;
+            offset = 0;
+        }
+        written = start + length;
+        ring.putInt(offset, frame.remaining());
+        ring.put(offset + Integer.BYTES, frame, frame.position(), frame.remaining());
+        long sequence = published + 1;
+        int slot = (int) (sequence & (SLOTS - 1));
+        frameStarts[slot] = start;
+        frameLengths[slot] = length;
+        if (keyframe) lastKeyframe = sequence;
+        published = sequence;
+        selector.wakeup();
+    }
+
+    /**
+     * Loop of a server thread, which accepts spectators and sends them frames
+     * when they are published or when their sockets can take more bytes.
+     */
+    private void serve() {
+        long sentUpTo = -1;
+        while (open) {
+            try {
+                selector.select(this::onReady);
+            } catch (IOException e) {
+                System.err.println("Spectator server failed: " + e.getMessage());
+                break;
+            }
+            if (published == sentUpTo) continue;
+            sentUpTo = published;
+            for (int i = spectators.size() - 1; i >= 0; i--) {
+                Spectator spectator = spectators.get(i);
+                if (!spectator.sending) send(spectator);
+            }
+        }
+        close();
+    }
+
+    /**
+     * This method handles a channel which is ready: accepts a new spectator or continues sending
+     * frames to a spectator whose socket can take more bytes.
+     *
+     * @param key key of a ready channel
+     */
+    private void onReady(SelectionKey key) {
+        if (key.isValid() && key.isAcceptable()) {
+            accept();
+        } else if (key.isValid() && key.isWritable()) {
+            send((Spectator) key.attachment());
+        }
+    }
+
+    /**
+     * This method accepts a waiting spectator and configures it's socket.
+     */
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) return;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_SIZE);
+            spectators.add(new Spectator(channel));
+            spectatorsCount = spectators.size();
+        } catch (IOException e) {
+            System.err.println("Spectator couldn't be accepted: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method sends frames to a spectator until it has all published frames or it's socket is full.
+     * Bytes of a frame which were overwritten while they were sent can't be fixed, so such spectator is dropped.
+     *
+     * @param spectator connected spectator
+     */
+    private void send(Spectator spectator) {
+        try {
+            while (true) {
+                if (!spectator.sending && !nextFrame(spectator)) {
+                    spectator.key.interestOps(0);
+                    return;
+                }
+                spectator.channel.write(spectator.view);
+                if (written - RING_CAPACITY > spectator.frameStart) throw new IOException("spectator is too slow");
+                if (spectator.view.hasRemaining()) {
+                    spectator.sending = true;
+                    spectator.key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                spectator.sending = false;
+                sentFrames++;
+            }
+        } catch (IOException e) {
+            disconnect(spectator);
+        }
+    }
+
+    /**
+     * This method chooses the next frame which is sent to a spectator and sets it's view of a ring on it.
+     * A spectator which is more than a few frames behind skips to the last keyframe if it's ahead of it.
+     *
+     * @param spectator connected spectator which isn't in the middle of sending a frame
+     * @return true if there is a frame to send
+     */
+    private boolean nextFrame(Spectator spectator) {
+        long latest = published;
+        long next = spectator.frame + 1;
+        long keyframe = lastKeyframe;
+        if (latest - next >= MAX_LAG && keyframe > next) {
+            skippedFrames += keyframe - next;
+            next = keyframe;
+        }
+        if (next > latest) return false;
+        int slot = (int) (next & (SLOTS - 1));
+        int offset = (int) (frameStarts[slot] % RING_CAPACITY);
+        spectator.view.limit(offset + frameLengths[slot]).position(offset);
+        spectator.frame = next;
+        spectator.frameStart = frameStarts[slot];
+        return true;
+    }
+
+    /**
+     * This method closes a connection with a spectator.
+     *
+     * @param spectator connected spectator
+     */
+    private void disconnect(Spectator spectator) {
+        spectators.remove(spectator);
+        spectatorsCount = spectators.size();
+        spectator.key.cancel();
+        try {
+            spectator.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Method used to stop a server and disconnect all spectators.
+     */
+    public void close() {
+        if (!open && !serverChannel.isOpen()) return;
+        open = false;
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+            return;
+        }
+        while (!spectators.isEmpty()) disconnect(spectators.get(spectators.size() - 1));
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+        System.out.println("Spectator server closed, " + sentFrames + " frames sent, "
+                + skippedFrames + " frames skipped by slow spectators");
+    }
+
+    /**
+     * Getter for a port on which a server is listening.
+     *
+     * @return TCP port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Getter for amount of connected spectators.
+     *
+     * @return amount of spectators
+     */
+    public int getSpectatorsCount() {
+        return spectatorsCount;
+    }
+}
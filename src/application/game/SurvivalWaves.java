@@ -0,0 +1,95 @@
+package application.game;
+
+/**
+ * This class is used to schedule enemy ships in survival mode, in which a match lasts until a player is destroyed.
+ * Every minute a new wave begins, which raises amount of enemy ships kept alive on a scene and difficulty
+ * of ships which are spawned. When there are fewer live enemy ships than a wave wants, a replacement is spawned
+ * from ships which were destroyed before, so ships are created only when a wave wants more of them than ever.
+ * Replacements are spawned one at a time with a pause between them, so a wave doesn't appear all at once.
+ */
+public class SurvivalWaves {
+
+    public static final int MAX_ENEMY_SHIPS = 24;
+
+    private static final int WAVE_TICKS = 60 * 60;
+    private static final int SPAWN_INTERVAL_TICKS = 90;
+    private static final double DIFFICULTY_PER_WAVE = 0.1;
+    private static final double MAX_DIFFICULTY = 3;
+
+    private Game game;
+    private int startEnemyShips;
+    private int wave;
+    private long nextSpawnTick;
+    private int spawnedShips;
+
+    /**
+     * Constructor creating a scheduler of waves of a game.
+     *
+     * @param game game in which enemy ships are spawned
+     */
+    public SurvivalWaves(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Method used to start scheduling waves of a new match.
+     *
+     * @param startEnemyShips amount of enemy ships kept alive in the first wave
+     */
+    void start(int startEnemyShips) {
+        this.startEnemyShips = startEnemyShips;
+        wave = 0;
+        nextSpawnTick = 0;
+        spawnedShips = 0;
+    }
+
+    /**
+     * Method called in every tick of a game loop, which starts new waves and spawns a replacement
+     * of a destroyed enemy ship if there are fewer live enemy ships than a wave wants.
+     *
+     * @param tick number of a tick in a match
+     */
+    void update(long tick) {
+        wave = (int) (tick / WAVE_TICKS);
+        if (tick < nextSpawnTick || game.countLiveEnemyShips() >= getTargetEnemyShips()) return;
+        game.spawnEnemyShip(getDifficulty());
+        spawnedShips++;
+        nextSpawnTick = tick + SPAWN_INTERVAL_TICKS;
+    }
+
+    /**
+     * Getter for number of a current wave, counted from 0.
+     *
+     * @return number of a wave
+     */
+    public int getWave() {
+        return wave;
+    }
+
+    /**
+     * Getter for amount of enemy ships which a current wave keeps alive.
+     *
+     * @return amount of enemy ships
+     */
+    public int getTargetEnemyShips() {
+        return Math.min(startEnemyShips + wave, MAX_ENEMY_SHIPS);
+    }
+
+    /**
+     * Getter for difficulty of enemy ships spawned in a current wave.
+     *
+     * @return multiplier of enemy ships' abilities, 1 in the first wave
+     */
+    public double getDifficulty() {
+        return Math.min(1 + wave * DIFFICULTY_PER_WAVE, MAX_DIFFICULTY);
+    }
+
+    /**
+     * Getter for amount of replacements spawned in a match.
+     *
+     * @return amount of spawned enemy ships
+     */
+    public int getSpawnedShips() {
+        return spawnedShips;
+    }
+}
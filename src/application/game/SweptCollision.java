@@ -0,0 +1,110 @@
+package application.game;
+
+/**
+ * Class with continuous collision detection methods used for fast moving objects in a game,
+ * which could otherwise pass through a target between two frames of a game loop.
+ */
+public final class SweptCollision {
+
+    public static final double NO_HIT = -1;
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private SweptCollision() {
+    }
+
+    /**
+     * Method used to check whether a circle moving along a segment hits an oriented box
+     * and to find the earliest moment of impact. Box is expanded by circle radius
+     * in it's own coordinates, so corners of a box are treated as slightly larger than they are.
+     *
+     * @param startX      circle center X coordinate at the beginning of a movement
+     * @param startY      circle center Y coordinate at the beginning of a movement
+     * @param endX        circle center X coordinate at the end of a movement
+     * @param endY        circle center Y coordinate at the end of a movement
+     * @param radius      radius of a circle
+     * @param boxCenterX  box center X coordinate
+     * @param boxCenterY  box center Y coordinate
+     * @param halfWidth   half of a box width before rotation
+     * @param halfHeight  half of a box height before rotation
+     * @param angle       angle in degrees by which box is rotated clockwise on a game scene
+     * @return fraction of a movement from 0 to 1 at which circle first touches a box or NO_HIT
+     */
+    public static double sweepCircleOrientedBox(double startX, double startY, double endX, double endY, double radius,
+                                                double boxCenterX, double boxCenterY,
+                                                double halfWidth, double halfHeight, double angle) {
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+
+        double dx = startX - boxCenterX;
+        double dy = startY - boxCenterY;
+        double localStartX = dx * cos + dy * sin;
+        double localStartY = -dx * sin + dy * cos;
+        dx = endX - boxCenterX;
+        dy = endY - boxCenterY;
+        double localEndX = dx * cos + dy * sin;
+        double localEndY = -dx * sin + dy * cos;
+
+        double enter = 0;
+        double exit = 1;
+
+        double delta = localEndX - localStartX;
+        double extent = halfWidth + radius;
+        if (Math.abs(delta) < EPSILON) {
+            if (Math.abs(localStartX) > extent) return NO_HIT;
+        } else {
+            double t1 = (-extent - localStartX) / delta;
+            double t2 = (extent - localStartX) / delta;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (enter > exit) return NO_HIT;
+        }
+
+        delta = localEndY - localStartY;
+        extent = halfHeight + radius;
+        if (Math.abs(delta) < EPSILON) {
+            if (Math.abs(localStartY) > extent) return NO_HIT;
+        } else {
+            double t1 = (-extent - localStartY) / delta;
+            double t2 = (extent - localStartY) / delta;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (enter > exit) return NO_HIT;
+        }
+        return enter;
+    }
+
+    /**
+     * Method used to check whether a point moving along a segment crosses another, static segment,
+     * for example an edge of an obstacle, and to find the moment of crossing.
+     *
+     * @param startX    point X coordinate at the beginning of a movement
+     * @param startY    point Y coordinate at the beginning of a movement
+     * @param endX      point X coordinate at the end of a movement
+     * @param endY      point Y coordinate at the end of a movement
+     * @param segmentX1 X coordinate of static segment start
+     * @param segmentY1 Y coordinate of static segment start
+     * @param segmentX2 X coordinate of static segment end
+     * @param segmentY2 Y coordinate of static segment end
+     * @return fraction of a movement from 0 to 1 at which point crosses a segment or NO_HIT
+     */
+    public static double sweepPointSegment(double startX, double startY, double endX, double endY,
+                                           double segmentX1, double segmentY1, double segmentX2, double segmentY2) {
+        double moveX = endX - startX;
+        double moveY = endY - startY;
+        double edgeX = segmentX2 - segmentX1;
+        double edgeY = segmentY2 - segmentY1;
+        double denominator = moveX * edgeY - moveY * edgeX;
+        if (Math.abs(denominator) < EPSILON) return NO_HIT;
+        double offsetX = segmentX1 - startX;
+        double offsetY = segmentY1 - startY;
+        double time = (offsetX * edgeY - offsetY * edgeX) / denominator;
+        double position = (offsetX * moveY - offsetY * moveX) / denominator;
+        if (time < 0 || time > 1 || position < 0 || position > 1) return NO_HIT;
+        return time;
+    }
+}
@@ -0,0 +1,122 @@
+package application.game;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is used to measure time of game loop ticks and their phases.
+ * Times are counted in logarithmic histograms with four buckets per power of two,
+ * so recording a time is a single ordered write done only by the game loop thread,
+ * while percentiles can be read at any time from other threads, for example by JMX.
+ */
+public class TickProfiler {
+
+    /**
+     * Enum used to distinguish measured phases of a game loop tick.
+     */
+    public enum Phase {AI, MOVEMENT, COLLISIONS, EVENTS, VISIBILITY, EFFECTS, TICK}
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+    private static final Phase[] PHASES = Phase.values();
+
+    private AtomicLongArray histograms = new AtomicLongArray(PHASES.length * BUCKETS);
+    private long tickStart;
+    private long phaseStart;
+
+    /**
+     * Method called at the beginning of a tick.
+     */
+    public void startTick() {
+        tickStart = System.nanoTime();
+        phaseStart = tickStart;
+    }
+
+    /**
+     * Method called at the end of a phase, which starts the next phase.
+     *
+     * @param phase phase which has just ended
+     */
+    public void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        record(phase, now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Method called at the end of a tick.
+     *
+     * @return time of a whole tick in nanoseconds
+     */
+    public long endTick() {
+        long nanos = System.nanoTime() - tickStart;
+        record(Phase.TICK, nanos);
+        return nanos;
+    }
+
+    /**
+     * Method used to estimate percentile of measured times of a phase.
+     *
+     * @param phase      measured phase
+     * @param percentile percentile from 0 to 100
+     * @return upper bound of a bucket containing given percentile in milliseconds or 0 if nothing was measured
+     */
+    public double percentileMillis(Phase phase, double percentile) {
+        int offset = phase.ordinal() * BUCKETS;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += histograms.get(offset + i);
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histograms.get(offset + i);
+            if (seen >= rank && seen > 0) return bucketUpperBound(i) / 1_000_000.0;
+        }
+        return bucketUpperBound(BUCKETS - 1) / 1_000_000.0;
+    }
+
+    /**
+     * Method used to forget all measured times.
+     */
+    public void reset() {
+        for (int i = 0; i < histograms.length(); i++) histograms.set(i, 0);
+    }
+
+    /**
+     * Method used to count a measured time in a histogram of a phase.
+     * Only the game loop thread writes to histograms, so plain ordered write is enough.
+     *
+     * @param phase measured phase
+     * @param nanos measured time in nanoseconds
+     */
+    private void record(Phase phase, long nanos) {
+        int i = phase.ordinal() * BUCKETS + bucket(Math.max(nanos, 1));
+        histograms.lazySet(i, histograms.get(i) + 1);
+    }
+
+    /**
+     * Method used to find histogram bucket for a time.
+     *
+     * @param nanos positive time in nanoseconds
+     * @return index of a bucket
+     */
+    private static int bucket(long nanos) {
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent < SUB_BUCKET_BITS) return (int) nanos;
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return (exponent << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    /**
+     * Method used to find the largest time counted in a bucket.
+     *
+     * @param bucket index of a bucket
+     * @return upper bound of a bucket in nanoseconds
+     */
+    private static long bucketUpperBound(int bucket) {
+        int exponent = bucket >>> SUB_BUCKET_BITS;
+        if (exponent < SUB_BUCKET_BITS) return bucket;
+        long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        long base = 1L << exponent;
+        return base + ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package application.game;
+
+import java.nio.ByteBuffer;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Class with vectorized integration of cannon balls using Java Vector API.
+ * It's loaded only when "jdk.incubator.vector" module is available.
+ */
+final class VectorKinematics {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Private constructor, class contains only static methods.
+     */
+    private VectorKinematics() {
+    }
+
+    /**
+     * Method which moves cannon balls by their velocity and marks cannon balls
+     * outside of a game scene, processing as many cannon balls at once as SIMD registers allow.
+     * Remaining cannon balls are integrated by a scalar loop.
+     *
+     * @param columns    buffer with columns of positions and velocities
+     * @param capacity   amount of cannon balls for which every column has room
+     * @param outside    flags set for cannon balls outside of a game scene
+     * @param size       amount of integrated cannon balls
+     * @param areaWidth  width of a game scene
+     * @param areaHeight height of a game scene
+     */
+    static void integrate(ByteBuffer columns, int capacity, boolean[] outside, int size,
+                          double areaWidth, double areaHeight) {
+        int column = capacity * Double.BYTES;
+        int i = 0;
+        int bound = SPECIES.loopBound(size);
+        for (; i < bound; i += SPECIES.length()) {
+            int offset = i * Double.BYTES;
+            DoubleVector x = DoubleVector.fromByteBuffer(SPECIES, columns, offset, EntityWorld.BYTE_ORDER)
+                    .add(DoubleVector.fromByteBuffer(SPECIES, columns, 2 * column + offset, EntityWorld.BYTE_ORDER));
+            DoubleVector y = DoubleVector.fromByteBuffer(SPECIES, columns, column + offset, EntityWorld.BYTE_ORDER)
+                    .add(DoubleVector.fromByteBuffer(SPECIES, columns, 3 * column + offset, EntityWorld.BYTE_ORDER));
+            x.intoByteBuffer(columns, offset, EntityWorld.BYTE_ORDER);
+            y.intoByteBuffer(columns, column + offset, EntityWorld.BYTE_ORDER);
+            VectorMask<Double> out = x.compare(VectorOperators.LT, 0)
+                    .or(x.compare(VectorOperators.GT, areaWidth))
+                    .or(y.compare(VectorOperators.LT, 0))
+                    .or(y.compare(VectorOperators.GT, areaHeight));
+            out.intoArray(outside, i);
+        }
+        ProjectileKinematics.integrateScalar(columns, capacity, outside, i, size, areaWidth, areaHeight);
+    }
+}
@@ -1,8 +1,8 @@
 package application.menu;
 
+import application.Assets;
 import javafx.scene.control.Button;
 import javafx.scene.effect.DropShadow;
-import javafx.scene.text.Font;
 
 /**
  * This class is used to create MenuButton objects which are buttons for game menu display.
@@ -23,8 +23,7 @@ public class MenuButton extends Button {
     public MenuButton(String text) {
         setPrefWidth(190);
         setPrefHeight(49);
-        Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 25);
-        setFont(font);
+        setFont(Assets.getFont(25));
         setText(text);
         setStyle(BUTTON_STYLE);
         initializeButtonListeners();
@@ -1,15 +1,19 @@
 package application.menu;
 
+import application.Assets;
 import application.Main;
+import application.StartupMetrics;
 import application.game.Game;
 import application.game.GameView;
 import javafx.geometry.Pos;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static application.Main.game;
 
@@ -26,10 +30,12 @@ public class MenuView {
     private Scene menuScene;
 
     private SettingsView settingsView;
+    private StatisticsView statisticsView;
 
     private VBox menuButtons;
 
-    private ArrayList<OptionSubScene> subScenes;
+    private Map<Options, OptionSubScene> subScenes;
+    private ProgressBar loadingBar;
 
     private int enemyShipsAmount;
 
@@ -56,9 +62,9 @@ public class MenuView {
 
         createButtons();
         createBackground();
+        createLoadingBar();
 
-        subScenes = new ArrayList<>();
-        createSubScenes();
+        subScenes = new EnumMap<>(Options.class);
     }
 
     /**
@@ -66,33 +72,55 @@ public class MenuView {
      * be displayed after choosing corresponding option in game menu
      *
      * @param option type of sub scene which will be created based on it's type in Options Enum class.
+     * @return created sub scene
      */
-    private void createOptionSubScene(Options option) {
+    private OptionSubScene createOptionSubScene(Options option) {
         OptionSubScene scene = new OptionSubScene(option, width - 100, height - 100);
         scene.setLayoutX(50);
         scene.setLayoutY(50);
-        subScenes.add(scene);
+        if (option == Options.SETTINGS) {
+            settingsView = new SettingsView();
+            scene.addContentPane(settingsView);
+        } else if (option == Options.STATS) {
+            statisticsView = new StatisticsView();
+            scene.addContentPane(statisticsView);
+        }
         menuPane.getChildren().add(scene);
+        return scene;
     }
 
-
     /**
-     * Creates sub scenes for menu buttons except the "PLAY" and "EXIT" button.
+     * Displays sub scene for menu buttons except the "PLAY" and "EXIT" button.
+     * Sub scene is created when it's opened for the first time.
+     * Statistics are read again every time their sub scene is opened.
+     *
+     * @param option type of sub scene which will be displayed
      */
-    private void createSubScenes() {
-        createOptionSubScene(Options.SETTINGS);
-        settingsView = new SettingsView();
-        subScenes.get(0).addContentPane(settingsView);
+    private void showSubScene(Options option) {
+        boolean created = subScenes.containsKey(option);
+        subScenes.computeIfAbsent(option, this::createOptionSubScene).setVisible(true);
+        if (created && option == Options.STATS) statisticsView.refresh();
+    }
 
-        createOptionSubScene(Options.HELP);
-        createOptionSubScene(Options.CREDITS);
+    /**
+     * Creates progress bar at the bottom of menu view, which shows progress of loading
+     * game assets in background and disappears when all of them are loaded.
+     */
+    private void createLoadingBar() {
+        loadingBar = new ProgressBar();
+        loadingBar.setPrefWidth(190);
+        loadingBar.setLayoutX(width / 2 - 95);
+        loadingBar.setLayoutY(height - 50);
+        loadingBar.progressProperty().bind(Assets.progressProperty());
+        loadingBar.visibleProperty().bind(Assets.progressProperty().lessThan(1));
+        menuPane.getChildren().add(loadingBar);
     }
 
     /**
      * Creates menu background and adds it to main pane of menu view
      */
     private void createBackground() {
-        Image backgroundImage = new Image(MenuModels.WATER_TILE.getUrl(), 64, 64, false, true);
+        Image backgroundImage = Assets.getImage(MenuModels.WATER_TILE.getUrl());
         BackgroundImage background = new BackgroundImage(backgroundImage, BackgroundRepeat.REPEAT, BackgroundRepeat.REPEAT, BackgroundPosition.DEFAULT, null);
         menuPane.setBackground(new Background(background));
     }
@@ -102,7 +130,9 @@ public class MenuView {
      */
     private void createButtons() {
         createPlayButton();
+        createSurvivalButton();
         createSettingsButton();
+        createStatsButton();
         createHelpButton();
         createCreditsButton();
         createExitButton();
@@ -118,14 +148,45 @@ public class MenuView {
         MenuButton playButton = new MenuButton(Options.PLAY.getTitle());
         addMenuButton(playButton);
         playButton.setOnAction(e -> {
-            Main.gameView = new GameView(mainStage, width, height);
-            Main.gameView.show();
+            startGame(false);
+        });
+    }
+
+    /**
+     * Initializes and creates "SURVIVAL" menu button used to start a game in survival mode.
+     * On press the menu scene will get replaced with game scene, in which destroyed enemy ships are replaced
+     * by waves of stronger ones until player is destroyed.
+     */
+    private void createSurvivalButton() {
+        MenuButton survivalButton = new MenuButton(Options.SURVIVAL.getTitle());
+        addMenuButton(survivalButton);
+        survivalButton.setOnAction(e -> {
+            startGame(true);
+        });
+    }
+
+    /**
+     * This method replaces the menu scene with game scene and starts a new match
+     * with amount of enemy ships chosen in settings.
+     *
+     * @param survival true if a match is played in survival mode
+     */
+    private void startGame(boolean survival) {
+        StartupMetrics.battleRequested();
+        if (Main.gameView == null) Main.gameView = new GameView(mainStage, width, height);
+        Main.gameView.reset();
+        Main.gameView.show();
 
-            enemyShipsAmount = settingsView.getShipsAmount();
+        enemyShipsAmount = settingsView != null ? settingsView.getShipsAmount() : SettingsView.MIN_SHIPS_AMOUNT;
+        if (game == null) {
             game = new Game(Main.gameView, enemyShipsAmount);
+            game.setSurvival(survival);
             game.setup();
-            game.start();
-        });
+        } else {
+            game.setSurvival(survival);
+            game.reset(enemyShipsAmount);
+        }
+        game.start();
     }
 
     /**
@@ -136,7 +197,19 @@ public class MenuView {
         MenuButton settingsButton = new MenuButton(Options.SETTINGS.getTitle());
         addMenuButton(settingsButton);
         settingsButton.setOnAction(e -> {
-            subScenes.get(0).setVisible(true);
+            showSubScene(Options.SETTINGS);
+        });
+    }
+
+    /**
+     * Initializes and creates "STATS" menu button used to show statistics of finished matches.
+     * On press the statistics sub scene will be displayed with win rates and durations of matches.
+     */
+    private void createStatsButton() {
+        MenuButton statsButton = new MenuButton(Options.STATS.getTitle());
+        addMenuButton(statsButton);
+        statsButton.setOnAction(e -> {
+            showSubScene(Options.STATS);
         });
     }
 
@@ -148,7 +221,7 @@ public class MenuView {
         MenuButton helpButton = new MenuButton(Options.HELP.getTitle());
         addMenuButton(helpButton);
         helpButton.setOnAction(e -> {
-            subScenes.get(1).setVisible(true);
+            showSubScene(Options.HELP);
         });
     }
 
@@ -160,7 +233,7 @@ public class MenuView {
         MenuButton creditsButton = new MenuButton(Options.CREDITS.getTitle());
         addMenuButton(creditsButton);
         creditsButton.setOnAction(e -> {
-            subScenes.get(2).setVisible(true);
+            showSubScene(Options.CREDITS);
         });
     }
 
@@ -201,5 +274,6 @@ public class MenuView {
     public void show() {
         mainStage.setScene(menuScene);
         mainStage.show();
+        StartupMetrics.menuShown();
     }
 }
@@ -1,5 +1,6 @@
 package application.menu;
 
+import application.Assets;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -21,7 +22,7 @@ public class OptionSubScene extends SubScene {
 
     private BorderPane optionPane;
 
-    private final Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 25);
+    private final Font font = Assets.getFont(25);
 
     /**
      * Constructor which creates and initializes sub scene
@@ -7,7 +7,9 @@ package application.menu;
 public enum Options {
 
     PLAY("PLAY", ""),
+    SURVIVAL("SURVIVAL", ""),
     SETTINGS("SETTINGS", "Choose amount of enemy ships"),
+    STATS("STATS", "No matches played yet"),
     CREDITS("CREDITS", "Created By\nMateusz Borowiecki"),
     HELP("HELP", "To win simply destroy\n" +
             "all enemy ships\n\n\n" +
@@ -1,5 +1,6 @@
 package application.menu;
 
+import application.Assets;
 import application.game.GameModels;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -28,9 +29,12 @@ public class SettingsView extends VBox {
 
     private LinkedList<ImageView> shipImages;
 
-    private int shipsAmount = 1;
+    public static final int MIN_SHIPS_AMOUNT = 1;
+    public static final int MAX_SHIPS_AMOUNT = 5;
 
-    private final Font font = Font.loadFont(getClass().getResourceAsStream(MenuModels.FONT.getUrl()), 25);
+    private int shipsAmount = MIN_SHIPS_AMOUNT;
+
+    private final Font font = Assets.getFont(25);
 
     /**
      * Constructor creating and initializing content for "SETTINGS" option sub scene.
@@ -77,7 +81,8 @@ public class SettingsView extends VBox {
      * for a player to play against.
      */
     private void createFirstShipImage() {
-        ImageView img = new ImageView(GameModels.getRandomEnemyShipUrl());
+        ImageView img = new ImageView();
+        Assets.setSprite(img, GameModels.getRandomEnemyShipUrl());
         shipImages.add(img);
         this.getChildren().add(img);
     }
@@ -87,8 +92,9 @@ public class SettingsView extends VBox {
      * increase enemy ships number by 1 in game up to 5 on increasing button press.
      */
     private void addShip() {
-        if (shipsAmount < 5) {
-            ImageView img = new ImageView(GameModels.getRandomEnemyShipUrl());
+        if (shipsAmount < MAX_SHIPS_AMOUNT) {
+            ImageView img = new ImageView();
+            Assets.setSprite(img, GameModels.getRandomEnemyShipUrl());
             shipImages.add(img);
             this.getChildren().add(img);
             shipsAmount++;
@@ -101,7 +107,7 @@ public class SettingsView extends VBox {
      * decrease enemy ships number by 1 in game down to 1 on decreasing button press.
      */
     private void removeShip() {
-        if (shipsAmount > 1) {
+        if (shipsAmount > MIN_SHIPS_AMOUNT) {
             ImageView img = shipImages.peekLast();
             shipImages.removeLast();
             this.getChildren().remove(img);
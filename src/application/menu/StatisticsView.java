@@ -0,0 +1,95 @@
+package application.menu;
+
+import application.Assets;
+import application.Main;
+import application.game.MatchStatistics;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+
+/**
+ * Class used to replace center content in statistics option sub scene.
+ * Shows statistics of all finished matches read from match history: win rate, average duration
+ * and accuracy in all matches, and win rate and average duration for every amount of enemy ships.
+ */
+public class StatisticsView extends VBox {
+
+    private Label summaryLabel;
+    private GridPane enemyCountTable;
+
+    private final Font font = Assets.getFont(25);
+    private final Font tableFont = Assets.getFont(18);
+
+    /**
+     * Constructor creating and initializing content for "STATS" option sub scene.
+     */
+    StatisticsView() {
+        this.setAlignment(Pos.TOP_CENTER);
+        this.setSpacing(30);
+
+        summaryLabel = new Label();
+        summaryLabel.setFont(font);
+        summaryLabel.setPadding(new Insets(30, 30, 0, 30));
+
+        enemyCountTable = new GridPane();
+        enemyCountTable.setAlignment(Pos.CENTER);
+        enemyCountTable.setHgap(40);
+        enemyCountTable.setVgap(10);
+
+        this.getChildren().addAll(summaryLabel, enemyCountTable);
+        refresh();
+    }
+
+    /**
+     * Method used to read statistics from match history again, so matches finished since
+     * the sub scene was opened are shown.
+     */
+    void refresh() {
+        enemyCountTable.getChildren().clear();
+        if (Main.matchHistory == null || Main.matchHistory.size() == 0) {
+            summaryLabel.setText(Options.STATS.getContent());
+            return;
+        }
+        MatchStatistics statistics = Main.matchHistory.query();
+        summaryLabel.setText(String.format("Matches: %d   Won: %.0f%%\nAverage duration: %s   Accuracy: %.0f%%",
+                statistics.getMatchesCount(), statistics.getWinRate() * 100,
+                formatDuration(statistics.getAverageDuration()), statistics.getAccuracy() * 100));
+
+        addRow(0, "Enemy ships", "Matches", "Won", "Average duration");
+        int row = 1;
+        for (int enemyCount = 1; enemyCount <= statistics.getMaxEnemyCount(); enemyCount++) {
+            if (statistics.getMatchesCount(enemyCount) == 0) continue;
+            addRow(row++, Integer.toString(enemyCount), Long.toString(statistics.getMatchesCount(enemyCount)),
+                    String.format("%.0f%%", statistics.getWinRate(enemyCount) * 100),
+                    formatDuration(statistics.getAverageDuration(enemyCount)));
+        }
+    }
+
+    /**
+     * This method adds a row of labels to the table of statistics by amount of enemy ships.
+     *
+     * @param row   index of a row
+     * @param cells texts of cells in a row
+     */
+    private void addRow(int row, String... cells) {
+        for (int column = 0; column < cells.length; column++) {
+            Label label = new Label(cells[column]);
+            label.setFont(tableFont);
+            enemyCountTable.add(label, column, row);
+        }
+    }
+
+    /**
+     * This method formats a duration as minutes and seconds.
+     *
+     * @param seconds duration in seconds
+     * @return formatted duration
+     */
+    private static String formatDuration(double seconds) {
+        long rounded = Math.round(seconds);
+        return String.format("%d:%02d", rounded / 60, rounded % 60);
+    }
+}